@@ -0,0 +1,99 @@
+package com.ev.warranty.benchmark;
+
+import com.ev.warranty.mapper.ClaimMapper;
+import com.ev.warranty.model.dto.claim.ClaimResponseDto;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimAttachment;
+import com.ev.warranty.model.entity.ClaimRepairConfiguration;
+import com.ev.warranty.model.entity.ClaimStatusHistory;
+import com.ev.warranty.model.entity.ClaimWarrantyEligibility;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.WorkOrder;
+import com.ev.warranty.repository.ClaimAttachmentRepository;
+import com.ev.warranty.repository.ClaimStatusHistoryRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.WorkOrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClaimMapper.toResponseDto cho một claim "đầy đủ": có work order, 3 attachment, 6 dòng status history,
+ * lý do auto-check và service catalog items dạng JSON. Repository trả dữ liệu có sẵn nên chỉ đo phần map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClaimMapperBenchmark {
+
+    ClaimMapper mapper;
+    Claim claim;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        claim = SyntheticClaims.claims(1, SyntheticClaims.vehicles(1, 42), 7).getFirst();
+        claim.setWarrantyEligibility(ClaimWarrantyEligibility.builder().claim(claim)
+                .autoWarrantyEligible(true)
+                .autoWarrantyReasons("[\"Within warranty by date\",\"Within warranty by mileage\"]")
+                .autoWarrantyCheckedAt(LocalDateTime.now()).autoWarrantyAppliedYears(5).autoWarrantyAppliedKm(150000)
+                .build());
+        claim.setRepairConfiguration(ClaimRepairConfiguration.builder().claim(claim).repairType("SC_REPAIR")
+                .customerPaymentStatus("PENDING")
+                .serviceCatalogItems("[{\"serviceItemId\":1,\"serviceItemCode\":\"SV-BAT-01\",\"serviceItemName\":\"Battery check\","
+                        + "\"unitPrice\":350000,\"quantity\":1,\"totalPrice\":350000},"
+                        + "{\"serviceItemId\":2,\"serviceItemCode\":\"SV-MOT-02\",\"serviceItemName\":\"Motor inspection\","
+                        + "\"unitPrice\":500000,\"quantity\":2,\"totalPrice\":1000000}]")
+                .build());
+
+        User technician = User.builder().id(7).username("sc_tech_01").fullName("Technician").build();
+        List<WorkOrder> workOrders = List.of(WorkOrder.builder().id(1).claim(claim).technician(technician)
+                .testResults("Cell voltage imbalance on module 3").repairNotes("Replaced module 3")
+                .laborHours(new BigDecimal("2.5")).build());
+        List<ClaimAttachment> attachments = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            attachments.add(ClaimAttachment.builder().id(i + 1).claimId(claim.getId())
+                    .fileName("photo-" + i + ".jpg").filePath("uploads/attachments/photo-" + i + ".jpg")
+                    .fileType("image").contentType("image/jpeg").fileSize(250_000L)
+                    .uploadedBy(technician.getUsername()).uploadDate(LocalDateTime.now().minusHours(i)).build());
+        }
+        List<ClaimStatusHistory> history = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            history.add(ClaimStatusHistory.builder().id(i + 1).claim(claim).status(claim.getStatus())
+                    .changedBy(claim.getCreatedBy()).changedAt(LocalDateTime.now().minusHours(6 - i))
+                    .note("Step " + i).build());
+        }
+
+        mapper = new ClaimMapper(
+                Stubs.of(ClaimAttachmentRepository.class)
+                        .on("findByClaimIdOrderByUploadDateDesc", args -> attachments).build(),
+                Stubs.of(ClaimStatusHistoryRepository.class)
+                        .on("findByClaimIdOrderByChangedAtDesc", args -> history).build(),
+                Stubs.of(UserRepository.class)
+                        .on("findByUsername", args -> Optional.of(technician)).build(),
+                Stubs.of(WorkOrderRepository.class)
+                        .on("findByClaimId", args -> workOrders).build());
+    }
+
+    @Benchmark
+    public ClaimResponseDto toResponseDto() {
+        return mapper.toResponseDto(claim);
+    }
+}
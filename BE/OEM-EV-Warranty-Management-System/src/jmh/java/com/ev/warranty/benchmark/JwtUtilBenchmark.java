@@ -0,0 +1,57 @@
+package com.ev.warranty.benchmark;
+
+import com.ev.warranty.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí JWT trên mỗi request: filter gọi validateToken rồi getUsernameFromToken cho cùng một token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    JwtUtil jwtUtil;
+    String token;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        // Cùng giá trị với application.properties
+        ReflectionTestUtils.setField(jwtUtil, "issuer", "GiaHuy");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationSec", 3600);
+        ReflectionTestUtils.setField(jwtUtil, "secret", "HyyNeverGonnaGiveYouUp");
+        token = jwtUtil.generateTokenFromUsername("sc_staff_01");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String authenticateRequest() {
+        return jwtUtil.validateToken(token) ? jwtUtil.getUsernameFromToken(token) : null;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateTokenFromUsername("sc_staff_01");
+    }
+}
@@ -0,0 +1,89 @@
+package com.ev.warranty.benchmark;
+
+import com.ev.warranty.model.dto.catalog.ServiceEstimateItemDTO;
+import com.ev.warranty.model.dto.catalog.ServiceEstimateRequestDTO;
+import com.ev.warranty.model.dto.catalog.ServiceEstimateResponseDTO;
+import com.ev.warranty.model.entity.CatalogPrice;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.ServiceItem;
+import com.ev.warranty.repository.CatalogPriceRepository;
+import com.ev.warranty.repository.PartRepository;
+import com.ev.warranty.repository.ServiceCenterRepository;
+import com.ev.warranty.repository.ServiceItemRepository;
+import com.ev.warranty.repository.ThirdPartyPartRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.service.impl.ServiceCatalogServiceImpl;
+import com.ev.warranty.service.inter.ThirdPartyPartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Báo giá sửa chữa 10 phụ tùng + 5 dịch vụ. Request truyền sẵn region và serviceCenterId
+ * để không đi vào nhánh đọc SecurityContext / service center.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceEstimateBenchmark {
+
+    ServiceCatalogServiceImpl service;
+    ServiceEstimateRequestDTO request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CatalogPriceRepository catalogPriceRepository = Stubs.of(CatalogPriceRepository.class)
+                .on("findCurrentEffectivePrice", args -> Optional.of(CatalogPrice.builder()
+                        .itemType((String) args[0]).itemId((Integer) args[1])
+                        .price(BigDecimal.valueOf(150_000L + (Integer) args[1] * 1_000L)).build()))
+                .build();
+        PartRepository partRepository = Stubs.of(PartRepository.class)
+                .on("findById", args -> Optional.of(Part.builder().id((Integer) args[0])
+                        .partNumber("P-" + args[0]).name("Part " + args[0]).build()))
+                .build();
+        ServiceItemRepository serviceItemRepository = Stubs.of(ServiceItemRepository.class)
+                .on("findById", args -> Optional.of(ServiceItem.builder().id((Integer) args[0])
+                        .serviceCode("SV-" + args[0]).name("Service " + args[0])
+                        .standardLaborHours(new BigDecimal("1.5")).build()))
+                .build();
+
+        service = new ServiceCatalogServiceImpl(serviceItemRepository, catalogPriceRepository, partRepository,
+                Stubs.of(ThirdPartyPartRepository.class).build(), Stubs.of(UserRepository.class).build(),
+                Stubs.of(ServiceCenterRepository.class).build(), Stubs.of(ThirdPartyPartService.class).build());
+
+        List<ServiceEstimateItemDTO> parts = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            parts.add(ServiceEstimateItemDTO.builder().itemId(i).quantity(1 + i % 3).build());
+        }
+        List<ServiceEstimateItemDTO> services = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            services.add(ServiceEstimateItemDTO.builder().itemId(i).quantity(1).build());
+        }
+        request = ServiceEstimateRequestDTO.builder()
+                .partItems(parts).serviceItems(services)
+                .region("NORTH").serviceCenterId(1).currency("VND")
+                .build();
+    }
+
+    @Benchmark
+    public ServiceEstimateResponseDTO calculateServiceEstimate() {
+        return service.calculateServiceEstimate(request);
+    }
+}
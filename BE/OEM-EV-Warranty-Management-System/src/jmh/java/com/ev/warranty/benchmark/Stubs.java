@@ -0,0 +1,51 @@
+package com.ev.warranty.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repository giả bằng java.lang.reflect.Proxy cho benchmark.
+ * Không dùng Mockito: chi phí ghi nhận invocation/matcher của mock sẽ lẫn vào số đo của code thật.
+ * Method chưa khai báo ném UnsupportedOperationException để benchmark không âm thầm đo sai đường đi.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    static <T> Builder<T> of(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    static final class Builder<T> {
+        private final Class<T> type;
+        private final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        Builder<T> on(String method, Function<Object[], Object> answer) {
+            answers.put(method, answer);
+            return this;
+        }
+
+        T build() {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+                Function<Object[], Object> answer = answers.get(method.getName());
+                if (answer != null) {
+                    return answer.apply(args);
+                }
+                return switch (method.getName()) {
+                    case "toString" -> "Stub<" + type.getSimpleName() + ">";
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                };
+            });
+            return type.cast(proxy);
+        }
+    }
+}
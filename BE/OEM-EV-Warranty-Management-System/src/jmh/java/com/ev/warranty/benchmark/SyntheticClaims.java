@@ -0,0 +1,98 @@
+package com.ev.warranty.benchmark;
+
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimApproval;
+import com.ev.warranty.model.entity.ClaimCost;
+import com.ev.warranty.model.entity.ClaimDiagnostic;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.model.entity.VehicleModel;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Sinh dữ liệu claim/vehicle giả (seed cố định) cho các benchmark: cùng tham số luôn ra cùng bộ dữ liệu.
+ */
+final class SyntheticClaims {
+
+    static final String[] MODELS = {"VF e34", "VF 5", "VF 6", "VF 7", "VF 8", "VF 9"};
+    static final String[] FAILURES = {
+            "Battery pack not charging above 80%", "Motor noise at high speed", "Infotainment screen freeze",
+            "Brake regen warning light", "Charging port latch broken", "Thermal management fault", "Door sensor"};
+    static final String[] STATUSES = {"OPEN", "PENDING_EVM_APPROVAL", "EVM_APPROVED", "EVM_REJECTED", "COMPLETED"};
+
+    private SyntheticClaims() {
+    }
+
+    static List<Vehicle> vehicles(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate today = LocalDate.now();
+        List<Vehicle> vehicles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int modelIndex = random.nextInt(MODELS.length);
+            LocalDate start = today.minusDays(random.nextInt(6 * 365));
+            vehicles.add(Vehicle.builder()
+                    .id(i + 1)
+                    .vin(String.format("LVSHB%012d", i))
+                    .model(MODELS[modelIndex])
+                    .vehicleModel(VehicleModel.builder().id(modelIndex + 1).code("M" + modelIndex).name(MODELS[modelIndex]).build())
+                    .year(start.getYear())
+                    .customer(Customer.builder().id(i / 2 + 1).name("Customer " + (i / 2)).build())
+                    .warrantyStart(start)
+                    .warrantyEnd(start.plusYears(3 + random.nextInt(3)))
+                    .mileageKm(random.nextInt(250_000))
+                    .build());
+        }
+        return vehicles;
+    }
+
+    static List<Claim> claims(int count, List<Vehicle> vehicles, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime now = LocalDateTime.now();
+        List<ClaimStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < STATUSES.length; i++) {
+            statuses.add(ClaimStatus.builder().id(i + 1).code(STATUSES[i]).label(STATUSES[i]).build());
+        }
+        List<User> staff = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            staff.add(User.builder().id(i + 1).username("sc_staff_" + i).fullName("Staff " + i).build());
+        }
+        User evm = User.builder().id(100).username("evm_staff").fullName("EVM Staff").build();
+
+        List<Claim> claims = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Vehicle vehicle = vehicles.get(random.nextInt(vehicles.size()));
+            ClaimStatus status = statuses.get(random.nextInt(statuses.size()));
+            LocalDateTime createdAt = now.minusMinutes(random.nextInt(365 * 24 * 60));
+            BigDecimal warrantyCost = BigDecimal.valueOf(random.nextInt(500, 60_000) * 1000L);
+
+            Claim claim = Claim.builder()
+                    .id(i + 1)
+                    .claimNumber(String.format("CLM-%08d", i))
+                    .vehicle(vehicle)
+                    .customer(vehicle.getCustomer())
+                    .createdBy(staff.get(random.nextInt(staff.size())))
+                    .status(status)
+                    .createdAt(createdAt)
+                    .build();
+            claim.setDiagnostic(ClaimDiagnostic.builder().claim(claim)
+                    .reportedFailure(FAILURES[random.nextInt(FAILURES.length)])
+                    .initialDiagnosis("Initial diagnosis " + i).build());
+            claim.setCost(ClaimCost.builder().claim(claim).warrantyCost(warrantyCost)
+                    .companyPaidCost(warrantyCost).totalEstimatedCost(warrantyCost).build());
+            if ("EVM_APPROVED".equals(status.getCode()) || "COMPLETED".equals(status.getCode())) {
+                claim.setApproval(ClaimApproval.builder().claim(claim).approvedBy(evm)
+                        .approvedAt(createdAt.plusDays(random.nextInt(1, 10))).build());
+            }
+            claims.add(claim);
+        }
+        return claims;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ev.warranty.benchmark;
+
+import com.ev.warranty.util.VNPayUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ký và kiểm tra chữ ký VNPay với bộ tham số giống một lần tạo URL thanh toán / nhận return URL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VNPayUtilsBenchmark {
+
+    static final String SECRET = "BENCHMARKSECRETKEY0123456789ABCD";
+
+    Map<String, String> params;
+    SortedMap<String, String> sorted;
+    String queryString;
+    Map<String, String> returnParams;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        params = new HashMap<>();
+        params.put("vnp_Version", "2.1.0");
+        params.put("vnp_Command", "pay");
+        params.put("vnp_TmnCode", "BENCH001");
+        params.put("vnp_Amount", "1250000000");
+        params.put("vnp_CurrCode", "VND");
+        params.put("vnp_TxnRef", "CLM-00001234-1729300000000");
+        params.put("vnp_OrderInfo", "Thanh toan sua chua ngoai bao hanh claim CLM-00001234");
+        params.put("vnp_OrderType", "other");
+        params.put("vnp_Locale", "vn");
+        params.put("vnp_ReturnUrl", "https://warranty.example.com/api/payments/vnpay/return");
+        params.put("vnp_IpAddr", "203.113.10.25");
+        params.put("vnp_CreateDate", "20261019103000");
+        params.put("vnp_ExpireDate", "20261019104500");
+
+        sorted = VNPayUtils.sortAndFilter(params);
+        queryString = VNPayUtils.buildQueryString(sorted);
+
+        returnParams = new HashMap<>(params);
+        returnParams.put("vnp_ResponseCode", "00");
+        returnParams.put("vnp_TransactionNo", "14567890");
+        returnParams.put("vnp_SecureHashType", "HmacSHA512");
+        returnParams.put("vnp_SecureHash", VNPayUtils.hmacSHA512(SECRET,
+                VNPayUtils.buildQueryString(VNPayUtils.sortAndFilter(returnParams))));
+    }
+
+    @Benchmark
+    public String hmacSHA512() {
+        return VNPayUtils.hmacSHA512(SECRET, queryString);
+    }
+
+    @Benchmark
+    public String buildQueryString() {
+        return VNPayUtils.buildQueryString(sorted);
+    }
+
+    @Benchmark
+    public String signPaymentUrl() {
+        String query = VNPayUtils.buildQueryString(VNPayUtils.sortAndFilter(params));
+        return query + "&vnp_SecureHash=" + VNPayUtils.hmacSHA512(SECRET, query);
+    }
+
+    @Benchmark
+    public boolean verifySignature() {
+        return VNPayUtils.verifySignature(returnParams, SECRET);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ev.warranty.benchmark;
+
+import com.ev.warranty.mapper.EVMWarrantyCostReportMapper;
+import com.ev.warranty.model.dto.cost.WarrantyCostReportRequestDTO;
+import com.ev.warranty.model.dto.cost.WarrantyCostReportResponseDTO;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.repository.VehicleRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Báo cáo chi phí bảo hành EVM dựng hoàn toàn trong bộ nhớ từ danh sách claim (mặc định 100k).
+ * VehicleRepository.count()/findAll() trả về fleet giả có sẵn: chỉ đo phần group/aggregate của mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WarrantyCostReportBenchmark {
+
+    @Param({"100000"})
+    int claimCount;
+
+    @Param({"20000"})
+    int vehicleCount;
+
+    EVMWarrantyCostReportMapper mapper;
+    List<Claim> periodClaims;
+    List<Claim> previousPeriodClaims;
+    WarrantyCostReportRequestDTO request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Vehicle> vehicles = SyntheticClaims.vehicles(vehicleCount, 42);
+        periodClaims = SyntheticClaims.claims(claimCount, vehicles, 7);
+        previousPeriodClaims = SyntheticClaims.claims(claimCount / 2, vehicles, 11);
+
+        VehicleRepository vehicleRepository = Stubs.of(VehicleRepository.class)
+                .on("count", args -> (long) vehicles.size())
+                .on("findAll", args -> vehicles)
+                .build();
+        mapper = new EVMWarrantyCostReportMapper(vehicleRepository);
+
+        request = new WarrantyCostReportRequestDTO();
+        request.setReportStartDate(LocalDate.now().minusYears(1));
+        request.setReportEndDate(LocalDate.now());
+        request.setGroupBy("MONTH");
+        request.setIncludePreviousPeriod(true);
+        request.setComparisonType("YOY");
+    }
+
+    @Benchmark
+    public WarrantyCostReportResponseDTO mapToCompleteReport() {
+        return mapper.mapToCompleteReport(periodClaims, request, "evm_staff", previousPeriodClaims);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ev.warranty.benchmark;
+
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.model.entity.WarrantyCondition;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.VehicleModelRepository;
+import com.ev.warranty.repository.VehicleRepository;
+import com.ev.warranty.repository.WarrantyConditionRepository;
+import com.ev.warranty.service.impl.WarrantyEligibilityServiceImpl;
+import com.ev.warranty.service.inter.WarrantyEligibilityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * evaluate() của WarrantyEligibilityServiceImpl qua checkByVehicleId, repository trả dữ liệu có sẵn.
+ * Xoay vòng 1024 xe để có đủ các nhánh: còn hạn theo ngày, theo km, hết hạn cả hai.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarrantyEligibilityBenchmark {
+
+    static final int VEHICLES = 1024;
+
+    WarrantyEligibilityService service;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Vehicle> vehicles = SyntheticClaims.vehicles(VEHICLES, 42);
+        // Một nửa không có warrantyEnd để đi nhánh tính hạn từ coverageYears
+        for (int i = 0; i < vehicles.size(); i += 2) {
+            vehicles.get(i).setWarrantyEnd(null);
+        }
+        List<WarrantyCondition> conditions = List.of(WarrantyCondition.builder()
+                .id(1).coverageYears(5).coverageKm(150_000)
+                .effectiveFrom(LocalDate.now().minusYears(10)).active(true).build());
+
+        VehicleRepository vehicleRepository = Stubs.of(VehicleRepository.class)
+                .on("findById", args -> Optional.of(vehicles.get((Integer) args[0] - 1)))
+                .build();
+        WarrantyConditionRepository warrantyConditionRepository = Stubs.of(WarrantyConditionRepository.class)
+                .on("findEffectiveByModel", args -> conditions)
+                .build();
+        service = new WarrantyEligibilityServiceImpl(vehicleRepository, Stubs.of(ClaimRepository.class).build(),
+                Stubs.of(VehicleModelRepository.class).build(), warrantyConditionRepository);
+    }
+
+    @Benchmark
+    public WarrantyEligibilityService.Result checkByVehicleId() {
+        int vehicleId = (next++ & (VEHICLES - 1)) + 1;
+        return service.checkByVehicleId(vehicleId);
+    }
+}
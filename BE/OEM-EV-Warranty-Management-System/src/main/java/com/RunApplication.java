@@ -8,6 +8,22 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import com.ev.warranty.ai.config.GeminiProperties;
+import com.ev.warranty.config.AppointmentCapacityProperties;
+import com.ev.warranty.config.BulkheadProperties;
+import com.ev.warranty.config.ClaimArchiveProperties;
+import com.ev.warranty.config.ClaimOutboxProperties;
+import com.ev.warranty.config.DataGeneratorProperties;
+import com.ev.warranty.config.ExportProperties;
+import com.ev.warranty.config.HttpCacheProperties;
+import com.ev.warranty.config.IdempotencyProperties;
+import com.ev.warranty.config.JobSchedulerProperties;
+import com.ev.warranty.config.LiveUpdateProperties;
+import com.ev.warranty.config.PaymentProperties;
+import com.ev.warranty.config.ReferenceDataProperties;
+import com.ev.warranty.config.ReplicaDataSourceProperties;
+import com.ev.warranty.config.SearchIndexProperties;
+import com.ev.warranty.config.ShipmentTrackingProperties;
+import com.ev.warranty.config.SqlInstrumentationProperties;
 import com.ev.warranty.config.VNPayProperties;
 
 import javax.sql.DataSource;
@@ -15,7 +31,12 @@ import java.sql.Connection;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {"com", "com.ev.warranty"})
-@EnableConfigurationProperties({GeminiProperties.class, VNPayProperties.class})
+@EnableConfigurationProperties({GeminiProperties.class, VNPayProperties.class, AppointmentCapacityProperties.class,
+        JobSchedulerProperties.class, SearchIndexProperties.class, ReferenceDataProperties.class,
+        SqlInstrumentationProperties.class, DataGeneratorProperties.class, ClaimOutboxProperties.class,
+        ReplicaDataSourceProperties.class, BulkheadProperties.class, LiveUpdateProperties.class,
+        ShipmentTrackingProperties.class, HttpCacheProperties.class, ClaimArchiveProperties.class,
+        IdempotencyProperties.class, PaymentProperties.class, ExportProperties.class})
 public class RunApplication {
 
     @Autowired
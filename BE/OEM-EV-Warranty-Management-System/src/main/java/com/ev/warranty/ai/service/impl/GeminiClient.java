@@ -1,6 +1,8 @@
 package com.ev.warranty.ai.service.impl;
 
 import com.ev.warranty.ai.config.GeminiProperties;
+import com.ev.warranty.bulkhead.Bulkhead;
+import com.ev.warranty.bulkhead.BulkheadRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
@@ -16,6 +18,7 @@ import java.util.Map;
 public class GeminiClient {
     private final GeminiProperties properties;
     private final RestTemplate restTemplate;
+    private final BulkheadRegistry bulkheadRegistry;
 
     // Minimal JSON shape for Gemini generateContent
     public String generateContent(String prompt) {
@@ -34,6 +37,8 @@ public class GeminiClient {
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
 
         HttpEntity<String> entity = new HttpEntity<>(body, headers);
+        // Hết permit -> BulkheadFullException (503) lan ra ngoài, không nuốt thành null như lỗi gọi API
+        Bulkhead.Permit permit = bulkheadRegistry.get("gemini").acquire();
         try {
             ResponseEntity<Map<String, Object>> response = restTemplate.exchange(url, HttpMethod.POST, entity, (Class<Map<String, Object>>)(Class<?>)Map.class);
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
@@ -59,6 +64,8 @@ public class GeminiClient {
             log.warn("Gemini unexpected response: {}", response);
         } catch (Exception ex) {
             log.error("Gemini call failed", ex);
+        } finally {
+            permit.close();
         }
         return null;
     }
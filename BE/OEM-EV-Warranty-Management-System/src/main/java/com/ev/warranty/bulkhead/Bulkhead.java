@@ -0,0 +1,94 @@
+package com.ev.warranty.bulkhead;
+
+import com.ev.warranty.exception.BulkheadFullException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Giới hạn số lời gọi đồng thời vào một tài nguyên. Request chạy trên virtual thread nên chờ permit rất rẻ,
+ * nhưng chỉ chờ tối đa queueTimeout rồi báo BulkheadFullException (503) thay vì xếp hàng vô hạn.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration queueTimeout;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, Duration queueTimeout) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.queueTimeout = queueTimeout;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /** Dùng với try-with-resources; close() trả permit (gọi nhiều lần cũng chỉ trả một lần). */
+    public Permit acquire() {
+        boolean granted;
+        waiting.incrementAndGet();
+        try {
+            granted = permits.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            granted = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!granted) {
+            rejected.increment();
+            throw new BulkheadFullException(name, "Service busy (" + name + "), please retry shortly");
+        }
+        acquired.increment();
+        return new Permit();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public Duration getQueueTimeout() {
+        return queueTimeout;
+    }
+
+    public int getInUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getAcquired() {
+        return acquired.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public final class Permit implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ev.warranty.bulkhead;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Mỗi connection đang mở giữ một permit của bulkhead "database" cho đến khi close().
+ * Pool vẫn là Hikari; bulkhead chỉ chặn trước để request dư bị 503 sau queue timeout ngắn
+ * thay vì cả nghìn virtual thread cùng chờ connectionTimeout của pool.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Bulkhead bulkhead;
+
+    public BulkheadDataSource(DataSource target, Bulkhead bulkhead) {
+        super(target);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkhead.Permit permit = bulkhead.acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Bulkhead.Permit permit = bulkhead.acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(username, password), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    private static Connection guard(Connection connection, Bulkhead.Permit permit) {
+        return (Connection) Proxy.newProxyInstance(BulkheadDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName())) {
+                            permit.close();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,43 @@
+package com.ev.warranty.bulkhead;
+
+import com.ev.warranty.config.BulkheadProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Request khớp app.bulkhead.limits.<tên>.paths giữ permit của bulkhead đó suốt request (ví dụ "reports", "exports").
+ * Permit được lấy trước controller, tức là trước khi transaction giữ connection database.
+ */
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final BulkheadProperties properties;
+    private final BulkheadRegistry registry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public BulkheadInterceptor(BulkheadProperties properties, BulkheadRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String uri = request.getRequestURI();
+        properties.getLimits().entrySet().stream()
+                .filter(entry -> entry.getValue().getPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, uri)))
+                .findFirst()
+                .ifPresent(entry -> request.setAttribute(PERMIT_ATTRIBUTE, registry.get(entry.getKey()).acquire()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Bulkhead.Permit permit) {
+            permit.close();
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+        }
+    }
+}
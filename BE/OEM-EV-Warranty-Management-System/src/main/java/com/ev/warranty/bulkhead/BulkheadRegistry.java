@@ -0,0 +1,66 @@
+package com.ev.warranty.bulkhead;
+
+import com.ev.warranty.config.BulkheadProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bulkhead theo tên (database, gemini, filesystem, reports...), giới hạn lấy từ app.bulkhead.limits.<tên>.
+ * Mỗi bulkhead publish bulkhead.in_use / bulkhead.waiting / bulkhead.max_concurrent và bulkhead.calls theo tag name.
+ */
+@Component
+public class BulkheadRegistry {
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Bulkhead get(String name) {
+        return bulkheads.computeIfAbsent(name, this::create);
+    }
+
+    public List<BulkheadView> snapshot() {
+        properties.getLimits().keySet().forEach(this::get);
+        return bulkheads.values().stream()
+                .map(BulkheadView::of)
+                .sorted(Comparator.comparingDouble(BulkheadView::saturation).reversed())
+                .toList();
+    }
+
+    private Bulkhead create(String name) {
+        BulkheadProperties.Limit limit = properties.limitFor(name);
+        Bulkhead bulkhead = new Bulkhead(name, limit.getMaxConcurrent(), Duration.ofMillis(limit.getQueueTimeoutMillis()));
+        Gauge.builder("bulkhead.in_use", bulkhead, Bulkhead::getInUse).tag("name", name).register(meterRegistry);
+        Gauge.builder("bulkhead.waiting", bulkhead, Bulkhead::getWaiting).tag("name", name).register(meterRegistry);
+        Gauge.builder("bulkhead.max_concurrent", bulkhead, Bulkhead::getMaxConcurrent).tag("name", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("bulkhead.calls", bulkhead, Bulkhead::getAcquired)
+                .tags("name", name, "outcome", "acquired").register(meterRegistry);
+        FunctionCounter.builder("bulkhead.calls", bulkhead, Bulkhead::getRejected)
+                .tags("name", name, "outcome", "rejected").register(meterRegistry);
+        return bulkhead;
+    }
+
+    public record BulkheadView(String name, int maxConcurrent, int inUse, int waiting, double saturation,
+                               long acquired, long rejected, long queueTimeoutMillis) {
+        static BulkheadView of(Bulkhead bulkhead) {
+            int inUse = bulkhead.getInUse();
+            double saturation = bulkhead.getMaxConcurrent() > 0 ? (double) inUse / bulkhead.getMaxConcurrent() : 1.0;
+            return new BulkheadView(bulkhead.getName(), bulkhead.getMaxConcurrent(), inUse, bulkhead.getWaiting(),
+                    saturation, bulkhead.getAcquired(), bulkhead.getRejected(), bulkhead.getQueueTimeout().toMillis());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ev.warranty.bulkhead;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/bulkheads: permit đang dùng / đang chờ / bị từ chối của từng bulkhead, bão hòa nhất trước.
+ */
+@Component
+@Endpoint(id = "bulkheads")
+public class BulkheadsEndpoint {
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadsEndpoint(BulkheadRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public List<BulkheadRegistry.BulkheadView> bulkheads() {
+        return registry.snapshot();
+    }
+}
@@ -0,0 +1,82 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "appointment.capacity")
+public class AppointmentCapacityProperties {
+    private int slotMinutes = 60;
+    private int defaultBays = 2;
+    // Working hours: slots are generated from openHour to closeHour on workingDays only
+    private int openHour = 8;
+    private int closeHour = 18;
+    private Set<DayOfWeek> workingDays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+    private int horizonDays = 92;
+    // Bay count override per service center id, e.g. appointment.capacity.center-bays.1=4
+    private Map<Integer, Integer> centerBays = new HashMap<>();
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public void setSlotMinutes(int slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+
+    public int getDefaultBays() {
+        return defaultBays;
+    }
+
+    public void setDefaultBays(int defaultBays) {
+        this.defaultBays = defaultBays;
+    }
+
+    public int getOpenHour() {
+        return openHour;
+    }
+
+    public void setOpenHour(int openHour) {
+        this.openHour = openHour;
+    }
+
+    public int getCloseHour() {
+        return closeHour;
+    }
+
+    public void setCloseHour(int closeHour) {
+        this.closeHour = closeHour;
+    }
+
+    public Set<DayOfWeek> getWorkingDays() {
+        return workingDays;
+    }
+
+    public void setWorkingDays(Set<DayOfWeek> workingDays) {
+        this.workingDays = workingDays;
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    public void setHorizonDays(int horizonDays) {
+        this.horizonDays = horizonDays;
+    }
+
+    public Map<Integer, Integer> getCenterBays() {
+        return centerBays;
+    }
+
+    public void setCenterBays(Map<Integer, Integer> centerBays) {
+        this.centerBays = centerBays;
+    }
+
+    public int baysFor(Integer serviceCenterId) {
+        return centerBays.getOrDefault(serviceCenterId, defaultBays);
+    }
+}
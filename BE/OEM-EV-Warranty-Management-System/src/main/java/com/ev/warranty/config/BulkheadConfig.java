@@ -0,0 +1,57 @@
+package com.ev.warranty.config;
+
+import com.ev.warranty.bulkhead.BulkheadDataSource;
+import com.ev.warranty.bulkhead.BulkheadInterceptor;
+import com.ev.warranty.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Request chạy trên virtual thread (spring.threads.virtual.enabled) nên số request đồng thời không còn bị
+// giới hạn bởi thread pool của Tomcat; giới hạn nằm ở từng tài nguyên (database, database-replica, gemini, filesystem, reports)
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadProperties properties;
+    private final BulkheadRegistry registry;
+
+    public BulkheadConfig(BulkheadProperties properties, BulkheadRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    // Bọc từng pool vật lý bằng bulkhead riêng: primary -> "database", replica -> "database-replica".
+    // Khi bật replica, bean "dataSource" chỉ là proxy định tuyến tới hai pool đã bọc nên không bọc thêm,
+    // để đọc trên replica không chiếm permit của primary.
+    private static final Map<String, String> POOL_BULKHEADS = Map.of(
+            "dataSource", "database",
+            "primaryDataSource", "database",
+            "replicaDataSource", "database-replica");
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(ObjectProvider<BulkheadRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                String bulkhead = POOL_BULKHEADS.get(beanName);
+                if (bulkhead != null && bean instanceof DataSource dataSource
+                        && !(bean instanceof BulkheadDataSource) && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    return new BulkheadDataSource(dataSource, registry.getObject().get(bulkhead));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(properties, this.registry));
+    }
+}
@@ -0,0 +1,90 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+    // Sent as Retry-After on 503 when a bulkhead rejects a request
+    private int retryAfterSeconds = 1;
+    // Per resource: database, database-replica, gemini, filesystem, reports, exports (unknown names fall back to Limit defaults)
+    private Map<String, Limit> limits = new LinkedHashMap<>(Map.of(
+            "database", new Limit(10, 1000),
+            "database-replica", new Limit(10, 1000),
+            "gemini", new Limit(4, 200),
+            "filesystem", new Limit(16, 500),
+            "reports", new Limit(2, 100, List.of(
+                    "/api/evm/reports/**", "/api/evm/parts/failure-statistics/**", "/api/evm/parts/failure-stats")),
+            // Exports stream for minutes, so they get their own permits instead of starving "reports"
+            "exports", new Limit(2, 100, List.of("/api/evm/claims/export"))));
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Map<String, Limit> getLimits() {
+        return limits;
+    }
+
+    public void setLimits(Map<String, Limit> limits) {
+        this.limits = limits;
+    }
+
+    public Limit limitFor(String name) {
+        Limit limit = limits.get(name);
+        return limit != null ? limit : new Limit();
+    }
+
+    public static class Limit {
+        // Calls running at the same time; the rest wait up to queueTimeoutMillis, then get 503
+        private int maxConcurrent = 10;
+        private long queueTimeoutMillis = 500;
+        // Whole requests on these paths hold a permit (for work that is not a single call, e.g. report generation)
+        private List<String> paths = new ArrayList<>();
+
+        public Limit() {
+        }
+
+        Limit(int maxConcurrent, long queueTimeoutMillis) {
+            this(maxConcurrent, queueTimeoutMillis, List.of());
+        }
+
+        Limit(int maxConcurrent, long queueTimeoutMillis, List<String> paths) {
+            this.maxConcurrent = maxConcurrent;
+            this.queueTimeoutMillis = queueTimeoutMillis;
+            this.paths = new ArrayList<>(paths);
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public long getQueueTimeoutMillis() {
+            return queueTimeoutMillis;
+        }
+
+        public void setQueueTimeoutMillis(long queueTimeoutMillis) {
+            this.queueTimeoutMillis = queueTimeoutMillis;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.claims.archive")
+public class ClaimArchiveProperties {
+    // Nightly job on/off; POST /api/claim-archive/run still works when off
+    private boolean enabled = true;
+    // A claim is archived this many months after its last update in a final status
+    private int retentionMonths = 24;
+    // Claims moved per transaction (snapshot + deletes); keeps locks and undo log small
+    private int chunkSize = 200;
+    // Upper bound per run so the nightly window stays predictable; the rest goes next night
+    private int maxClaimsPerRun = 20000;
+    // Final statuses eligible for archival
+    private List<String> statuses = new ArrayList<>(List.of("CLOSED", "CANCELLED", "CANCELED_DONE"));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRetentionMonths() {
+        return retentionMonths;
+    }
+
+    public void setRetentionMonths(int retentionMonths) {
+        this.retentionMonths = retentionMonths;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxClaimsPerRun() {
+        return maxClaimsPerRun;
+    }
+
+    public void setMaxClaimsPerRun(int maxClaimsPerRun) {
+        this.maxClaimsPerRun = maxClaimsPerRun;
+    }
+
+    public List<String> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(List<String> statuses) {
+        this.statuses = statuses;
+    }
+}
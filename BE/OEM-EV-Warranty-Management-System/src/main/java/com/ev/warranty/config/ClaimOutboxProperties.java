@@ -0,0 +1,84 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.outbox")
+public class ClaimOutboxProperties {
+    // Threads running claim side effects after commit
+    private int workerThreads = 4;
+    // Events beyond this wait in the table for the relay instead of in memory
+    private int queueCapacity = 1000;
+    private int maxAttempts = 8;
+    // Delay before the first retry; doubles on each further attempt
+    private int retryBackoffSeconds = 30;
+    // A PROCESSING row whose worker died is picked up again after this
+    private int processingTimeoutSeconds = 300;
+    private long relayIntervalMillis = 15_000;
+    private int relayBatchSize = 200;
+    // DONE rows are deleted after this many days
+    private int retentionDays = 7;
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int getRetryBackoffSeconds() {
+        return retryBackoffSeconds;
+    }
+
+    public void setRetryBackoffSeconds(int retryBackoffSeconds) {
+        this.retryBackoffSeconds = retryBackoffSeconds;
+    }
+
+    public int getProcessingTimeoutSeconds() {
+        return processingTimeoutSeconds;
+    }
+
+    public void setProcessingTimeoutSeconds(int processingTimeoutSeconds) {
+        this.processingTimeoutSeconds = processingTimeoutSeconds;
+    }
+
+    public long getRelayIntervalMillis() {
+        return relayIntervalMillis;
+    }
+
+    public void setRelayIntervalMillis(long relayIntervalMillis) {
+        this.relayIntervalMillis = relayIntervalMillis;
+    }
+
+    public int getRelayBatchSize() {
+        return relayBatchSize;
+    }
+
+    public void setRelayBatchSize(int relayBatchSize) {
+        this.relayBatchSize = relayBatchSize;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+
+@ConfigurationProperties(prefix = "app.datagen")
+public class DataGeneratorProperties {
+    // Generate synthetic data once at startup (after data.sql); never enable against a real database
+    private boolean enabled = false;
+    // Same seed + same scale + same starting data => same rows
+    private long seed = 42;
+    private int customers = 10_000;
+    // Expected claims per vehicle per year of age (Poisson); a few "lemon" vehicles get several times more
+    private double claimsPerVehicleYear = 0.25;
+    private int serialsPerPart = 200;
+    // Historical price versions per (item, region) before the prices already in the catalog
+    private int priceHistoryVersions = 4;
+    private int batchSize = 1000;
+    // "Today" for generated dates; pin it to keep data identical across days
+    private LocalDate anchorDate;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public void setCustomers(int customers) {
+        this.customers = customers;
+    }
+
+    public double getClaimsPerVehicleYear() {
+        return claimsPerVehicleYear;
+    }
+
+    public void setClaimsPerVehicleYear(double claimsPerVehicleYear) {
+        this.claimsPerVehicleYear = claimsPerVehicleYear;
+    }
+
+    public int getSerialsPerPart() {
+        return serialsPerPart;
+    }
+
+    public void setSerialsPerPart(int serialsPerPart) {
+        this.serialsPerPart = serialsPerPart;
+    }
+
+    public int getPriceHistoryVersions() {
+        return priceHistoryVersions;
+    }
+
+    public void setPriceHistoryVersions(int priceHistoryVersions) {
+        this.priceHistoryVersions = priceHistoryVersions;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public LocalDate getAnchorDate() {
+        return anchorDate;
+    }
+
+    public void setAnchorDate(LocalDate anchorDate) {
+        this.anchorDate = anchorDate;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.exports")
+public class ExportProperties {
+    // Rows the JDBC driver fetches per round trip from the export cursor
+    private int fetchSize = 1000;
+    // Written rows between explicit flushes to the client (also how soon a cancelled download is noticed)
+    private int flushEveryRows = 1000;
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getFlushEveryRows() {
+        return flushEveryRows;
+    }
+
+    public void setFlushEveryRows(int flushEveryRows) {
+        this.flushEveryRows = flushEveryRows;
+    }
+}
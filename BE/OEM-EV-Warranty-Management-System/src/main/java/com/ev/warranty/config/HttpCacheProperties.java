@@ -0,0 +1,37 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.http-cache")
+public class HttpCacheProperties {
+    // Table versions are re-read at most this often; writes on this node are visible immediately
+    private long versionRefreshMillis = 2000;
+    // Serialized list responses kept in memory (least recently used are dropped)
+    private int maxCachedResponses = 256;
+    // Larger bodies are served normally but not kept
+    private int maxCachedResponseBytes = 1024 * 1024;
+
+    public long getVersionRefreshMillis() {
+        return versionRefreshMillis;
+    }
+
+    public void setVersionRefreshMillis(long versionRefreshMillis) {
+        this.versionRefreshMillis = versionRefreshMillis;
+    }
+
+    public int getMaxCachedResponses() {
+        return maxCachedResponses;
+    }
+
+    public void setMaxCachedResponses(int maxCachedResponses) {
+        this.maxCachedResponses = maxCachedResponses;
+    }
+
+    public int getMaxCachedResponseBytes() {
+        return maxCachedResponseBytes;
+    }
+
+    public void setMaxCachedResponseBytes(int maxCachedResponseBytes) {
+        this.maxCachedResponseBytes = maxCachedResponseBytes;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ev.warranty.config;
+
+import com.ev.warranty.idempotency.IdempotencyFilter;
+import com.ev.warranty.idempotency.IdempotencyInterceptor;
+import com.ev.warranty.idempotency.IdempotencyStore;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Idempotency-Key cho các controller @Idempotent: filter giữ body, interceptor giành key / trả response đã lưu
+@Configuration
+public class IdempotencyConfig implements WebMvcConfigurer {
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+
+    public IdempotencyConfig(IdempotencyStore store, IdempotencyProperties properties) {
+        this.store = store;
+        this.properties = properties;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter() {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, properties));
+        registration.addUrlPatterns("/api/*");
+        // Sau Spring Security: request chưa xác thực không bị đọc body
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 100);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new IdempotencyInterceptor(store, properties)).addPathPatterns("/api/**");
+    }
+}
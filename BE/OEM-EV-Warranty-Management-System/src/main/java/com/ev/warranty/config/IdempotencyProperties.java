@@ -0,0 +1,77 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+    // Off = Idempotency-Key is ignored and every retry runs again
+    private boolean enabled = true;
+    // How long a stored response is replayed for the same key
+    private int ttlHours = 24;
+    // A duplicate arriving while the first request still runs waits this long for its response, then gets 409
+    private long waitTimeoutMillis = 30000;
+    // Re-read interval while waiting on a request that runs on another node
+    private long pollIntervalMillis = 200;
+    // An IN_PROGRESS key older than this is treated as abandoned (node died mid-request) and may run again
+    private int inProgressTimeoutSeconds = 120;
+    // Longer keys are rejected with 400
+    private int maxKeyLength = 100;
+    // Larger responses are not stored; the key is released so a retry runs again
+    private int maxResponseBytes = 1048576;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getTtlHours() {
+        return ttlHours;
+    }
+
+    public void setTtlHours(int ttlHours) {
+        this.ttlHours = ttlHours;
+    }
+
+    public long getWaitTimeoutMillis() {
+        return waitTimeoutMillis;
+    }
+
+    public void setWaitTimeoutMillis(long waitTimeoutMillis) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public int getInProgressTimeoutSeconds() {
+        return inProgressTimeoutSeconds;
+    }
+
+    public void setInProgressTimeoutSeconds(int inProgressTimeoutSeconds) {
+        this.inProgressTimeoutSeconds = inProgressTimeoutSeconds;
+    }
+
+    public int getMaxKeyLength() {
+        return maxKeyLength;
+    }
+
+    public void setMaxKeyLength(int maxKeyLength) {
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    public int getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    public void setMaxResponseBytes(int maxResponseBytes) {
+        this.maxResponseBytes = maxResponseBytes;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.UUID;
+
+@ConfigurationProperties(prefix = "app.jobs")
+public class JobSchedulerProperties {
+    private boolean enabled = true;
+    // Identifies this node in job_leases; defaults to host name + random suffix
+    private String nodeId;
+    private int leaseSeconds = 300;
+    // Running jobs extend their lease this often; must be well below leaseSeconds
+    private int leaseRenewSeconds = 60;
+    private int chunkSize = 200;
+    private int workerThreads = 8;
+    private int workerQueueCapacity = 1000;
+    // Nightly technician_daily_stats rebuild covers this many past days (changes are also applied after commit)
+    private int technicianStatsTrailingDays = 7;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getNodeId() {
+        if (nodeId == null || nodeId.isBlank()) {
+            String host = System.getenv().getOrDefault("HOSTNAME", "node");
+            nodeId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void setLeaseSeconds(int leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public int getLeaseRenewSeconds() {
+        return leaseRenewSeconds;
+    }
+
+    public void setLeaseRenewSeconds(int leaseRenewSeconds) {
+        this.leaseRenewSeconds = leaseRenewSeconds;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getWorkerQueueCapacity() {
+        return workerQueueCapacity;
+    }
+
+    public void setWorkerQueueCapacity(int workerQueueCapacity) {
+        this.workerQueueCapacity = workerQueueCapacity;
+    }
+
+    public int getTechnicianStatsTrailingDays() {
+        return technicianStatsTrailingDays;
+    }
+
+    public void setTechnicianStatsTrailingDays(int technicianStatsTrailingDays) {
+        this.technicianStatsTrailingDays = technicianStatsTrailingDays;
+    }
+}
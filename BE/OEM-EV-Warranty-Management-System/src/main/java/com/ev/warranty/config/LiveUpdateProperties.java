@@ -0,0 +1,107 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.live")
+public class LiveUpdateProperties {
+    // Deltas are coalesced per connection and flushed at most this often
+    private long flushIntervalMillis = 1000;
+    // Comment line sent to idle connections so proxies keep them open and dead clients are detected
+    private long heartbeatSeconds = 25;
+    // Stream is closed after this; EventSource reconnects on its own
+    private long emitterTimeoutMinutes = 30;
+    // New streams beyond this get 503 (keep below server.tomcat.max-connections)
+    private int maxConnections = 5000;
+    // Distinct pending deltas per connection; above this the client is told to resync instead
+    private int maxPendingPerConnection = 200;
+    // How often a node writes its queued changes to live_update_events and, with open streams, reads every node's rows
+    private long pollIntervalMillis = 500;
+    // Each poll re-reads this far back, for rows committed late or written by a node with a skewed clock
+    private long pollLookbackSeconds = 10;
+    // Above this many rows in one poll, every connection is told to resync instead
+    private int maxEventsPerPoll = 2000;
+    // live_update_events rows older than this are purged (must exceed poll-lookback-seconds)
+    private long eventRetentionMinutes = 10;
+    // Stream tickets from POST /api/live/ticket must be used within this many seconds (and only once)
+    private long ticketTtlSeconds = 30;
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public long getHeartbeatSeconds() {
+        return heartbeatSeconds;
+    }
+
+    public void setHeartbeatSeconds(long heartbeatSeconds) {
+        this.heartbeatSeconds = heartbeatSeconds;
+    }
+
+    public long getEmitterTimeoutMinutes() {
+        return emitterTimeoutMinutes;
+    }
+
+    public void setEmitterTimeoutMinutes(long emitterTimeoutMinutes) {
+        this.emitterTimeoutMinutes = emitterTimeoutMinutes;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxPendingPerConnection() {
+        return maxPendingPerConnection;
+    }
+
+    public void setMaxPendingPerConnection(int maxPendingPerConnection) {
+        this.maxPendingPerConnection = maxPendingPerConnection;
+    }
+
+    public long getTicketTtlSeconds() {
+        return ticketTtlSeconds;
+    }
+
+    public void setTicketTtlSeconds(long ticketTtlSeconds) {
+        this.ticketTtlSeconds = ticketTtlSeconds;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public long getPollLookbackSeconds() {
+        return pollLookbackSeconds;
+    }
+
+    public void setPollLookbackSeconds(long pollLookbackSeconds) {
+        this.pollLookbackSeconds = pollLookbackSeconds;
+    }
+
+    public int getMaxEventsPerPoll() {
+        return maxEventsPerPoll;
+    }
+
+    public void setMaxEventsPerPoll(int maxEventsPerPoll) {
+        this.maxEventsPerPoll = maxEventsPerPoll;
+    }
+
+    public long getEventRetentionMinutes() {
+        return eventRetentionMinutes;
+    }
+
+    public void setEventRetentionMinutes(long eventRetentionMinutes) {
+        this.eventRetentionMinutes = eventRetentionMinutes;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.payments")
+public class PaymentProperties {
+    // Validity of a VNPay payment URL (vnp_ExpireDate)
+    private int paymentUrlTtlMinutes = 15;
+    // PENDING transactions this long past their expiry are marked EXPIRED by reconciliation (late IPN margin)
+    private int expiryGraceMinutes = 30;
+    // Ledger entries matched against claims per reconciliation transaction
+    private int reconciliationChunkSize = 500;
+
+    public int getPaymentUrlTtlMinutes() {
+        return paymentUrlTtlMinutes;
+    }
+
+    public void setPaymentUrlTtlMinutes(int paymentUrlTtlMinutes) {
+        this.paymentUrlTtlMinutes = paymentUrlTtlMinutes;
+    }
+
+    public int getExpiryGraceMinutes() {
+        return expiryGraceMinutes;
+    }
+
+    public void setExpiryGraceMinutes(int expiryGraceMinutes) {
+        this.expiryGraceMinutes = expiryGraceMinutes;
+    }
+
+    public int getReconciliationChunkSize() {
+        return reconciliationChunkSize;
+    }
+
+    public void setReconciliationChunkSize(int reconciliationChunkSize) {
+        this.reconciliationChunkSize = reconciliationChunkSize;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.refdata")
+public class ReferenceDataProperties {
+    // Snapshot is reloaded after this age so edits made on other nodes are picked up
+    private long ttlMinutes = 10;
+    // Load every registry once the app is ready instead of on the first request
+    private boolean warmOnStartup = true;
+
+    public long getTtlMinutes() {
+        return ttlMinutes;
+    }
+
+    public void setTtlMinutes(long ttlMinutes) {
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    public boolean isWarmOnStartup() {
+        return warmOnStartup;
+    }
+
+    public void setWarmOnStartup(boolean warmOnStartup) {
+        this.warmOnStartup = warmOnStartup;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class SchedulingConfig {
+
+    // Worker pool cho các job định kỳ (gửi reminder song song, ...).
+    // Queue có giới hạn + CallerRuns để job tự chậm lại thay vì dồn task vô hạn.
+    @Bean(name = "jobWorkerExecutor")
+    public ThreadPoolTaskExecutor jobWorkerExecutor(JobSchedulerProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkerThreads());
+        executor.setMaxPoolSize(properties.getWorkerThreads());
+        executor.setQueueCapacity(properties.getWorkerQueueCapacity());
+        executor.setThreadNamePrefix("job-worker-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Một thread duy nhất cập nhật claim search index theo thứ tự commit
+    @Bean(name = "searchIndexExecutor")
+    public ThreadPoolTaskExecutor searchIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("search-index-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Side effect của claim event (outbox) sau commit. Hàng đợi đầy thì bỏ qua task:
+    // dòng outbox vẫn PENDING và relay định kỳ sẽ xử lý, request của user không bị chặn.
+    @Bean(name = "claimEventExecutor")
+    public ThreadPoolTaskExecutor claimEventExecutor(ClaimOutboxProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkerThreads());
+        executor.setMaxPoolSize(properties.getWorkerThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("claim-event-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Chỉ bật @Scheduled khi app.jobs.enabled=true (tắt trong test)
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "app.jobs.enabled", havingValue = "true", matchIfMissing = true)
+    static class EnabledScheduling {
+    }
+}
@@ -0,0 +1,65 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.search")
+public class SearchIndexProperties {
+    private boolean enabled = true;
+    // Build the in-memory claim index in the background once the app is ready
+    private boolean rebuildOnStartup = true;
+    private int rebuildChunkSize = 1000;
+    // Upper bound of ranked ids returned for one keyword; more matches fall back to the database search
+    private int maxHits = 10000;
+    // Each node re-indexes claims touched by claim_outbox_events written on any node this often
+    private long outboxPollMillis = 5000;
+    // Full rebuild on each node, for edits without an outbox event (customer, diagnostics) and deletes
+    private long rebuildIntervalMinutes = 30;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRebuildOnStartup() {
+        return rebuildOnStartup;
+    }
+
+    public void setRebuildOnStartup(boolean rebuildOnStartup) {
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public int getRebuildChunkSize() {
+        return rebuildChunkSize;
+    }
+
+    public void setRebuildChunkSize(int rebuildChunkSize) {
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    public int getMaxHits() {
+        return maxHits;
+    }
+
+    public void setMaxHits(int maxHits) {
+        this.maxHits = maxHits;
+    }
+
+    public long getOutboxPollMillis() {
+        return outboxPollMillis;
+    }
+
+    public void setOutboxPollMillis(long outboxPollMillis) {
+        this.outboxPollMillis = outboxPollMillis;
+    }
+
+    public long getRebuildIntervalMinutes() {
+        return rebuildIntervalMinutes;
+    }
+
+    public void setRebuildIntervalMinutes(long rebuildIntervalMinutes) {
+        this.rebuildIntervalMinutes = rebuildIntervalMinutes;
+    }
+}
@@ -2,6 +2,7 @@ package com.ev.warranty.config;
 
 import com.ev.warranty.security.JwtAuthenticationFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -45,6 +46,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatch khi SSE stream kết thúc: request gốc đã được xác thực
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Swagger/OpenAPI endpoints - MUST BE FIRST
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/swagger-ui.html").permitAll()
@@ -57,12 +60,16 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/v3/api-docs/swagger-config").permitAll()
                         // Static file uploads - allow viewing
                         .requestMatchers("/uploads/**").permitAll()
-                        // VNPay return callback
+                        // VNPay return callback and IPN (signature-verified in PaymentService)
                         .requestMatchers("/vnpay/return").permitAll()
+                        .requestMatchers("/vnpay/ipn").permitAll()
                         // Other public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/test/**").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Actuator: health public, metrics for admins only
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                         // Authenticated endpoints - role checks handled by @PreAuthorize
                         .anyRequest().authenticated())
                 .exceptionHandling(ex -> ex
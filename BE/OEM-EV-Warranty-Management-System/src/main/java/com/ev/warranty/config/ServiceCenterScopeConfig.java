@@ -0,0 +1,28 @@
+package com.ev.warranty.config;
+
+import com.ev.warranty.security.ServiceCenterScope;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+// Bật filter service center trên mọi EntityManager do EntityManagerFactory tạo ra (open-in-view, transaction,
+// REQUIRES_NEW) nên repository / JPQL hiện có được lọc cho user SC mà không phải sửa từng query
+@Configuration
+@ConditionalOnProperty(name = "app.service-center-scope.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceCenterScopeConfig {
+
+    @Bean
+    public static BeanPostProcessor serviceCenterScopeInitializer() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean factoryBean) {
+                    factoryBean.setEntityManagerInitializer(ServiceCenterScope::apply);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.shipments.tracking")
+public class ShipmentTrackingProperties {
+    // Events applied per transaction; each chunk costs one key lookup, one shipment lookup and batched writes
+    private int chunkSize = 500;
+    // Larger ingestion calls are rejected with 400 so one carrier cannot hold the pool for minutes
+    private int maxEventsPerRequest = 20000;
+    // Directory polled for carrier CSV drops (carrier,trackingNumber,status,eventTime,location); blank = off
+    private String feedDirectory = "";
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxEventsPerRequest() {
+        return maxEventsPerRequest;
+    }
+
+    public void setMaxEventsPerRequest(int maxEventsPerRequest) {
+        this.maxEventsPerRequest = maxEventsPerRequest;
+    }
+
+    public String getFeedDirectory() {
+        return feedDirectory;
+    }
+
+    public void setFeedDirectory(String feedDirectory) {
+        this.feedDirectory = feedDirectory;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ev.warranty.config;
+
+import com.ev.warranty.monitoring.SqlHotspotRegistry;
+import com.ev.warranty.monitoring.SqlInstrumentationInterceptor;
+import com.ev.warranty.monitoring.SqlStatsHibernateIntegration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Đếm SQL theo request: Hibernate báo từng statement / entity load / collection fetch,
+// interceptor gom lại theo controller method (xem package monitoring)
+@Configuration
+@ConditionalOnProperty(name = "app.sql.instrumentation-enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig implements WebMvcConfigurer {
+
+    private final SqlInstrumentationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final SqlHotspotRegistry hotspotRegistry;
+
+    public SqlInstrumentationConfig(SqlInstrumentationProperties properties,
+                                    MeterRegistry meterRegistry,
+                                    SqlHotspotRegistry hotspotRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.hotspotRegistry = hotspotRegistry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatsHibernateCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, SqlStatsHibernateIntegration.STATEMENT_INSPECTOR);
+            hibernateProperties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(SqlStatsHibernateIntegration.INTEGRATOR));
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlInstrumentationInterceptor(properties, meterRegistry, hotspotRegistry));
+    }
+}
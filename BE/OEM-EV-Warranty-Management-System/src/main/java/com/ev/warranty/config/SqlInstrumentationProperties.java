@@ -0,0 +1,57 @@
+package com.ev.warranty.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.sql")
+public class SqlInstrumentationProperties {
+    // Count statements / entity loads / collection fetches per request and publish them per controller method
+    private boolean instrumentationEnabled = true;
+    // A request is reported when it is slower than this...
+    private long slowRequestMillis = 1000;
+    // ...or runs more statements than this...
+    private int maxStatementsPerRequest = 50;
+    // ...or runs the same query shape at least this many times (N+1 suspect)
+    private int repeatedQueryThreshold = 10;
+    // Endpoints kept by the sqlhotspots actuator endpoint
+    private int hotspotLimit = 20;
+
+    public boolean isInstrumentationEnabled() {
+        return instrumentationEnabled;
+    }
+
+    public void setInstrumentationEnabled(boolean instrumentationEnabled) {
+        this.instrumentationEnabled = instrumentationEnabled;
+    }
+
+    public long getSlowRequestMillis() {
+        return slowRequestMillis;
+    }
+
+    public void setSlowRequestMillis(long slowRequestMillis) {
+        this.slowRequestMillis = slowRequestMillis;
+    }
+
+    public int getMaxStatementsPerRequest() {
+        return maxStatementsPerRequest;
+    }
+
+    public void setMaxStatementsPerRequest(int maxStatementsPerRequest) {
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+    }
+
+    public int getRepeatedQueryThreshold() {
+        return repeatedQueryThreshold;
+    }
+
+    public void setRepeatedQueryThreshold(int repeatedQueryThreshold) {
+        this.repeatedQueryThreshold = repeatedQueryThreshold;
+    }
+
+    public int getHotspotLimit() {
+        return hotspotLimit;
+    }
+
+    public void setHotspotLimit(int hotspotLimit) {
+        this.hotspotLimit = hotspotLimit;
+    }
+}
@@ -2,8 +2,10 @@ package com.ev.warranty.controller;
 
 import com.ev.warranty.model.dto.appointment.AppointmentCreateRequestDTO;
 import com.ev.warranty.model.dto.appointment.AppointmentCreateResponseDTO;
+import com.ev.warranty.model.dto.appointment.AppointmentSlotDTO;
 import com.ev.warranty.model.dto.appointment.AppointmentUpdateRequestDTO;
 import com.ev.warranty.service.inter.AppointmentService;
+import com.ev.warranty.service.inter.AppointmentSlotService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +17,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +27,7 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentSlotService appointmentSlotService;
 
     /**
      * Create a new appointment
@@ -42,6 +46,23 @@ public class AppointmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(appointment);
     }
 
+    /**
+     * Get the next free slots of a service center (slot picker)
+     * Available to: SC_STAFF, SC_TECHNICIAN, ADMIN
+     */
+    @GetMapping("/available-slots")
+    @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_ADMIN')")
+    public ResponseEntity<List<AppointmentSlotDTO>> getAvailableSlots(
+            @RequestParam Integer serviceCenterId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.debug("Getting {} available slots for service center {} from {}", limit, serviceCenterId, from);
+
+        List<AppointmentSlotDTO> slots = appointmentSlotService.findAvailableSlots(serviceCenterId, from, limit);
+        return ResponseEntity.ok(slots);
+    }
+
     /**
      * Get appointment by ID
      * Available to: All authenticated users
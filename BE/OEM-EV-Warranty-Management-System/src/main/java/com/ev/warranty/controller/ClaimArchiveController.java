@@ -0,0 +1,55 @@
+package com.ev.warranty.controller;
+
+import com.ev.warranty.model.dto.claim.ArchivedClaimSummaryDTO;
+import com.ev.warranty.model.dto.claim.ClaimArchiveRunResultDTO;
+import com.ev.warranty.model.dto.claim.ClaimHistoryRollupDTO;
+import com.ev.warranty.model.dto.claim.ClaimResponseDto;
+import com.ev.warranty.service.inter.ClaimArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/claim-archive")
+@RequiredArgsConstructor
+@Tag(name = "Claim Archive", description = "Archived (closed) claims and pre-aggregated claim history")
+public class ClaimArchiveController {
+
+    private final ClaimArchiveService claimArchiveService;
+
+    @PostMapping("/run")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Archive claims closed longer than the retention period now (normally a nightly job)")
+    public ResponseEntity<ClaimArchiveRunResultDTO> run() {
+        return ResponseEntity.ok(claimArchiveService.runArchival());
+    }
+
+    @GetMapping("/{claimId}")
+    @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Archived claim detail as it was when archived")
+    public ResponseEntity<ClaimResponseDto> getArchivedClaim(@PathVariable Integer claimId) {
+        return ResponseEntity.ok(claimArchiveService.getArchivedClaim(claimId));
+    }
+
+    @GetMapping("/vin/{vin}")
+    @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Archived claims of a vehicle")
+    public ResponseEntity<List<ArchivedClaimSummaryDTO>> getByVin(@PathVariable String vin) {
+        return ResponseEntity.ok(claimArchiveService.getArchivedClaimsByVin(vin));
+    }
+
+    @GetMapping("/history")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Archived claim counts, cost and days open per month (yyyy-MM), vehicle model and final status")
+    public ResponseEntity<List<ClaimHistoryRollupDTO>> getHistory(
+            @RequestParam(required = false) String fromPeriod,
+            @RequestParam(required = false) String toPeriod,
+            @RequestParam(required = false) String vehicleModel) {
+        return ResponseEntity.ok(claimArchiveService.getHistory(fromPeriod, toPeriod, vehicleModel));
+    }
+}
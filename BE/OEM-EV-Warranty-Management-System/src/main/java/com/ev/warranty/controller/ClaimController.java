@@ -1,9 +1,11 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.idempotency.Idempotent;
 import com.ev.warranty.model.dto.claim.*;
 import com.ev.warranty.service.inter.ClaimService;
 import com.ev.warranty.service.inter.WarrantyEligibilityService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@Idempotent
 @RequestMapping("/api/claims")
 @RequiredArgsConstructor
 public class ClaimController {
@@ -24,6 +27,9 @@ public class ClaimController {
     private final ClaimService claimService;
     private final WarrantyEligibilityService eligibilityService;
 
+    static final String FIELDS_DESCRIPTION = "Sparse fieldset for list screens, e.g. claimNumber,status,vin,customerName "
+            + "or 'summary' for all list columns. Omit to get the full claim DTO.";
+
     // ==================== EXISTING ENDPOINTS ====================
 
     @PostMapping("/intake")
@@ -170,7 +176,12 @@ public class ClaimController {
 
     @GetMapping("/technician/{technicianId}")
     @PreAuthorize("hasRole('SC_STAFF') or hasRole('SC_TECHNICIAN') or hasRole('ADMIN')")
-    public ResponseEntity<List<ClaimResponseDto>> getClaimsByTechnician(@PathVariable Integer technicianId) {
+    public ResponseEntity<List<?>> getClaimsByTechnician(
+            @PathVariable Integer technicianId,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (fields != null && !fields.isBlank()) {
+            return ResponseEntity.ok(claimService.getClaimListView(null, technicianId, fields));
+        }
         List<ClaimResponseDto> claims = claimService.getClaimsByTechnician(technicianId);
         return ResponseEntity.ok(claims);
     }
@@ -181,7 +192,12 @@ public class ClaimController {
     @GetMapping("/status/{statusCode}")
     @PreAuthorize("hasRole('SC_STAFF') or hasRole('SC_TECHNICIAN') or hasRole('EVM_STAFF') or hasRole('ADMIN')")
     @Operation(summary = "Get claims by status code", description = "Debug endpoint to find all claims with specific status")
-    public ResponseEntity<List<ClaimResponseDto>> getClaimsByStatus(@PathVariable String statusCode) {
+    public ResponseEntity<List<?>> getClaimsByStatus(
+            @PathVariable String statusCode,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (fields != null && !fields.isBlank()) {
+            return ResponseEntity.ok(claimService.getClaimListView(statusCode, null, fields));
+        }
         List<ClaimResponseDto> claims = claimService.getClaimsByStatus(statusCode);
         return ResponseEntity.ok(claims);
     }
@@ -232,7 +248,11 @@ public class ClaimController {
      */
     @GetMapping("/all")
     @PreAuthorize("hasRole('SC_STAFF') or hasRole('SC_TECHNICIAN') or hasRole('EVM_STAFF') or hasRole('ADMIN')")
-    public ResponseEntity<List<ClaimResponseDto>> getAllClaims() {
+    public ResponseEntity<List<?>> getAllClaims(
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (fields != null && !fields.isBlank()) {
+            return ResponseEntity.ok(claimService.getClaimListView(null, null, fields));
+        }
         List<ClaimResponseDto> claims = claimService.getAllClaims();
         return ResponseEntity.ok(claims);
     }
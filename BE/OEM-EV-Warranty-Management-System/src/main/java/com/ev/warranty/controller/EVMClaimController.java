@@ -1,13 +1,19 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.export.ExportFormat;
+import com.ev.warranty.idempotency.Idempotent;
 import com.ev.warranty.model.dto.claim.*;
 import com.ev.warranty.service.inter.ClaimService;
+import com.ev.warranty.service.impl.ClaimListProjection;
 import com.ev.warranty.service.inter.EVMClaimService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -15,7 +21,14 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+
 @RestController
+@Idempotent
 @RequestMapping("/api/evm/claims")
 @RequiredArgsConstructor
 @Slf4j
@@ -33,13 +46,18 @@ public class EVMClaimController {
     @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "View all warranty claims",
             description = "Get comprehensive view of all warranty claims across all service centers with filtering, pagination, and business intelligence")
-    public ResponseEntity<Page<EVMClaimSummaryDTO>> getAllClaims(
+    public ResponseEntity<Page<?>> getAllClaims(
             @Valid @ModelAttribute EVMClaimFilterRequestDTO filter,
+            @Parameter(description = ClaimController.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
             Authentication authentication) {
 
         String username = authentication.getName();
         log.info("EVM user {} accessing all claims overview with filters", username);
 
+        if (fields != null && !fields.isBlank()) {
+            return ResponseEntity.ok(evmClaimService.getClaimListView(filter, fields));
+        }
+
         // Log filter details for debugging
         log.debug("Filter details - Status: {}, Cost range: {}-{}, Models: {}, Page: {}/{}",
                 filter.getStatusCodes(), filter.getMinWarrantyCost(), filter.getMaxWarrantyCost(),
@@ -54,6 +72,39 @@ public class EVMClaimController {
         return ResponseEntity.ok(claims);
     }
 
+    /**
+     * Export all claims matching the overview filters as CSV / XLSX
+     * Available to: EVM_STAFF, ADMIN only
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Export warranty claims",
+            description = "Stream every claim matching the same filters as the overview (page/size ignored) as csv or xlsx")
+    public void exportClaims(
+            @Valid @ModelAttribute EVMClaimFilterRequestDTO filter,
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = ClaimController.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+            Authentication authentication,
+            HttpServletResponse response) {
+
+        // Kiểm tra tham số trước khi gửi header: sau byte đầu tiên không thể trả lỗi 400 dạng JSON nữa
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        Set<String> columns = ClaimListProjection.parseFields(fields);
+        log.info("EVM user {} exporting claims as {} with filters - statusCodes: {}",
+                authentication.getName(), exportFormat, filter.getStatusCodes());
+
+        String filename = "claims-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + "." + exportFormat.getExtension();
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        try {
+            evmClaimService.exportClaims(filter, columns, exportFormat, response.getOutputStream());
+        } catch (IOException e) {
+            // Client hủy tải giữa chừng: không còn gì để trả về
+            log.debug("Claim export stream closed: {}", e.getMessage());
+        }
+    }
+
     @PostMapping("/{claimId}/approve")
     @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Approve warranty claim",
@@ -90,6 +141,42 @@ public class EVMClaimController {
         return ResponseEntity.ok(rejectedClaim);
     }
 
+    @PostMapping("/bulk-approve")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Bulk approve warranty claims",
+            description = "Approve up to 500 pending claims in one call; parts availability is checked once for all claims and the result is reported per claim")
+    public ResponseEntity<EVMBulkDecisionResultDTO> bulkApproveClaims(
+            @Valid @RequestBody EVMBulkApprovalRequestDTO request,
+            Authentication authentication) {
+
+        String username = authentication.getName();
+        log.info("EVM Staff {} bulk approving {} claims", username, request.getClaims().size());
+
+        EVMBulkDecisionResultDTO result = evmClaimService.bulkApproveClaims(request, username);
+
+        log.info("Bulk approval by {}: {} approved, {} skipped, {} failed",
+                username, result.getSucceeded(), result.getSkipped(), result.getFailed());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/bulk-reject")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Bulk reject warranty claims",
+            description = "Reject up to 500 pending claims with the same reason; the result is reported per claim")
+    public ResponseEntity<EVMBulkDecisionResultDTO> bulkRejectClaims(
+            @Valid @RequestBody EVMBulkRejectionRequestDTO request,
+            Authentication authentication) {
+
+        String username = authentication.getName();
+        log.info("EVM Staff {} bulk rejecting {} claims", username, request.getClaimIds().size());
+
+        EVMBulkDecisionResultDTO result = evmClaimService.bulkRejectClaims(request, username);
+
+        log.info("Bulk rejection by {}: {} rejected, {} skipped, {} failed",
+                username, result.getSucceeded(), result.getSkipped(), result.getFailed());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{claimId}/review")
     @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get claim details for review",
@@ -109,12 +196,19 @@ public class EVMClaimController {
     @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get pending claims for approval",
             description = "Get all claims awaiting EVM approval (no filtering)")
-    public ResponseEntity<Page<EVMClaimSummaryDTO>> getPendingClaims(
+    public ResponseEntity<Page<?>> getPendingClaims(
+            @Parameter(description = ClaimController.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
             Authentication authentication) {
 
         String username = authentication.getName();
         log.info("EVM Staff {} accessing pending claims", username);
 
+        if (fields != null && !fields.isBlank()) {
+            EVMClaimFilterRequestDTO filter = new EVMClaimFilterRequestDTO();
+            filter.setStatusCodes(List.of("PENDING_EVM_APPROVAL"));
+            return ResponseEntity.ok(evmClaimService.getClaimListView(filter, fields));
+        }
+
         Page<EVMClaimSummaryDTO> pendingClaims = evmClaimService.getPendingClaims();
 
         log.info("EVM Staff {} retrieved {} pending claims", username, pendingClaims.getNumberOfElements());
@@ -214,4 +308,21 @@ public class EVMClaimController {
         ClaimResponseDto response = claimService.resolveProblem(claimId, request);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/search-index/rebuild")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Rebuild claim search index",
+            description = "Rebuild the in-memory keyword index (claim number, VIN, customer, reported failure) from the database")
+    public ResponseEntity<java.util.Map<String, Object>> rebuildSearchIndex(Authentication authentication) {
+        log.info("Admin {} rebuilding claim search index", authentication.getName());
+        return ResponseEntity.ok(evmClaimService.rebuildSearchIndex());
+    }
+
+    @GetMapping("/search-index/stats")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Claim search index stats",
+            description = "Number of indexed claims and terms, and when the index was last rebuilt")
+    public ResponseEntity<java.util.Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(evmClaimService.getSearchIndexStats());
+    }
+}
@@ -30,7 +30,7 @@ public class EVMDashboardController {
         long pendingApproval = claimRepository.findClaimsPendingApproval().size();
         long openClaims = claimRepository.findByStatusCode("OPEN").size();
         long inProgress = claimRepository.findByStatusCode("IN_PROGRESS").size();
-        long lowStockCount = inventoryRepository.findLowStockItems().size();
+        long lowStockCount = inventoryRepository.countByStockStatus("low_stock");
 
         return ResponseEntity.ok(java.util.Map.of(
             "pendingApprovals", pendingApproval,
@@ -77,6 +77,18 @@ public class EVMWarrantyCostReportController {
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * Month-to-date quick summary, served from the pre-computed report snapshot
+     * Available to: EVM_STAFF, ADMIN only
+     */
+    @GetMapping("/quick-summary/month-to-date")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Get month-to-date cost summary",
+            description = "Get the month-to-date warranty cost summary pre-computed by the periodic report job")
+    public ResponseEntity<WarrantyCostReportResponseDTO.ExecutiveSummaryDTO> getMonthToDateSummary() {
+        return ResponseEntity.ok(reportService.getMonthToDateSummary());
+    }
+
     /**
      * Export warranty cost report
      * Available to: EVM_STAFF, ADMIN only
@@ -1,5 +1,6 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.exception.BulkheadFullException;
 import com.ev.warranty.model.entity.ClaimAttachment;
 import com.ev.warranty.service.inter.FileUploadService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -133,6 +134,8 @@ public class FileUploadController {
                     .body(resource);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -175,6 +178,8 @@ public class FileUploadController {
                     .body(resource);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -213,6 +218,8 @@ public class FileUploadController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -72,6 +72,21 @@ public class InventoryController {
         return ResponseEntity.ok(alerts);
     }
 
+    @GetMapping("/alerts/feed")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Get stock alert feed", 
+               description = "Paged low-stock and out-of-stock alerts, out of stock first, then by lowest available stock")
+    public ResponseEntity<Page<InventoryStockDTO>> getStockAlertFeed(
+            @Parameter(description = "Alert type: low_stock or out_of_stock (default: both)") @RequestParam(required = false) String type,
+            @Parameter(description = "Filter by warehouse ID") @RequestParam(required = false) Integer warehouseId,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Getting stock alert feed - type: {}, warehouse: {}, page: {}, size: {}", type, warehouseId, page, size);
+        
+        return ResponseEntity.ok(inventoryService.getStockAlertFeed(type, warehouseId, page, size));
+    }
+
     @GetMapping("/low-stock")
     @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get low stock (alternative path)", 
@@ -0,0 +1,64 @@
+package com.ev.warranty.controller;
+
+import com.ev.warranty.security.LiveStreamTickets;
+import com.ev.warranty.service.impl.LiveUpdateHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/live")
+@RequiredArgsConstructor
+@Tag(name = "Live Updates", description = "Server-sent events for claim status, work order and stock alert changes")
+public class LiveUpdateController {
+
+    private final LiveUpdateHub liveUpdateHub;
+    private final LiveStreamTickets liveStreamTickets;
+
+    /**
+     * Vé dùng một lần để mở stream: EventSource không gửi được header Authorization,
+     * và JWT không được đặt trên query string (lộ trong access log, proxy, lịch sử trình duyệt).
+     */
+    @PostMapping("/ticket")
+    @Operation(summary = "Issue a live stream ticket",
+               description = "Short-lived, single-use ticket for GET /api/live/stream?ticket=...")
+    @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    public ResponseEntity<LiveStreamTickets.Ticket> ticket(Authentication authentication) {
+        return ResponseEntity.ok(liveStreamTickets.issue(authentication.getName()));
+    }
+
+    /**
+     * Event "ready" khi mở, sau đó "updates" (mảng delta đã gom theo topic:id) mỗi chu kỳ flush,
+     * hoặc "resync" khi client tụt lại quá xa và cần tải lại danh sách / dashboard.
+     * Xác thực bằng header Authorization, hoặc ?ticket= lấy từ POST /api/live/ticket.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to live updates",
+               description = "Server-sent events scoped by role and service center; replaces polling of claim lists and dashboards")
+    @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    public SseEmitter stream(Authentication authentication) throws IOException {
+        String role = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .findFirst()
+                .orElse("");
+        LiveUpdateHub.Subscriber subscriber = liveUpdateHub.subscribe(authentication.getName(), role);
+        SseEmitter emitter = subscriber.getEmitter();
+        emitter.send(SseEmitter.event().name("ready").data(Map.of("role", role)));
+        return emitter;
+    }
+}
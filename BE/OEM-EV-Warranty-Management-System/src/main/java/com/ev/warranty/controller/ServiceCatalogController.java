@@ -1,5 +1,6 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.httpcache.CatalogHttpCache;
 import com.ev.warranty.model.dto.catalog.*;
 import com.ev.warranty.service.inter.ServiceCatalogService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,9 +15,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
+import static com.ev.warranty.httpcache.CatalogTable.CATALOG_PRICES;
+import static com.ev.warranty.httpcache.CatalogTable.PARTS;
+import static com.ev.warranty.httpcache.CatalogTable.SERVICE_CENTERS;
+import static com.ev.warranty.httpcache.CatalogTable.SERVICE_ITEMS;
+
 @RestController
 @RequestMapping("/api/service-catalog")
 @RequiredArgsConstructor
@@ -25,6 +32,7 @@ import java.util.List;
 public class ServiceCatalogController {
 
     private final ServiceCatalogService serviceCatalogService;
+    private final CatalogHttpCache httpCache;
 
     // ==================== SERVICE ITEMS MANAGEMENT ====================
 
@@ -49,40 +57,43 @@ public class ServiceCatalogController {
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get all service items",
                description = "Get paginated list of service items with filtering")
-    public ResponseEntity<Page<ServiceItemResponseDTO>> getAllServiceItems(
+    public ResponseEntity<?> getAllServiceItems(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Filter by category") @RequestParam(required = false) String category,
             @Parameter(description = "Search by name or code") @RequestParam(required = false) String search,
-            @Parameter(description = "Filter by active status") @RequestParam(defaultValue = "true") boolean active) {
+            @Parameter(description = "Filter by active status") @RequestParam(defaultValue = "true") boolean active,
+            WebRequest request) {
 
         log.debug("Getting service items - page: {}, size: {}, category: {}, search: {}, active: {}",
                 page, size, category, search, active);
 
-        Page<ServiceItemResponseDTO> serviceItems = serviceCatalogService.getAllServiceItems(page, size, category, search, active);
-
-        log.debug("Retrieved {} service items", serviceItems.getTotalElements());
-        return ResponseEntity.ok(serviceItems);
+        // Danh sách có kèm giá hiện hành của từng dịch vụ
+        return httpCache.cachedJson(request, () -> {
+            Page<ServiceItemResponseDTO> serviceItems = serviceCatalogService.getAllServiceItems(page, size, category, search, active);
+            log.debug("Retrieved {} service items", serviceItems.getTotalElements());
+            return serviceItems;
+        }, SERVICE_ITEMS, CATALOG_PRICES);
     }
 
     @GetMapping("/services/{id}")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get service item by ID", description = "Get detailed service item information")
-    public ResponseEntity<ServiceItemResponseDTO> getServiceItemById(@PathVariable Integer id) {
+    public ResponseEntity<ServiceItemResponseDTO> getServiceItemById(@PathVariable Integer id, WebRequest request) {
         log.debug("Getting service item with ID: {}", id);
 
-        ServiceItemResponseDTO serviceItem = serviceCatalogService.getServiceItemById(id);
-        return ResponseEntity.ok(serviceItem);
+        return httpCache.conditional(request, () -> serviceCatalogService.getServiceItemById(id),
+                SERVICE_ITEMS, CATALOG_PRICES);
     }
 
     @GetMapping("/services/code/{serviceCode}")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get service item by code", description = "Get service item by service code")
-    public ResponseEntity<ServiceItemResponseDTO> getServiceItemByCode(@PathVariable String serviceCode) {
+    public ResponseEntity<ServiceItemResponseDTO> getServiceItemByCode(@PathVariable String serviceCode, WebRequest request) {
         log.debug("Getting service item with code: {}", serviceCode);
 
-        ServiceItemResponseDTO serviceItem = serviceCatalogService.getServiceItemByCode(serviceCode);
-        return ResponseEntity.ok(serviceItem);
+        return httpCache.conditional(request, () -> serviceCatalogService.getServiceItemByCode(serviceCode),
+                SERVICE_ITEMS, CATALOG_PRICES);
     }
 
     @PutMapping("/services/{id}")
@@ -131,15 +142,17 @@ public class ServiceCatalogController {
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Filter by item type (PART/SERVICE)") @RequestParam(required = false) String itemType,
             @Parameter(description = "Filter by region") @RequestParam(required = false) String region,
-            @Parameter(description = "Filter by service center ID") @RequestParam(required = false) Integer serviceCenterId) {
+            @Parameter(description = "Filter by service center ID") @RequestParam(required = false) Integer serviceCenterId,
+            WebRequest request) {
 
         log.debug("Getting catalog prices - page: {}, size: {}, itemType: {}, region: {}, serviceCenterId: {}",
                 page, size, itemType, region, serviceCenterId);
 
-        Page<CatalogPriceResponseDTO> prices = serviceCatalogService.getAllCatalogPrices(page, size, itemType, region, serviceCenterId);
-
-        log.debug("Retrieved {} catalog prices", prices.getTotalElements());
-        return ResponseEntity.ok(prices);
+        return httpCache.conditional(request, () -> {
+            Page<CatalogPriceResponseDTO> prices = serviceCatalogService.getAllCatalogPrices(page, size, itemType, region, serviceCenterId);
+            log.debug("Retrieved {} catalog prices", prices.getTotalElements());
+            return prices;
+        }, CATALOG_PRICES, PARTS, SERVICE_ITEMS, SERVICE_CENTERS);
     }
 
     @GetMapping("/prices/item/{itemType}/{itemId}")
@@ -148,13 +161,13 @@ public class ServiceCatalogController {
                description = "Get all pricing records for a specific part or service")
     public ResponseEntity<List<CatalogPriceResponseDTO>> getPricesForItem(
             @PathVariable String itemType,
-            @PathVariable Integer itemId) {
+            @PathVariable Integer itemId,
+            WebRequest request) {
 
         log.debug("Getting prices for {} ID: {}", itemType, itemId);
 
-        List<CatalogPriceResponseDTO> prices = serviceCatalogService.getPricesForItem(itemType, itemId);
-
-        return ResponseEntity.ok(prices);
+        return httpCache.conditional(request, () -> serviceCatalogService.getPricesForItem(itemType, itemId),
+                CATALOG_PRICES, PARTS, SERVICE_ITEMS, SERVICE_CENTERS);
     }
 
     @GetMapping("/prices/current/{itemType}/{itemId}")
@@ -169,14 +182,17 @@ public class ServiceCatalogController {
             @Parameter(description = "Region (NORTH/SOUTH/CENTRAL). Optional - auto-detected from user's service center if not provided")
             @RequestParam(required = false) String region,
             @Parameter(description = "Service center ID. Optional - auto-detected from authenticated user if not provided")
-            @RequestParam(required = false) Integer serviceCenterId) {
+            @RequestParam(required = false) Integer serviceCenterId,
+            WebRequest request) {
 
         log.debug("Getting current price for {} ID: {}, region: {}, serviceCenterId: {}",
                 itemType, itemId, region, serviceCenterId);
 
-        CatalogPriceResponseDTO price = serviceCatalogService.getCurrentPriceForItem(itemType, itemId, region, serviceCenterId);
-
-        return ResponseEntity.ok(price);
+        // Khi thiếu region / serviceCenterId, kết quả phụ thuộc trung tâm của người gọi: ETag riêng theo user
+        String variant = region == null || serviceCenterId == null ? request.getRemoteUser() : null;
+        return httpCache.conditional(request, variant,
+                () -> serviceCatalogService.getCurrentPriceForItem(itemType, itemId, region, serviceCenterId),
+                CATALOG_PRICES, PARTS, SERVICE_ITEMS, SERVICE_CENTERS);
     }
 
     @PutMapping("/prices/{id}")
@@ -1,10 +1,15 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.httpcache.CatalogHttpCache;
 import com.ev.warranty.model.dto.servicecenter.ServiceCenterRequestDTO;
 import com.ev.warranty.model.dto.servicecenter.ServiceCenterResponseDTO;
 import com.ev.warranty.service.inter.ServiceCenterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,9 +22,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
+import static com.ev.warranty.httpcache.CatalogTable.SERVICE_CENTERS;
+
 @RestController
 @RequestMapping("/api/service-centers")
 @RequiredArgsConstructor
@@ -28,6 +36,7 @@ import java.util.List;
 public class ServiceCenterController {
 
     private final ServiceCenterService serviceCenterService;
+    private final CatalogHttpCache httpCache;
 
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
@@ -35,15 +44,14 @@ public class ServiceCenterController {
                description = "Retrieve all service centers. Supports pagination with page and size parameters.")
     public ResponseEntity<?> getAllServiceCenters(
             @Parameter(description = "Page number (0-based)", example = "0") @RequestParam(required = false) Integer page,
-            @Parameter(description = "Page size", example = "20") @RequestParam(required = false) Integer size) {
+            @Parameter(description = "Page size", example = "20") @RequestParam(required = false) Integer size,
+            WebRequest request) {
         
         if (page != null && size != null) {
             Pageable pageable = PageRequest.of(page, size);
-            Page<ServiceCenterResponseDTO> serviceCenters = serviceCenterService.getAllServiceCenters(pageable);
-            return ResponseEntity.ok(serviceCenters);
+            return httpCache.conditional(request, () -> serviceCenterService.getAllServiceCenters(pageable), SERVICE_CENTERS);
         } else {
-            List<ServiceCenterResponseDTO> serviceCenters = serviceCenterService.getAllServiceCenters();
-            return ResponseEntity.ok(serviceCenters);
+            return httpCache.conditional(request, () -> serviceCenterService.getAllServiceCenters(), SERVICE_CENTERS);
         }
     }
 
@@ -52,9 +60,9 @@ public class ServiceCenterController {
     @Operation(summary = "Get service center by ID", 
                description = "Retrieve a specific service center by its ID including branch information")
     public ResponseEntity<ServiceCenterResponseDTO> getServiceCenterById(
-            @Parameter(description = "Service center ID") @PathVariable Integer id) {
-        ServiceCenterResponseDTO serviceCenter = serviceCenterService.getServiceCenterById(id);
-        return ResponseEntity.ok(serviceCenter);
+            @Parameter(description = "Service center ID") @PathVariable Integer id,
+            WebRequest request) {
+        return httpCache.conditional(request, () -> serviceCenterService.getServiceCenterById(id), SERVICE_CENTERS);
     }
 
     @GetMapping("/code/{code}")
@@ -62,9 +70,9 @@ public class ServiceCenterController {
     @Operation(summary = "Get service center by code", 
                description = "Retrieve a specific service center by its unique code")
     public ResponseEntity<ServiceCenterResponseDTO> getServiceCenterByCode(
-            @Parameter(description = "Service center code") @PathVariable String code) {
-        ServiceCenterResponseDTO serviceCenter = serviceCenterService.getServiceCenterByCode(code);
-        return ResponseEntity.ok(serviceCenter);
+            @Parameter(description = "Service center code") @PathVariable String code,
+            WebRequest request) {
+        return httpCache.conditional(request, () -> serviceCenterService.getServiceCenterByCode(code), SERVICE_CENTERS);
     }
 
     @PostMapping
@@ -106,9 +114,9 @@ public class ServiceCenterController {
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get main service centers", 
                description = "Retrieve all main service centers (not branches)")
-    public ResponseEntity<List<ServiceCenterResponseDTO>> getMainServiceCenters() {
-        List<ServiceCenterResponseDTO> mainCenters = serviceCenterService.getMainServiceCenters();
-        return ResponseEntity.ok(mainCenters);
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ServiceCenterResponseDTO.class))))
+    public ResponseEntity<?> getMainServiceCenters(WebRequest request) {
+        return httpCache.cachedJson(request, serviceCenterService::getMainServiceCenters, SERVICE_CENTERS);
     }
 
     @GetMapping("/{parentId}/branches")
@@ -116,18 +124,18 @@ public class ServiceCenterController {
     @Operation(summary = "Get branches of a service center", 
                description = "Retrieve all branches of a specific service center")
     public ResponseEntity<List<ServiceCenterResponseDTO>> getBranchesByServiceCenterId(
-            @Parameter(description = "Parent service center ID") @PathVariable Integer parentId) {
-        List<ServiceCenterResponseDTO> branches = serviceCenterService.getBranchesByServiceCenterId(parentId);
-        return ResponseEntity.ok(branches);
+            @Parameter(description = "Parent service center ID") @PathVariable Integer parentId,
+            WebRequest request) {
+        return httpCache.conditional(request, () -> serviceCenterService.getBranchesByServiceCenterId(parentId), SERVICE_CENTERS);
     }
 
     @GetMapping("/active")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get active service centers", 
                description = "Retrieve all active service centers only")
-    public ResponseEntity<List<ServiceCenterResponseDTO>> getActiveServiceCenters() {
-        List<ServiceCenterResponseDTO> activeCenters = serviceCenterService.getActiveServiceCenters();
-        return ResponseEntity.ok(activeCenters);
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ServiceCenterResponseDTO.class))))
+    public ResponseEntity<?> getActiveServiceCenters(WebRequest request) {
+        return httpCache.cachedJson(request, serviceCenterService::getActiveServiceCenters, SERVICE_CENTERS);
     }
 
     @GetMapping("/search")
@@ -135,9 +143,9 @@ public class ServiceCenterController {
     @Operation(summary = "Search service centers", 
                description = "Search service centers by name, code, or location")
     public ResponseEntity<List<ServiceCenterResponseDTO>> searchServiceCenters(
-            @Parameter(description = "Search term") @RequestParam String q) {
-        List<ServiceCenterResponseDTO> results = serviceCenterService.searchServiceCenters(q);
-        return ResponseEntity.ok(results);
+            @Parameter(description = "Search term") @RequestParam String q,
+            WebRequest request) {
+        return httpCache.conditional(request, () -> serviceCenterService.searchServiceCenters(q), SERVICE_CENTERS);
     }
 
     @GetMapping("/region/{region}")
@@ -145,9 +153,9 @@ public class ServiceCenterController {
     @Operation(summary = "Get service centers by region", 
                description = "Retrieve all service centers in a specific region")
     public ResponseEntity<List<ServiceCenterResponseDTO>> getServiceCentersByRegion(
-            @Parameter(description = "Region name") @PathVariable String region) {
-        List<ServiceCenterResponseDTO> serviceCenters = serviceCenterService.getServiceCentersByRegion(region);
-        return ResponseEntity.ok(serviceCenters);
+            @Parameter(description = "Region name") @PathVariable String region,
+            WebRequest request) {
+        return httpCache.conditional(request, () -> serviceCenterService.getServiceCentersByRegion(region), SERVICE_CENTERS);
     }
 }
 
@@ -1,6 +1,9 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.model.dto.shipment.CarrierTrackingEventDTO;
 import com.ev.warranty.model.dto.shipment.ShipmentDTO;
+import com.ev.warranty.model.dto.shipment.ShipmentLinkRequestDTO;
+import com.ev.warranty.model.dto.shipment.TrackingIngestResultDTO;
 import com.ev.warranty.service.inter.ShipmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -49,14 +52,14 @@ public class ShipmentController {
 
     @GetMapping("/claim/{claimId}")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_ADMIN')")
-    @Operation(summary = "List shipments related to claim (inferred)")
+    @Operation(summary = "List shipments linked to claim (directly or via its reservations)")
     public ResponseEntity<List<ShipmentDTO>> listByClaim(@PathVariable Integer claimId) {
         return ResponseEntity.ok(shipmentService.getByClaim(claimId));
     }
 
     @GetMapping("/workorder/{workOrderId}")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_ADMIN')")
-    @Operation(summary = "List shipments related to work order (inferred)")
+    @Operation(summary = "List shipments linked to work order (directly or via its reservations)")
     public ResponseEntity<List<ShipmentDTO>> listByWorkOrder(@PathVariable Integer workOrderId) {
         return ResponseEntity.ok(shipmentService.getByWorkOrder(workOrderId));
     }
@@ -67,4 +70,19 @@ public class ShipmentController {
     public ResponseEntity<ShipmentDTO> updateStatus(@PathVariable Integer id, @RequestParam String status) {
         return ResponseEntity.ok(shipmentService.updateStatus(id, status));
     }
+
+    @PostMapping("/{id}/links")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Link shipment to claims, work orders or stock reservations")
+    public ResponseEntity<ShipmentDTO> addLinks(@PathVariable Integer id, @RequestBody ShipmentLinkRequestDTO request) {
+        return ResponseEntity.ok(shipmentService.addLinks(id, request));
+    }
+
+    @PostMapping("/tracking-events")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Ingest a batch of carrier tracking events",
+            description = "Duplicates are skipped; the newest event per shipment is applied and a delivered event receives stock")
+    public ResponseEntity<TrackingIngestResultDTO> ingestTrackingEvents(@RequestBody List<CarrierTrackingEventDTO> events) {
+        return ResponseEntity.ok(shipmentService.ingestTrackingEvents(events));
+    }
 }
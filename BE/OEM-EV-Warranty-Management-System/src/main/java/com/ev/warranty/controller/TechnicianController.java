@@ -1,5 +1,6 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.model.dto.technician.TechnicianLeaderboardEntryDto;
 import com.ev.warranty.model.dto.technician.TechnicianPerformanceDto;
 import com.ev.warranty.service.inter.TechnicianService;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/technicians")
 @RequiredArgsConstructor
@@ -27,4 +30,15 @@ public class TechnicianController {
         }
         return ResponseEntity.ok(performance);
     }
+
+    @GetMapping("/leaderboard")
+    @PreAuthorize("hasRole('SC_STAFF') or hasRole('EVM_STAFF') or hasRole('ADMIN')")
+    public ResponseEntity<List<TechnicianLeaderboardEntryDto>> getLeaderboard(
+            @RequestParam(required = false) Integer serviceCenterId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false, defaultValue = "completed") String sortBy,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(technicianService.getLeaderboard(serviceCenterId, startDate, endDate, sortBy, limit));
+    }
 }
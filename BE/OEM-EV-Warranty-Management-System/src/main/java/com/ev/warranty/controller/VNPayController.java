@@ -1,5 +1,7 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.idempotency.Idempotent;
+import com.ev.warranty.model.dto.payment.PaymentReconciliationResultDTO;
 import com.ev.warranty.model.dto.payment.VNPayCreatePaymentRequest;
 import com.ev.warranty.model.dto.payment.VNPayPaymentInitResponse;
 import com.ev.warranty.model.dto.payment.VNPayReturnResponse;
@@ -9,11 +11,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
 @RestController
+@Idempotent
 @RequestMapping("/api/payment/vnpay")
 @RequiredArgsConstructor
 @Tag(name = "VNPay", description = "VNPay sandbox payment integration")
@@ -35,5 +39,12 @@ public class VNPayController {
         VNPayReturnResponse resp = paymentService.handleVNPayReturn(allParams);
         return ResponseEntity.ok(resp);
     }
-}
 
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Reconcile VNPay ledger with claims now",
+            description = "Normally a scheduled job; marks claims paid for confirmed payments and expires stale ones")
+    public ResponseEntity<PaymentReconciliationResultDTO> reconcile() {
+        return ResponseEntity.ok(paymentService.reconcilePayments());
+    }
+}
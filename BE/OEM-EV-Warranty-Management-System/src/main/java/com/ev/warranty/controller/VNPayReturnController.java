@@ -1,5 +1,6 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.model.dto.payment.VNPayIpnResponse;
 import com.ev.warranty.model.dto.payment.VNPayReturnResponse;
 import com.ev.warranty.service.inter.PaymentService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,7 +12,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
 
-// Separate controller for actual return URL path /vnpay/return (outside /api) to match configured returnUrl
+// Separate controller for the browser return URL /vnpay/return and the server-to-server IPN URL /vnpay/ipn
+// (outside /api, no JWT) to match the URLs registered with VNPay
 @RestController
 @RequiredArgsConstructor
 public class VNPayReturnController {
@@ -23,5 +25,11 @@ public class VNPayReturnController {
         VNPayReturnResponse resp = paymentService.handleVNPayReturn(allParams);
         return ResponseEntity.ok(resp);
     }
+
+    // VNPay gọi IPN (GET) để xác nhận kết quả; chỉ IPN mới ghi sổ cái và cập nhật claim, return URL thì không
+    @GetMapping("/vnpay/ipn")
+    public ResponseEntity<VNPayIpnResponse> handleIpn(@RequestParam Map<String, String> allParams) {
+        return ResponseEntity.ok(paymentService.handleVNPayIpn(allParams));
+    }
 }
 
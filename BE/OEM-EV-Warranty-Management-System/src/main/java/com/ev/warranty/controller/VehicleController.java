@@ -1,7 +1,9 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.model.dto.vehicle.Vehicle360DTO;
 import com.ev.warranty.model.dto.vehicle.VehicleRegisterRequestDTO;
 import com.ev.warranty.model.dto.vehicle.VehicleResponseDTO;
+import com.ev.warranty.service.inter.Vehicle360Service;
 import com.ev.warranty.service.inter.VehicleService;
 import com.ev.warranty.service.inter.WarrantyEligibilityService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,6 +30,7 @@ public class VehicleController {
 
     private final VehicleService vehicleService;
     private final WarrantyEligibilityService eligibilityService;
+    private final Vehicle360Service vehicle360Service;
 
     /**
      * Register a new vehicle in the warranty system
@@ -70,6 +73,20 @@ public class VehicleController {
                 });
     }
 
+    /**
+     * Vehicle 360: vehicle, claims, service history, installed parts and recalls in one call
+     * Available to: All authenticated users
+     */
+    @GetMapping("/vin/{vin}/360")
+    @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Vehicle 360 view",
+            description = "Precomputed per-VIN view. Use fields=vehicle,summary,claims,serviceHistory,installedParts,recalls to select sections")
+    public ResponseEntity<Vehicle360DTO> getVehicle360(@PathVariable String vin,
+                                                       @RequestParam(required = false) List<String> fields) {
+        log.debug("Loading vehicle 360 view for VIN: {}, fields: {}", vin, fields);
+        return ResponseEntity.ok(vehicle360Service.getVehicle360(vin, fields));
+    }
+
     /**
      * Get vehicle by ID
      * Available to: All authenticated users
@@ -1,8 +1,13 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.httpcache.CatalogHttpCache;
 import com.ev.warranty.model.dto.vehicle.VehicleModelDTO;
 import com.ev.warranty.service.inter.VehicleModelService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -10,8 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import static com.ev.warranty.httpcache.CatalogTable.VEHICLE_MODELS;
 
 @RestController
 @RequestMapping("/api/vehicle-models")
@@ -19,34 +25,37 @@ import java.util.List;
 public class VehicleModelController {
 
     private final VehicleModelService service;
+    private final CatalogHttpCache httpCache;
 
     // View - allow staff, technician, evm staff, admin
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF','ROLE_SC_TECHNICIAN','ROLE_EVM_STAFF','ROLE_ADMIN')")
     @Operation(summary = "List all vehicle models")
-    public ResponseEntity<List<VehicleModelDTO>> listAll() {
-        return ResponseEntity.ok(service.listAll());
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = VehicleModelDTO.class))))
+    public ResponseEntity<?> listAll(WebRequest request) {
+        return httpCache.cachedJson(request, service::listAll, VEHICLE_MODELS);
     }
 
     @GetMapping("/active")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF','ROLE_SC_TECHNICIAN','ROLE_EVM_STAFF','ROLE_ADMIN')")
     @Operation(summary = "List active vehicle models")
-    public ResponseEntity<List<VehicleModelDTO>> listActive() {
-        return ResponseEntity.ok(service.listActive());
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = VehicleModelDTO.class))))
+    public ResponseEntity<?> listActive(WebRequest request) {
+        return httpCache.cachedJson(request, service::listActive, VEHICLE_MODELS);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF','ROLE_SC_TECHNICIAN','ROLE_EVM_STAFF','ROLE_ADMIN')")
     @Operation(summary = "Get model by id")
-    public ResponseEntity<VehicleModelDTO> get(@PathVariable Integer id) {
-        return ResponseEntity.ok(service.get(id));
+    public ResponseEntity<VehicleModelDTO> get(@PathVariable Integer id, WebRequest request) {
+        return httpCache.conditional(request, () -> service.get(id), VEHICLE_MODELS);
     }
 
     @GetMapping("/code/{code}")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF','ROLE_SC_TECHNICIAN','ROLE_EVM_STAFF','ROLE_ADMIN')")
     @Operation(summary = "Get model by code")
-    public ResponseEntity<VehicleModelDTO> getByCode(@PathVariable String code) {
-        return ResponseEntity.ok(service.getByCode(code));
+    public ResponseEntity<VehicleModelDTO> getByCode(@PathVariable String code, WebRequest request) {
+        return httpCache.conditional(request, () -> service.getByCode(code), VEHICLE_MODELS);
     }
 
     // EVM staff CRUD
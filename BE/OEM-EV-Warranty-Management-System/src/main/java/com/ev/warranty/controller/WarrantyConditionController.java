@@ -1,9 +1,11 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.httpcache.CatalogHttpCache;
 import com.ev.warranty.model.dto.policy.WarrantyConditionDTO;
 import com.ev.warranty.service.inter.WarrantyConditionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,9 +17,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
-import java.util.List;
+
+import static com.ev.warranty.httpcache.CatalogTable.VEHICLE_MODELS;
+import static com.ev.warranty.httpcache.CatalogTable.WARRANTY_CONDITIONS;
 
 @RestController
 @RequestMapping("/api/warranty-conditions")
@@ -26,6 +31,7 @@ import java.util.List;
 public class WarrantyConditionController {
 
     private final WarrantyConditionService service;
+    private final CatalogHttpCache httpCache;
 
     @PostMapping
     @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF','ROLE_ADMIN')")
@@ -64,32 +70,38 @@ public class WarrantyConditionController {
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF','ROLE_SC_TECHNICIAN','ROLE_EVM_STAFF','ROLE_ADMIN')")
     @Operation(summary = "List warranty conditions",
-               description = "List all warranty conditions. If modelId is provided, list conditions for that model only.")
-    public ResponseEntity<List<WarrantyConditionDTO>> list(
-            @Parameter(description = "Vehicle model id (optional)") @RequestParam(required = false) Integer modelId) {
-        if (modelId != null) {
-            return ResponseEntity.ok(service.listByModel(modelId));
-        }
-        return ResponseEntity.ok(service.listAll());
+               description = "List all warranty conditions. If modelId is provided, list conditions for that model only.",
+               responses = {@ApiResponse(responseCode = "200", description = "OK",
+                   content = @Content(array = @ArraySchema(schema = @Schema(implementation = WarrantyConditionDTO.class))))})
+    public ResponseEntity<?> list(
+            @Parameter(description = "Vehicle model id (optional)") @RequestParam(required = false) Integer modelId,
+            WebRequest request) {
+        return httpCache.cachedJson(request,
+                () -> modelId != null ? service.listByModel(modelId) : service.listAll(),
+                WARRANTY_CONDITIONS, VEHICLE_MODELS);
     }
 
     @GetMapping("/effective")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF','ROLE_SC_TECHNICIAN','ROLE_EVM_STAFF','ROLE_ADMIN')")
     @Operation(summary = "List effective warranty conditions",
-               description = "List conditions effective today. If modelId is provided, list conditions for that model only.")
-    public ResponseEntity<List<WarrantyConditionDTO>> listEffective(
-            @Parameter(description = "Vehicle model id (optional)") @RequestParam(required = false) Integer modelId) {
-        if (modelId != null) {
-            return ResponseEntity.ok(service.listEffectiveByModel(modelId, LocalDate.now()));
-        }
-        return ResponseEntity.ok(service.listAllEffective(LocalDate.now()));
+               description = "List conditions effective today. If modelId is provided, list conditions for that model only.",
+               responses = {@ApiResponse(responseCode = "200", description = "OK",
+                   content = @Content(array = @ArraySchema(schema = @Schema(implementation = WarrantyConditionDTO.class))))})
+    public ResponseEntity<?> listEffective(
+            @Parameter(description = "Vehicle model id (optional)") @RequestParam(required = false) Integer modelId,
+            WebRequest request) {
+        return httpCache.cachedJson(request,
+                () -> modelId != null
+                        ? service.listEffectiveByModel(modelId, LocalDate.now())
+                        : service.listAllEffective(LocalDate.now()),
+                WARRANTY_CONDITIONS, VEHICLE_MODELS);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF','ROLE_SC_TECHNICIAN','ROLE_EVM_STAFF','ROLE_ADMIN')")
     @Operation(summary = "Get condition by id",
                description = "Fetch a single warranty condition by id.")
-    public ResponseEntity<WarrantyConditionDTO> get(@PathVariable Integer id) {
-        return ResponseEntity.ok(service.get(id));
+    public ResponseEntity<WarrantyConditionDTO> get(@PathVariable Integer id, WebRequest request) {
+        return httpCache.conditional(request, () -> service.get(id), WARRANTY_CONDITIONS, VEHICLE_MODELS);
     }
 }
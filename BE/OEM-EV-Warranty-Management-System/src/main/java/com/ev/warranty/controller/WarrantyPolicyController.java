@@ -1,9 +1,14 @@
 package com.ev.warranty.controller;
 
+import com.ev.warranty.httpcache.CatalogHttpCache;
 import com.ev.warranty.model.dto.policy.*;
 import com.ev.warranty.service.inter.WarrantyPolicyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +19,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
+import static com.ev.warranty.httpcache.CatalogTable.WARRANTY_POLICIES;
+
 @RestController
 @RequestMapping("/api/warranty-policies")
 @RequiredArgsConstructor
@@ -25,6 +33,7 @@ import java.util.List;
 public class WarrantyPolicyController {
 
     private final WarrantyPolicyService warrantyPolicyService;
+    private final CatalogHttpCache httpCache;
 
     // ==================== POLICY MANAGEMENT ====================
 
@@ -53,24 +62,25 @@ public class WarrantyPolicyController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Filter by status") @RequestParam(required = false) String status,
-            @Parameter(description = "Filter by model") @RequestParam(required = false) String model) {
+            @Parameter(description = "Filter by model") @RequestParam(required = false) String model,
+            WebRequest request) {
 
         log.info("Getting warranty policies - page: {}, size: {}, status: {}, model: {}", page, size, status, model);
 
-        Page<WarrantyPolicyResponseDTO> policies = warrantyPolicyService.getAllPolicies(page, size, status, model);
-
-        log.info("Retrieved {} policies", policies.getTotalElements());
-        return ResponseEntity.ok(policies);
+        return httpCache.conditional(request, () -> {
+            Page<WarrantyPolicyResponseDTO> policies = warrantyPolicyService.getAllPolicies(page, size, status, model);
+            log.info("Retrieved {} policies", policies.getTotalElements());
+            return policies;
+        }, WARRANTY_POLICIES);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_SC_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get policy by ID", description = "Get detailed warranty policy information")
-    public ResponseEntity<WarrantyPolicyResponseDTO> getPolicyById(@PathVariable Integer id) {
+    public ResponseEntity<WarrantyPolicyResponseDTO> getPolicyById(@PathVariable Integer id, WebRequest request) {
         log.debug("Getting warranty policy with ID: {}", id);
 
-        WarrantyPolicyResponseDTO policy = warrantyPolicyService.getPolicyById(id);
-        return ResponseEntity.ok(policy);
+        return httpCache.conditional(request, () -> warrantyPolicyService.getPolicyById(id), WARRANTY_POLICIES);
     }
 
     @PutMapping("/{id}")
@@ -125,11 +135,10 @@ public class WarrantyPolicyController {
     @GetMapping("/{policyId}/rules")
     @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_SC_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get policy rules", description = "Get all rules for a warranty policy")
-    public ResponseEntity<List<PolicyRuleResponseDTO>> getPolicyRules(@PathVariable Integer policyId) {
+    public ResponseEntity<List<PolicyRuleResponseDTO>> getPolicyRules(@PathVariable Integer policyId, WebRequest request) {
         log.debug("Getting rules for policy ID: {}", policyId);
 
-        List<PolicyRuleResponseDTO> rules = warrantyPolicyService.getPolicyRules(policyId);
-        return ResponseEntity.ok(rules);
+        return httpCache.conditional(request, () -> warrantyPolicyService.getPolicyRules(policyId), WARRANTY_POLICIES);
     }
 
     @PutMapping("/rules/{ruleId}")
@@ -177,27 +186,45 @@ public class WarrantyPolicyController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/validate/batch")
+    @PreAuthorize("hasAnyAuthority('ROLE_EVM_STAFF', 'ROLE_ADMIN')")
+    @Operation(summary = "Batch validate warranty coverage",
+               description = "Validate up to 10,000 (VIN, component, mileage, failure date) entries in one call for EVM audit runs")
+    public ResponseEntity<List<WarrantyValidationResponseDTO>> validateWarrantyCoverageBatch(
+            @RequestBody List<WarrantyValidationRequestDTO> requests) {
+
+        List<WarrantyValidationResponseDTO> responses = warrantyPolicyService.validateWarrantyCoverageBatch(requests);
+
+        log.info("Batch warranty validation done - {} entries, {} covered", responses.size(),
+                responses.stream().filter(r -> Boolean.TRUE.equals(r.getIsCovered())).count());
+
+        return ResponseEntity.ok(responses);
+    }
+
     @GetMapping("/active")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get active policies", description = "Get all currently active warranty policies")
-    public ResponseEntity<List<WarrantyPolicyResponseDTO>> getActivePolicies() {
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = WarrantyPolicyResponseDTO.class))))
+    public ResponseEntity<?> getActivePolicies(WebRequest request) {
         log.debug("Getting active warranty policies");
 
-        List<WarrantyPolicyResponseDTO> policies = warrantyPolicyService.getActivePolicies();
-
-        log.debug("Found {} active policies", policies.size());
-        return ResponseEntity.ok(policies);
+        return httpCache.cachedJson(request, () -> {
+            List<WarrantyPolicyResponseDTO> policies = warrantyPolicyService.getActivePolicies();
+            log.debug("Found {} active policies", policies.size());
+            return policies;
+        }, WARRANTY_POLICIES);
     }
 
     @GetMapping("/model/{model}")
     @PreAuthorize("hasAnyAuthority('ROLE_SC_STAFF', 'ROLE_SC_TECHNICIAN', 'ROLE_EVM_STAFF', 'ROLE_ADMIN')")
     @Operation(summary = "Get policies by model", description = "Get warranty policies applicable to specific vehicle model")
-    public ResponseEntity<List<WarrantyPolicyResponseDTO>> getPoliciesByModel(@PathVariable String model) {
+    public ResponseEntity<List<WarrantyPolicyResponseDTO>> getPoliciesByModel(@PathVariable String model, WebRequest request) {
         log.debug("Getting warranty policies for model: {}", model);
 
-        List<WarrantyPolicyResponseDTO> policies = warrantyPolicyService.getPoliciesByModel(model);
-
-        log.debug("Found {} policies for model: {}", policies.size(), model);
-        return ResponseEntity.ok(policies);
+        return httpCache.conditional(request, () -> {
+            List<WarrantyPolicyResponseDTO> policies = warrantyPolicyService.getPoliciesByModel(model);
+            log.debug("Found {} policies for model: {}", policies.size(), model);
+            return policies;
+        }, WARRANTY_POLICIES);
     }
 }
@@ -0,0 +1,113 @@
+package com.ev.warranty.datagen;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * INSERT theo JDBC batch cho một bảng; rows chỉ được gửi khi gọi flush().
+ * explicitId = true: cột id do generator cấp (để bảng con tham chiếu mà không phải đọc lại id);
+ * SQL Server cần IDENTITY_INSERT cho mỗi batch, H2 phải dời identity qua id lớn nhất khi close().
+ */
+class JdbcBatchWriter implements AutoCloseable {
+
+    private final Connection connection;
+    private final String table;
+    private final boolean explicitId;
+    private final boolean sqlServer;
+    private final PreparedStatement statement;
+    private int pending;
+    private long written;
+    private long maxId;
+
+    JdbcBatchWriter(Connection connection, boolean sqlServer, String table, boolean explicitId, String... columns)
+            throws SQLException {
+        this.connection = connection;
+        this.table = table;
+        this.explicitId = explicitId;
+        this.sqlServer = sqlServer;
+        String columnList = (explicitId ? "id, " : "") + String.join(", ", columns);
+        String placeholders = "?" + ", ?".repeat(columns.length - (explicitId ? 0 : 1));
+        this.statement = connection.prepareStatement(
+                "INSERT INTO " + table + " (" + columnList + ") VALUES (" + placeholders + ")");
+    }
+
+    void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, jdbcValue(values[i]));
+        }
+        if (explicitId) {
+            maxId = Math.max(maxId, ((Number) values[0]).longValue());
+        }
+        statement.addBatch();
+        pending++;
+    }
+
+    int pending() {
+        return pending;
+    }
+
+    long written() {
+        return written;
+    }
+
+    String table() {
+        return table;
+    }
+
+    /** Gửi batch đang chờ và commit. */
+    void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        if (explicitId && sqlServer) {
+            execute("SET IDENTITY_INSERT " + table + " ON");
+        }
+        statement.executeBatch();
+        if (explicitId && sqlServer) {
+            execute("SET IDENTITY_INSERT " + table + " OFF");
+        }
+        connection.commit();
+        written += pending;
+        pending = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            if (explicitId && !sqlServer && maxId > 0) {
+                // SQL Server tự đẩy identity khi chèn id lớn hơn; H2 thì không
+                execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (maxId + 1));
+                connection.commit();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private static Object jdbcValue(Object value) {
+        if (value instanceof LocalDate date) {
+            return Date.valueOf(date);
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return Timestamp.valueOf(dateTime);
+        }
+        if (value instanceof Double d) {
+            return BigDecimal.valueOf(d);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,623 @@
+package com.ev.warranty.datagen;
+
+import com.ev.warranty.config.DataGeneratorProperties;
+import com.ev.warranty.model.entity.Inventory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Sinh dữ liệu giả quy mô production (customer, vehicle, claim + đủ 7 bảng 1:1, work order,
+ * part serial, inventory, catalog price) để tái hiện vấn đề hiệu năng trước khi lên production.
+ * Ghi thẳng bằng JDBC batch, chạy được trên H2 và SQL Server local; dữ liệu tham chiếu
+ * (users, claim_statuses, parts, warehouses, ...) phải có sẵn, thường là từ data.sql.
+ * Bật bằng app.datagen.enabled=true; với SQL Server nên kèm ddl-auto=update để không mất dữ liệu khi tắt app.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final String[] FAMILY_NAMES = {"Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Huỳnh", "Phan", "Vũ",
+            "Võ", "Đặng", "Bùi", "Đỗ", "Hồ", "Ngô", "Dương", "Lý"};
+    private static final double[] FAMILY_WEIGHTS = {38, 11, 9.5, 7, 5.1, 5.1, 4.5, 3.9, 3.9, 2.1, 2, 1.4, 1.3, 1.3,
+            1, 0.5};
+    private static final String[] MIDDLE_NAMES = {"Văn", "Thị", "Hữu", "Minh", "Ngọc", "Thanh", "Đức", "Quốc"};
+    private static final String[] GIVEN_NAMES = {"An", "Bình", "Châu", "Dũng", "Giang", "Hà", "Hải", "Hùng", "Hương",
+            "Khoa", "Lan", "Linh", "Long", "Mai", "Nam", "Phúc", "Quân", "Sơn", "Tâm", "Thảo", "Trang", "Tuấn", "Vy"};
+    private static final String[] CITIES = {"TP. Hồ Chí Minh", "Hà Nội", "Bình Dương", "Đồng Nai", "Hải Phòng",
+            "Đà Nẵng", "Cần Thơ", "Khánh Hòa", "Nghệ An", "Thừa Thiên Huế"};
+    private static final double[] CITY_WEIGHTS = {30, 25, 8, 8, 6, 6, 5, 4, 4, 4};
+    private static final int[] CITY_PLATE_CODES = {51, 30, 61, 60, 15, 43, 65, 79, 37, 75};
+    private static final String[] STREETS = {"Lê Lợi", "Nguyễn Huệ", "Trần Hưng Đạo", "Hai Bà Trưng", "Lý Thường Kiệt",
+            "Điện Biên Phủ", "Cách Mạng Tháng 8", "Nguyễn Trãi"};
+
+    private static final String[][] FAILURES = {
+            {"BATTERY", "Battery not charging above 80%"},
+            {"BATTERY", "Battery capacity dropped, range reduced by 30%"},
+            {"BATTERY", "Charging port does not lock, charging interrupted"},
+            {"MOTOR", "Motor making unusual noise during acceleration"},
+            {"MOTOR", "Drive unit vibration at high speed"},
+            {"ELECTRONICS", "Central display freezes after software update"},
+            {"ELECTRONICS", "Vehicle control unit reports intermittent fault"},
+            {"BRAKE", "Brake regeneration warning light on"},
+            {"BODY", "Door handle sensor not responding"},
+            {"HVAC", "Air conditioning not cooling, climate control error"}};
+    private static final double[] FAILURE_WEIGHTS = {14, 8, 6, 9, 6, 10, 7, 8, 6, 6};
+
+    // Phân bố trạng thái: claim cũ hơn IN_FLIGHT_DAYS gần như đã kết thúc, claim mới nằm rải các bước xử lý
+    private static final int IN_FLIGHT_DAYS = 45;
+    private static final Map<String, Double> SETTLED_STATUS_WEIGHTS = Map.of(
+            "COMPLETED", 62.0, "CLOSED", 15.0, "EVM_REJECTED", 8.0, "CANCELED_DONE", 5.0, "REJECTED", 4.0,
+            "CANCELLED", 3.0, "INACTIVE", 3.0);
+    private static final Map<String, Double> IN_FLIGHT_STATUS_WEIGHTS = Map.ofEntries(
+            Map.entry("OPEN", 14.0), Map.entry("IN_PROGRESS", 12.0), Map.entry("PENDING_EVM_APPROVAL", 18.0),
+            Map.entry("EVM_APPROVED", 8.0), Map.entry("WAITING_FOR_PARTS", 7.0), Map.entry("READY_FOR_REPAIR", 5.0),
+            Map.entry("REPAIR_IN_PROGRESS", 12.0), Map.entry("FINAL_INSPECTION", 4.0),
+            Map.entry("READY_FOR_HANDOVER", 6.0), Map.entry("COMPLETED", 8.0), Map.entry("CANCEL_PENDING", 2.0),
+            Map.entry("EVM_REJECTED", 4.0));
+    private static final Set<String> APPROVED_STATUSES = Set.of("EVM_APPROVED", "WAITING_FOR_PARTS",
+            "READY_FOR_REPAIR", "REPAIR_IN_PROGRESS", "FINAL_INSPECTION", "REPAIR_COMPLETED", "READY_FOR_HANDOVER",
+            "HANDOVER_PENDING", "COMPLETED", "CLOSED");
+    private static final Set<String> REPAIR_STATUSES = Set.of("REPAIR_IN_PROGRESS", "FINAL_INSPECTION",
+            "REPAIR_COMPLETED", "READY_FOR_HANDOVER", "HANDOVER_PENDING", "COMPLETED", "CLOSED");
+    private static final Set<String> REJECTED_STATUSES = Set.of("EVM_REJECTED", "REJECTED");
+    private static final Set<String> UNASSIGNED_STATUSES = Set.of("OPEN", "DRAFT");
+
+    // Giá catalog lịch sử dừng trước mốc giá hiện hành của data.sql (2024-01-01)
+    private static final LocalDate PRICE_HISTORY_END = LocalDate.of(2023, 12, 31);
+    private static final String[] DEFAULT_REGIONS = {"NORTH", "CENTRAL", "SOUTH"};
+
+    private final DataSource dataSource;
+    private final DataGeneratorProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        GenerationReport report = generate();
+        log.info("Synthetic data generated in {} ms: {}", report.elapsedMillis(), report.rowsByTable());
+    }
+
+    public GenerationReport generate() {
+        long started = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Generation generation = new Generation(connection);
+                generation.run();
+                return new GenerationReport(generation.rowsByTable, System.currentTimeMillis() - started);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Synthetic data generation failed: " + e.getMessage(), e);
+        }
+    }
+
+    public record GenerationReport(Map<String, Long> rowsByTable, long elapsedMillis) {
+    }
+
+    private record UserRef(int id, int serviceCenterId) {
+    }
+
+    private record ModelRef(Integer id, String name, int warrantyMonths, int warrantyKm) {
+    }
+
+    private record PartRef(int id, BigDecimal unitCost) {
+    }
+
+    private record StatusMix(List<String> codes, double[] weights) {
+    }
+
+    /** Một lần sinh dữ liệu: giữ connection, random stream và dữ liệu tham chiếu. */
+    private class Generation {
+        private final Connection connection;
+        private final boolean sqlServer;
+        private final SplittableRandom random = new SplittableRandom(properties.getSeed());
+        private final LocalDate anchor = properties.getAnchorDate() != null ? properties.getAnchorDate() : LocalDate.now();
+        private final Map<String, Long> rowsByTable = new LinkedHashMap<>();
+
+        private final List<UserRef> staff = new ArrayList<>();
+        private final List<UserRef> technicians = new ArrayList<>();
+        private final Map<Integer, List<UserRef>> techniciansByCenter = new HashMap<>();
+        private final List<Integer> evmUsers = new ArrayList<>();
+        private final Map<String, Integer> statusIds = new HashMap<>();
+        private final List<ModelRef> models = new ArrayList<>();
+        private final List<PartRef> parts = new ArrayList<>();
+        private final List<Integer> warehouses = new ArrayList<>();
+        private final List<Integer> serviceItems = new ArrayList<>();
+        private final Map<Integer, String> centerRegions = new LinkedHashMap<>();
+
+        private double[] modelWeights;
+        private StatusMix settledStatuses;
+        private StatusMix inFlightStatuses;
+        private int firstVehicleId;
+        private int lastVehicleId;
+
+        Generation(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.sqlServer = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("sql server");
+        }
+
+        void run() throws SQLException {
+            loadReferenceData();
+            generateCustomersVehiclesAndClaims();
+            generatePartSerials();
+            generateInventory();
+            generateCatalogPrices();
+        }
+
+        // ==================== Reference data ====================
+
+        private void loadReferenceData() throws SQLException {
+            query("SELECT u.id, r.role_name, u.service_center_id FROM users u JOIN roles r ON r.id = u.role_id ORDER BY u.id",
+                    rs -> {
+                        UserRef user = new UserRef(rs.getInt(1), rs.getInt(3));
+                        switch (rs.getString(2)) {
+                            case "SC_STAFF" -> staff.add(user);
+                            case "SC_TECHNICIAN" -> {
+                                technicians.add(user);
+                                techniciansByCenter.computeIfAbsent(user.serviceCenterId(), k -> new ArrayList<>()).add(user);
+                            }
+                            case "EVM_STAFF" -> evmUsers.add(user.id());
+                            default -> {
+                            }
+                        }
+                    });
+            query("SELECT id, code FROM claim_statuses", rs -> statusIds.put(rs.getString(2), rs.getInt(1)));
+            query("SELECT id, name, warranty_period_months, warranty_milage_limit FROM vehicle_models ORDER BY id",
+                    rs -> models.add(new ModelRef(rs.getInt(1), rs.getString(2),
+                            rs.getInt(3) > 0 ? rs.getInt(3) : 36, rs.getInt(4) > 0 ? rs.getInt(4) : 100_000)));
+            query("SELECT id, unit_cost FROM parts ORDER BY id", rs -> parts.add(new PartRef(rs.getInt(1),
+                    rs.getBigDecimal(2) != null ? rs.getBigDecimal(2) : BigDecimal.valueOf(500_000))));
+            query("SELECT id FROM warehouses ORDER BY id", rs -> warehouses.add(rs.getInt(1)));
+            query("SELECT id FROM service_items ORDER BY id", rs -> serviceItems.add(rs.getInt(1)));
+            query("SELECT id, region FROM service_centers ORDER BY id", rs -> centerRegions.put(rs.getInt(1), rs.getString(2)));
+
+            if (staff.isEmpty() || technicians.isEmpty() || evmUsers.isEmpty() || statusIds.isEmpty()) {
+                throw new IllegalStateException("Reference data missing: need SC_STAFF, SC_TECHNICIAN and EVM_STAFF users"
+                        + " and claim_statuses (run with data.sql first)");
+            }
+            if (models.isEmpty()) {
+                models.add(new ModelRef(null, "VF e34", 84, 160_000));
+                models.add(new ModelRef(null, "VF 8", 120, 200_000));
+            }
+            settledStatuses = statusMix(SETTLED_STATUS_WEIGHTS);
+            inFlightStatuses = statusMix(IN_FLIGHT_STATUS_WEIGHTS);
+            // Zipf: model phổ biến nhất chiếm phần lớn đội xe
+            modelWeights = new double[models.size()];
+            for (int i = 0; i < modelWeights.length; i++) {
+                modelWeights[i] = 1.0 / (i + 1);
+            }
+        }
+
+        // ==================== Customers / vehicles / claims ====================
+
+        private void generateCustomersVehiclesAndClaims() throws SQLException {
+            int batchSize = properties.getBatchSize();
+            int nextCustomerId = maxId("customers") + 1;
+            int nextVehicleId = maxId("vehicles") + 1;
+            int nextClaimId = maxId("claims") + 1;
+            firstVehicleId = nextVehicleId;
+
+            try (JdbcBatchWriter customers = writer("customers", true,
+                    "name", "email", "phone", "address", "created_by", "created_at");
+                 JdbcBatchWriter vehicles = writer("vehicles", true,
+                         "vin", "license_plate", "model", "vehicle_model_id", "year", "customer_id", "registration_date",
+                         "warranty_start", "warranty_end", "mileage_km", "created_at");
+                 ClaimWriters claims = new ClaimWriters()) {
+
+                for (int start = 0; start < properties.getCustomers(); start += batchSize) {
+                    int end = Math.min(start + batchSize, properties.getCustomers());
+                    for (int i = start; i < end; i++) {
+                        int customerId = nextCustomerId++;
+                        int city = pick(CITY_WEIGHTS);
+                        UserRef registeredBy = staff.get(random.nextInt(staff.size()));
+                        LocalDate firstPurchase = anchor.minusDays(vehicleAgeDays());
+
+                        customers.add(customerId, customerName(),
+                                "customer" + customerId + "@example.vn",
+                                String.format("09%08d", random.nextInt(100_000_000)),
+                                (1 + random.nextInt(300)) + " " + STREETS[random.nextInt(STREETS.length)] + ", " + CITIES[city],
+                                registeredBy.id(), firstPurchase.atTime(9 + random.nextInt(9), random.nextInt(60)));
+
+                        int vehicleCount = pick(new double[]{78, 18, 4}) + 1;
+                        for (int v = 0; v < vehicleCount; v++) {
+                            int vehicleId = nextVehicleId++;
+                            LocalDate registered = v == 0 ? firstPurchase : anchor.minusDays(vehicleAgeDays());
+                            ModelRef model = models.get(pick(modelWeights));
+                            double ageYears = ChronoUnit.DAYS.between(registered, anchor) / 365.0;
+                            // Quãng đường/năm phân bố log-normal quanh ~15.000 km
+                            int mileage = (int) (ageYears * 15_000 * Math.exp(0.4 * random.nextGaussian()));
+                            LocalDate warrantyEnd = registered.plusMonths(model.warrantyMonths());
+
+                            vehicles.add(vehicleId, String.format("RLLV%013d", vehicleId),
+                                    String.format("%02d%c-%06d", CITY_PLATE_CODES[city], (char) ('A' + vehicleId % 11), vehicleId),
+                                    model.name(), model.id(), registered.getYear(), customerId, registered, registered,
+                                    warrantyEnd, mileage, registered.atTime(10, 0));
+
+                            // ~3% "xe lỗi" có tần suất claim gấp 4 lần
+                            double lambda = properties.getClaimsPerVehicleYear() * ageYears * (random.nextDouble() < 0.03 ? 4 : 1);
+                            int claimCount = poisson(lambda);
+                            for (int c = 0; c < claimCount; c++) {
+                                claims.add(nextClaimId++, vehicleId, customerId, registered, warrantyEnd, mileage, model, registeredBy);
+                            }
+                        }
+                    }
+                    customers.flush();
+                    vehicles.flush();
+                    claims.flush();
+                }
+                lastVehicleId = nextVehicleId - 1;
+                record(customers);
+                record(vehicles);
+                claims.record();
+            }
+        }
+
+        private String customerName() {
+            return FAMILY_NAMES[pick(FAMILY_WEIGHTS)] + " " + MIDDLE_NAMES[random.nextInt(MIDDLE_NAMES.length)] + " "
+                    + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+        }
+
+        // Tuổi xe 0-6 năm, lệch về xe mới (doanh số tăng dần)
+        private long vehicleAgeDays() {
+            return (long) (6 * 365 * Math.pow(random.nextDouble(), 1.6));
+        }
+
+        /** 1 claim = 1 dòng claims + 7 bảng 1:1 (+ work order khi đã sửa). */
+        private class ClaimWriters implements AutoCloseable {
+            private final JdbcBatchWriter claims = writer("claims", true,
+                    "claim_number", "vehicle_id", "customer_id", "created_by", "status_id", "is_active", "created_at", "updated_at",
+                    "service_center_id");
+            private final JdbcBatchWriter diagnostics = writer("claim_diagnostics", false,
+                    "claim_id", "reported_failure", "initial_diagnosis", "problem_type", "created_at", "updated_at");
+            private final JdbcBatchWriter approvals = writer("claim_approvals", false,
+                    "claim_id", "approved_by", "approved_at", "rejected_by", "rejected_at", "rejection_reason",
+                    "rejection_count", "resubmit_count", "can_resubmit", "created_at", "updated_at");
+            private final JdbcBatchWriter cancellations = writer("claim_cancellations", false,
+                    "claim_id", "cancel_request_count", "created_at", "updated_at");
+            private final JdbcBatchWriter eligibility = writer("claim_warranty_eligibility", false,
+                    "claim_id", "auto_warranty_eligible", "auto_warranty_reasons", "auto_warranty_checked_at",
+                    "auto_warranty_applied_years", "auto_warranty_applied_km", "is_warranty_eligible", "created_at", "updated_at");
+            private final JdbcBatchWriter costs = writer("claim_costs", false,
+                    "claim_id", "warranty_cost", "company_paid_cost", "total_service_cost", "total_estimated_cost",
+                    "created_at", "updated_at");
+            private final JdbcBatchWriter repairConfigurations = writer("claim_repair_configurations", false,
+                    "claim_id", "repair_type", "service_catalog_items", "customer_payment_status", "created_at", "updated_at");
+            private final JdbcBatchWriter assignments = writer("claim_assignments", false,
+                    "claim_id", "assigned_technician_id", "assigned_at", "created_at", "updated_at");
+            private final JdbcBatchWriter workOrders = writer("work_orders", false,
+                    "claim_id", "technician_id", "start_time", "end_time", "result", "test_results", "repair_notes",
+                    "labor_hours", "work_order_type", "status", "service_center_id");
+            private final List<JdbcBatchWriter> all = List.of(claims, diagnostics, approvals, cancellations,
+                    eligibility, costs, repairConfigurations, assignments, workOrders);
+
+            ClaimWriters() throws SQLException {
+            }
+
+            void add(int claimId, int vehicleId, int customerId, LocalDate registered, LocalDate warrantyEnd,
+                     int mileage, ModelRef model, UserRef createdBy) throws SQLException {
+                long ageDays = Math.max(1, ChronoUnit.DAYS.between(registered, anchor));
+                LocalDateTime createdAt = registered.plusDays(random.nextLong(ageDays))
+                        .atTime(7 + random.nextInt(11), random.nextInt(60));
+                long claimAgeDays = ChronoUnit.DAYS.between(createdAt.toLocalDate(), anchor);
+                StatusMix mix = claimAgeDays > IN_FLIGHT_DAYS ? settledStatuses : inFlightStatuses;
+                String status = mix.codes().get(pick(mix.weights()));
+                LocalDateTime updatedAt = createdAt.plusHours(random.nextInt(1, 24 * (int) Math.min(claimAgeDays + 1, 30)));
+                if (updatedAt.toLocalDate().isAfter(anchor)) {
+                    updatedAt = anchor.atStartOfDay();
+                }
+
+                // Mileage tại thời điểm claim tỉ lệ với tuổi xe lúc đó
+                double claimShare = ChronoUnit.DAYS.between(registered, createdAt.toLocalDate()) / (double) ageDays;
+                int mileageAtClaim = (int) (mileage * claimShare);
+                boolean withinDate = !createdAt.toLocalDate().isAfter(warrantyEnd);
+                boolean withinKm = mileageAtClaim <= model.warrantyKm();
+                boolean eligible = withinDate || withinKm;
+
+                String[] failure = FAILURES[pick(FAILURE_WEIGHTS)];
+                // Chi phí bảo hành log-normal, trung vị ~3,5 triệu VND, đuôi dài (thay pack pin)
+                BigDecimal cost = BigDecimal.valueOf(3_500_000 * Math.exp(0.9 * random.nextGaussian()))
+                        .min(BigDecimal.valueOf(900_000_000)).setScale(-3, RoundingMode.HALF_UP).setScale(2, RoundingMode.UNNECESSARY);
+                BigDecimal labor = BigDecimal.valueOf(random.nextInt(2, 20) * 250_000L).setScale(2, RoundingMode.UNNECESSARY);
+
+                // rs.getInt trả 0 khi users.service_center_id NULL
+                Integer serviceCenterId = createdBy.serviceCenterId() != 0 ? createdBy.serviceCenterId() : null;
+                claims.add(claimId, "CLM-" + createdAt.getYear() + "-S" + claimId, vehicleId, customerId, createdBy.id(),
+                        statusIds.get(status), true, createdAt, updatedAt, serviceCenterId);
+                diagnostics.add(claimId, failure[1], "Initial inspection: " + failure[0].toLowerCase() + " subsystem",
+                        failure[0], createdAt, updatedAt);
+
+                boolean approved = APPROVED_STATUSES.contains(status);
+                boolean rejected = REJECTED_STATUSES.contains(status);
+                Integer evm = evmUsers.get(random.nextInt(evmUsers.size()));
+                LocalDateTime decidedAt = createdAt.plusHours(random.nextInt(2, 72));
+                approvals.add(claimId, approved ? evm : null, approved ? decidedAt : null,
+                        rejected ? evm : null, rejected ? decidedAt : null, rejected ? "NOT_COVERED" : null,
+                        rejected ? 1 : 0, 0, !rejected, createdAt, updatedAt);
+                cancellations.add(claimId, status.startsWith("CANCEL") ? 1 : 0, createdAt, updatedAt);
+                eligibility.add(claimId, eligible, eligible
+                                ? "[\"Within warranty by " + (withinDate ? "date" : "mileage") + "\"]"
+                                : "[\"Warranty expired on " + warrantyEnd + "\"]",
+                        createdAt.plusMinutes(5), model.warrantyMonths() / 12, model.warrantyKm(), eligible, createdAt, updatedAt);
+                costs.add(claimId, eligible ? cost : BigDecimal.ZERO.setScale(2), eligible ? cost : null, labor,
+                        cost.add(labor), createdAt, updatedAt);
+                String serviceItemsJson = serviceItems.isEmpty() ? null
+                        : "[{\"serviceItemId\":" + serviceItems.get(random.nextInt(serviceItems.size()))
+                        + ",\"quantity\":1,\"unitPrice\":" + labor.toPlainString() + "}]";
+                repairConfigurations.add(claimId, eligible ? "EVM_REPAIR" : "SC_REPAIR", serviceItemsJson,
+                        eligible ? null : (APPROVED_STATUSES.contains(status) ? "PAID" : "PENDING"), createdAt, updatedAt);
+
+                UserRef technician = null;
+                if (!UNASSIGNED_STATUSES.contains(status)) {
+                    List<UserRef> local = techniciansByCenter.getOrDefault(createdBy.serviceCenterId(), technicians);
+                    technician = local.get(random.nextInt(local.size()));
+                }
+                assignments.add(claimId, technician != null ? technician.id() : null,
+                        technician != null ? createdAt.plusHours(1) : null, createdAt, updatedAt);
+
+                if (technician != null && REPAIR_STATUSES.contains(status)) {
+                    boolean done = !"REPAIR_IN_PROGRESS".equals(status);
+                    int orders = random.nextDouble() < 0.15 ? 2 : 1;
+                    LocalDateTime start = decidedAt.plusDays(random.nextInt(1, 5));
+                    for (int w = 0; w < orders; w++) {
+                        BigDecimal hours = BigDecimal.valueOf(Math.max(0.5, 2.5 * Math.exp(0.5 * random.nextGaussian())))
+                                .setScale(2, RoundingMode.HALF_UP);
+                        LocalDateTime finished = start.plusMinutes(hours.multiply(BigDecimal.valueOf(60)).longValue());
+                        workOrders.add(claimId, technician.id(), start, done ? finished : null,
+                                done ? "Repaired" : null, done ? "All checks passed" : null,
+                                done ? "Replaced faulty " + failure[0].toLowerCase() + " component" : null,
+                                hours, eligible ? "EVM" : "SC", done ? "DONE" : "OPEN", serviceCenterId);
+                        start = finished.plusDays(1);
+                    }
+                }
+            }
+
+            void flush() throws SQLException {
+                for (JdbcBatchWriter writer : all) {
+                    writer.flush();
+                }
+            }
+
+            void record() {
+                all.forEach(Generation.this::record);
+            }
+
+            @Override
+            public void close() throws SQLException {
+                SQLException failure = null;
+                for (JdbcBatchWriter writer : all) {
+                    try {
+                        writer.close();
+                    } catch (SQLException e) {
+                        failure = failure == null ? e : failure;
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+        }
+
+        // ==================== Part serials / inventory / prices ====================
+
+        private void generatePartSerials() throws SQLException {
+            if (parts.isEmpty() || properties.getSerialsPerPart() <= 0) {
+                return;
+            }
+            int serial = maxId("part_serials") + 1;
+            boolean hasVehicles = lastVehicleId >= firstVehicleId;
+            try (JdbcBatchWriter serials = writer("part_serials", false,
+                    "part_id", "serial_number", "manufacture_date", "status", "installed_on_vehicle_id", "installed_at")) {
+                for (PartRef part : parts) {
+                    for (int i = 0; i < properties.getSerialsPerPart(); i++) {
+                        LocalDate manufactured = anchor.minusDays(random.nextInt(3 * 365));
+                        double roll = random.nextDouble();
+                        String status = roll < 0.55 || !hasVehicles ? "in_stock"
+                                : roll < 0.90 ? "installed" : roll < 0.95 ? "allocated" : "returned";
+                        boolean installed = "installed".equals(status);
+                        serials.add(part.id(), "SN-S" + part.id() + "-" + serial++, manufactured, status,
+                                installed ? random.nextInt(firstVehicleId, lastVehicleId + 1) : null,
+                                installed ? manufactured.plusDays(random.nextInt(30, 400)).atTime(10, 0) : null);
+                        if (serials.pending() >= properties.getBatchSize()) {
+                            serials.flush();
+                        }
+                    }
+                }
+                serials.flush();
+                record(serials);
+            }
+        }
+
+        private void generateInventory() throws SQLException {
+            Set<Long> existing = new HashSet<>();
+            query("SELECT warehouse_id, part_id FROM inventory", rs -> existing.add(key(rs.getInt(1), rs.getInt(2))));
+            try (JdbcBatchWriter inventory = writer("inventory", false,
+                    "warehouse_id", "part_id", "current_stock", "reserved_stock", "available_stock", "stock_status",
+                    "minimum_stock", "maximum_stock", "unit_cost", "last_updated")) {
+                for (Integer warehouse : warehouses) {
+                    for (PartRef part : parts) {
+                        if (!existing.add(key(warehouse, part.id()))) {
+                            continue;
+                        }
+                        int minimum = 5 + random.nextInt(26);
+                        // ~6% hết hàng, còn lại log-normal quanh 3 lần mức tối thiểu
+                        int current = random.nextDouble() < 0.06 ? 0 : (int) (minimum * 3 * Math.exp(0.7 * random.nextGaussian()));
+                        int reserved = Math.min(current, poisson(2));
+                        inventory.add(warehouse, part.id(), current, reserved, current - reserved,
+                                Inventory.stockStatusOf(current, minimum), minimum, 500, part.unitCost(),
+                                anchor.minusDays(random.nextInt(60)).atTime(8, 0));
+                        if (inventory.pending() >= properties.getBatchSize()) {
+                            inventory.flush();
+                        }
+                    }
+                }
+                inventory.flush();
+                record(inventory);
+            }
+        }
+
+        private void generateCatalogPrices() throws SQLException {
+            int versions = properties.getPriceHistoryVersions();
+            if (versions <= 0) {
+                return;
+            }
+            // Khóa (item_type, item_id, region, service_center_id) -> effective_from sớm nhất đang có
+            Map<String, LocalDate> earliest = new HashMap<>();
+            query("SELECT item_type, item_id, region, service_center_id, MIN(effective_from) FROM catalog_prices"
+                            + " GROUP BY item_type, item_id, region, service_center_id",
+                    rs -> earliest.put(priceKey(rs.getString(1), rs.getInt(2), rs.getString(3),
+                            (Integer) rs.getObject(4)), rs.getDate(5).toLocalDate()));
+
+            List<String> regions = centerRegions.values().stream().filter(r -> r != null && !r.isBlank()).distinct().toList();
+            if (regions.isEmpty()) {
+                regions = List.of(DEFAULT_REGIONS);
+            }
+            try (JdbcBatchWriter prices = writer("catalog_prices", false,
+                    "item_type", "item_id", "price", "currency", "region", "service_center_id", "effective_from",
+                    "effective_to", "created_at", "updated_at")) {
+                for (PartRef part : parts) {
+                    // Giá bán phụ tùng = giá vốn x 1,3-1,8
+                    BigDecimal base = part.unitCost().multiply(BigDecimal.valueOf(1.3 + random.nextDouble() * 0.5));
+                    writePriceHistory(prices, "PART", part.id(), base, regions, earliest);
+                }
+                for (Integer item : serviceItems) {
+                    writePriceHistory(prices, "SERVICE", item, BigDecimal.valueOf(random.nextInt(2, 40) * 50_000L),
+                            regions, earliest);
+                }
+                prices.flush();
+                record(prices);
+            }
+        }
+
+        private void writePriceHistory(JdbcBatchWriter prices, String type, int itemId, BigDecimal currentPrice,
+                                       List<String> regions, Map<String, LocalDate> earliest) throws SQLException {
+            List<Map.Entry<String, Integer>> scopes = new ArrayList<>();
+            regions.forEach(region -> scopes.add(Map.entry(region, 0)));
+            // 1/3 số trung tâm có giá riêng
+            centerRegions.forEach((center, region) -> {
+                if (region != null && random.nextInt(3) == 0) {
+                    scopes.add(Map.entry(region, center));
+                }
+            });
+            for (Map.Entry<String, Integer> scope : scopes) {
+                Integer center = scope.getValue() == 0 ? null : scope.getValue();
+                LocalDate existingFrom = earliest.get(priceKey(type, itemId, scope.getKey(), center));
+                LocalDate end = existingFrom != null ? existingFrom.minusDays(1) : PRICE_HISTORY_END;
+                // Lạm phát giá ~4%/bản, bản mới nhất còn hiệu lực nếu chưa có giá hiện hành
+                BigDecimal price = currentPrice;
+                for (int v = 0; v < properties.getPriceHistoryVersions(); v++) {
+                    LocalDate to = end.minusMonths(6L * v);
+                    LocalDate from = to.minusMonths(6).plusDays(1);
+                    prices.add(type, itemId, price.setScale(-3, RoundingMode.HALF_UP).setScale(2, RoundingMode.UNNECESSARY),
+                            "VND", scope.getKey(), center, from, v == 0 && existingFrom == null ? null : to,
+                            from.atTime(8, 0), from.atTime(8, 0));
+                    price = price.multiply(BigDecimal.valueOf(0.96));
+                }
+                if (prices.pending() >= properties.getBatchSize()) {
+                    prices.flush();
+                }
+            }
+        }
+
+        // ==================== Helpers ====================
+
+        private JdbcBatchWriter writer(String table, boolean explicitId, String... columns) throws SQLException {
+            return new JdbcBatchWriter(connection, sqlServer, table, explicitId, columns);
+        }
+
+        private void record(JdbcBatchWriter writer) {
+            rowsByTable.merge(writer.table(), writer.written(), Long::sum);
+            log.info("Synthetic data: {} rows written to {}", writer.written(), writer.table());
+        }
+
+        private int maxId(String table) throws SQLException {
+            int[] max = {0};
+            query("SELECT COALESCE(MAX(id), 0) FROM " + table, rs -> max[0] = rs.getInt(1));
+            return max[0];
+        }
+
+        private void query(String sql, RowHandler handler) throws SQLException {
+            try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                }
+            }
+        }
+
+        private StatusMix statusMix(Map<String, Double> weights) {
+            // Chỉ dùng các code có trong claim_statuses; sắp xếp để cùng seed ra cùng kết quả
+            List<String> codes = weights.keySet().stream().filter(statusIds::containsKey).sorted().toList();
+            if (codes.isEmpty()) {
+                codes = statusIds.keySet().stream().sorted().toList();
+            }
+            return new StatusMix(codes, codes.stream().mapToDouble(code -> weights.getOrDefault(code, 1.0)).toArray());
+        }
+
+        private int pick(double[] weights) {
+            double total = 0;
+            for (double w : weights) {
+                total += w;
+            }
+            double roll = random.nextDouble() * total;
+            for (int i = 0; i < weights.length; i++) {
+                roll -= weights[i];
+                if (roll < 0) {
+                    return i;
+                }
+            }
+            return weights.length - 1;
+        }
+
+        private int poisson(double lambda) {
+            double limit = Math.exp(-lambda);
+            double product = random.nextDouble();
+            int count = 0;
+            while (product > limit) {
+                product *= random.nextDouble();
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static long key(int a, int b) {
+        return ((long) a << 32) | (b & 0xffffffffL);
+    }
+
+    private static String priceKey(String type, int itemId, String region, Integer center) {
+        return type + '|' + itemId + '|' + region + '|' + center;
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ev.warranty.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Request ghi (POST/PUT/PATCH/DELETE) chạy hoàn toàn trên primary, kể cả các lần đọc readOnly bên trong,
+ * để không đọc phải bản replica cũ hơn dữ liệu vừa ghi. Ngoại lệ: endpoint báo cáo chỉ đọc nhưng nhận POST.
+ */
+public class PrimaryPinningInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final List<String> reportPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public PrimaryPinningInterceptor(List<String> reportPaths) {
+        this.reportPaths = reportPaths;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!READ_METHODS.contains(request.getMethod()) && !isReportPath(request.getRequestURI())) {
+            ReplicaRouting.pinPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRouting.clear();
+    }
+
+    private boolean isReportPath(String uri) {
+        return reportPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, uri));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ev.warranty.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Đo độ trễ replica bằng heartbeat: ghi thời điểm hiện tại vào replica_heartbeats trên primary,
+ * đọc lại trên replica; lag = now - beat_at thấy được trên replica.
+ * Replica chỉ được dùng khi lần đo gần nhất thành công và lag <= maxLag; trước lần đo đầu tiên thì không.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final int HEARTBEAT_ID = 1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable;
+    private volatile Duration lastLag;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, Duration maxLag) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        check();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-millis:5000}")
+    public void check() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            if (primary.update("UPDATE replica_heartbeats SET beat_at = ? WHERE id = ?", now, HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replica_heartbeats (id, beat_at) VALUES (?, ?)", HEARTBEAT_ID, now);
+            }
+        } catch (Exception e) {
+            // Primary lỗi thì ứng dụng đã có vấn đề lớn hơn; vẫn đo replica theo heartbeat cũ
+            log.warn("Failed to write replica heartbeat on primary: {}", e.getMessage());
+        }
+
+        try {
+            LocalDateTime beatAt = replica.queryForObject(
+                    "SELECT beat_at FROM replica_heartbeats WHERE id = ?", LocalDateTime.class, HEARTBEAT_ID);
+            Duration lag = beatAt != null ? Duration.between(beatAt, now) : null;
+            lastLag = lag;
+            if (lag == null || lag.compareTo(maxLag) > 0) {
+                update(false, "lag " + (lag != null ? lag.toSeconds() + "s" : "unknown") + " > " + maxLag.toSeconds() + "s");
+            } else {
+                update(true, "lag " + lag.toMillis() + " ms");
+            }
+        } catch (Exception e) {
+            lastLag = null;
+            update(false, e.getMessage());
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public Duration getLastLag() {
+        return lastLag;
+    }
+
+    /** Replica vừa lỗi khi lấy connection: bỏ qua đến lần đo kế tiếp. */
+    public void markReplicaDown(String reason) {
+        update(false, reason);
+    }
+
+    private void update(boolean usable, String reason) {
+        if (replicaUsable != usable) {
+            if (usable) {
+                log.info("Read replica back in rotation ({})", reason);
+            } else {
+                log.warn("Read replica taken out of rotation, reads go to primary: {}", reason);
+            }
+        }
+        replicaUsable = usable;
+    }
+}
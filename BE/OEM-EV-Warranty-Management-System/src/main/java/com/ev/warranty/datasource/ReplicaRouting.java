@@ -0,0 +1,37 @@
+package com.ev.warranty.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Ghim thread hiện tại vào primary: transaction readOnly mở trong lúc ghim cũng đọc từ primary.
+ * Dùng khi cần đọc lại dữ liệu vừa ghi (replica có thể trễ vài giây).
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_PINNED.set(previous);
+        }
+    }
+
+    static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PRIMARY_PINNED.remove();
+    }
+}
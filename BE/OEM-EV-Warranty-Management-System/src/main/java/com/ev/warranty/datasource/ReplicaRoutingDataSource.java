@@ -0,0 +1,54 @@
+package com.ev.warranty.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Nguồn connection cho transaction readOnly (LazyConnectionDataSourceProxy.readOnlyDataSource):
+ * replica nếu đang khỏe và thread không bị ghim vào primary, ngược lại là primary.
+ * Replica lỗi khi lấy connection -> rút khỏi rotation và trả connection primary ngay, request không lỗi.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.replicaReads = Counter.builder("datasource.readonly.connections").tag("target", "replica")
+                .register(meterRegistry);
+        this.primaryReads = Counter.builder("datasource.readonly.connections").tag("target", "primary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReplicaRouting.isPrimaryPinned() && lagMonitor.isReplicaUsable()) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.markReplicaDown(e.getMessage());
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Credentials are configured per pool");
+    }
+}
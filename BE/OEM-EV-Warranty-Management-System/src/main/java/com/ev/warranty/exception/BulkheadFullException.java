@@ -0,0 +1,28 @@
+package com.ev.warranty.exception;
+
+/**
+ * Bulkhead hết permit và request đã chờ quá queue timeout -> 503 (xem GlobalExceptionHandler).
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead, String message) {
+        super(message);
+        this.bulkhead = bulkhead;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+
+    /** Tìm trong chuỗi cause, vì bulkhead database bị Spring/Hibernate bọc lại khi lấy connection. */
+    public static BulkheadFullException findIn(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof BulkheadFullException full) {
+                return full;
+            }
+        }
+        return null;
+    }
+}
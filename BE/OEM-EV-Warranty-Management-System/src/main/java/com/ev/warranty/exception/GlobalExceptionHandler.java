@@ -1,5 +1,7 @@
 package com.ev.warranty.exception;
 
+import com.ev.warranty.config.BulkheadProperties;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -17,6 +19,12 @@ import java.util.Map;
 @RestControllerAdvice(basePackages = {"com.ev.warranty.controller"})
 public class GlobalExceptionHandler {
 
+    private final BulkheadProperties bulkheadProperties;
+
+    public GlobalExceptionHandler(BulkheadProperties bulkheadProperties) {
+        this.bulkheadProperties = bulkheadProperties;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationException(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -79,10 +87,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
     }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, Object>> handleBulkheadFullException(
+            BulkheadFullException ex, WebRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Service busy");
+        response.put("details", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(bulkheadProperties.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(
             Exception ex, WebRequest request) {
-
+        // Bulkhead database bị bọc trong CannotCreateTransactionException / JDBCConnectionException
+        BulkheadFullException bulkheadFull = BulkheadFullException.findIn(ex);
+        if (bulkheadFull != null) {
+            return handleBulkheadFullException(bulkheadFull, request);
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
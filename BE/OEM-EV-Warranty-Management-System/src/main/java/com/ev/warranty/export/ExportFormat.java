@@ -0,0 +1,40 @@
+package com.ev.warranty.export;
+
+import com.ev.warranty.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+public enum ExportFormat {
+    CSV("text/csv; charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public RowWriter open(OutputStream out, List<String> header) throws IOException {
+        return this == CSV ? new CsvRowWriter(out, header) : new XlsxRowWriter(out, header);
+    }
+
+    public static ExportFormat parse(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(value != null ? value.trim() : ""))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported export format '" + value + "'. Allowed: csv, xlsx"));
+    }
+}
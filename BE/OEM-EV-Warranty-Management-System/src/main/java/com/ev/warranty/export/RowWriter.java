@@ -0,0 +1,19 @@
+package com.ev.warranty.export;
+
+import java.io.IOException;
+
+/**
+ * Ghi bảng ra stream từng dòng một, không giữ dòng nào trong bộ nhớ.
+ * IOException khi ghi = client đã ngắt kết nối (hủy tải): caller dừng đọc cursor.
+ */
+public interface RowWriter extends AutoCloseable {
+
+    void write(Object[] row) throws IOException;
+
+    /** Đẩy phần đã ghi tới client. */
+    void flush() throws IOException;
+
+    /** Ghi phần kết thúc của file (vd. workbook XLSX); không đóng stream của response. */
+    @Override
+    void close() throws IOException;
+}
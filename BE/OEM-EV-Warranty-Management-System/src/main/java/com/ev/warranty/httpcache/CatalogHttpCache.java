@@ -0,0 +1,148 @@
+package com.ev.warranty.httpcache;
+
+import com.ev.warranty.config.HttpCacheProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET cho các API danh mục: ETag / Last-Modified dựng từ CatalogVersions.
+ * - conditional(): If-None-Match / If-Modified-Since khớp thì trả 304 trước khi gọi service (không DB, không Jackson).
+ * - cachedJson(): thêm cache JSON đã serialize theo URI + query cho các danh sách đọc nhiều nhất; bị xóa khi bảng đổi.
+ * ETag là weak (W/"...") để Tomcat vẫn nén được response (không nén khi ETag strong).
+ * Metrics: http.catalog.responses{result=not_modified|cached|rendered}, http.catalog.cached_bodies.
+ */
+@Component
+public class CatalogHttpCache {
+
+    // Trình duyệt / client luôn hỏi lại server, dữ liệu gắn với người dùng đã đăng nhập
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private record CachedBody(String etag, Set<CatalogTable> tables, byte[] json) {
+    }
+
+    private final CatalogVersions versions;
+    private final ObjectMapper objectMapper;
+    private final int maxBodyBytes;
+    private final Map<String, CachedBody> bodies;
+
+    private final Counter notModified;
+    private final Counter cachedHits;
+    private final Counter rendered;
+
+    public CatalogHttpCache(CatalogVersions versions, ObjectMapper objectMapper, HttpCacheProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.versions = versions;
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = properties.getMaxCachedResponseBytes();
+        int maxEntries = properties.getMaxCachedResponses();
+        this.bodies = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedBody> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        versions.onBump(this::evict);
+
+        this.notModified = responses(meterRegistry, "not_modified");
+        this.cachedHits = responses(meterRegistry, "cached");
+        this.rendered = responses(meterRegistry, "rendered");
+        Gauge.builder("http.catalog.cached_bodies", bodies, Map::size)
+                .description("Serialized catalog responses held in memory").register(meterRegistry);
+    }
+
+    public <T> ResponseEntity<T> conditional(WebRequest request, Supplier<T> body, CatalogTable... tables) {
+        return conditional(request, null, body, tables);
+    }
+
+    /** @param variant phần phụ thuộc người gọi (vd. username khi kết quả tự suy ra từ trung tâm của user), null nếu không có */
+    public <T> ResponseEntity<T> conditional(WebRequest request, String variant, Supplier<T> body, CatalogTable... tables) {
+        CatalogVersions.Stamp stamp = versions.stamp(setOf(tables), variant);
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            notModified.increment();
+            return notModified(stamp);
+        }
+        rendered.increment();
+        return ok(stamp).body(body.get());
+    }
+
+    public ResponseEntity<?> cachedJson(WebRequest request, Supplier<?> body, CatalogTable... tables) {
+        Set<CatalogTable> tableSet = setOf(tables);
+        CatalogVersions.Stamp stamp = versions.stamp(tableSet, null);
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            notModified.increment();
+            return notModified(stamp);
+        }
+        String key = cacheKey(request);
+        CachedBody cached = bodies.get(key);
+        if (cached != null && cached.etag().equals(stamp.etag())) {
+            cachedHits.increment();
+            return ok(stamp).contentType(MediaType.APPLICATION_JSON).body(cached.json());
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body.get());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response for " + key, e);
+        }
+        if (json.length <= maxBodyBytes) {
+            bodies.put(key, new CachedBody(stamp.etag(), tableSet, json));
+        }
+        rendered.increment();
+        return ok(stamp).contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    void evict(Set<CatalogTable> changed) {
+        synchronized (bodies) {
+            bodies.values().removeIf(b -> !Collections.disjoint(b.tables(), changed));
+        }
+    }
+
+    private ResponseEntity.BodyBuilder ok(CatalogVersions.Stamp stamp) {
+        return ResponseEntity.ok().eTag(stamp.etag()).lastModified(stamp.lastModified()).cacheControl(CACHE_CONTROL);
+    }
+
+    private <T> ResponseEntity<T> notModified(CatalogVersions.Stamp stamp) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(stamp.etag()).lastModified(stamp.lastModified()).cacheControl(CACHE_CONTROL).build();
+    }
+
+    private static String cacheKey(WebRequest request) {
+        HttpServletRequest servletRequest = request instanceof NativeWebRequest nativeRequest
+                ? nativeRequest.getNativeRequest(HttpServletRequest.class) : null;
+        if (servletRequest == null) {
+            return request.getDescription(false);
+        }
+        String query = servletRequest.getQueryString();
+        return servletRequest.getRequestURI() + (query != null ? "?" + query : "");
+    }
+
+    private static Set<CatalogTable> setOf(CatalogTable... tables) {
+        Set<CatalogTable> set = EnumSet.noneOf(CatalogTable.class);
+        Collections.addAll(set, tables);
+        return set;
+    }
+
+    private static Counter responses(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("http.catalog.responses").tag("result", result)
+                .description("Catalog GET responses by how they were produced").register(meterRegistry);
+    }
+}
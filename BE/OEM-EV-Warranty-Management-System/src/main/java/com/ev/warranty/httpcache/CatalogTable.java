@@ -0,0 +1,42 @@
+package com.ev.warranty.httpcache;
+
+import com.ev.warranty.model.entity.CatalogPrice;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.PolicyRule;
+import com.ev.warranty.model.entity.ServiceCenter;
+import com.ev.warranty.model.entity.ServiceItem;
+import com.ev.warranty.model.entity.VehicleModel;
+import com.ev.warranty.model.entity.WarrantyCondition;
+import com.ev.warranty.model.entity.WarrantyPolicy;
+
+/** Các bảng danh mục có bộ đếm thay đổi trong catalog_versions. */
+public enum CatalogTable {
+    VEHICLE_MODELS("vehicle_models"),
+    SERVICE_CENTERS("service_centers"),
+    SERVICE_ITEMS("service_items"),
+    CATALOG_PRICES("catalog_prices"),
+    PARTS("parts"),
+    WARRANTY_CONDITIONS("warranty_conditions"),
+    WARRANTY_POLICIES("warranty_policies"); // gồm cả policy_rules
+
+    private final String tableName;
+
+    CatalogTable(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    static CatalogTable of(Object entity) {
+        if (entity instanceof VehicleModel) return VEHICLE_MODELS;
+        if (entity instanceof ServiceCenter) return SERVICE_CENTERS;
+        if (entity instanceof ServiceItem) return SERVICE_ITEMS;
+        if (entity instanceof CatalogPrice) return CATALOG_PRICES;
+        if (entity instanceof Part) return PARTS;
+        if (entity instanceof WarrantyCondition) return WARRANTY_CONDITIONS;
+        if (entity instanceof WarrantyPolicy || entity instanceof PolicyRule) return WARRANTY_POLICIES;
+        return null;
+    }
+}
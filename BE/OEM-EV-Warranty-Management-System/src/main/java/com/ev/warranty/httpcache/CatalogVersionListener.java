@@ -0,0 +1,59 @@
+package com.ev.warranty.httpcache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * JPA entity listener trên các entity danh mục: gom các bảng bị ghi trong transaction và tăng phiên bản sau commit,
+ * bất kể service nào ghi (VehicleModelService, ThirdPartyPartService, import catalog...).
+ */
+@Component
+public class CatalogVersionListener {
+
+    private final ObjectProvider<CatalogVersions> versions;
+
+    public CatalogVersionListener(ObjectProvider<CatalogVersions> versions) {
+        this.versions = versions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        CatalogTable table = CatalogTable.of(entity);
+        if (table == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.ifAvailable(v -> v.bump(EnumSet.of(table)));
+            return;
+        }
+        ChangedTables changed = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(ChangedTables.class::isInstance)
+                .map(ChangedTables.class::cast)
+                .findFirst()
+                .orElse(null);
+        if (changed == null) {
+            changed = new ChangedTables();
+            TransactionSynchronizationManager.registerSynchronization(changed);
+        }
+        changed.tables.add(table);
+    }
+
+    private final class ChangedTables implements TransactionSynchronization {
+        private final Set<CatalogTable> tables = EnumSet.noneOf(CatalogTable.class);
+
+        @Override
+        public void afterCommit() {
+            versions.ifAvailable(v -> v.bump(tables));
+        }
+    }
+}
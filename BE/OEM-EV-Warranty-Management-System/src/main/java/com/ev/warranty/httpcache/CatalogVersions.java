@@ -0,0 +1,197 @@
+package com.ev.warranty.httpcache;
+
+import com.ev.warranty.config.HttpCacheProperties;
+import com.ev.warranty.model.entity.CatalogVersion;
+import com.ev.warranty.repository.CatalogVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Phiên bản hiện tại của các bảng danh mục, đọc từ catalog_versions.
+ * - Đọc: snapshot trong bộ nhớ, nạp lại tối đa mỗi app.http-cache.version-refresh-millis (một query nhỏ cho cả node),
+ *   nên request trả 304 không chạm DB.
+ * - Ghi: CatalogVersionListener gọi bump() sau commit; node ghi thấy ngay, node khác thấy sau lần nạp kế tiếp.
+ */
+@Component
+@Slf4j
+public class CatalogVersions {
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /** ETag (weak) và Last-Modified (epoch millis) cho một tập bảng. */
+    public record Stamp(String etag, long lastModified) {
+    }
+
+    private record TableVersion(long version, long updatedAtMillis) {
+    }
+
+    private record Snapshot(Map<CatalogTable, TableVersion> versions, long loadedAt) {
+    }
+
+    private final CatalogVersionRepository repository;
+    private final TransactionTemplate transaction;
+    private final long refreshNanos;
+
+    private volatile Snapshot snapshot;
+    // Tăng mỗi lần bump: snapshot nạp trước đó không được ghi đè bản mới
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final List<Consumer<Set<CatalogTable>>> bumpListeners = new CopyOnWriteArrayList<>();
+
+    public CatalogVersions(CatalogVersionRepository repository, HttpCacheProperties properties,
+                           PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        // Transaction riêng trên primary: gọi được từ afterCommit và không đọc replica đang trễ
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.refreshNanos = properties.getVersionRefreshMillis() * 1_000_000L;
+    }
+
+    public Stamp stamp(Set<CatalogTable> tables, String variant) {
+        Map<CatalogTable, TableVersion> versions = current().versions();
+        StringBuilder tag = new StringBuilder("W/\"");
+        // Ngày nằm trong ETag: các API "đang hiệu lực" đổi kết quả qua nửa đêm dù bảng không đổi
+        LocalDate today = LocalDate.now();
+        long lastModified = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (CatalogTable table : CatalogTable.values()) {
+            if (!tables.contains(table)) continue;
+            TableVersion version = versions.getOrDefault(table, new TableVersion(0, 0));
+            tag.append(table.ordinal()).append('.').append(version.version()).append('-');
+            lastModified = Math.max(lastModified, version.updatedAtMillis());
+        }
+        tag.append(today.format(DAY));
+        if (variant != null) {
+            tag.append('-').append(Integer.toHexString(variant.hashCode()));
+        }
+        return new Stamp(tag.append('"').toString(), lastModified);
+    }
+
+    /** Phiên bản hiện tại của một bảng (0 nếu chưa có dòng), cùng độ trễ với stamp(). */
+    public long version(CatalogTable table) {
+        TableVersion version = current().versions().get(table);
+        return version == null ? 0 : version.version();
+    }
+
+    /** Tăng phiên bản các bảng trong transaction riêng rồi báo cho cache phía server. */
+    public void bump(Set<CatalogTable> tables) {
+        if (tables.isEmpty()) return;
+        List<String> names = tables.stream().map(CatalogTable::tableName).toList();
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            try {
+                transaction.executeWithoutResult(status -> bumpOrInsert(names));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // Node khác vừa tạo cùng dòng: lần sau chỉ cần UPDATE
+                if (attempt == 2) log.warn("Catalog version bump failed for {}: {}", names, e.getMessage());
+            } catch (RuntimeException e) {
+                // Chạy trong afterCommit: không ném lại cho request đã commit xong
+                log.warn("Catalog version bump failed for {}: {}", names, e.getMessage());
+                break;
+            }
+        }
+        generation.incrementAndGet();
+        snapshot = null;
+        bumpListeners.forEach(listener -> listener.accept(tables));
+    }
+
+    void onBump(Consumer<Set<CatalogTable>> listener) {
+        bumpListeners.add(listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            transaction.executeWithoutResult(status -> {
+                List<CatalogVersion> missing = new ArrayList<>();
+                Set<String> existing = new HashSet<>();
+                repository.findAll().forEach(v -> existing.add(v.getTableName()));
+                for (CatalogTable table : CatalogTable.values()) {
+                    if (!existing.contains(table.tableName())) {
+                        missing.add(newRow(table.tableName()));
+                    }
+                }
+                repository.saveAll(missing);
+            });
+        } catch (RuntimeException e) {
+            // Node khác seed cùng lúc, hoặc DB chưa sẵn sàng: bump() tự tạo dòng còn thiếu
+            log.debug("Catalog versions not seeded: {}", e.getMessage());
+        }
+    }
+
+    private void bumpOrInsert(List<String> names) {
+        int updated = repository.bump(names, LocalDateTime.now());
+        if (updated < names.size()) {
+            Set<String> existing = new HashSet<>();
+            repository.findAllById(names).forEach(v -> existing.add(v.getTableName()));
+            repository.saveAll(names.stream().filter(n -> !existing.contains(n)).map(this::newRow).toList());
+        }
+    }
+
+    private CatalogVersion newRow(String tableName) {
+        return CatalogVersion.builder().tableName(tableName).version(1L).updatedAt(LocalDateTime.now()).build();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt() < refreshNanos) {
+            return current;
+        }
+        if (current != null) {
+            // Hết hạn: một thread nạp lại, các thread khác tiếp tục dùng bản cũ
+            if (!loadLock.tryLock()) {
+                return current;
+            }
+        } else {
+            loadLock.lock();
+        }
+        try {
+            Snapshot latest = snapshot;
+            if (latest != null && latest != current) {
+                return latest;
+            }
+            return load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        long startGeneration = generation.get();
+        Map<CatalogTable, TableVersion> versions = new EnumMap<>(CatalogTable.class);
+        List<CatalogVersion> rows = transaction.execute(status -> repository.findAll());
+        for (CatalogVersion row : rows != null ? rows : List.<CatalogVersion>of()) {
+            for (CatalogTable table : CatalogTable.values()) {
+                if (table.tableName().equals(row.getTableName())) {
+                    versions.put(table, new TableVersion(row.getVersion(),
+                            row.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+                }
+            }
+        }
+        Snapshot loaded = new Snapshot(versions, System.nanoTime());
+        if (generation.get() == startGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ev.warranty.idempotency;
+
+import com.ev.warranty.config.IdempotencyProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Request ghi có header Idempotency-Key: giữ body request (để băm) và body response (để lưu).
+ * Việc giành key / trả lại response do IdempotencyInterceptor làm, vì chỉ ở đó mới biết handler có @Idempotent;
+ * filter kết thúc key sau khi response đã hoàn chỉnh.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String RECORD_KEY_ATTRIBUTE = IdempotencyFilter.class.getName() + ".recordKey";
+    static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH");
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties) {
+        this.store = store;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String key = request.getHeader(HEADER);
+        return !properties.isEnabled() || key == null || key.isBlank() || !METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Form / multipart: servlet container tự đọc body thành parameter / part, băm theo parameter thay vì body
+        HttpServletRequest wrappedRequest = hasParameterBody(request) ? request : new CachedBodyRequest(request);
+        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        boolean handled = false;
+        try {
+            chain.doFilter(wrappedRequest, wrappedResponse);
+            handled = true;
+        } finally {
+            if (request.getAttribute(RECORD_KEY_ATTRIBUTE) instanceof String recordKey) {
+                finish(recordKey, wrappedResponse, handled);
+            }
+            wrappedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void finish(String recordKey, ContentCachingResponseWrapper response, boolean handled) {
+        int status = response.getStatus();
+        byte[] body = response.getContentAsByteArray();
+        // Lỗi phía server có thể hết khi thử lại: không lưu, để lần gửi lại chạy thật
+        if (!handled || status >= 500 || body.length > properties.getMaxResponseBytes()) {
+            store.release(recordKey);
+        } else {
+            store.complete(recordKey, status, response.getContentType(), body);
+        }
+    }
+
+    static boolean hasParameterBody(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return MediaType.APPLICATION_FORM_URLENCODED.includes(mediaType)
+                    || "multipart".equalsIgnoreCase(mediaType.getType());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ev.warranty.idempotency;
+
+import com.ev.warranty.config.IdempotencyProperties;
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.model.entity.IdempotencyRecord;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Với handler @Idempotent và request đã qua IdempotencyFilter: giành Idempotency-Key (phạm vi theo người gọi),
+ * hoặc trả response đã lưu của lần đầu (header Idempotent-Replayed: true) mà không gọi controller.
+ * Cùng key nhưng khác nội dung → 422; lần đầu vẫn chưa xong sau waitTimeoutMillis → 409.
+ */
+public class IdempotencyInterceptor implements HandlerInterceptor {
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+
+    public IdempotencyInterceptor(IdempotencyStore store, IdempotencyProperties properties) {
+        this.store = store;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        String header = request.getHeader(IdempotencyFilter.HEADER);
+        if (header == null || header.isBlank() || !(handler instanceof HandlerMethod method) || !isIdempotent(method)
+                || WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            return true;
+        }
+        String key = header.trim();
+        if (key.length() > properties.getMaxKeyLength()) {
+            throw new BadRequestException(IdempotencyFilter.HEADER + " must be at most "
+                    + properties.getMaxKeyLength() + " characters");
+        }
+        String recordKey = caller() + ":" + key;
+        IdempotencyStore.Outcome outcome = store.begin(recordKey, requestHash(request));
+        switch (outcome.result()) {
+            case ACQUIRED -> {
+                request.setAttribute(IdempotencyFilter.RECORD_KEY_ATTRIBUTE, recordKey);
+                return true;
+            }
+            case REPLAY -> {
+                replay(outcome.record(), response);
+                return false;
+            }
+            case MISMATCH -> throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    IdempotencyFilter.HEADER + " was already used for a different request");
+            default -> throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this " + IdempotencyFilter.HEADER + " is still being processed, retry later");
+        }
+    }
+
+    static boolean isIdempotent(HandlerMethod method) {
+        return method.hasMethodAnnotation(Idempotent.class)
+                || AnnotatedElementUtils.hasAnnotation(method.getBeanType(), Idempotent.class);
+    }
+
+    private static void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        response.setStatus(record.getResponseStatus());
+        response.setHeader(IdempotencyFilter.REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        if (record.getResponseBody() != null) {
+            response.getOutputStream().write(record.getResponseBody());
+        }
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return "anonymous";
+        }
+        return authentication.getName();
+    }
+
+    static String requestHash(HttpServletRequest request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString() + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        CachedBodyRequest cached = WebUtils.getNativeRequest(request, CachedBodyRequest.class);
+        if (cached != null) {
+            digest.update(cached.getBody());
+        } else {
+            // Form / multipart: băm parameter (đã sắp xếp); nội dung file không nằm trong hash
+            Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+            parameters.forEach((name, values) -> digest.update((name + "=" + String.join(",", values) + "\n")
+                    .getBytes(StandardCharsets.UTF_8)));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,199 @@
+package com.ev.warranty.idempotency;
+
+import com.ev.warranty.config.IdempotencyProperties;
+import com.ev.warranty.model.entity.IdempotencyRecord;
+import com.ev.warranty.repository.IdempotencyRecordRepository;
+import com.ev.warranty.service.impl.ClusterJobRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bảng idempotency_records: mỗi key một dòng, unique trên record_key nên chỉ một request (trên mọi node) giành được key.
+ * Request trùng đến trong lúc lần đầu còn chạy thì chờ: cùng node chờ latch, khác node đọc lại dòng mỗi pollIntervalMillis.
+ * Lần đầu lỗi 5xx / exception thì key được trả lại và request đang chờ sẽ tự chạy.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    static final String JOB_IDEMPOTENCY_PURGE = "idempotency-key-purge";
+    private static final int MAX_ATTEMPTS = 3;
+
+    public enum Result { ACQUIRED, REPLAY, MISMATCH, TIMEOUT }
+
+    public record Outcome(Result result, IdempotencyRecord record) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final ClusterJobRunner jobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, CountDownLatch> running = new ConcurrentHashMap<>();
+    private final Map<Result, Counter> outcomes = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            IdempotencyProperties properties,
+                            ClusterJobRunner jobRunner,
+                            MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.properties = properties;
+        this.jobRunner = jobRunner;
+        this.meterRegistry = meterRegistry;
+        // Gọi từ filter / interceptor, ngoài mọi transaction nghiệp vụ; ghi phải thấy ngay trên primary
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Giành key cho request hiện tại, hoặc trả response đã lưu / chờ lần chạy đang dở.
+     * ACQUIRED thì người gọi phải kết thúc bằng complete() hoặc release().
+     */
+    public Outcome begin(String recordKey, String requestHash) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            if (tryInsert(recordKey, requestHash)) {
+                return count(new Outcome(Result.ACQUIRED, null));
+            }
+            Optional<IdempotencyRecord> existing = find(recordKey);
+            if (existing.isEmpty()) {
+                continue; // vừa bị release / purge
+            }
+            IdempotencyRecord record = existing.get();
+            if (reusable(record)) {
+                transactionTemplate.execute(status -> repository.deleteIfReusable(recordKey, LocalDateTime.now(),
+                        abandonedBefore()));
+                continue;
+            }
+            if (!record.getRequestHash().equals(requestHash)) {
+                return count(new Outcome(Result.MISMATCH, record));
+            }
+            if (IdempotencyRecord.COMPLETED.equals(record.getStatus())) {
+                return count(new Outcome(Result.REPLAY, record));
+            }
+            Optional<IdempotencyRecord> finished = awaitCompletion(recordKey);
+            if (finished == null) {
+                return count(new Outcome(Result.TIMEOUT, record));
+            }
+            if (finished.isPresent()) {
+                return count(new Outcome(Result.REPLAY, finished.get()));
+            }
+            // Lần đầu thất bại và đã trả key: thử giành lại
+        }
+        return count(new Outcome(Result.TIMEOUT, null));
+    }
+
+    public void complete(String recordKey, int responseStatus, String contentType, byte[] body) {
+        try {
+            transactionTemplate.execute(status -> repository.complete(recordKey, responseStatus, contentType, body,
+                    LocalDateTime.now()));
+        } finally {
+            signal(recordKey);
+        }
+    }
+
+    public void release(String recordKey) {
+        try {
+            transactionTemplate.execute(status -> repository.release(recordKey));
+        } catch (RuntimeException e) {
+            // Không xóa được: key hết hạn theo inProgressTimeoutSeconds
+            log.warn("Could not release idempotency key {}: {}", recordKey, e.getMessage());
+        } finally {
+            signal(recordKey);
+        }
+    }
+
+    // Every hour at minute 20
+    @Scheduled(cron = "0 20 * * * *")
+    public void purgeExpired() {
+        jobRunner.runIfLeader(JOB_IDEMPOTENCY_PURGE, () -> {
+            Integer deleted = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+            log.info("Purged {} expired idempotency keys", deleted);
+        });
+    }
+
+    private boolean tryInsert(String recordKey, String requestHash) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> repository.saveAndFlush(IdempotencyRecord.builder()
+                    .recordKey(recordKey)
+                    .requestHash(requestHash)
+                    .status(IdempotencyRecord.IN_PROGRESS)
+                    .createdAt(now)
+                    .expiresAt(now.plusHours(properties.getTtlHours()))
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+        running.put(recordKey, new CountDownLatch(1));
+        return true;
+    }
+
+    /** @return null nếu hết thời gian chờ; rỗng nếu key đã được trả lại; ngược lại dòng COMPLETED */
+    private Optional<IdempotencyRecord> awaitCompletion(String recordKey) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getWaitTimeoutMillis());
+        while (System.nanoTime() < deadline) {
+            long waitMillis = Math.min(properties.getPollIntervalMillis(),
+                    Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            try {
+                CountDownLatch latch = running.get(recordKey);
+                if (latch != null) {
+                    latch.await(waitMillis, TimeUnit.MILLISECONDS);
+                } else {
+                    Thread.sleep(waitMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Optional<IdempotencyRecord> record = find(recordKey);
+            if (record.isEmpty() || IdempotencyRecord.COMPLETED.equals(record.get().getStatus())) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    private Optional<IdempotencyRecord> find(String recordKey) {
+        return transactionTemplate.execute(status -> repository.findByRecordKey(recordKey));
+    }
+
+    private boolean reusable(IdempotencyRecord record) {
+        LocalDateTime now = LocalDateTime.now();
+        return record.getExpiresAt().isBefore(now) || (IdempotencyRecord.IN_PROGRESS.equals(record.getStatus())
+                && record.getCreatedAt().isBefore(abandonedBefore()));
+    }
+
+    private LocalDateTime abandonedBefore() {
+        return LocalDateTime.now().minusSeconds(properties.getInProgressTimeoutSeconds());
+    }
+
+    private void signal(String recordKey) {
+        CountDownLatch latch = running.remove(recordKey);
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    private Outcome count(Outcome outcome) {
+        outcomes.computeIfAbsent(outcome.result(), result -> Counter.builder("http.idempotency.requests")
+                .tag("result", result.name().toLowerCase())
+                .description("Requests carrying an Idempotency-Key by outcome")
+                .register(meterRegistry)).increment();
+        return outcome;
+    }
+}
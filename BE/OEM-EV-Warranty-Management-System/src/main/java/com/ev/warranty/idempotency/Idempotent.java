@@ -0,0 +1,18 @@
+package com.ev.warranty.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Handler (hoặc mọi handler của controller) nhận header Idempotency-Key cho POST / PUT / PATCH:
+ * gửi lại cùng key với cùng nội dung thì nhận lại response của lần đầu thay vì chạy lại nghiệp vụ.
+ * Không gửi header thì xử lý như cũ.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Idempotent {
+}
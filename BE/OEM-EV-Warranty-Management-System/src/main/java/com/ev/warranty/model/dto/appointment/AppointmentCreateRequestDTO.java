@@ -19,6 +19,8 @@ public class AppointmentCreateRequestDTO {
 
     private Integer claimId; // Optional - có thể null nếu không liên quan đến claim (ví dụ: bảo dưỡng định kỳ)
 
+    private Integer serviceCenterId; // Optional - mặc định lấy service center của người tạo
+
     @NotNull(message = "Scheduled time is required")
     @Future(message = "Appointment must be scheduled in the future")
     private LocalDateTime scheduledAt;
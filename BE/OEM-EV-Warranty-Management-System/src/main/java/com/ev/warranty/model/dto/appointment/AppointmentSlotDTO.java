@@ -0,0 +1,21 @@
+package com.ev.warranty.model.dto.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AppointmentSlotDTO {
+    private Integer serviceCenterId;
+    private LocalDateTime slotStart;
+    private LocalDateTime slotEnd;
+    private Integer capacity;
+    private Integer booked;
+    private Integer remaining;
+}
@@ -0,0 +1,23 @@
+package com.ev.warranty.model.dto.claim;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ArchivedClaimSummaryDTO {
+    private Integer claimId;
+    private String claimNumber;
+    private String vin;
+    private String vehicleModel;
+    private String finalStatus;
+    private String finalStatusLabel;
+    private String reportedFailure;
+    private BigDecimal warrantyCost;
+    private LocalDateTime createdAt;
+    private LocalDateTime closedAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,17 @@
+package com.ev.warranty.model.dto.claim;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ClaimArchiveRunResultDTO {
+    private LocalDateTime cutoff; // claim cập nhật lần cuối trước mốc này mới được lưu trữ
+    private int archived;
+    private int chunks;
+    private int failedChunks; // chunk lỗi được rollback, claim của nó thử lại ở lần chạy sau
+    private boolean limitReached; // dừng vì maxClaimsPerRun, còn claim đủ điều kiện
+    private long tookMillis;
+}
@@ -0,0 +1,18 @@
+package com.ev.warranty.model.dto.claim;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class ClaimHistoryRollupDTO {
+    private String period; // yyyy-MM theo ngày tạo claim
+    private String vehicleModel;
+    private String finalStatus;
+    private int claimCount;
+    private BigDecimal totalWarrantyCost;
+    private double averageDaysOpen;
+    private int statusTransitions;
+}
@@ -0,0 +1,23 @@
+package com.ev.warranty.model.dto.claim;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng trong màn hình danh sách claim: chỉ các cột hiển thị, đọc thẳng bằng projection
+ * (không nạp entity Claim và các quan hệ của nó). Tên field cũng là giá trị hợp lệ của tham số fields=.
+ */
+public record ClaimListItemDTO(
+        Integer id,
+        String claimNumber,
+        String status,
+        String statusLabel,
+        String vin,
+        String vehicleModel,
+        String customerName,
+        Integer technicianId,
+        String technicianName,
+        BigDecimal warrantyCost,
+        BigDecimal totalEstimatedCost,
+        LocalDateTime createdAt) {
+}
@@ -90,6 +90,9 @@ public class ClaimResponseDto {
     private Boolean requireOverrideConfirmation; // FE hint: require checkbox when auto not eligible
     private Boolean lockEvmRepairFields; // FE hint: lock/collapse EVM Repair form when auto not eligible
 
+    // Đọc từ archived_claims (claim đã lưu trữ, chỉ xem)
+    private Boolean archived;
+
     @Data
     public static class ServiceCatalogItemDto {
         private Integer serviceItemId;
@@ -0,0 +1,45 @@
+package com.ev.warranty.model.dto.claim;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EVMBulkApprovalRequestDTO {
+
+    @NotNull(message = "Approval notes are required")
+    private String approvalNotes; // Applied to every claim without its own notes
+
+    @NotEmpty(message = "At least one claim is required")
+    @Size(max = 500, message = "At most 500 claims per request")
+    private List<@Valid ClaimApprovalItem> claims;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class ClaimApprovalItem {
+        @NotNull(message = "Claim id is required")
+        private Integer claimId;
+
+        @PositiveOrZero(message = "Warranty cost must be positive or zero")
+        private BigDecimal warrantyCost;
+
+        @PositiveOrZero(message = "Company paid cost must be positive or zero")
+        private BigDecimal companyPaidCost;
+
+        private String approvalNotes;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ev.warranty.model.dto.claim;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EVMBulkDecisionResultDTO {
+
+    private int requested;
+    private int succeeded;
+    private int skipped; // Not pending EVM approval, left unchanged
+    private int failed;
+    private List<ClaimResult> results; // Same order as the request
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class ClaimResult {
+        private Integer claimId;
+        private String claimNumber;
+        private String outcome; // APPROVED, REJECTED, SKIPPED, FAILED
+        private String statusCode; // Claim status after processing
+        private String message;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ev.warranty.model.dto.claim;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EVMBulkRejectionRequestDTO {
+
+    @NotEmpty(message = "At least one claim is required")
+    @Size(max = 500, message = "At most 500 claims per request")
+    private List<@NotNull Integer> claimIds;
+
+    @NotNull(message = "Rejection reason is required")
+    private String rejectionReason; // OUT_OF_WARRANTY, NOT_COVERED, INSUFFICIENT_EVIDENCE, etc.
+
+    @NotNull(message = "Rejection notes are required")
+    private String rejectionNotes;
+
+    @Builder.Default
+    private Boolean isFinalRejection = false;
+}
@@ -61,8 +61,8 @@ public class EVMClaimFilterRequestDTO {
     private Integer page = 0;
     @Builder.Default
     private Integer size = 20;
-    @Builder.Default
-    private String sortBy = "createdAt"; // createdAt, warrantyCost, status, daysInProgress
+    // createdAt, warrantyCost, status, daysInProgress; null: relevance for keyword search, createdAt otherwise
+    private String sortBy;
     @Builder.Default
     private String sortDirection = "DESC"; // ASC, DESC
 
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -40,6 +41,10 @@ public class EVMClaimSummaryDTO {
     private Long daysInProgress;    // Days since creation to today
     private Long daysToApproval;    // Days from creation to approval (null if not approved)
 
+    // Keyword search (only set when results come from the claim search index)
+    private Double relevanceScore;
+    private Map<String, String> highlights; // field -> snippet with <mark> around matched words
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
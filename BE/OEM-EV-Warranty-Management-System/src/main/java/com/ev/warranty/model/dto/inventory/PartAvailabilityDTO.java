@@ -0,0 +1,18 @@
+package com.ev.warranty.model.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PartAvailabilityDTO {
+
+    private Integer partId;
+    private long availableAllWarehouses; // Sum of available (current - reserved) over every warehouse
+    private long availableInWarehouse;   // Available in the requested warehouse
+    private boolean stockedInWarehouse;  // Whether the warehouse has an inventory row for the part
+}
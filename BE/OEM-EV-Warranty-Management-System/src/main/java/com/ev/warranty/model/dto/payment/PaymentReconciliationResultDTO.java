@@ -0,0 +1,20 @@
+package com.ev.warranty.model.dto.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentReconciliationResultDTO {
+    private int examined; // SUCCESS ledger entries not yet reconciled
+    private int matched; // matched to a paid or archived claim, including claimsUpdated
+    private int claimsUpdated; // claim was still pending and has been marked paid now
+    private int noClaim;
+    private int mismatched; // claim exists but is not awaiting payment; needs manual follow-up
+    private int expired; // PENDING entries past expiry marked EXPIRED
+    private long durationMs;
+}
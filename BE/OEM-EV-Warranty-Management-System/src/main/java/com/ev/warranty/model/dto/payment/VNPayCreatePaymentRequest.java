@@ -16,5 +16,7 @@ public class VNPayCreatePaymentRequest {
     private String bankCode;
     // Optional: custom transaction ref; if blank, server generates
     private String txnRef;
+    // Optional: claim being paid; a successful IPN moves it from CUSTOMER_PAYMENT_PENDING to CUSTOMER_PAID
+    private Integer claimId;
 }
 
@@ -0,0 +1,21 @@
+package com.ev.warranty.model.dto.payment;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Response body VNPay expects from the IPN URL; any RspCode other than 00/02 makes VNPay retry
+@Data
+@AllArgsConstructor
+public class VNPayIpnResponse {
+    public static final VNPayIpnResponse CONFIRMED = new VNPayIpnResponse("00", "Confirm Success");
+    public static final VNPayIpnResponse ORDER_NOT_FOUND = new VNPayIpnResponse("01", "Order not found");
+    public static final VNPayIpnResponse ALREADY_CONFIRMED = new VNPayIpnResponse("02", "Order already confirmed");
+    public static final VNPayIpnResponse INVALID_AMOUNT = new VNPayIpnResponse("04", "Invalid amount");
+    public static final VNPayIpnResponse INVALID_SIGNATURE = new VNPayIpnResponse("97", "Invalid signature");
+
+    @JsonProperty("RspCode")
+    private String rspCode;
+    @JsonProperty("Message")
+    private String message;
+}
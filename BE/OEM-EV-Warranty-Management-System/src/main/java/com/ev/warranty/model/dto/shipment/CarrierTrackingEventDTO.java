@@ -0,0 +1,29 @@
+package com.ev.warranty.model.dto.shipment;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CarrierTrackingEventDTO {
+    private String carrier;
+
+    @NotBlank(message = "Tracking number is required")
+    private String trackingNumber;
+
+    @NotBlank(message = "Status is required")
+    private String status; // picked_up, in_transit, out_for_delivery, delivered, cancelled, returned
+
+    @NotNull(message = "Event time is required")
+    private LocalDateTime eventTime;
+
+    private String location;
+}
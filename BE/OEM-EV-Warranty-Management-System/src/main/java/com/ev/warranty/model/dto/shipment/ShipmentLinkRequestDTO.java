@@ -0,0 +1,18 @@
+package com.ev.warranty.model.dto.shipment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ShipmentLinkRequestDTO {
+    private List<Integer> claimIds;
+    private List<Integer> workOrderIds;
+    private List<Integer> reservationIds;
+}
@@ -0,0 +1,16 @@
+package com.ev.warranty.model.dto.shipment;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TrackingIngestResultDTO {
+    private int received;
+    private int duplicates; // đã nhận trước đó hoặc lặp trong cùng lô
+    private int rejected; // thiếu trường bắt buộc hoặc trạng thái hãng không nhận diện được
+    private int unknownTracking; // lưu lại nhưng chưa có shipment tương ứng
+    private int stale; // cũ hơn sự kiện đã áp dụng hoặc shipment đã kết thúc
+    private int applied;
+    private int delivered; // shipment chuyển sang delivered và đã nhập kho
+}
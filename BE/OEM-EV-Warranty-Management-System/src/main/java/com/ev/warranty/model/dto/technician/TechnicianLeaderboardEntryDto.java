@@ -0,0 +1,18 @@
+package com.ev.warranty.model.dto.technician;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+public class TechnicianLeaderboardEntryDto {
+    private Integer rank;
+    private Integer technicianId;
+    private String technicianName;
+    private Integer totalWorkOrders;
+    private Integer completedWorkOrders;
+    private Integer onTimeCompletions;
+    private Double onTimeCompletionRate;
+    private Double averageCompletionDays;
+    private BigDecimal laborHours;
+    private Integer partsUsed;
+}
@@ -0,0 +1,63 @@
+package com.ev.warranty.model.dto.vehicle;
+
+import com.ev.warranty.model.dto.part.VehiclePartsResponseDTO;
+import com.ev.warranty.model.dto.recall.VehicleRecallNotificationDTO;
+import com.ev.warranty.model.dto.servicehistory.ServiceHistoryResponseDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Vehicle 360 page: everything the intake counter needs for one VIN in a single response.
+ * Sections not requested via ?fields= are omitted.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Vehicle360DTO {
+    private String vin;
+    private Long version;
+    private LocalDateTime refreshedAt;
+
+    // Sections (field names used by ?fields=)
+    private VehicleResponseDTO vehicle;
+    private SummaryDTO summary;
+    private List<ClaimSummaryDTO> claims;
+    private List<ServiceHistoryResponseDTO> serviceHistory;
+    private VehiclePartsResponseDTO installedParts;
+    private List<VehicleRecallNotificationDTO> recalls;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class SummaryDTO {
+        private Integer totalClaims;
+        private Integer openClaims;
+        private Integer serviceVisits;
+        private LocalDateTime lastServiceAt;
+        private Integer installedParts;
+        private Integer openRecalls; // Recall chưa xử lý xong
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class ClaimSummaryDTO {
+        private Integer id;
+        private String claimNumber;
+        private String statusCode;
+        private String statusLabel;
+        private LocalDateTime createdAt;
+        private String reportedFailure;
+        private Boolean archived; // true: claim đã chuyển sang archived_claims
+    }
+}
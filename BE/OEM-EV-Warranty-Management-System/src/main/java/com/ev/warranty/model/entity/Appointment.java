@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 
@@ -14,7 +15,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "appointments")
+@Table(name = "appointments",
+       indexes = {
+           // lịch hẹn được tra theo giờ hẹn nên cột thời gian là scheduled_at
+           @Index(name = "idx_appointments_sc_status_scheduled", columnList = "service_center_id, status, scheduled_at")
+       })
+@Filter(name = Claim.SERVICE_CENTER_FILTER, condition = "service_center_id = :" + Claim.SERVICE_CENTER_PARAM)
 public class Appointment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,6 +41,12 @@ public class Appointment {
     @JoinColumn(name = "created_by")
     private User createdBy;
 
+    @Column(name = "service_center_id")
+    private Integer serviceCenterId;
+
+    @Column(name = "slot_id")
+    private Integer slotId; // AppointmentSlot holding the reserved service bay
+
     @Column(name = "status", length = 50)
     @Builder.Default
     private String status = "scheduled";
@@ -46,4 +58,11 @@ public class Appointment {
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
-}
\ No newline at end of file
+
+    @PrePersist
+    void defaultServiceCenter() {
+        if (serviceCenterId == null && claim != null) {
+            serviceCenterId = claim.getServiceCenterId();
+        }
+    }
+}
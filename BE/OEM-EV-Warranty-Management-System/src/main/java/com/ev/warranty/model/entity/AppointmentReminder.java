@@ -0,0 +1,40 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Đánh dấu reminder đã gửi cho một appointment trong một cửa sổ (24h, 2h).
+ * Unique (appointment_id, reminder_window) đảm bảo mỗi reminder chỉ gửi một lần dù nhiều node cùng chạy.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "appointment_reminders",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"appointment_id", "reminder_window"})
+       })
+public class AppointmentReminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Integer appointmentId;
+
+    @Column(name = "reminder_window", length = 10, nullable = false)
+    private String reminderWindow; // 24h, 2h
+
+    @Column(name = "sent_by", length = 150)
+    private String sentBy; // Node id that dispatched the reminder
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+}
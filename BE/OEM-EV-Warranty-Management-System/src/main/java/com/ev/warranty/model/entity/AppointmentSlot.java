@@ -0,0 +1,51 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một khung giờ nhận xe của service center.
+ * bookedCount được tăng/giảm bằng câu UPDATE có điều kiện nên hai request đặt lịch đồng thời
+ * không thể cùng vượt quá capacity.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "appointment_slots",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"service_center_id", "slot_start"})
+       },
+       indexes = {
+           @Index(name = "idx_appointment_slots_center_start", columnList = "service_center_id, slot_start, booked_count")
+       })
+public class AppointmentSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_slots_seq")
+    @SequenceGenerator(name = "appointment_slots_seq", sequenceName = "appointment_slots_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR appointment_slots_seq")
+    private Integer id;
+
+    @Column(name = "service_center_id", nullable = false)
+    private Integer serviceCenterId;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(name = "slot_end", nullable = false)
+    private LocalDateTime slotEnd;
+
+    @Column(name = "capacity", nullable = false)
+    private Integer capacity; // Number of service bays available in this slot
+
+    @Column(name = "booked_count", nullable = false)
+    @Builder.Default
+    private Integer bookedCount = 0;
+}
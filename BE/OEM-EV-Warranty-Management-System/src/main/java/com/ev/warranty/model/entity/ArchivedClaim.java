@@ -0,0 +1,71 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Claim đã đóng được ClaimArchiver chuyển khỏi các bảng nghiệp vụ.
+ * Các cột tra cứu (số claim, xe, VIN, trạng thái cuối) để dạng thường; phần còn lại là payload JSON nén gzip:
+ * ClaimResponseDto lúc lưu trữ, các dòng gốc của claim và của các bảng con đã xóa, id các dòng chỉ bị gỡ liên kết.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "archived_claims",
+       indexes = {
+           @Index(name = "idx_archived_claims_vin", columnList = "vin"),
+           @Index(name = "idx_archived_claims_vehicle", columnList = "vehicle_id"),
+           @Index(name = "idx_archived_claims_number", columnList = "claim_number")
+       })
+public class ArchivedClaim {
+    @Id
+    @Column(name = "claim_id")
+    private Integer claimId; // giữ nguyên id cũ để link / tra cứu theo id vẫn đúng
+
+    @Column(name = "claim_number", length = 100, nullable = false)
+    private String claimNumber;
+
+    @Column(name = "vehicle_id")
+    private Integer vehicleId;
+
+    @Column(name = "vin", length = 50)
+    private String vin;
+
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    @Column(name = "vehicle_model", length = 100)
+    private String vehicleModel;
+
+    @Column(name = "final_status", length = 50, nullable = false)
+    private String finalStatus;
+
+    @Column(name = "final_status_label", length = 100)
+    private String finalStatusLabel;
+
+    @Column(name = "reported_failure", columnDefinition = "NVARCHAR(MAX)")
+    private String reportedFailure;
+
+    @Column(name = "warranty_cost", precision = 15, scale = 2)
+    private BigDecimal warrantyCost;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt; // updated_at của claim lúc lưu trữ
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "payload", columnDefinition = "VARBINARY(MAX)", nullable = false)
+    private byte[] payload;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -16,7 +17,9 @@ import java.time.LocalDateTime;
 @Table(name = "campaign_vehicles")
 public class CampaignVehicle {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "campaign_vehicles_seq")
+    @SequenceGenerator(name = "campaign_vehicles_seq", sequenceName = "campaign_vehicles_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR campaign_vehicles_seq")
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,31 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bộ đếm thay đổi của một bảng danh mục (vehicle_models, service_centers, ...). Tăng sau mỗi transaction ghi vào bảng;
+ * ETag của các API danh mục được dựng từ các bộ đếm này nên mọi node trả cùng ETag cho cùng dữ liệu.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+    @Id
+    @Column(name = "table_name", length = 50)
+    private String tableName;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
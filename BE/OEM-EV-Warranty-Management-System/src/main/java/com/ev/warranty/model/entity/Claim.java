@@ -6,6 +6,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -21,14 +24,26 @@ import java.time.LocalDateTime;
  * - ClaimCost: Thông tin chi phí
  * - ClaimRepairConfiguration: Cấu hình sửa chữa
  * - ClaimAssignment: Phân công kỹ thuật viên
+ * service_center_id là bản sao service center của người tạo, để truy vấn của SC staff lọc thẳng theo cột có index
+ * thay vì join qua users; filter {@value #SERVICE_CENTER_FILTER} (bật tự động cho role SC) dùng chung cho
+ * WorkOrder, Appointment và Shipment.
  */
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "claims")
+@Table(name = "claims",
+       indexes = {
+           @Index(name = "idx_claims_sc_status_created", columnList = "service_center_id, status_id, created_at")
+       })
+@FilterDef(name = Claim.SERVICE_CENTER_FILTER,
+           parameters = @ParamDef(name = Claim.SERVICE_CENTER_PARAM, type = Integer.class))
+@Filter(name = Claim.SERVICE_CENTER_FILTER, condition = "service_center_id = :" + Claim.SERVICE_CENTER_PARAM)
 public class Claim {
+    public static final String SERVICE_CENTER_FILTER = "serviceCenterScope";
+    public static final String SERVICE_CENTER_PARAM = "serviceCenterId";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
@@ -52,6 +67,9 @@ public class Claim {
     @JoinColumn(name = "status_id", nullable = false)
     private ClaimStatus status;
 
+    @Column(name = "service_center_id")
+    private Integer serviceCenterId; // service center của createdBy lúc tạo claim
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
@@ -173,6 +191,13 @@ public class Claim {
         return this.assignment;
     }
 
+    @PrePersist
+    void defaultServiceCenter() {
+        if (serviceCenterId == null && createdBy != null) {
+            serviceCenterId = createdBy.getServiceCenterId();
+        }
+    }
+
     // ===== Convenience Methods để truy cập các thuộc tính nested =====
 
     /**
@@ -0,0 +1,57 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Số liệu gộp của các claim đã lưu trữ theo (tháng tạo claim, model xe, trạng thái cuối).
+ * ClaimArchiver cộng dồn vào đây trong cùng transaction xóa claim, nên báo cáo lịch sử dài hạn
+ * không cần quét archived_claims hay giải nén payload.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "claim_history_rollups",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"period", "vehicle_model", "final_status"})
+       })
+public class ClaimHistoryRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_history_rollups_seq")
+    @SequenceGenerator(name = "claim_history_rollups_seq", sequenceName = "claim_history_rollups_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR claim_history_rollups_seq")
+    private Long id;
+
+    @Column(name = "period", length = 7, nullable = false)
+    private String period; // yyyy-MM
+
+    @Column(name = "vehicle_model", length = 100, nullable = false)
+    private String vehicleModel;
+
+    @Column(name = "final_status", length = 50, nullable = false)
+    private String finalStatus;
+
+    @Column(name = "claim_count", nullable = false)
+    private Integer claimCount;
+
+    @Column(name = "total_warranty_cost", precision = 18, scale = 2, nullable = false)
+    private BigDecimal totalWarrantyCost;
+
+    @Column(name = "total_days_open", nullable = false)
+    private Long totalDaysOpen; // tổng số ngày từ created_at đến updated_at cuối
+
+    @Column(name = "status_transitions", nullable = false)
+    private Integer statusTransitions; // tổng số dòng claim_status_history
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
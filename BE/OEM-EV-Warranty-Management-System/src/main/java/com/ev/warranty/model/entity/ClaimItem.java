@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,7 +18,9 @@ import java.time.LocalDateTime;
 @Table(name = "claim_items")
 public class ClaimItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_items_seq")
+    @SequenceGenerator(name = "claim_items_seq", sequenceName = "claim_items_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR claim_items_seq")
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,76 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Side effect của một claim event, ghi cùng transaction với thay đổi claim và xử lý bất đồng bộ sau commit.
+ * Mỗi (event, handler) là một dòng: handler lỗi chỉ retry phần của nó.
+ * idempotency_key unique: cùng một side effect không thể được ghi hai lần.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "claim_outbox_events",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"idempotency_key"})
+       },
+       indexes = {
+           @Index(name = "idx_claim_outbox_status_next", columnList = "status, next_attempt_at")
+       })
+public class ClaimOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_outbox_events_seq")
+    @SequenceGenerator(name = "claim_outbox_events_seq", sequenceName = "claim_outbox_events_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR claim_outbox_events_seq")
+    private Long id;
+
+    @Column(name = "idempotency_key", length = 80, nullable = false)
+    private String idempotencyKey; // <event uuid>:<handler>
+
+    @Column(name = "event_type", length = 40, nullable = false)
+    private String eventType; // ClaimEventType
+
+    @Column(name = "handler", length = 30, nullable = false)
+    private String handler; // ClaimEventType.SideEffect
+
+    @Column(name = "claim_id", nullable = false)
+    private Integer claimId;
+
+    @Column(name = "actor_user_id")
+    private Integer actorUserId;
+
+    @Column(name = "note", columnDefinition = "NVARCHAR(MAX)")
+    private String note;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status; // PENDING, PROCESSING, DONE, FAILED
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
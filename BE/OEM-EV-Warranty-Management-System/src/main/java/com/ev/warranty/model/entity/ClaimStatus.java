@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 @Entity
 @Data
@@ -12,6 +15,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Table(name = "claim_statuses")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
+@Immutable
 public class ClaimStatus {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -17,7 +18,9 @@ import java.time.LocalDateTime;
 @Table(name = "claim_status_history")
 public class ClaimStatusHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_status_history_seq")
+    @SequenceGenerator(name = "claim_status_history_seq", sequenceName = "claim_status_history_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR claim_status_history_seq")
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,61 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một Idempotency-Key đã nhận (xem IdempotencyStore): IN_PROGRESS khi request đầu tiên đang chạy,
+ * COMPLETED kèm response đã lưu để trả lại cho các lần gửi lại cùng key đến khi hết hạn.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "idempotency_records",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"record_key"})
+       },
+       indexes = {
+           @Index(name = "idx_idempotency_records_expires", columnList = "expires_at")
+       })
+public class IdempotencyRecord {
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "record_key", length = 200, nullable = false)
+    private String recordKey; // người gửi + ":" + Idempotency-Key
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash; // SHA-256 của method, URI, query và body
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "response_body", columnDefinition = "VARBINARY(MAX)")
+    private byte[] responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
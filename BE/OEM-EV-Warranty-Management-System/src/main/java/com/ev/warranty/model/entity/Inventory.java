@@ -15,7 +15,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "inventory")
+@Table(name = "inventory", indexes = {
+        @Index(name = "ix_inventory_part_warehouse", columnList = "part_id, warehouse_id", unique = true),
+        @Index(name = "ix_inventory_stock_status", columnList = "stock_status, warehouse_id")
+})
 public class Inventory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,6 +40,14 @@ public class Inventory {
     @Builder.Default
     private Integer reservedStock = 0;
 
+    // ATP: current - reserved, lưu sẵn để tra cứu không phải tính lại (xem refreshAvailability)
+    @Column(name = "available_stock")
+    @Builder.Default
+    private Integer availableStock = 0;
+
+    @Column(name = "stock_status", length = 20)
+    private String stockStatus; // in_stock, low_stock, out_of_stock, overstock
+
     @Column(name = "minimum_stock")
     @Builder.Default
     private Integer minimumStock = 0;
@@ -56,4 +67,29 @@ public class Inventory {
     @UpdateTimestamp
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
+
+    /**
+     * Tính lại available_stock và stock_status trước mỗi lần ghi.
+     * Các thay đổi tồn kho đi qua StockAvailabilityService (khóa dòng) nên giá trị luôn khớp current/reserved.
+     */
+    @PrePersist
+    @PreUpdate
+    public void refreshAvailability() {
+        int current = currentStock != null ? currentStock : 0;
+        int reserved = reservedStock != null ? reservedStock : 0;
+        this.availableStock = current - reserved;
+        this.stockStatus = stockStatusOf(current, minimumStock != null ? minimumStock : 0);
+    }
+
+    public static String stockStatusOf(int currentStock, int minimumStock) {
+        if (currentStock == 0) {
+            return "out_of_stock";
+        } else if (currentStock <= minimumStock) {
+            return "low_stock";
+        } else if (currentStock > minimumStock * 2) {
+            return "overstock";
+        } else {
+            return "in_stock";
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease trên DB cho từng job định kỳ: node nào giữ lease còn hạn thì là leader của job đó.
+ * fencingToken tăng mỗi lần lease được lấy, nên node cũ không gia hạn được lease đã bị node khác chiếm.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "job_leases")
+public class JobLease {
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "owner_id", length = 150, nullable = false)
+    private String ownerId;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "fencing_token")
+    private Long fencingToken;
+}
@@ -0,0 +1,40 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vé mở stream /api/live/stream (xem LiveStreamTickets): cấp qua POST có JWT, dùng đúng một lần trước expires_at.
+ * Chỉ lưu SHA-256 của vé, vé gốc chỉ client giữ.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "live_stream_tickets",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"ticket_hash"})
+       },
+       indexes = {
+           @Index(name = "idx_live_stream_tickets_expires", columnList = "expires_at")
+       })
+public class LiveStreamTicket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_hash", length = 64, nullable = false)
+    private String ticketHash;
+
+    @Column(name = "username", length = 100, nullable = false)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,43 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một delta live update vừa commit (xem LiveUpdateHub), ghi để mọi node poll và đẩy tới các stream SSE của mình.
+ * Chỉ giữ vài phút: client kết nối lại thì tải lại dữ liệu, không đọc lại các dòng cũ.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "live_update_events",
+       indexes = {
+           @Index(name = "idx_live_update_events_created", columnList = "created_at")
+       })
+public class LiveUpdateEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "topic", length = 30, nullable = false)
+    private String topic; // LiveUpdateHub.TOPIC_*
+
+    @Column(name = "entity_id")
+    private Integer entityId;
+
+    @Column(name = "service_center_id")
+    private Integer serviceCenterId; // trung tâm của claim liên quan, tra một lần lúc ghi
+
+    @Column(name = "payload", columnDefinition = "NVARCHAR(MAX)", nullable = false)
+    private String payload; // JSON của Delta.data
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
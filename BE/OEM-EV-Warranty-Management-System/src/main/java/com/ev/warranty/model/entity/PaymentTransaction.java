@@ -0,0 +1,87 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sổ cái giao dịch thanh toán cổng VNPay: một dòng cho mỗi txnRef đã tạo URL thanh toán.
+ * IPN chỉ được áp dụng một lần nhờ unique txn_ref và update có điều kiện status = PENDING;
+ * job đối soát ghi kết quả khớp với claim vào reconcile_status.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "payment_transactions",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_payment_transactions_txn_ref", columnNames = "txn_ref")
+       },
+       indexes = {
+           @Index(name = "idx_payment_transactions_claim", columnList = "claim_id"),
+           @Index(name = "idx_payment_transactions_reconcile", columnList = "status, reconcile_status")
+       })
+public class PaymentTransaction {
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_EXPIRED = "EXPIRED";
+
+    public static final String RECONCILE_MATCHED = "MATCHED"; // claim đã ở trạng thái đã thanh toán
+    public static final String RECONCILE_NO_CLAIM = "NO_CLAIM"; // giao dịch không gắn claim hoặc claim không còn
+    public static final String RECONCILE_MISMATCH = "MISMATCH"; // claim không ở trạng thái chờ thanh toán
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "txn_ref", length = 50, nullable = false)
+    private String txnRef;
+
+    @Column(name = "provider", length = 20, nullable = false)
+    private String provider; // VNPAY
+
+    @Column(name = "claim_id")
+    private Integer claimId; // không FK: claim có thể bị lưu trữ (archived_claims) sau khi thanh toán
+
+    @Column(name = "amount", nullable = false)
+    private Long amount; // VND, chưa nhân 100
+
+    @Column(name = "order_info", length = 255)
+    private String orderInfo;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    @Column(name = "response_code", length = 10)
+    private String responseCode; // vnp_ResponseCode của IPN
+
+    @Column(name = "gateway_transaction_no", length = 50)
+    private String gatewayTransactionNo; // vnp_TransactionNo
+
+    @Column(name = "bank_code", length = 20)
+    private String bankCode;
+
+    @Column(name = "pay_date", length = 14)
+    private String payDate; // vnp_PayDate yyyyMMddHHmmss (giờ VN)
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expire_at", nullable = false)
+    private LocalDateTime expireAt;
+
+    @Column(name = "confirmed_at")
+    private LocalDateTime confirmedAt; // lúc nhận IPN đầu tiên
+
+    @Column(name = "reconcile_status", length = 20)
+    private String reconcileStatus; // null = chưa đối soát
+
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,27 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng duy nhất (id = 1) được ghi định kỳ trên primary; đọc lại trên replica để đo độ trễ replication.
+ * Xem ReplicaLagMonitor.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "replica_heartbeats")
+public class ReplicaHeartbeat {
+    @Id
+    private Integer id;
+
+    @Column(name = "beat_at", nullable = false)
+    private LocalDateTime beatAt;
+}
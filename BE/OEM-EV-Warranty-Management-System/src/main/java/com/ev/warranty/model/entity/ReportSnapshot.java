@@ -0,0 +1,30 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kết quả báo cáo được tính trước bởi job định kỳ, lưu dạng JSON theo report key.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "report_snapshots")
+public class ReportSnapshot {
+    @Id
+    @Column(name = "report_key", length = 100)
+    private String reportKey; // e.g., WARRANTY_COST_SUMMARY_MTD
+
+    @Column(name = "payload", columnDefinition = "NVARCHAR(MAX)", nullable = false)
+    private String payload;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
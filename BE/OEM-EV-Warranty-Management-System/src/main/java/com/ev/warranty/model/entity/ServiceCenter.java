@@ -1,5 +1,6 @@
 package com.ev.warranty.model.entity;
 
+import com.ev.warranty.httpcache.CatalogVersionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,16 +8,20 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Table(name = "service_centers")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ServiceCenter {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
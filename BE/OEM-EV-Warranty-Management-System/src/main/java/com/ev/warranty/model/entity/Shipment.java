@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 
@@ -14,7 +15,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "shipments")
+@Table(name = "shipments",
+       indexes = {
+           @Index(name = "idx_shipments_tracking_number", columnList = "tracking_number"),
+           @Index(name = "idx_shipments_status", columnList = "status"),
+           @Index(name = "idx_shipments_center_status_created", columnList = "destination_center_id, status, created_at")
+       })
+// destination_center_id đã là service center của shipment nên dùng luôn cho filter, không thêm cột trùng
+@Filter(name = Claim.SERVICE_CENTER_FILTER, condition = "destination_center_id = :" + Claim.SERVICE_CENTER_PARAM)
 public class Shipment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -54,6 +62,9 @@ public class Shipment {
     @Column(name = "notes", columnDefinition = "NVARCHAR(MAX)")
     private String notes;
 
+    @Column(name = "last_tracking_event_at")
+    private LocalDateTime lastTrackingEventAt; // thời điểm sự kiện carrier mới nhất đã áp dụng
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
@@ -14,7 +15,9 @@ import lombok.NoArgsConstructor;
 @Table(name = "shipment_items")
 public class ShipmentItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_items_seq")
+    @SequenceGenerator(name = "shipment_items_seq", sequenceName = "shipment_items_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR shipment_items_seq")
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
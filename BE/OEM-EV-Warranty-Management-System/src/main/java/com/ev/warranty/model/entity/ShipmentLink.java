@@ -0,0 +1,49 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Liên kết shipment với claim / work order / stock reservation. Một shipment có thể chở linh kiện cho nhiều
+ * claim và ngược lại, nên không dùng cột claim_id / work_order_id trên shipments.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "shipment_links",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"shipment_id", "link_type", "ref_id"})
+       },
+       indexes = {
+           @Index(name = "idx_shipment_links_ref", columnList = "link_type, ref_id")
+       })
+public class ShipmentLink {
+    public static final String CLAIM = "CLAIM";
+    public static final String WORK_ORDER = "WORK_ORDER";
+    public static final String RESERVATION = "RESERVATION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "shipment_id", nullable = false)
+    private Integer shipmentId;
+
+    @Column(name = "link_type", length = 20, nullable = false)
+    private String linkType; // CLAIM, WORK_ORDER, RESERVATION
+
+    @Column(name = "ref_id", nullable = false)
+    private Integer refId;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,58 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sự kiện trạng thái từ hãng vận chuyển đã nhận. event_key (carrier|tracking|status|thời điểm) là duy nhất
+ * để hãng gửi lại cùng một sự kiện thì bỏ qua.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "shipment_tracking_events",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_shipment_tracking_events_key", columnNames = {"event_key"})
+       },
+       indexes = {
+           @Index(name = "idx_shipment_tracking_events_shipment", columnList = "shipment_id, event_time")
+       })
+public class ShipmentTrackingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_tracking_events_seq")
+    @SequenceGenerator(name = "shipment_tracking_events_seq", sequenceName = "shipment_tracking_events_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR shipment_tracking_events_seq")
+    private Long id;
+
+    @Column(name = "event_key", length = 300, nullable = false)
+    private String eventKey;
+
+    @Column(name = "shipment_id")
+    private Integer shipmentId; // null: chưa có shipment với tracking number này
+
+    @Column(name = "carrier", length = 100)
+    private String carrier;
+
+    @Column(name = "tracking_number", length = 100, nullable = false)
+    private String trackingNumber;
+
+    @Column(name = "carrier_status", length = 50, nullable = false)
+    private String carrierStatus;
+
+    @Column(name = "event_time", nullable = false)
+    private LocalDateTime eventTime;
+
+    @Column(name = "location", length = 200)
+    private String location;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+}
@@ -0,0 +1,67 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Số liệu work order của một technician theo ngày bắt đầu (start_time) của work order.
+ * Được TechnicianStatsRollup tính lại từ work_orders: hằng đêm cho cửa sổ gần đây, và ngay sau commit
+ * cho các (technician, ngày) vừa thay đổi. Báo cáo hiệu suất / bảng xếp hạng chỉ cộng các dòng này.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "technician_daily_stats",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"technician_id", "stat_date"})
+       },
+       indexes = {
+           @Index(name = "idx_technician_daily_stats_center_date", columnList = "service_center_id, stat_date")
+       })
+public class TechnicianDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "technician_daily_stats_seq")
+    @SequenceGenerator(name = "technician_daily_stats_seq", sequenceName = "technician_daily_stats_seq", allocationSize = 50)
+    @ColumnDefault("NEXT VALUE FOR technician_daily_stats_seq")
+    private Long id;
+
+    @Column(name = "technician_id", nullable = false)
+    private Integer technicianId;
+
+    @Column(name = "service_center_id")
+    private Integer serviceCenterId; // của technician lúc tính
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "work_orders", nullable = false)
+    private Integer workOrders;
+
+    @Column(name = "completed", nullable = false)
+    private Integer completed;
+
+    @Column(name = "on_time", nullable = false)
+    private Integer onTime; // hoàn thành trong vòng ON_TIME_DAYS ngày kể từ start_time
+
+    @Column(name = "completion_days", nullable = false)
+    private Long completionDays; // tổng số ngày (làm tròn xuống) của các work order đã hoàn thành
+
+    @Column(name = "labor_hours", precision = 10, scale = 2, nullable = false)
+    private BigDecimal laborHours; // của các work order đã hoàn thành
+
+    @Column(name = "parts_used", nullable = false)
+    private Integer partsUsed;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
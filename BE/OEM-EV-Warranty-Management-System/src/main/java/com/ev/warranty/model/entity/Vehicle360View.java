@@ -0,0 +1,44 @@
+package com.ev.warranty.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model "Vehicle 360" theo VIN: toàn bộ dữ liệu trang xe (xe, claim, lịch sử dịch vụ,
+ * part đã lắp, recall) được dựng sẵn thành JSON. Bị đánh dấu stale khi dữ liệu nguồn thay đổi.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "vehicle_360_views",
+       indexes = {
+           @Index(name = "idx_vehicle_360_views_vehicle", columnList = "vehicle_id", unique = true)
+       })
+public class Vehicle360View {
+    @Id
+    @Column(name = "vin", length = 50)
+    private String vin;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Integer vehicleId;
+
+    @Column(name = "payload", columnDefinition = "NVARCHAR(MAX)", nullable = false)
+    private String payload;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "stale", nullable = false)
+    @Builder.Default
+    private Boolean stale = false;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
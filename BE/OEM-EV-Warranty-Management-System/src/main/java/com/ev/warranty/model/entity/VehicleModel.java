@@ -1,14 +1,19 @@
 package com.ev.warranty.model.entity;
 
+import com.ev.warranty.httpcache.CatalogVersionListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Table(name = "vehicle_models")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,7 +15,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "work_orders")
+@Table(name = "work_orders",
+       indexes = {
+           // work order không có created_at: start_time là mốc thời gian của nó
+           @Index(name = "idx_work_orders_sc_status_start", columnList = "service_center_id, status, start_time")
+       })
+@Filter(name = Claim.SERVICE_CENTER_FILTER, condition = "service_center_id = :" + Claim.SERVICE_CENTER_PARAM)
 public class WorkOrder {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,6 +34,9 @@ public class WorkOrder {
     @JoinColumn(name = "technician_id", nullable = false)
     private User technician;
 
+    @Column(name = "service_center_id")
+    private Integer serviceCenterId; // của claim (hoặc technician nếu claim chưa có)
+
     @Column(name = "start_time")
     private LocalDateTime startTime;
 
@@ -58,4 +67,12 @@ public class WorkOrder {
 
     @Column(name = "status_description", columnDefinition = "NVARCHAR(MAX)")
     private String statusDescription; // For problem descriptions during work
+
+    @PrePersist
+    void defaultServiceCenter() {
+        if (serviceCenterId == null) {
+            serviceCenterId = claim != null && claim.getServiceCenterId() != null ? claim.getServiceCenterId()
+                    : technician != null ? technician.getServiceCenterId() : null;
+        }
+    }
 }
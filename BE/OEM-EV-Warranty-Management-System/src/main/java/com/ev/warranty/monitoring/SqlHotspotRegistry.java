@@ -0,0 +1,96 @@
+package com.ev.warranty.monitoring;
+
+import com.ev.warranty.config.SqlInstrumentationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gộp thống kê SQL theo controller method kể từ lúc khởi động (hoặc lần reset cuối)
+ * cho actuator endpoint sqlhotspots.
+ */
+@Component
+public class SqlHotspotRegistry {
+
+    private final SqlInstrumentationProperties properties;
+    private final ConcurrentHashMap<String, Hotspot> hotspots = new ConcurrentHashMap<>();
+
+    public SqlHotspotRegistry(SqlInstrumentationProperties properties) {
+        this.properties = properties;
+    }
+
+    public void record(String endpoint, SqlStats stats) {
+        hotspots.computeIfAbsent(endpoint, k -> new Hotspot()).record(stats, properties.getRepeatedQueryThreshold());
+    }
+
+    /** Endpoint nặng nhất theo số statement trung bình mỗi request. */
+    public List<HotspotView> top() {
+        return hotspots.entrySet().stream()
+                .map(e -> e.getValue().view(e.getKey()))
+                .sorted(Comparator.comparingDouble(HotspotView::avgStatements).reversed()
+                        .thenComparing(HotspotView::endpoint))
+                .limit(properties.getHotspotLimit())
+                .toList();
+    }
+
+    public void reset() {
+        hotspots.clear();
+    }
+
+    private static final class Hotspot {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder entitiesLoaded = new LongAdder();
+        private final LongAdder collectionsFetched = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder repeatedQueryRequests = new LongAdder();
+        // Query shape lặp nhiều nhất từng thấy ở endpoint này
+        private final AtomicReference<SqlStats.RepeatedQuery> worstRepeat = new AtomicReference<>();
+
+        void record(SqlStats stats, int repeatedThreshold) {
+            requests.increment();
+            statements.add(stats.getStatements());
+            entitiesLoaded.add(stats.getEntitiesLoaded());
+            collectionsFetched.add(stats.getCollectionsFetched());
+            totalMillis.add(stats.elapsedMillis());
+            maxStatements.accumulate(stats.getStatements());
+
+            List<SqlStats.RepeatedQuery> repeated = stats.repeatedQueries(repeatedThreshold);
+            if (!repeated.isEmpty()) {
+                repeatedQueryRequests.increment();
+                SqlStats.RepeatedQuery candidate = repeated.get(0);
+                worstRepeat.accumulateAndGet(candidate,
+                        (current, next) -> current == null || next.count() > current.count() ? next : current);
+            }
+        }
+
+        HotspotView view(String endpoint) {
+            long count = Math.max(requests.sum(), 1);
+            return new HotspotView(endpoint, requests.sum(),
+                    (double) statements.sum() / count,
+                    maxStatements.get(),
+                    (double) entitiesLoaded.sum() / count,
+                    (double) collectionsFetched.sum() / count,
+                    (double) totalMillis.sum() / count,
+                    repeatedQueryRequests.sum(),
+                    worstRepeat.get());
+        }
+    }
+
+    public record HotspotView(String endpoint,
+                              long requests,
+                              double avgStatements,
+                              long maxStatements,
+                              double avgEntitiesLoaded,
+                              double avgCollectionsFetched,
+                              double avgMillis,
+                              long requestsWithRepeatedQueries,
+                              SqlStats.RepeatedQuery worstRepeatedQuery) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.ev.warranty.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/sqlhotspots: controller method chạy nhiều query nhất; DELETE để reset bộ đếm.
+ */
+@Component
+@Endpoint(id = "sqlhotspots")
+public class SqlHotspotsEndpoint {
+
+    private final SqlHotspotRegistry registry;
+
+    public SqlHotspotsEndpoint(SqlHotspotRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public List<SqlHotspotRegistry.HotspotView> hotspots() {
+        return registry.top();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        registry.reset();
+    }
+}
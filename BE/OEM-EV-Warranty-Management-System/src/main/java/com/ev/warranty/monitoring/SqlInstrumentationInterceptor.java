@@ -0,0 +1,138 @@
+package com.ev.warranty.monitoring;
+
+import com.ev.warranty.config.SqlInstrumentationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mở SqlStats cho mỗi request vào controller, đóng sau khi response đã ghi xong
+ * (gồm cả lazy load lúc serialize JSON), rồi:
+ * - ghi Micrometer timer + số statement / entity / collection theo controller method;
+ * - log cảnh báo khi request chậm, chạy quá nhiều statement hoặc lặp một query shape (nghi N+1);
+ * - cộng dồn vào SqlHotspotRegistry cho actuator.
+ * Request async (SSE, StreamingResponseBody, Callable, DeferredResult): phần chạy trên thread servlet được ghi
+ * với outcome ASYNC khi handler trả về, lần async dispatch lúc kết thúc được đo riêng, và
+ * http.controller.async.requests đo toàn bộ thời gian từ lúc vào controller tới lúc stream đóng.
+ */
+@Slf4j
+public class SqlInstrumentationInterceptor implements AsyncHandlerInterceptor {
+
+    private static final int MAX_SHAPE_LENGTH = 300;
+    private static final String ASYNC_STARTED_AT = SqlInstrumentationInterceptor.class.getName() + ".asyncStartedAt";
+
+    private final SqlInstrumentationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final SqlHotspotRegistry hotspotRegistry;
+
+    public SqlInstrumentationInterceptor(SqlInstrumentationProperties properties,
+                                         MeterRegistry meterRegistry,
+                                         SqlHotspotRegistry hotspotRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.hotspotRegistry = hotspotRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            SqlStatsContext.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        // Thread servlet quay về pool ngay sau đây: gỡ SqlStats khỏi thread, phần đã chạy ghi với outcome ASYNC
+        SqlStats stats = SqlStatsContext.end();
+        if (stats == null) {
+            return;
+        }
+        request.setAttribute(ASYNC_STARTED_AT, stats.startNanos());
+        record(request, response, handlerMethod, stats, "ASYNC");
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        SqlStats stats = SqlStatsContext.end();
+        if (stats == null) {
+            return;
+        }
+
+        String outcome = ex != null || response.getStatus() >= 500 ? "ERROR"
+                : response.getStatus() >= 400 ? "CLIENT_ERROR" : "SUCCESS";
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(ASYNC_STARTED_AT) instanceof Long startedAt) {
+            Timer.builder("http.controller.async.requests")
+                    .tag("controller", handlerMethod.getBeanType().getSimpleName())
+                    .tag("method", handlerMethod.getMethod().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        record(request, response, handlerMethod, stats, outcome);
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, HandlerMethod handlerMethod,
+                        SqlStats stats, String outcome) {
+        String controller = handlerMethod.getBeanType().getSimpleName();
+        String method = handlerMethod.getMethod().getName();
+        long elapsedMillis = stats.elapsedMillis();
+
+        Timer.builder("http.controller.requests")
+                .tag("controller", controller).tag("method", method).tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedMillis, TimeUnit.MILLISECONDS);
+        summary("http.controller.sql.statements", controller, method).record(stats.getStatements());
+        summary("http.controller.sql.entities.loaded", controller, method).record(stats.getEntitiesLoaded());
+        summary("http.controller.sql.collections.fetched", controller, method).record(stats.getCollectionsFetched());
+
+        String endpoint = controller + "." + method;
+        hotspotRegistry.record(endpoint, stats);
+
+        List<SqlStats.RepeatedQuery> repeated = stats.repeatedQueries(properties.getRepeatedQueryThreshold());
+        if (elapsedMillis >= properties.getSlowRequestMillis()
+                || stats.getStatements() > properties.getMaxStatementsPerRequest()
+                || !repeated.isEmpty()) {
+            log.warn("Slow/chatty request {} {} -> {} ({}): {} ms, {} statements, {} entities loaded, {} collections fetched{}",
+                    request.getMethod(), request.getRequestURI(), endpoint, response.getStatus(), elapsedMillis,
+                    stats.getStatements(), stats.getEntitiesLoaded(), stats.getCollectionsFetched(),
+                    describe(repeated));
+        }
+    }
+
+    private DistributionSummary summary(String name, String controller, String method) {
+        return DistributionSummary.builder(name)
+                .tag("controller", controller).tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private static String describe(List<SqlStats.RepeatedQuery> repeated) {
+        if (repeated.isEmpty()) {
+            return "";
+        }
+        return repeated.stream().limit(5)
+                .map(q -> "\n  " + q.count() + "x " + abbreviate(q.shape()))
+                .collect(Collectors.joining("", "; repeated query shapes (possible N+1):", ""));
+    }
+
+    private static String abbreviate(String shape) {
+        return shape.length() <= MAX_SHAPE_LENGTH ? shape : shape.substring(0, MAX_SHAPE_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,86 @@
+package com.ev.warranty.monitoring;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Thống kê SQL của một đơn vị công việc (một request hoặc một đoạn code trong test).
+ * Chỉ một thread ghi vào (thread của request), nên không cần đồng bộ.
+ */
+public class SqlStats {
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Integer> statementsByShape = new HashMap<>();
+    private int statements;
+    private int entitiesLoaded;
+    private int collectionsFetched;
+
+    void recordStatement(String sql) {
+        statements++;
+        statementsByShape.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    void recordEntityLoad() {
+        entitiesLoaded++;
+    }
+
+    void recordCollectionFetch() {
+        collectionsFetched++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public int getCollectionsFetched() {
+        return collectionsFetched;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /** Số lần chạy của query shape lặp nhiều nhất (1 nếu không shape nào lặp). */
+    public int maxRepeats() {
+        return statementsByShape.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    /** Các query shape chạy ít nhất minRepeats lần, nhiều nhất trước. */
+    public List<RepeatedQuery> repeatedQueries(int minRepeats) {
+        return statementsByShape.entrySet().stream()
+                .filter(e -> e.getValue() >= minRepeats)
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .map(e -> new RepeatedQuery(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    /**
+     * Chuẩn hóa câu SQL thành "shape": bỏ literal, gộp danh sách IN (?, ?, ...) và khoảng trắng,
+     * để các lần chạy cùng một query với tham số khác nhau được đếm chung.
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public record RepeatedQuery(String shape, int count) {
+    }
+}
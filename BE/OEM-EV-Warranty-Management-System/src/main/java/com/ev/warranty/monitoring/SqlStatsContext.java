@@ -0,0 +1,56 @@
+package com.ev.warranty.monitoring;
+
+import java.util.function.Supplier;
+
+/**
+ * Gắn SqlStats vào thread hiện tại. Interceptor mở cho mỗi request controller;
+ * test dùng {@link #count} / {@link #measure} để khẳng định số query của một đoạn code.
+ */
+public final class SqlStatsContext {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatsContext() {
+    }
+
+    public static SqlStats begin() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStats end() {
+        SqlStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /** Chạy work và trả về thống kê SQL của riêng nó; lồng nhau thì khôi phục ngữ cảnh ngoài. */
+    public static SqlStats count(Runnable work) {
+        return measure(() -> {
+            work.run();
+            return null;
+        }).stats();
+    }
+
+    public static <T> Measured<T> measure(Supplier<T> work) {
+        SqlStats outer = CURRENT.get();
+        SqlStats stats = begin();
+        try {
+            return new Measured<>(work.get(), stats);
+        } finally {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public record Measured<T>(T result, SqlStats stats) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.ev.warranty.monitoring;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Móc vào Hibernate để đếm cho SqlStats của thread hiện tại: mọi câu SQL đi qua StatementInspector,
+ * entity được nạp (post-load) và collection lazy được fetch. Không có ngữ cảnh thì không làm gì.
+ */
+public final class SqlStatsHibernateIntegration {
+
+    private SqlStatsHibernateIntegration() {
+    }
+
+    public static final StatementInspector STATEMENT_INSPECTOR = sql -> {
+        SqlStats stats = SqlStatsContext.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    };
+
+    public static final Integrator INTEGRATOR = new Integrator() {
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) SqlStatsHibernateIntegration::onPostLoad);
+            registry.appendListeners(EventType.INIT_COLLECTION,
+                    (InitializeCollectionEventListener) SqlStatsHibernateIntegration::onInitializeCollection);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    };
+
+    private static void onPostLoad(PostLoadEvent event) {
+        SqlStats stats = SqlStatsContext.current();
+        if (stats != null) {
+            stats.recordEntityLoad();
+        }
+    }
+
+    private static void onInitializeCollection(InitializeCollectionEvent event) {
+        SqlStats stats = SqlStatsContext.current();
+        if (stats != null) {
+            stats.recordCollectionFetch();
+        }
+    }
+}
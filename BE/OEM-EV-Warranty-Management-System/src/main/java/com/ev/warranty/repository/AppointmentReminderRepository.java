@@ -0,0 +1,18 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.AppointmentReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppointmentReminderRepository extends JpaRepository<AppointmentReminder, Integer> {
+
+    boolean existsByAppointmentIdAndReminderWindow(Integer appointmentId, String reminderWindow);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentReminder r WHERE r.appointmentId = :appointmentId AND r.reminderWindow = :window")
+    int deleteMarker(@Param("appointmentId") Integer appointmentId, @Param("window") String window);
+}
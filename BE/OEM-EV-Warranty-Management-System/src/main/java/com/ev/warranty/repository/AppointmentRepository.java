@@ -1,7 +1,9 @@
 package com.ev.warranty.repository;
 
 import com.ev.warranty.model.entity.Appointment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -55,4 +57,31 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
             "AND a.createdAt < :endOfDay ORDER BY a.createdAt DESC")
     List<Appointment> findAppointmentsCreatedToday(@Param("startOfDay") LocalDateTime startOfDay,
                                                    @Param("endOfDay") LocalDateTime endOfDay);
-}
\ No newline at end of file
+
+    // Reminder candidates in a window that have no marker yet, scanned in id-ordered chunks (keyset on afterId)
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.vehicle v JOIN FETCH v.customer " +
+            "WHERE a.scheduledAt BETWEEN :from AND :to AND a.status = 'scheduled' AND a.id > :afterId " +
+            "AND NOT EXISTS (SELECT r.id FROM AppointmentReminder r WHERE r.appointmentId = a.id AND r.reminderWindow = :window) " +
+            "ORDER BY a.id")
+    List<Appointment> findReminderCandidates(@Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             @Param("window") String window,
+                                             @Param("afterId") Integer afterId,
+                                             Pageable pageable);
+
+    // Dashboard SC: index (service_center_id, status, scheduled_at)
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.serviceCenterId = :serviceCenterId AND a.status = 'scheduled' " +
+            "AND a.scheduledAt >= :startOfDay AND a.scheduledAt < :endOfDay")
+    long countScheduledForServiceCenter(@Param("serviceCenterId") Integer serviceCenterId,
+                                        @Param("startOfDay") LocalDateTime startOfDay,
+                                        @Param("endOfDay") LocalDateTime endOfDay);
+
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.status = 'scheduled' " +
+            "AND a.scheduledAt >= :startOfDay AND a.scheduledAt < :endOfDay")
+    long countScheduled(@Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
+
+    @Modifying
+    @Query("UPDATE Appointment a SET a.serviceCenterId = (SELECT c.serviceCenterId FROM Claim c WHERE c = a.claim) " +
+            "WHERE a.serviceCenterId IS NULL AND a.claim IS NOT NULL")
+    int backfillServiceCenterIds();
+}
@@ -0,0 +1,44 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.AppointmentSlot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AppointmentSlotRepository extends JpaRepository<AppointmentSlot, Integer> {
+
+    Optional<AppointmentSlot> findByServiceCenterIdAndSlotStart(Integer serviceCenterId, LocalDateTime slotStart);
+
+    // Latest generated slot for a center, used to extend the slot calendar incrementally
+    @Query("SELECT MAX(s.slotStart) FROM AppointmentSlot s WHERE s.serviceCenterId = :serviceCenterId")
+    Optional<LocalDateTime> findLastSlotStart(@Param("serviceCenterId") Integer serviceCenterId);
+
+    // Next free slots, served by idx_appointment_slots_center_start
+    @Query("SELECT s FROM AppointmentSlot s WHERE s.serviceCenterId = :serviceCenterId " +
+            "AND s.slotStart >= :from AND s.bookedCount < s.capacity ORDER BY s.slotStart")
+    List<AppointmentSlot> findAvailableSlots(@Param("serviceCenterId") Integer serviceCenterId,
+                                             @Param("from") LocalDateTime from,
+                                             Pageable pageable);
+
+    /**
+     * Atomically take one bay in the slot.
+     * @return 1 if a bay was taken, 0 if the slot is already full
+     */
+    @Modifying
+    @Query("UPDATE AppointmentSlot s SET s.bookedCount = s.bookedCount + 1 " +
+            "WHERE s.id = :slotId AND s.bookedCount < s.capacity")
+    int incrementBooked(@Param("slotId") Integer slotId);
+
+    @Modifying
+    @Query("UPDATE AppointmentSlot s SET s.bookedCount = s.bookedCount - 1 " +
+            "WHERE s.id = :slotId AND s.bookedCount > 0")
+    int decrementBooked(@Param("slotId") Integer slotId);
+}
@@ -0,0 +1,24 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.ArchivedClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedClaimRepository extends JpaRepository<ArchivedClaim, Integer> {
+
+    List<ArchivedClaim> findByVinOrderByCreatedAtDesc(String vin);
+
+    // Row: [claimId, claimNumber, finalStatus, finalStatusLabel, createdAt, reportedFailure] - không nạp payload
+    @Query("SELECT a.claimId, a.claimNumber, a.finalStatus, a.finalStatusLabel, a.createdAt, a.reportedFailure " +
+           "FROM ArchivedClaim a WHERE a.vehicleId = :vehicleId ORDER BY a.createdAt DESC")
+    List<Object[]> findVehicle360ClaimRows(@Param("vehicleId") Integer vehicleId);
+
+    @Query("SELECT a.claimId FROM ArchivedClaim a WHERE a.claimId IN :ids")
+    List<Integer> findArchivedIds(@Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,19 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+
+    @Modifying
+    @Query("UPDATE CatalogVersion v SET v.version = v.version + 1, v.updatedAt = :now WHERE v.tableName IN :tableNames")
+    int bump(@Param("tableNames") Collection<String> tableNames, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.ClaimHistoryRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ClaimHistoryRollupRepository extends JpaRepository<ClaimHistoryRollup, Long> {
+
+    List<ClaimHistoryRollup> findByPeriodIn(Collection<String> periods);
+
+    @Query("SELECT r FROM ClaimHistoryRollup r WHERE r.period >= :fromPeriod AND r.period <= :toPeriod " +
+           "AND (:vehicleModel IS NULL OR r.vehicleModel = :vehicleModel) " +
+           "ORDER BY r.period, r.vehicleModel, r.finalStatus")
+    List<ClaimHistoryRollup> findForReport(@Param("fromPeriod") String fromPeriod,
+                                           @Param("toPeriod") String toPeriod,
+                                           @Param("vehicleModel") String vehicleModel);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +16,10 @@ public interface ClaimItemRepository extends JpaRepository<ClaimItem, Integer> {
 
     @Query("SELECT ci FROM ClaimItem ci WHERE ci.claim.id = :claimId AND ci.itemType = 'PART' AND ci.costType = 'WARRANTY'")
     List<ClaimItem> findWarrantyPartsByClaimId(@Param("claimId") Integer claimId);
+
+    @Query("SELECT ci FROM ClaimItem ci JOIN FETCH ci.part WHERE ci.claim.id IN :claimIds " +
+           "AND ci.itemType = 'PART' AND ci.costType = 'WARRANTY'")
+    List<ClaimItem> findWarrantyPartsByClaimIds(@Param("claimIds") Collection<Integer> claimIds);
 }
 
 
@@ -0,0 +1,57 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.ClaimOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClaimOutboxEventRepository extends JpaRepository<ClaimOutboxEvent, Long> {
+
+    /**
+     * Nhận xử lý một dòng: chỉ thành công khi dòng đến hạn và đang PENDING (hoặc PROCESSING nhưng worker
+     * trước đã quá hạn khóa). Nhiều worker / node cùng gọi thì chỉ một bên nhận được.
+     * @return 1 nếu caller được xử lý dòng này
+     */
+    @Modifying
+    @Query("UPDATE ClaimOutboxEvent e SET e.status = 'PROCESSING', e.attempts = e.attempts + 1, " +
+            "e.lockedUntil = :lockedUntil " +
+            "WHERE e.id = :id AND e.nextAttemptAt <= :now " +
+            "AND (e.status = 'PENDING' OR (e.status = 'PROCESSING' AND e.lockedUntil < :now))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE ClaimOutboxEvent e SET e.status = 'DONE', e.processedAt = :now, e.lockedUntil = null, " +
+            "e.lastError = null WHERE e.id = :id AND e.status = 'PROCESSING'")
+    int markDone(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ClaimOutboxEvent e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.lockedUntil = null, e.lastError = :error WHERE e.id = :id AND e.status = 'PROCESSING'")
+    int markFailedAttempt(@Param("id") Long id,
+                          @Param("status") String status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("error") String error);
+
+    // Dòng đến hạn mà không có worker nào đang giữ: dispatch sau commit bị mất / bị từ chối, hoặc chờ retry
+    @Query("SELECT e.id FROM ClaimOutboxEvent e WHERE e.nextAttemptAt <= :now " +
+            "AND (e.status = 'PENDING' OR (e.status = 'PROCESSING' AND e.lockedUntil < :now)) ORDER BY e.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ClaimOutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ClaimOutboxEvent e")
+    long findMaxId();
+
+    // [id, claimId] của các dòng mới hơn afterId (seek theo khóa chính), dùng để các node cập nhật search index
+    @Query("SELECT e.id, e.claimId FROM ClaimOutboxEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<Object[]> findClaimIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
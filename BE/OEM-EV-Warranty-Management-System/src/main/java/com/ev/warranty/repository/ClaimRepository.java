@@ -1,11 +1,15 @@
 package com.ev.warranty.repository;
 
 import com.ev.warranty.model.entity.Claim;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,4 +44,72 @@ public interface ClaimRepository extends JpaRepository<Claim, Integer>, JpaSpeci
 
     @Query("SELECT COUNT(c) FROM Claim c WHERE c.customer.id = :customerId")
     Long countByCustomerId(@Param("customerId") Integer customerId);
+
+    // Dashboard SC: đếm trên index (service_center_id, status_id, created_at), không nạp entity
+    @Query("SELECT COUNT(c) FROM Claim c WHERE c.serviceCenterId = :serviceCenterId AND c.status.code IN :statusCodes")
+    long countByServiceCenterIdAndStatusCodes(@Param("serviceCenterId") Integer serviceCenterId,
+                                              @Param("statusCodes") Collection<String> statusCodes);
+
+    @Query("SELECT COUNT(c) FROM Claim c WHERE c.status.code IN :statusCodes")
+    long countByStatusCodes(@Param("statusCodes") Collection<String> statusCodes);
+
+    // ==================== SEARCH INDEX ====================
+    // Row: [id, claimNumber, vin, vehicleModel, customerName, customerPhone, reportedFailure]
+
+    @Query("SELECT c.id, c.claimNumber, v.vin, v.model, cu.name, cu.phone, d.reportedFailure FROM Claim c " +
+           "LEFT JOIN c.vehicle v LEFT JOIN c.customer cu LEFT JOIN c.diagnostic d " +
+           "WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT c.id, c.claimNumber, v.vin, v.model, cu.name, cu.phone, d.reportedFailure FROM Claim c " +
+           "LEFT JOIN c.vehicle v LEFT JOIN c.customer cu LEFT JOIN c.diagnostic d " +
+           "WHERE c.id IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Integer> ids);
+
+    // [claimId, serviceCenterId của claim]
+    @Query("SELECT c.id, c.serviceCenterId FROM Claim c WHERE c.id IN :ids")
+    List<Object[]> findServiceCenterIdsByClaimIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT c.id FROM Claim c WHERE c.customer.id = :customerId")
+    List<Integer> findIdsByCustomerId(@Param("customerId") Integer customerId);
+
+    // Row: [id, claimNumber, statusCode, statusLabel, createdAt, reportedFailure] - dùng cho Vehicle 360
+    @Query("SELECT c.id, c.claimNumber, s.code, s.label, c.createdAt, d.reportedFailure FROM Claim c " +
+           "LEFT JOIN c.status s LEFT JOIN c.diagnostic d " +
+           "WHERE c.vehicle.id = :vehicleId ORDER BY c.createdAt DESC")
+    List<Object[]> findVehicle360ClaimRows(@Param("vehicleId") Integer vehicleId);
+
+    // Claim + status + approval + cost trong 1 query - dùng cho duyệt/từ chối hàng loạt của EVM
+    @Query("SELECT c FROM Claim c JOIN FETCH c.status LEFT JOIN FETCH c.approval LEFT JOIN FETCH c.cost " +
+           "WHERE c.id IN :ids")
+    List<Claim> findForDecisionByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // ==================== ARCHIVAL ====================
+
+    // Claim ở trạng thái cuối, không đổi từ trước cutoff; claim có chứng từ thanh toán được giữ lại (hồ sơ tài chính)
+    @Query("SELECT c.id FROM Claim c WHERE c.status.code IN :statuses AND c.updatedAt < :cutoff AND c.id > :afterId " +
+           "AND NOT EXISTS (SELECT 1 FROM BillingDocument b WHERE b.claim = c) ORDER BY c.id")
+    List<Integer> findArchivableIds(@Param("statuses") Collection<String> statuses,
+                                    @Param("cutoff") LocalDateTime cutoff,
+                                    @Param("afterId") Integer afterId,
+                                    Pageable pageable);
+
+    // Row: [id, claimNumber, vehicleId, vin, vehicleModel, customerId, statusCode, statusLabel, reportedFailure,
+    //       warrantyCost, createdAt, updatedAt]
+    @Query("SELECT c.id, c.claimNumber, v.id, v.vin, v.model, cu.id, s.code, s.label, d.reportedFailure, " +
+           "co.warrantyCost, c.createdAt, c.updatedAt FROM Claim c " +
+           "LEFT JOIN c.vehicle v LEFT JOIN c.customer cu LEFT JOIN c.status s " +
+           "LEFT JOIN c.diagnostic d LEFT JOIN c.cost co WHERE c.id IN :ids")
+    List<Object[]> findArchiveRows(@Param("ids") Collection<Integer> ids);
+
+    // Đối soát thanh toán. Row: [claimId, statusCode, customerPaymentStatus]
+    @Query("SELECT c.id, s.code, rc.customerPaymentStatus FROM Claim c JOIN c.status s " +
+           "LEFT JOIN c.repairConfiguration rc WHERE c.id IN :ids")
+    List<Object[]> findPaymentStates(@Param("ids") Collection<Integer> ids);
+
+    // Dòng cũ trước khi có cột service_center_id: lấy theo trung tâm của người tạo
+    @Modifying
+    @Query("UPDATE Claim c SET c.serviceCenterId = (SELECT u.serviceCenterId FROM User u WHERE u = c.createdBy) " +
+            "WHERE c.serviceCenterId IS NULL")
+    int backfillServiceCenterIds();
 }
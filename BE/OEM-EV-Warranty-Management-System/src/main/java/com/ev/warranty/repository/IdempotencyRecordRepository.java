@@ -0,0 +1,43 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByRecordKey(String recordKey);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.responseStatus = :responseStatus, " +
+           "r.contentType = :contentType, r.responseBody = :body, r.completedAt = :now " +
+           "WHERE r.recordKey = :recordKey AND r.status = 'IN_PROGRESS'")
+    int complete(@Param("recordKey") String recordKey,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordKey = :recordKey AND r.status = 'IN_PROGRESS'")
+    int release(@Param("recordKey") String recordKey);
+
+    // Key hết hạn, hoặc IN_PROGRESS bị bỏ dở (node chết giữa request): xóa để request hiện tại chạy lại
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordKey = :recordKey " +
+           "AND (r.expiresAt < :now OR (r.status = 'IN_PROGRESS' AND r.createdAt < :abandonedBefore))")
+    int deleteIfReusable(@Param("recordKey") String recordKey,
+                         @Param("now") LocalDateTime now,
+                         @Param("abandonedBefore") LocalDateTime abandonedBefore);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
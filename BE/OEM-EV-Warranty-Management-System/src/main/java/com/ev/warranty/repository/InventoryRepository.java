@@ -1,13 +1,16 @@
 package com.ev.warranty.repository;
 
 import com.ev.warranty.model.entity.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,14 +23,25 @@ public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
     
     Optional<Inventory> findByPartIdAndWarehouseId(Integer partId, Integer warehouseId);
     
-    @Query("SELECT i FROM Inventory i WHERE i.currentStock <= i.minimumStock AND i.currentStock > 0")
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.part JOIN FETCH i.warehouse WHERE i.stockStatus = 'low_stock'")
     List<Inventory> findLowStockItems();
     
-    @Query("SELECT i FROM Inventory i WHERE i.currentStock = 0")
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.part JOIN FETCH i.warehouse WHERE i.stockStatus = 'out_of_stock'")
     List<Inventory> findOutOfStockItems();
     
-    @Query("SELECT i FROM Inventory i WHERE i.currentStock <= i.minimumStock")
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.part JOIN FETCH i.warehouse WHERE i.stockStatus IN ('low_stock', 'out_of_stock')")
     List<Inventory> findStockAlerts();
+
+    long countByStockStatus(String stockStatus);
+
+    // Feed cảnh báo phân trang, đi theo index (stock_status, warehouse_id)
+    @Query(value = "SELECT i FROM Inventory i JOIN FETCH i.part JOIN FETCH i.warehouse " +
+                   "WHERE i.stockStatus IN :statuses AND (:warehouseId IS NULL OR i.warehouse.id = :warehouseId)",
+           countQuery = "SELECT COUNT(i) FROM Inventory i " +
+                   "WHERE i.stockStatus IN :statuses AND (:warehouseId IS NULL OR i.warehouse.id = :warehouseId)")
+    Page<Inventory> findAlertFeed(@Param("statuses") Collection<String> statuses,
+                                  @Param("warehouseId") Integer warehouseId,
+                                  Pageable pageable);
     
     @Query("SELECT i FROM Inventory i WHERE i.part.category = :category")
     List<Inventory> findByPartCategory(@Param("category") String category);
@@ -35,7 +49,7 @@ public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
     @Query("SELECT i FROM Inventory i WHERE i.part.name LIKE %:search% OR i.part.partNumber LIKE %:search%")
     List<Inventory> findByPartNameOrNumber(@Param("search") String search);
     
-    @Query("SELECT i FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.currentStock <= i.minimumStock")
+    @Query("SELECT i FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.stockStatus IN ('low_stock', 'out_of_stock')")
     List<Inventory> findLowStockByWarehouse(@Param("warehouseId") Integer warehouseId);
     
     @Query("SELECT SUM(i.currentStock) FROM Inventory i WHERE i.part.id = :partId")
@@ -43,4 +57,23 @@ public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
     
     @Query("SELECT SUM(i.reservedStock) FROM Inventory i WHERE i.part.id = :partId")
     Long getTotalReservedStockByPartId(@Param("partId") Integer partId);
+
+    @Query("SELECT i.availableStock FROM Inventory i WHERE i.part.id = :partId AND i.warehouse.id = :warehouseId")
+    Optional<Integer> findAvailableStock(@Param("partId") Integer partId, @Param("warehouseId") Integer warehouseId);
+
+    @Query("SELECT SUM(i.availableStock) FROM Inventory i WHERE i.part.id = :partId")
+    Long getTotalAvailableStockByPartId(@Param("partId") Integer partId);
+
+    // Row: [partId, availableAllWarehouses, availableInWarehouse, rowsInWarehouse] - một query cho nhiều part
+    @Query("SELECT i.part.id, SUM(i.availableStock), " +
+           "SUM(CASE WHEN i.warehouse.id = :warehouseId THEN i.availableStock ELSE 0 END), " +
+           "SUM(CASE WHEN i.warehouse.id = :warehouseId THEN 1 ELSE 0 END) " +
+           "FROM Inventory i WHERE i.part.id IN :partIds GROUP BY i.part.id")
+    List<Object[]> getAvailabilitySummaryByPartIds(@Param("partIds") Collection<Integer> partIds,
+                                                   @Param("warehouseId") Integer warehouseId);
+
+    // Khóa dòng tồn kho cho một lần xuất/nhập/giữ hàng (SQL Server: UPDLOCK, ROWLOCK)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.part.id = :partId AND i.warehouse.id = :warehouseId")
+    Optional<Inventory> findForUpdate(@Param("partId") Integer partId, @Param("warehouseId") Integer warehouseId);
 }
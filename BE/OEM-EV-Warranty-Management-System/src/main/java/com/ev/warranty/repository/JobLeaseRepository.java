@@ -0,0 +1,43 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take or renew the lease: succeeds if it has expired or is already held by this owner.
+     * @return 1 if this owner now holds the lease, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.ownerId = :ownerId, l.leaseUntil = :leaseUntil, l.lastRunAt = :now, " +
+            "l.fencingToken = COALESCE(l.fencingToken, 0) + 1 " +
+            "WHERE l.jobName = :jobName AND (l.leaseUntil < :now OR l.ownerId = :ownerId)")
+    int tryAcquire(@Param("jobName") String jobName,
+                   @Param("ownerId") String ownerId,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT l.fencingToken FROM JobLease l WHERE l.jobName = :jobName")
+    Long findFencingToken(@Param("jobName") String jobName);
+
+    /**
+     * Extend a lease while its job is still running. Fails once another node has taken the lease
+     * (owner or fencing token changed).
+     * @return 1 if the lease was extended, 0 if it is lost
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :leaseUntil " +
+            "WHERE l.jobName = :jobName AND l.ownerId = :ownerId AND l.fencingToken = :fencingToken")
+    int renew(@Param("jobName") String jobName,
+              @Param("ownerId") String ownerId,
+              @Param("fencingToken") Long fencingToken,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+}
@@ -0,0 +1,29 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.LiveStreamTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface LiveStreamTicketRepository extends JpaRepository<LiveStreamTicket, Long> {
+
+    Optional<LiveStreamTicket> findByTicketHash(String ticketHash);
+
+    /**
+     * Dùng vé: chỉ một lần gọi (trên mọi node) xóa được dòng còn hạn.
+     * @return 1 nếu caller là người dùng vé này
+     */
+    @Modifying
+    @Query("DELETE FROM LiveStreamTicket t WHERE t.id = :id AND t.expiresAt > :now")
+    int redeem(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM LiveStreamTicket t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
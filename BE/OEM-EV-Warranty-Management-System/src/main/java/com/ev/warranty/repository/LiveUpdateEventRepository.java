@@ -0,0 +1,24 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.LiveUpdateEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LiveUpdateEventRepository extends JpaRepository<LiveUpdateEvent, Long> {
+
+    // Theo created_at chứ không theo id: id IDENTITY của các node có thể commit không theo thứ tự
+    @Query("SELECT e FROM LiveUpdateEvent e WHERE e.createdAt >= :since ORDER BY e.id")
+    List<LiveUpdateEvent> findCreatedSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM LiveUpdateEvent e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
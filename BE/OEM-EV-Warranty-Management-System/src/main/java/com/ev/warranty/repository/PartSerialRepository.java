@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +22,9 @@ public interface PartSerialRepository extends JpaRepository<PartSerial, Integer>
     @Query("SELECT ps FROM PartSerial ps WHERE ps.part.id = :partId AND ps.status = 'in_stock'")
     List<PartSerial> findAvailablePartsByPartId(@Param("partId") Integer partId);
 
+    @Query("SELECT ps FROM PartSerial ps WHERE ps.part.id IN :partIds AND ps.status = 'in_stock' ORDER BY ps.id")
+    List<PartSerial> findAvailablePartsByPartIds(@Param("partIds") Collection<Integer> partIds);
+
     @Query("SELECT ps FROM PartSerial ps WHERE ps.part.type = :partType AND ps.status = 'in_stock'")
     List<PartSerial> findAvailablePartsByPartType(@Param("partType") String partType);
 
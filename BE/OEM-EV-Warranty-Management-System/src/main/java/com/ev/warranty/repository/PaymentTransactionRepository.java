@@ -0,0 +1,52 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.PaymentTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentTransactionRepository extends JpaRepository<PaymentTransaction, Long> {
+
+    Optional<PaymentTransaction> findByTxnRef(String txnRef);
+
+    boolean existsByTxnRef(String txnRef);
+
+    // IPN: chỉ một callback thắng được dòng chưa xác nhận; callback trùng / đến sau nhận 0.
+    // EXPIRED vẫn nhận: tiền đã trừ ở VNPay thì sổ cái phải ghi lại dù URL đã hết hạn phía mình
+    @Modifying
+    @Query("UPDATE PaymentTransaction t SET t.status = :status, t.responseCode = :responseCode, " +
+           "t.gatewayTransactionNo = :transactionNo, t.bankCode = :bankCode, t.payDate = :payDate, " +
+           "t.confirmedAt = :now WHERE t.txnRef = :txnRef AND t.amount = :amount " +
+           "AND t.status IN ('PENDING', 'EXPIRED')")
+    int confirm(@Param("txnRef") String txnRef,
+                @Param("amount") Long amount,
+                @Param("status") String status,
+                @Param("responseCode") String responseCode,
+                @Param("transactionNo") String transactionNo,
+                @Param("bankCode") String bankCode,
+                @Param("payDate") String payDate,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PaymentTransaction t SET t.reconcileStatus = :reconcileStatus, t.reconciledAt = :now " +
+           "WHERE t.id IN :ids")
+    int markReconciled(@Param("ids") List<Long> ids,
+                       @Param("reconcileStatus") String reconcileStatus,
+                       @Param("now") LocalDateTime now);
+
+    @Query("SELECT t FROM PaymentTransaction t WHERE t.status = 'SUCCESS' AND t.reconcileStatus IS NULL " +
+           "AND t.id > :afterId ORDER BY t.id")
+    List<PaymentTransaction> findUnreconciled(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PaymentTransaction t SET t.status = 'EXPIRED' WHERE t.status = 'PENDING' AND t.expireAt < :cutoff")
+    int expireStale(@Param("cutoff") LocalDateTime cutoff);
+}
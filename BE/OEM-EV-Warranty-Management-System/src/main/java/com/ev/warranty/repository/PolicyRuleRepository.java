@@ -78,6 +78,13 @@ public interface PolicyRuleRepository extends JpaRepository<PolicyRule, Integer>
            "ORDER BY wp.createdAt DESC, pr.priority DESC, pr.createdAt ASC")
     List<PolicyRule> findActiveRulesByComponent(@Param("componentCategory") String componentCategory);
 
+    /**
+     * Load every rule of every active policy (with the policy) in one query, used to compile the rule engine
+     * @return Rules of active policies
+     */
+    @Query("SELECT pr FROM PolicyRule pr JOIN FETCH pr.policy wp WHERE wp.status = 'active'")
+    List<PolicyRule> findAllForActivePolicies();
+
     // ==================== STATISTICS QUERIES ====================
 
     /**
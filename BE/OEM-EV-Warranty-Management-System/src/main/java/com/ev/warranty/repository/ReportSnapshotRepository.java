@@ -0,0 +1,9 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.ReportSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReportSnapshotRepository extends JpaRepository<ReportSnapshot, String> {
+}
@@ -0,0 +1,15 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.ShipmentLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ShipmentLinkRepository extends JpaRepository<ShipmentLink, Integer> {
+
+    List<ShipmentLink> findByShipmentId(Integer shipmentId);
+
+    boolean existsByShipmentIdAndLinkTypeAndRefId(Integer shipmentId, String linkType, Integer refId);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,4 +46,19 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Integer> {
     // New finders by mappings
     List<Shipment> findByClaimId(Integer claimId);
     List<Shipment> findByWorkOrderId(Integer workOrderId);
+
+    List<Shipment> findByTrackingNumberIn(Collection<String> trackingNumbers);
+
+    // Shipment gắn trực tiếp (cột claim_id), qua shipment_links, hoặc qua reservation của claim
+    @Query("SELECT s FROM Shipment s WHERE s.claim.id = :claimId " +
+           "OR s.id IN (SELECT l.shipmentId FROM ShipmentLink l WHERE l.linkType = 'CLAIM' AND l.refId = :claimId) " +
+           "OR s.id IN (SELECT l.shipmentId FROM ShipmentLink l WHERE l.linkType = 'RESERVATION' " +
+           "AND l.refId IN (SELECT r.id FROM StockReservation r WHERE r.claim.id = :claimId))")
+    List<Shipment> findLinkedToClaim(@Param("claimId") Integer claimId);
+
+    @Query("SELECT s FROM Shipment s WHERE s.workOrder.id = :workOrderId " +
+           "OR s.id IN (SELECT l.shipmentId FROM ShipmentLink l WHERE l.linkType = 'WORK_ORDER' AND l.refId = :workOrderId) " +
+           "OR s.id IN (SELECT l.shipmentId FROM ShipmentLink l WHERE l.linkType = 'RESERVATION' " +
+           "AND l.refId IN (SELECT r.id FROM StockReservation r WHERE r.workOrder.id = :workOrderId))")
+    List<Shipment> findLinkedToWorkOrder(@Param("workOrderId") Integer workOrderId);
 }
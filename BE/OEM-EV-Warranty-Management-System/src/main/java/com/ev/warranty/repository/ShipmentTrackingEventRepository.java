@@ -0,0 +1,19 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.ShipmentTrackingEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ShipmentTrackingEventRepository extends JpaRepository<ShipmentTrackingEvent, Long> {
+
+    @Query("SELECT e.eventKey FROM ShipmentTrackingEvent e WHERE e.eventKey IN :eventKeys")
+    List<String> findExistingKeys(@Param("eventKeys") Collection<String> eventKeys);
+
+    List<ShipmentTrackingEvent> findByShipmentIdOrderByEventTimeDesc(Integer shipmentId);
+}
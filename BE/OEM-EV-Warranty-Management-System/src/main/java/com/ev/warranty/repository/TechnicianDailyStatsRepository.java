@@ -0,0 +1,46 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.TechnicianDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TechnicianDailyStatsRepository extends JpaRepository<TechnicianDailyStats, Long> {
+
+    @Modifying
+    @Query("DELETE FROM TechnicianDailyStats s WHERE s.statDate BETWEEN :from AND :to")
+    int deleteByDateRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM TechnicianDailyStats s WHERE s.technicianId IN :technicianIds AND s.statDate BETWEEN :from AND :to")
+    int deleteByTechniciansAndDateRange(@Param("technicianIds") Collection<Integer> technicianIds,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    // [workOrders, completed, onTime, completionDays, laborHours, partsUsed]
+    @Query("SELECT COALESCE(SUM(s.workOrders), 0), COALESCE(SUM(s.completed), 0), COALESCE(SUM(s.onTime), 0), " +
+           "COALESCE(SUM(s.completionDays), 0), COALESCE(SUM(s.laborHours), 0), COALESCE(SUM(s.partsUsed), 0) " +
+           "FROM TechnicianDailyStats s WHERE s.technicianId = :technicianId " +
+           "AND (:from IS NULL OR s.statDate >= :from) AND (:to IS NULL OR s.statDate <= :to)")
+    List<Object[]> sumForTechnician(@Param("technicianId") Integer technicianId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    // [technicianId, fullName, workOrders, completed, onTime, completionDays, laborHours, partsUsed]
+    @Query("SELECT s.technicianId, u.fullName, SUM(s.workOrders), SUM(s.completed), SUM(s.onTime), " +
+           "SUM(s.completionDays), SUM(s.laborHours), SUM(s.partsUsed) " +
+           "FROM TechnicianDailyStats s JOIN User u ON u.id = s.technicianId " +
+           "WHERE s.statDate >= :from AND s.statDate <= :to " +
+           "AND (:serviceCenterId IS NULL OR s.serviceCenterId = :serviceCenterId) " +
+           "GROUP BY s.technicianId, u.fullName")
+    List<Object[]> sumByTechnician(@Param("serviceCenterId") Integer serviceCenterId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+}
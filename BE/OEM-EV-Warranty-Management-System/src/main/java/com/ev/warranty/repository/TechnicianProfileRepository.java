@@ -2,10 +2,12 @@ package com.ev.warranty.repository;
 
 import com.ev.warranty.model.entity.TechnicianProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -256,4 +258,20 @@ public interface TechnicianProfileRepository extends JpaRepository<TechnicianPro
             "AND tp.user.active = true " +
             "ORDER BY tp.currentWorkload ASC")
     List<TechnicianProfile> findTechniciansWithCapacityByServiceCenterId(@Param("serviceCenterId") Integer serviceCenterId);
-}
\ No newline at end of file
+
+    // ==================== WORKLOAD RECONCILIATION ====================
+
+    /**
+     * Set the reconciled workload only if it still has the value read by the reconciliation
+     * (compare-and-set), so a concurrent assignment or completion is never overwritten.
+     * @return 1 if updated, 0 if the workload changed in the meantime
+     */
+    @Modifying
+    @Query("UPDATE TechnicianProfile tp SET tp.currentWorkload = :actual, tp.assignmentStatus = :status, " +
+            "tp.updatedAt = :now WHERE tp.id = :id AND tp.currentWorkload = :expected")
+    int reconcileWorkload(@Param("id") Integer id,
+                          @Param("expected") Integer expected,
+                          @Param("actual") Integer actual,
+                          @Param("status") String status,
+                          @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,32 @@
+package com.ev.warranty.repository;
+
+import com.ev.warranty.model.entity.Vehicle360View;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface Vehicle360ViewRepository extends JpaRepository<Vehicle360View, String> {
+
+    @Query("SELECT v.vin FROM Vehicle360View v WHERE v.vehicleId IN :vehicleIds")
+    List<String> findVinsByVehicleIds(@Param("vehicleIds") Collection<Integer> vehicleIds);
+
+    @Modifying
+    @Query("UPDATE Vehicle360View v SET v.stale = true WHERE v.vehicleId IN :vehicleIds")
+    int markStaleByVehicleIds(@Param("vehicleIds") Collection<Integer> vehicleIds);
+
+    @Modifying
+    @Query("UPDATE Vehicle360View v SET v.stale = true WHERE v.vehicleId IN " +
+           "(SELECT ve.id FROM Vehicle ve WHERE ve.customer.id = :customerId)")
+    int markStaleByCustomerId(@Param("customerId") Integer customerId);
+
+    @Modifying
+    @Query("UPDATE Vehicle360View v SET v.stale = true WHERE v.vehicleId IN " +
+           "(SELECT cv.vehicle.id FROM CampaignVehicle cv WHERE cv.campaign.id = :campaignId)")
+    int markStaleByCampaignId(@Param("campaignId") Integer campaignId);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,9 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Integer> {
     Optional<Vehicle> findByVin(@Param("vin") String vin);
     
     boolean existsByVin(String vin);
+
+    // Bulk lookup for batch warranty validation (callers keep the IN list under SQL Server's parameter limit)
+    List<Vehicle> findByVinIn(Collection<String> vins);
     List<Vehicle> findByCustomerId(Integer customerId);
 
     @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.vehicleModel WHERE v.customer.id = :customerId ORDER BY v.createdAt DESC")
@@ -41,6 +41,13 @@ public interface WarrantyPolicyRepository extends JpaRepository<WarrantyPolicy,
      */
     Page<WarrantyPolicy> findByStatus(String status, Pageable pageable);
 
+    /**
+     * Find all policies by status (including policies without rules), used to compile the rule engine
+     * @param status Policy status
+     * @return List of policies
+     */
+    List<WarrantyPolicy> findByStatus(String status);
+
     /**
      * Find policies by applicable model
      * @param model Vehicle model
@@ -2,10 +2,13 @@ package com.ev.warranty.repository;
 
 import com.ev.warranty.model.entity.WorkOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -25,4 +28,37 @@ public interface WorkOrderRepository extends JpaRepository<WorkOrder, Integer> {
 
     @Query("SELECT COUNT(wo) FROM WorkOrder wo WHERE wo.technician.id = :technicianId AND wo.endTime IS NULL")
     Long countActiveWorkOrdersByTechnician(@Param("technicianId") Integer technicianId);
+
+    // Active work order count per technician: [technicianId, count]
+    @Query("SELECT wo.technician.id, COUNT(wo) FROM WorkOrder wo WHERE wo.endTime IS NULL GROUP BY wo.technician.id")
+    List<Object[]> countActiveWorkOrdersGroupedByTechnician();
+
+    // Nguồn của technician_daily_stats: [technicianId, serviceCenterId, startTime, endTime, laborHours, partsUsed]
+    // cho work order bắt đầu trong [from, to)
+    @Query("SELECT t.id, t.serviceCenterId, wo.startTime, wo.endTime, wo.laborHours, " +
+           "(SELECT COALESCE(SUM(p.quantity), 0) FROM WorkOrderPart p WHERE p.workOrder = wo) " +
+           "FROM WorkOrder wo JOIN wo.technician t WHERE wo.startTime >= :from AND wo.startTime < :to")
+    List<Object[]> findDailyStatsRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT t.id, t.serviceCenterId, wo.startTime, wo.endTime, wo.laborHours, " +
+           "(SELECT COALESCE(SUM(p.quantity), 0) FROM WorkOrderPart p WHERE p.workOrder = wo) " +
+           "FROM WorkOrder wo JOIN wo.technician t " +
+           "WHERE t.id IN :technicianIds AND wo.startTime >= :from AND wo.startTime < :to")
+    List<Object[]> findDailyStatsRowsForTechnicians(@Param("technicianIds") Collection<Integer> technicianIds,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(wo.startTime) FROM WorkOrder wo")
+    LocalDateTime findEarliestStartTime();
+
+    long countByServiceCenterIdAndEndTimeIsNull(Integer serviceCenterId);
+
+    long countByEndTimeIsNull();
+
+    @Modifying
+    @Query("UPDATE WorkOrder w SET w.serviceCenterId = COALESCE(" +
+            "(SELECT c.serviceCenterId FROM Claim c WHERE c = w.claim), " +
+            "(SELECT u.serviceCenterId FROM User u WHERE u = w.technician)) " +
+            "WHERE w.serviceCenterId IS NULL")
+    int backfillServiceCenterIds();
 }
@@ -16,11 +16,13 @@ public class CustomUserDetails implements UserDetails {
     private final String password;
     private final boolean enabled;
     private final List<GrantedAuthority> authorities;
+    private final Integer serviceCenterId;
 
     public CustomUserDetails(User user) {
         this.username = user.getUsername();
         this.password = user.getPasswordHash();
         this.enabled = true;
+        this.serviceCenterId = user.getServiceCenterId();
         String roleName = "ROLE_" + user.getRole().getRoleName();
         this.authorities = Collections.singletonList(
                 new SimpleGrantedAuthority(roleName)
@@ -36,6 +38,10 @@ public class CustomUserDetails implements UserDetails {
         return new CustomUserDetails(user);
     }
 
+    public Integer getServiceCenterId() {
+        return serviceCenterId;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
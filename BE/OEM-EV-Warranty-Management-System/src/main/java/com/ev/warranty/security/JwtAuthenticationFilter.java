@@ -22,15 +22,20 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String LIVE_STREAM_PATH = "/api/live/stream";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final LiveStreamTickets liveStreamTickets;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
-            @Qualifier("customUserDetailsServiceImpl") UserDetailsService userDetailsService
+            @Qualifier("customUserDetailsServiceImpl") UserDetailsService userDetailsService,
+            LiveStreamTickets liveStreamTickets
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.liveStreamTickets = liveStreamTickets;
     }
 
     @Override
@@ -59,10 +64,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = getTokenFromRequest(request);
             log.debug("🎫 Token extracted: {}", token != null ? "Yes" : "No");
 
+            String username = null;
             if (token != null && jwtService.validateToken(token)) {
-                String username = jwtService.getUsernameFromToken(token);
+                username = jwtService.getUsernameFromToken(token);
                 log.info("✅ Valid token for user: {}", username);
+            } else if (token == null && LIVE_STREAM_PATH.equals(path)) {
+                // EventSource không đặt được header Authorization: dùng vé một lần từ POST /api/live/ticket
+                username = liveStreamTickets.redeem(request.getParameter("ticket")).orElse(null);
+            }
 
+            if (username != null) {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 log.info("👤 User loaded - Username: {}, Authorities: {}",
                     userDetails.getUsername(),
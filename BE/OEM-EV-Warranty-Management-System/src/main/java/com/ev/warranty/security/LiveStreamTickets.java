@@ -0,0 +1,97 @@
+package com.ev.warranty.security;
+
+import com.ev.warranty.config.LiveUpdateProperties;
+import com.ev.warranty.model.entity.LiveStreamTicket;
+import com.ev.warranty.repository.LiveStreamTicketRepository;
+import com.ev.warranty.service.impl.ClusterJobRunner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Vé ngắn hạn, dùng một lần cho EventSource (không đặt được header Authorization).
+ * Client có JWT gọi POST /api/live/ticket rồi mở /api/live/stream?ticket=...: vé lộ trong access log
+ * cũng vô dụng vì đã bị dùng hoặc hết hạn sau app.live.ticket-ttl-seconds. Lưu trong DB nên node nào nhận stream cũng được.
+ */
+@Component
+@Slf4j
+public class LiveStreamTickets {
+
+    static final String JOB_TICKET_PURGE = "live-stream-ticket-purge";
+    private static final int TICKET_BYTES = 32;
+
+    public record Ticket(String ticket, long expiresInSeconds) {
+    }
+
+    private final LiveStreamTicketRepository repository;
+    private final LiveUpdateProperties properties;
+    private final ClusterJobRunner jobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final SecureRandom random = new SecureRandom();
+
+    public LiveStreamTickets(LiveStreamTicketRepository repository,
+                             LiveUpdateProperties properties,
+                             ClusterJobRunner jobRunner,
+                             PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.properties = properties;
+        this.jobRunner = jobRunner;
+        // Dùng vé từ filter, ngoài mọi transaction nghiệp vụ; phải thấy ngay vé vừa cấp trên primary
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Ticket issue(String username) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long ttl = properties.getTicketTtlSeconds();
+        transactionTemplate.executeWithoutResult(status -> repository.save(LiveStreamTicket.builder()
+                .ticketHash(hash(ticket))
+                .username(username)
+                .expiresAt(LocalDateTime.now().plusSeconds(ttl))
+                .build()));
+        return new Ticket(ticket, ttl);
+    }
+
+    /** Username của vé nếu vé còn hạn và chưa dùng; vé bị xóa ngay nên lần dùng thứ hai luôn thất bại. */
+    public Optional<String> redeem(String ticket) {
+        if (ticket == null || ticket.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(transactionTemplate.execute(status -> repository.findByTicketHash(hash(ticket))
+                .filter(found -> repository.redeem(found.getId(), LocalDateTime.now()) == 1)
+                .map(LiveStreamTicket::getUsername)
+                .orElse(null)));
+    }
+
+    // Every hour at minute 35
+    @Scheduled(cron = "0 35 * * * *")
+    public void purgeExpired() {
+        jobRunner.runIfLeader(JOB_TICKET_PURGE, () -> {
+            Integer deleted = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+            log.info("Purged {} expired live stream tickets", deleted);
+        });
+    }
+
+    private static String hash(String ticket) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(ticket.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ev.warranty.security;
+
+import com.ev.warranty.model.entity.Claim;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+
+/**
+ * Phạm vi service center của user đang đăng nhập.
+ * SC_STAFF / SC_TECHNICIAN chỉ thấy claim, work order, appointment, shipment của trung tâm mình: filter Hibernate
+ * được bật trên mọi EntityManager mở trong request của họ (xem ServiceCenterScopeConfig).
+ * Không áp dụng cho EVM / ADMIN, job nền và thread không có SecurityContext.
+ */
+public final class ServiceCenterScope {
+
+    static final Set<String> SCOPED_ROLES = Set.of("ROLE_SC_STAFF", "ROLE_SC_TECHNICIAN");
+
+    // User SC chưa được gán trung tâm: không thấy dòng nào (giống các API ...ByCurrentUserServiceCenter)
+    static final int NO_SERVICE_CENTER = -1;
+
+    private ServiceCenterScope() {
+    }
+
+    /** Service center của user hiện tại theo JWT principal (không query DB); null nếu không có. */
+    public static Integer currentUserServiceCenterId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof CustomUserDetails details
+                ? details.getServiceCenterId() : null;
+    }
+
+    /** Id trung tâm phải lọc theo, hoặc null khi user hiện tại không bị giới hạn. */
+    public static Integer scopedServiceCenterId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof CustomUserDetails details)) {
+            return null;
+        }
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            if (SCOPED_ROLES.contains(authority.getAuthority())) {
+                return details.getServiceCenterId() != null ? details.getServiceCenterId() : NO_SERVICE_CENTER;
+            }
+        }
+        return null;
+    }
+
+    public static void apply(EntityManager entityManager) {
+        Integer serviceCenterId = scopedServiceCenterId();
+        if (serviceCenterId != null) {
+            entityManager.unwrap(Session.class).enableFilter(Claim.SERVICE_CENTER_FILTER)
+                    .setParameter(Claim.SERVICE_CENTER_PARAM, serviceCenterId);
+        }
+    }
+
+    /** Tắt filter trên EntityManager hiện tại, cho dữ liệu dùng chung giữa các trung tâm (vd. Vehicle 360 view). */
+    public static void disable(EntityManager entityManager) {
+        entityManager.unwrap(Session.class).disableFilter(Claim.SERVICE_CENTER_FILTER);
+    }
+}
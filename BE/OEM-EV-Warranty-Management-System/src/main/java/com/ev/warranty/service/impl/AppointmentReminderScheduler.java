@@ -1,41 +1,140 @@
 package com.ev.warranty.service.impl;
 
+import com.ev.warranty.config.JobSchedulerProperties;
 import com.ev.warranty.model.entity.Appointment;
+import com.ev.warranty.model.entity.AppointmentReminder;
+import com.ev.warranty.repository.AppointmentReminderRepository;
 import com.ev.warranty.repository.AppointmentRepository;
 import com.ev.warranty.service.inter.NotificationService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Gửi reminder lịch hẹn (24h, 2h) trên một node duy nhất (lease qua ClusterJobRunner).
+ * - Quét cửa sổ theo từng chunk (keyset theo id), bỏ qua appointment đã có marker.
+ * - Mỗi appointment được ghi marker trước rồi mới gửi, trên worker pool song song;
+ *   gửi lỗi thì xóa marker để lần chạy sau thử lại.
+ * - Mất lease giữa chừng (node khác đã chiếm) thì dừng trước chunk kế tiếp.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class AppointmentReminderScheduler {
 
+    public static final String JOB_24H = "appointment-reminder-24h";
+    public static final String JOB_2H = "appointment-reminder-2h";
+
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentReminderRepository reminderRepository;
     private final NotificationService notificationService;
+    private final ClusterJobRunner jobRunner;
+    private final ThreadPoolTaskExecutor workerExecutor;
+    private final JobSchedulerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public AppointmentReminderScheduler(AppointmentRepository appointmentRepository,
+                                        AppointmentReminderRepository reminderRepository,
+                                        NotificationService notificationService,
+                                        ClusterJobRunner jobRunner,
+                                        @Qualifier("jobWorkerExecutor") ThreadPoolTaskExecutor workerExecutor,
+                                        JobSchedulerProperties properties,
+                                        PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.reminderRepository = reminderRepository;
+        this.notificationService = notificationService;
+        this.jobRunner = jobRunner;
+        this.workerExecutor = workerExecutor;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     // Run every hour to send 24h reminders
     @Scheduled(cron = "0 0 * * * *")
     public void send24hReminders() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime from = now.plusHours(23).plusMinutes(30);
-        LocalDateTime to = now.plusHours(24).plusMinutes(30);
-        List<Appointment> upcoming = appointmentRepository.findByScheduledAtBetweenOrderByScheduledAt(from, to);
-        upcoming.forEach(a -> notificationService.sendAppointmentReminder(a, "24h"));
+        jobRunner.runIfLeader(JOB_24H, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            dispatchWindow(JOB_24H, "24h", now.plusHours(23).plusMinutes(30), now.plusHours(24).plusMinutes(30));
+        });
     }
 
     // Run every 15 minutes to send 2h reminders
     @Scheduled(cron = "0 */15 * * * *")
     public void send2hReminders() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime from = now.plusHours(1).plusMinutes(45);
-        LocalDateTime to = now.plusHours(2).plusMinutes(15);
-        List<Appointment> upcoming = appointmentRepository.findByScheduledAtBetweenOrderByScheduledAt(from, to);
-        upcoming.forEach(a -> notificationService.sendAppointmentReminder(a, "2h"));
+        jobRunner.runIfLeader(JOB_2H, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            dispatchWindow(JOB_2H, "2h", now.plusHours(1).plusMinutes(45), now.plusHours(2).plusMinutes(15));
+        });
+    }
+
+    /**
+     * Scan [from, to] chunk by chunk and dispatch reminders in parallel, while this node holds the job's lease.
+     * @return number of reminders sent
+     */
+    public int dispatchWindow(String jobName, String window, LocalDateTime from, LocalDateTime to) {
+        AtomicInteger sent = new AtomicInteger();
+        int afterId = 0;
+
+        while (true) {
+            if (!jobRunner.holdsLease(jobName)) {
+                log.warn("Stopping {} reminders: lease of {} no longer held", window, jobName);
+                break;
+            }
+            List<Appointment> chunk = appointmentRepository.findReminderCandidates(
+                    from, to, window, afterId, PageRequest.of(0, properties.getChunkSize()));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            CompletableFuture<?>[] tasks = chunk.stream()
+                    .map(a -> CompletableFuture.runAsync(() -> {
+                        if (sendOnce(a, window)) {
+                            sent.incrementAndGet();
+                        }
+                    }, workerExecutor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(tasks).join();
+
+            afterId = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < properties.getChunkSize()) {
+                break;
+            }
+        }
+
+        log.info("Sent {} {} reminders for window {} - {}", sent.get(), window, from, to);
+        return sent.get();
+    }
+
+    private boolean sendOnce(Appointment appointment, String window) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> reminderRepository.saveAndFlush(AppointmentReminder.builder()
+                    .appointmentId(appointment.getId())
+                    .reminderWindow(window)
+                    .sentBy(jobRunner.getNodeId())
+                    .sentAt(LocalDateTime.now())
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            // Đã có node khác gửi reminder này
+            return false;
+        }
+
+        try {
+            notificationService.sendAppointmentReminder(appointment, window);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to send {} reminder for appointment {}: {}", window, appointment.getId(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> reminderRepository.deleteMarker(appointment.getId(), window));
+            return false;
+        }
     }
 }
@@ -9,6 +9,7 @@ import com.ev.warranty.model.dto.appointment.AppointmentUpdateRequestDTO;
 import com.ev.warranty.model.entity.*;
 import com.ev.warranty.repository.*;
 import com.ev.warranty.service.inter.AppointmentService;
+import com.ev.warranty.service.inter.AppointmentSlotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -38,6 +39,7 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final ClaimRepository claimRepository;
     private final UserRepository userRepository;
     private final AppointmentMapper appointmentMapper;
+    private final AppointmentSlotService appointmentSlotService;
 
     @Override
     @Transactional
@@ -58,10 +60,18 @@ public class AppointmentServiceImpl implements AppointmentService {
         // 4. Kiểm tra xung đột lịch cho cùng xe
         validateSchedulingConflicts(request.getScheduledAt(), vehicle.getId());
 
-        // 5. Tạo và lưu appointment
+        // 5. Giữ một bay trong slot của service center (atomic, theo capacity cấu hình)
+        Integer serviceCenterId = request.getServiceCenterId() != null
+                ? request.getServiceCenterId()
+                : createdByUser.getServiceCenterId();
+        Integer slotId = appointmentSlotService.reserveSlot(serviceCenterId, request.getScheduledAt());
+
+        // 6. Tạo và lưu appointment
         Appointment appointment = Appointment.builder()
                 .vehicle(vehicle)
                 .claim(claim)
+                .serviceCenterId(serviceCenterId)
+                .slotId(slotId)
                 .scheduledAt(request.getScheduledAt())
                 .createdBy(createdByUser)
                 .status("scheduled")
@@ -70,7 +80,7 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
 
-        // 6. Gửi thông báo khách nếu có yêu cầu
+        // 7. Gửi thông báo khách nếu có yêu cầu
         if (Boolean.TRUE.equals(request.getNotifyCustomer())) {
             try {
                 notifyCustomer(savedAppointment);
@@ -142,9 +152,13 @@ public class AppointmentServiceImpl implements AppointmentService {
         String originalStatus = appointment.getStatus();
         LocalDateTime originalSchedule = appointment.getScheduledAt();
 
-        // Cập nhật thời gian nếu được cung cấp, kiểm tra xung đột
+        // Cập nhật thời gian nếu được cung cấp, kiểm tra xung đột và chuyển bay sang slot mới
         if (request.getScheduledAt() != null) {
             validateSchedulingConflicts(request.getScheduledAt(), appointment.getVehicle().getId(), id);
+            if (appointment.getServiceCenterId() != null) {
+                appointment.setSlotId(appointmentSlotService.moveSlot(
+                        appointment.getServiceCenterId(), appointment.getSlotId(), request.getScheduledAt()));
+            }
             appointment.setScheduledAt(request.getScheduledAt());
         }
 
@@ -152,6 +166,9 @@ public class AppointmentServiceImpl implements AppointmentService {
         if (request.getStatus() != null) {
             validateStatusTransition(appointment.getStatus(), request.getStatus());
             appointment.setStatus(request.getStatus());
+            if ("cancelled".equals(request.getStatus())) {
+                releaseSlot(appointment);
+            }
         }
 
         // Xử lý thông báo khách khi cập nhật
@@ -200,6 +217,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         appointment.setStatus("cancelled");
+        releaseSlot(appointment);
         appointmentRepository.save(appointment);
 
         try {
@@ -297,7 +315,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
     }
 
-    // Kiểm tra xung đột lịch: +/-2 giờ cho cùng xe và giới hạn số lượng theo ngày
+    // Kiểm tra xung đột lịch: +/-2 giờ cho cùng xe (capacity theo slot do AppointmentSlotService đảm nhận)
     private void validateSchedulingConflicts(LocalDateTime scheduledAt, Integer vehicleId) {
         validateSchedulingConflicts(scheduledAt, vehicleId, null);
     }
@@ -309,10 +327,13 @@ public class AppointmentServiceImpl implements AppointmentService {
         if (!conflictingAppointments.isEmpty()) {
             throw new ValidationException("Scheduling conflict: Another appointment exists within 2 hours for this vehicle");
         }
-        LocalDate appointmentDate = scheduledAt.toLocalDate();
-        List<Appointment> dailyAppointments = appointmentRepository.findByScheduledAtBetweenOrderByScheduledAt(appointmentDate.atStartOfDay(), appointmentDate.atTime(23, 59, 59));
-        if (dailyAppointments.size() >= 10) {
-            throw new ValidationException("Daily appointment capacity reached. Please choose another date.");
+    }
+
+    // Trả bay đã giữ về slot khi lịch hẹn bị hủy
+    private void releaseSlot(Appointment appointment) {
+        if (appointment.getSlotId() != null) {
+            appointmentSlotService.releaseSlot(appointment.getSlotId());
+            appointment.setSlotId(null);
         }
     }
 
@@ -0,0 +1,98 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.AppointmentCapacityProperties;
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.entity.AppointmentSlot;
+import com.ev.warranty.repository.AppointmentSlotRepository;
+import com.ev.warranty.repository.ServiceCenterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sinh trước các dòng appointment_slots cho mỗi service center tới hết horizon đặt lịch,
+ * để truy vấn tìm slot trống chỉ cần một lần quét index.
+ * Chạy trong transaction riêng: nếu node khác sinh trùng (vi phạm unique) thì chỉ transaction này rollback.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentSlotGenerator {
+
+    private final AppointmentSlotRepository slotRepository;
+    private final ServiceCenterRepository serviceCenterRepository;
+    private final AppointmentCapacityProperties properties;
+
+    // Ngày cuối cùng (tính cả ngày đó) đã có slot, theo service center.
+    // Theo ngày chứ không theo thời điểm: horizon chỉ dịch một lần mỗi ngày nên các lần gọi sau không chạm DB
+    private final Map<Integer, LocalDate> generatedUntil = new ConcurrentHashMap<>();
+
+    public boolean isGenerated(Integer serviceCenterId, LocalDate lastDay) {
+        LocalDate known = generatedUntil.get(serviceCenterId);
+        return known != null && !known.isBefore(lastDay);
+    }
+
+    public void forget(Integer serviceCenterId) {
+        generatedUntil.remove(serviceCenterId);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void generateUntil(Integer serviceCenterId, LocalDate lastDay) {
+        if (!serviceCenterRepository.existsById(serviceCenterId)) {
+            throw new NotFoundException("Service center not found with ID: " + serviceCenterId);
+        }
+
+        LocalDateTime next = slotRepository.findLastSlotStart(serviceCenterId)
+                .map(last -> last.plusMinutes(properties.getSlotMinutes()))
+                .orElseGet(() -> slotStartFor(LocalDateTime.now()));
+        int bays = properties.baysFor(serviceCenterId);
+
+        List<AppointmentSlot> slots = new ArrayList<>();
+        LocalDate day = next.toLocalDate();
+        while (!day.isAfter(lastDay)) {
+            if (properties.getWorkingDays().contains(day.getDayOfWeek())) {
+                LocalDateTime start = day.atTime(properties.getOpenHour(), 0);
+                LocalDateTime close = day.atTime(properties.getCloseHour(), 0);
+                for (; start.isBefore(close); start = start.plusMinutes(properties.getSlotMinutes())) {
+                    if (start.isBefore(next)) {
+                        continue;
+                    }
+                    slots.add(AppointmentSlot.builder()
+                            .serviceCenterId(serviceCenterId)
+                            .slotStart(start)
+                            .slotEnd(start.plusMinutes(properties.getSlotMinutes()))
+                            .capacity(bays)
+                            .bookedCount(0)
+                            .build());
+                }
+            }
+            day = day.plusDays(1);
+        }
+
+        if (!slots.isEmpty()) {
+            slotRepository.saveAll(slots);
+            log.info("Generated {} appointment slots for service center {}", slots.size(), serviceCenterId);
+        }
+        generatedUntil.put(serviceCenterId, lastDay);
+    }
+
+    // Căn thời điểm về đầu slot chứa nó (tính từ giờ mở cửa)
+    public LocalDateTime slotStartFor(LocalDateTime time) {
+        LocalDateTime open = time.toLocalDate().atTime(properties.getOpenHour(), 0);
+        if (time.isBefore(open)) {
+            return open;
+        }
+        long minutes = Duration.between(open, time).toMinutes();
+        return open.plusMinutes(minutes - minutes % properties.getSlotMinutes());
+    }
+}
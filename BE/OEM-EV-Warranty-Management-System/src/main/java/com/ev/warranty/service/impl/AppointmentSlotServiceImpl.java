@@ -0,0 +1,123 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.AppointmentCapacityProperties;
+import com.ev.warranty.exception.ValidationException;
+import com.ev.warranty.model.dto.appointment.AppointmentSlotDTO;
+import com.ev.warranty.model.entity.AppointmentSlot;
+import com.ev.warranty.repository.AppointmentSlotRepository;
+import com.ev.warranty.service.inter.AppointmentSlotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Quản lý capacity đặt lịch theo từng service center và từng khung giờ (slot):
+ * - Tìm N slot còn trống tiếp theo bằng một truy vấn theo index.
+ * - Giữ/trả một bay trong slot bằng UPDATE có điều kiện (atomic, an toàn khi đặt lịch đồng thời).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentSlotServiceImpl implements AppointmentSlotService {
+
+    private static final int MAX_SLOT_RESULTS = 100;
+
+    private final AppointmentSlotRepository slotRepository;
+    private final AppointmentSlotGenerator slotGenerator;
+    private final AppointmentCapacityProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentSlotDTO> findAvailableSlots(Integer serviceCenterId, LocalDateTime from, int limit) {
+        LocalDateTime start = from != null && from.isAfter(LocalDateTime.now()) ? from : LocalDateTime.now();
+        int size = Math.max(1, Math.min(limit, MAX_SLOT_RESULTS));
+        ensureSlots(serviceCenterId);
+
+        return slotRepository.findAvailableSlots(serviceCenterId, start, PageRequest.of(0, size))
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public Integer reserveSlot(Integer serviceCenterId, LocalDateTime scheduledAt) {
+        return take(findSlot(serviceCenterId, scheduledAt));
+    }
+
+    @Override
+    @Transactional
+    public Integer moveSlot(Integer serviceCenterId, Integer currentSlotId, LocalDateTime scheduledAt) {
+        AppointmentSlot slot = findSlot(serviceCenterId, scheduledAt);
+        // Đổi giờ trong cùng slot: lịch hẹn đã giữ bay ở đây, không cần chỗ trống mới
+        if (slot.getId().equals(currentSlotId)) {
+            return currentSlotId;
+        }
+        // Trả bay cũ trước khi giữ bay mới; slot mới đầy thì exception rollback cả lần trả
+        releaseSlot(currentSlotId);
+        return take(slot);
+    }
+
+    @Override
+    @Transactional
+    public void releaseSlot(Integer slotId) {
+        if (slotId == null) return;
+        slotRepository.decrementBooked(slotId);
+        log.debug("Released bay in slot {}", slotId);
+    }
+
+    // ==================== CÁC PHƯƠNG THỨC HỖ TRỢ RIÊNG ====================
+
+    private AppointmentSlot findSlot(Integer serviceCenterId, LocalDateTime scheduledAt) {
+        if (serviceCenterId == null) {
+            throw new ValidationException("Service center is required to book an appointment");
+        }
+        ensureSlots(serviceCenterId);
+
+        LocalDateTime slotStart = slotGenerator.slotStartFor(scheduledAt);
+        return slotRepository.findByServiceCenterIdAndSlotStart(serviceCenterId, slotStart)
+                .orElseThrow(() -> new ValidationException("No bookable slot at " + scheduledAt + " for this service center"));
+    }
+
+    private Integer take(AppointmentSlot slot) {
+        if (slotRepository.incrementBooked(slot.getId()) == 0) {
+            throw new ValidationException("Selected time slot is fully booked. Please choose another slot.");
+        }
+        log.debug("Reserved bay in slot {} ({}) for service center {}", slot.getId(), slot.getSlotStart(),
+                slot.getServiceCenterId());
+        return slot.getId();
+    }
+
+    private void ensureSlots(Integer serviceCenterId) {
+        LocalDate horizon = LocalDate.now().plusDays(properties.getHorizonDays());
+        if (slotGenerator.isGenerated(serviceCenterId, horizon)) {
+            return;
+        }
+        try {
+            slotGenerator.generateUntil(serviceCenterId, horizon);
+        } catch (DataIntegrityViolationException e) {
+            // Node khác vừa sinh cùng slot; lần gọi sau sẽ đọc lại từ DB
+            log.warn("Concurrent slot generation for service center {}: {}", serviceCenterId, e.getMessage());
+            slotGenerator.forget(serviceCenterId);
+        }
+    }
+
+    private AppointmentSlotDTO toDTO(AppointmentSlot slot) {
+        return AppointmentSlotDTO.builder()
+                .serviceCenterId(slot.getServiceCenterId())
+                .slotStart(slot.getSlotStart())
+                .slotEnd(slot.getSlotEnd())
+                .capacity(slot.getCapacity())
+                .booked(slot.getBookedCount())
+                .remaining(slot.getCapacity() - slot.getBookedCount())
+                .build();
+    }
+}
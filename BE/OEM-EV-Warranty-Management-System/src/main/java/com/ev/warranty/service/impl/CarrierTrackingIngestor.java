@@ -0,0 +1,235 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.ShipmentTrackingProperties;
+import com.ev.warranty.model.dto.shipment.CarrierTrackingEventDTO;
+import com.ev.warranty.model.dto.shipment.TrackingIngestResultDTO;
+import com.ev.warranty.model.entity.Shipment;
+import com.ev.warranty.model.entity.ShipmentTrackingEvent;
+import com.ev.warranty.repository.ShipmentRepository;
+import com.ev.warranty.repository.ShipmentTrackingEventRepository;
+import com.ev.warranty.service.inter.InventoryService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Áp dụng sự kiện trạng thái từ hãng vận chuyển theo từng chunk: mỗi chunk một transaction với một query
+ * kiểm tra event key đã có, một query tải shipment theo tracking number, rồi ghi batch sự kiện + trạng thái.
+ * Mỗi shipment chỉ nhận sự kiện mới nhất (theo event_time) và không quay lại từ delivered / cancelled.
+ */
+@Component
+@Slf4j
+public class CarrierTrackingIngestor {
+
+    private static final Map<String, String> STATUS_BY_CARRIER_STATUS = Map.of(
+            "picked_up", "in_transit",
+            "shipped", "in_transit",
+            "in_transit", "in_transit",
+            "out_for_delivery", "in_transit",
+            "delivered", "delivered",
+            "cancelled", "cancelled",
+            "returned", "cancelled");
+
+    private final ShipmentRepository shipmentRepository;
+    private final ShipmentTrackingEventRepository eventRepository;
+    private final InventoryService inventoryService;
+    private final ShipmentTrackingProperties properties;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public CarrierTrackingIngestor(ShipmentRepository shipmentRepository,
+                                   ShipmentTrackingEventRepository eventRepository,
+                                   InventoryService inventoryService,
+                                   ShipmentTrackingProperties properties,
+                                   EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager) {
+        this.shipmentRepository = shipmentRepository;
+        this.eventRepository = eventRepository;
+        this.inventoryService = inventoryService;
+        this.properties = properties;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public TrackingIngestResultDTO ingest(List<CarrierTrackingEventDTO> events) {
+        Tally total = new Tally();
+        // Khử trùng lặp trong lô trước khi chạm DB
+        Map<String, CarrierTrackingEventDTO> unique = new LinkedHashMap<>();
+        for (CarrierTrackingEventDTO event : events) {
+            if (event == null || isBlank(event.getTrackingNumber()) || event.getEventTime() == null
+                    || mapStatus(event.getStatus()) == null) {
+                total.rejected++;
+                continue;
+            }
+            if (unique.putIfAbsent(eventKey(event), event) != null) {
+                total.duplicates++;
+            }
+        }
+
+        List<Map.Entry<String, CarrierTrackingEventDTO>> pending = new ArrayList<>(unique.entrySet());
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Map.Entry<String, CarrierTrackingEventDTO>> chunk =
+                    pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            Tally tally;
+            try {
+                tally = runChunk(chunk);
+            } catch (DataIntegrityViolationException e) {
+                // Một lần ingest song song vừa ghi cùng event key: chạy lại, các key đó giờ được tính là trùng
+                log.info("Tracking chunk collided with a concurrent ingest, retrying: {}",
+                        e.getMostSpecificCause().getMessage());
+                tally = runChunk(chunk);
+            }
+            total.add(tally);
+        }
+
+        return TrackingIngestResultDTO.builder()
+                .received(events.size())
+                .duplicates(total.duplicates)
+                .rejected(total.rejected)
+                .unknownTracking(total.unknownTracking)
+                .stale(total.stale)
+                .applied(total.applied)
+                .delivered(total.delivered)
+                .build();
+    }
+
+    private Tally runChunk(List<Map.Entry<String, CarrierTrackingEventDTO>> chunk) {
+        try {
+            return transactionTemplate.execute(status -> applyChunk(chunk));
+        } finally {
+            // Với open-in-view mọi chunk dùng chung persistence context của request: dọn để không phình ra
+            // và để lần chạy lại không thấy entity của transaction đã rollback
+            entityManager.clear();
+        }
+    }
+
+    private Tally applyChunk(List<Map.Entry<String, CarrierTrackingEventDTO>> chunk) {
+        Tally tally = new Tally();
+        Set<String> keys = new HashSet<>();
+        Set<String> trackingNumbers = new HashSet<>();
+        for (Map.Entry<String, CarrierTrackingEventDTO> entry : chunk) {
+            keys.add(entry.getKey());
+            trackingNumbers.add(entry.getValue().getTrackingNumber().trim());
+        }
+        Set<String> existingKeys = new HashSet<>(eventRepository.findExistingKeys(keys));
+        Map<String, Shipment> shipmentByTracking = new HashMap<>();
+        for (Shipment shipment : shipmentRepository.findByTrackingNumberIn(trackingNumbers)) {
+            // Tracking number trùng giữa nhiều shipment: lấy shipment mới nhất
+            shipmentByTracking.merge(shipment.getTrackingNumber(), shipment,
+                    (a, b) -> a.getId() > b.getId() ? a : b);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ShipmentTrackingEvent> toSave = new ArrayList<>();
+        Map<Integer, CarrierTrackingEventDTO> latestByShipment = new LinkedHashMap<>();
+        Map<Integer, Shipment> shipmentsById = new HashMap<>();
+        for (Map.Entry<String, CarrierTrackingEventDTO> entry : chunk) {
+            if (existingKeys.contains(entry.getKey())) {
+                tally.duplicates++;
+                continue;
+            }
+            CarrierTrackingEventDTO event = entry.getValue();
+            Shipment shipment = shipmentByTracking.get(event.getTrackingNumber().trim());
+            toSave.add(ShipmentTrackingEvent.builder()
+                    .eventKey(entry.getKey())
+                    .shipmentId(shipment != null ? shipment.getId() : null)
+                    .carrier(event.getCarrier())
+                    .trackingNumber(event.getTrackingNumber().trim())
+                    .carrierStatus(normalize(event.getStatus()))
+                    .eventTime(event.getEventTime())
+                    .location(event.getLocation())
+                    .receivedAt(now)
+                    .build());
+            if (shipment == null) {
+                tally.unknownTracking++;
+                continue;
+            }
+            shipmentsById.put(shipment.getId(), shipment);
+            CarrierTrackingEventDTO previous = latestByShipment.get(shipment.getId());
+            if (previous == null || event.getEventTime().isAfter(previous.getEventTime())) {
+                latestByShipment.put(shipment.getId(), event);
+            }
+            if (previous != null) {
+                // Chỉ giữ lại lịch sử, trạng thái lấy theo sự kiện mới nhất trong chunk
+                tally.stale++;
+            }
+        }
+        eventRepository.saveAll(toSave);
+
+        latestByShipment.forEach((shipmentId, event) -> apply(shipmentsById.get(shipmentId), event, tally));
+        return tally;
+    }
+
+    private void apply(Shipment shipment, CarrierTrackingEventDTO event, Tally tally) {
+        String current = shipment.getStatus();
+        LocalDateTime lastApplied = shipment.getLastTrackingEventAt();
+        if ("delivered".equals(current) || "cancelled".equals(current)
+                || (lastApplied != null && !event.getEventTime().isAfter(lastApplied))) {
+            tally.stale++;
+            return;
+        }
+        // Shipment là entity managed: thay đổi được flush thành batch UPDATE khi commit chunk
+        shipment.setLastTrackingEventAt(event.getEventTime());
+        String status = mapStatus(event.getStatus());
+        if ("delivered".equals(status)) {
+            inventoryService.receiveDeliveredShipment(shipment.getId(), event.getEventTime());
+            tally.delivered++;
+        } else {
+            shipment.setStatus(status);
+            if ("in_transit".equals(status) && shipment.getShippedAt() == null) {
+                shipment.setShippedAt(event.getEventTime());
+            }
+        }
+        tally.applied++;
+    }
+
+    static String eventKey(CarrierTrackingEventDTO event) {
+        String carrier = event.getCarrier() != null ? event.getCarrier().trim().toLowerCase(Locale.ROOT) : "";
+        return carrier + "|" + event.getTrackingNumber().trim() + "|" + normalize(event.getStatus())
+                + "|" + event.getEventTime();
+    }
+
+    private static String mapStatus(String carrierStatus) {
+        return carrierStatus != null ? STATUS_BY_CARRIER_STATUS.get(normalize(carrierStatus)) : null;
+    }
+
+    private static String normalize(String status) {
+        return status.trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static final class Tally {
+        int duplicates;
+        int rejected;
+        int unknownTracking;
+        int stale;
+        int applied;
+        int delivered;
+
+        void add(Tally other) {
+            duplicates += other.duplicates;
+            rejected += other.rejected;
+            unknownTracking += other.unknownTracking;
+            stale += other.stale;
+            applied += other.applied;
+            delivered += other.delivered;
+        }
+    }
+}
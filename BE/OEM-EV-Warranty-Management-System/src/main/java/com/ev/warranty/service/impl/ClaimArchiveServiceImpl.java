@@ -0,0 +1,117 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.dto.claim.ArchivedClaimSummaryDTO;
+import com.ev.warranty.model.dto.claim.ClaimArchiveRunResultDTO;
+import com.ev.warranty.model.dto.claim.ClaimHistoryRollupDTO;
+import com.ev.warranty.model.dto.claim.ClaimResponseDto;
+import com.ev.warranty.model.entity.ArchivedClaim;
+import com.ev.warranty.model.entity.ClaimHistoryRollup;
+import com.ev.warranty.repository.ArchivedClaimRepository;
+import com.ev.warranty.repository.ClaimHistoryRollupRepository;
+import com.ev.warranty.service.inter.ClaimArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class ClaimArchiveServiceImpl implements ClaimArchiveService {
+
+    private static final int DEFAULT_HISTORY_MONTHS = 24;
+
+    private final ClaimArchiver claimArchiver;
+    private final ArchivedClaimRepository archivedClaimRepository;
+    private final ClaimHistoryRollupRepository rollupRepository;
+
+    @Override
+    public ClaimArchiveRunResultDTO runArchival() {
+        return claimArchiver.archiveEligible();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ClaimResponseDto> findArchivedClaim(Integer claimId) {
+        return archivedClaimRepository.findById(claimId).map(this::toResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ClaimResponseDto getArchivedClaim(Integer claimId) {
+        return findArchivedClaim(claimId)
+                .orElseThrow(() -> new NotFoundException("Archived claim not found: " + claimId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchivedClaimSummaryDTO> getArchivedClaimsByVin(String vin) {
+        return archivedClaimRepository.findByVinOrderByCreatedAtDesc(vin).stream()
+                .map(a -> ArchivedClaimSummaryDTO.builder()
+                        .claimId(a.getClaimId())
+                        .claimNumber(a.getClaimNumber())
+                        .vin(a.getVin())
+                        .vehicleModel(a.getVehicleModel())
+                        .finalStatus(a.getFinalStatus())
+                        .finalStatusLabel(a.getFinalStatusLabel())
+                        .reportedFailure(a.getReportedFailure())
+                        .warrantyCost(a.getWarrantyCost())
+                        .createdAt(a.getCreatedAt())
+                        .closedAt(a.getClosedAt())
+                        .archivedAt(a.getArchivedAt())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClaimHistoryRollupDTO> getHistory(String fromPeriod, String toPeriod, String vehicleModel) {
+        YearMonth to = parsePeriod(toPeriod, YearMonth.now());
+        YearMonth from = parsePeriod(fromPeriod, to.minusMonths(DEFAULT_HISTORY_MONTHS - 1L));
+        if (from.isAfter(to)) {
+            throw new BadRequestException("fromPeriod must not be after toPeriod");
+        }
+        String model = vehicleModel != null && !vehicleModel.isBlank() ? vehicleModel : null;
+        return rollupRepository.findForReport(from.toString(), to.toString(), model).stream()
+                .map(ClaimArchiveServiceImpl::toRollupDto)
+                .toList();
+    }
+
+    private ClaimResponseDto toResponseDto(ArchivedClaim archived) {
+        ClaimResponseDto dto = claimArchiver.readPayload(archived.getPayload()).claim();
+        dto.setArchived(true);
+        // Claim đã lưu trữ chỉ để xem
+        dto.setCanSubmitToEvm(false);
+        dto.setCanResubmit(false);
+        return dto;
+    }
+
+    private static ClaimHistoryRollupDTO toRollupDto(ClaimHistoryRollup rollup) {
+        return ClaimHistoryRollupDTO.builder()
+                .period(rollup.getPeriod())
+                .vehicleModel(rollup.getVehicleModel())
+                .finalStatus(rollup.getFinalStatus())
+                .claimCount(rollup.getClaimCount())
+                .totalWarrantyCost(rollup.getTotalWarrantyCost())
+                .averageDaysOpen(rollup.getClaimCount() > 0
+                        ? (double) rollup.getTotalDaysOpen() / rollup.getClaimCount() : 0)
+                .statusTransitions(rollup.getStatusTransitions())
+                .build();
+    }
+
+    private static YearMonth parsePeriod(String period, YearMonth defaultValue) {
+        if (period == null || period.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return YearMonth.parse(period.trim());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid period '" + period + "', expected yyyy-MM");
+        }
+    }
+}
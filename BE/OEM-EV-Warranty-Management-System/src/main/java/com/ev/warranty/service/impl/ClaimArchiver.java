@@ -0,0 +1,442 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.ClaimArchiveProperties;
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.mapper.ClaimMapper;
+import com.ev.warranty.model.dto.claim.ClaimArchiveRunResultDTO;
+import com.ev.warranty.model.dto.claim.ClaimResponseDto;
+import com.ev.warranty.model.entity.ArchivedClaim;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimHistoryRollup;
+import com.ev.warranty.model.entity.ShipmentLink;
+import com.ev.warranty.repository.ArchivedClaimRepository;
+import com.ev.warranty.repository.ClaimHistoryRollupRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Chuyển claim đã đóng quá app.claims.archive.retention-months sang archived_claims, từng chunk một transaction:
+ * 1. Snapshot: ClaimResponseDto + các dòng gốc của claim, bảng 1:1, lịch sử, item, attachment, work order,
+ *    approval task, shipment link → JSON gzip trong một dòng archived_claims; cộng dồn claim_history_rollups.
+ * 2. Gỡ liên kết ở các bảng sống lâu hơn claim (appointment, reservation, shipment, serial, serial giữ cho claim) bằng cách đặt FK = NULL
+ *    (id các dòng này nằm trong payload), rồi xóa bảng con → claims bằng JDBC theo thứ tự FK.
+ * Sau commit: search index bỏ các claim đã chuyển, view Vehicle 360 của các xe liên quan được dựng lại.
+ * File đính kèm trên đĩa không bị xóa, chỉ metadata của chúng vào payload.
+ */
+@Component
+@Slf4j
+public class ClaimArchiver {
+
+    private static final DateTimeFormatter PERIOD = DateTimeFormatter.ofPattern("yyyy-MM");
+    static final String UNKNOWN_MODEL = "UNKNOWN";
+
+    // Serial bên thứ ba giữ cho claim: FK riêng, ghi trong payload dưới khóa này (khóa "third_party_part_serials" là work_order_id)
+    public static final String RESERVED_SERIALS = "third_party_part_serials.reserved_for_claim_id";
+
+    // Bảng con xóa theo claim_id; approval_tasks trỏ tới claim_items nên đứng trước
+    static final List<String> CLAIM_CHILD_TABLES = List.of("approval_tasks", "claim_status_history", "claim_items",
+            "claim_attachments", "claim_diagnostics", "claim_approvals", "claim_cancellations",
+            "claim_warranty_eligibility", "claim_costs", "claim_repair_configurations", "claim_assignments");
+
+    /** Nội dung payload sau khi giải nén. */
+    public record ArchivedClaimPayload(ClaimResponseDto claim,
+                                       Map<String, List<Map<String, Object>>> rows,
+                                       Map<String, List<Object>> unlinked) {
+    }
+
+    private record ClaimRow(Integer id, String claimNumber, Integer vehicleId, String vin, String vehicleModel,
+                            Integer customerId, String statusCode, String statusLabel, String reportedFailure,
+                            BigDecimal warrantyCost, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    private final ClaimRepository claimRepository;
+    private final ArchivedClaimRepository archivedClaimRepository;
+    private final ClaimHistoryRollupRepository rollupRepository;
+    private final ClaimMapper claimMapper;
+    private final ClaimSearchIndex claimSearchIndex;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClaimArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public ClaimArchiver(ClaimRepository claimRepository,
+                         ArchivedClaimRepository archivedClaimRepository,
+                         ClaimHistoryRollupRepository rollupRepository,
+                         ClaimMapper claimMapper,
+                         ClaimSearchIndex claimSearchIndex,
+                         NamedParameterJdbcTemplate jdbc,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper,
+                         ApplicationEventPublisher eventPublisher,
+                         ClaimArchiveProperties properties,
+                         PlatformTransactionManager transactionManager) {
+        this.claimRepository = claimRepository;
+        this.archivedClaimRepository = archivedClaimRepository;
+        this.rollupRepository = rollupRepository;
+        this.claimMapper = claimMapper;
+        this.claimSearchIndex = claimSearchIndex;
+        this.jdbc = jdbc;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Lưu trữ các claim đủ điều kiện, tối đa maxClaimsPerRun; chunk lỗi được bỏ qua và thử lại ở lần chạy sau. */
+    public ClaimArchiveRunResultDTO archiveEligible() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("Claim archival is already running");
+        }
+        long started = System.currentTimeMillis();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusMonths(properties.getRetentionMonths());
+            int max = properties.getMaxClaimsPerRun();
+            int archived = 0;
+            int chunks = 0;
+            int failedChunks = 0;
+            int afterId = 0;
+            while (archived < max) {
+                int size = Math.min(properties.getChunkSize(), max - archived);
+                List<Integer> ids = claimRepository.findArchivableIds(properties.getStatuses(), cutoff, afterId,
+                        PageRequest.of(0, size));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                chunks++;
+                try {
+                    archived += archiveChunk(ids, cutoff);
+                } catch (RuntimeException e) {
+                    failedChunks++;
+                    log.error("Claim archival chunk {}..{} failed: {}", ids.get(0), afterId, e.getMessage());
+                }
+            }
+            ClaimArchiveRunResultDTO result = ClaimArchiveRunResultDTO.builder()
+                    .cutoff(cutoff)
+                    .archived(archived)
+                    .chunks(chunks)
+                    .failedChunks(failedChunks)
+                    .limitReached(archived >= max)
+                    .tookMillis(System.currentTimeMillis() - started)
+                    .build();
+            log.info("Claim archival finished: {}", result);
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    int archiveChunk(List<Integer> candidateIds, LocalDateTime cutoff) {
+        Set<Integer> vehicleIds = new HashSet<>();
+        List<Integer> moved = transactionTemplate.execute(status -> {
+            // Kiểm tra lại trong transaction: claim có thể vừa được mở lại sau khi lấy danh sách
+            List<ClaimRow> claims = claimRepository.findArchiveRows(candidateIds).stream()
+                    .map(ClaimArchiver::toClaimRow)
+                    .filter(c -> properties.getStatuses().contains(c.statusCode())
+                            && c.updatedAt() != null && c.updatedAt().isBefore(cutoff))
+                    .toList();
+            if (claims.isEmpty()) {
+                return List.of();
+            }
+            List<Integer> ids = claims.stream().map(ClaimRow::id).toList();
+            Map<Integer, Integer> claimByWorkOrder = workOrderIdsByClaim(ids);
+            Map<Integer, ArchivedClaimPayload> payloads = snapshot(ids, claimByWorkOrder);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<ArchivedClaim> archives = new ArrayList<>();
+            for (ClaimRow claim : claims) {
+                archives.add(ArchivedClaim.builder()
+                        .claimId(claim.id())
+                        .claimNumber(claim.claimNumber())
+                        .vehicleId(claim.vehicleId())
+                        .vin(claim.vin())
+                        .vehicleModel(claim.vehicleModel())
+                        .customerId(claim.customerId())
+                        .finalStatus(claim.statusCode())
+                        .finalStatusLabel(claim.statusLabel())
+                        .reportedFailure(claim.reportedFailure())
+                        .warrantyCost(claim.warrantyCost())
+                        .createdAt(claim.createdAt())
+                        .closedAt(claim.updatedAt())
+                        .archivedAt(now)
+                        .payload(compress(payloads.get(claim.id())))
+                        .build());
+                if (claim.vehicleId() != null) {
+                    vehicleIds.add(claim.vehicleId());
+                }
+            }
+            archivedClaimRepository.saveAll(archives);
+            addToRollups(claims, payloads, now);
+
+            // Ghi xong phần JPA trước khi xóa bằng JDBC; các entity đã nạp để map DTO không còn dùng nữa
+            entityManager.flush();
+            entityManager.clear();
+            delete(ids, claimByWorkOrder.keySet());
+
+            eventPublisher.publishEvent(Vehicle360Projector.VehicleChangedEvent.ofVehicles(vehicleIds, "ClaimArchive"));
+            return ids;
+        });
+        if (moved == null || moved.isEmpty()) {
+            return 0;
+        }
+        claimSearchIndex.refreshClaims(moved);
+        return moved.size();
+    }
+
+    public ArchivedClaimPayload readPayload(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, ArchivedClaimPayload.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable archived claim payload", e);
+        }
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    private Map<Integer, ArchivedClaimPayload> snapshot(List<Integer> ids, Map<Integer, Integer> claimByWorkOrder) {
+        Map<Integer, ArchivedClaimPayload> payloads = new HashMap<>();
+        List<Claim> entities = claimRepository.findAllById(ids);
+        for (Claim claim : entities) {
+            payloads.put(claim.getId(), new ArchivedClaimPayload(claimMapper.toResponseDto(claim),
+                    new LinkedHashMap<>(), new LinkedHashMap<>()));
+        }
+
+        MapSqlParameterSource claimIds = new MapSqlParameterSource("ids", ids);
+        collectRows(payloads, "claims", "SELECT * FROM claims WHERE id IN (:ids)", claimIds, "id", null);
+        for (String table : CLAIM_CHILD_TABLES) {
+            collectRows(payloads, table, "SELECT * FROM " + table + " WHERE claim_id IN (:ids)", claimIds,
+                    "claim_id", null);
+        }
+        collectRows(payloads, "work_orders", "SELECT * FROM work_orders WHERE claim_id IN (:ids)", claimIds,
+                "claim_id", null);
+        collectRows(payloads, "shipment_links",
+                "SELECT * FROM shipment_links WHERE link_type = '" + ShipmentLink.CLAIM + "' AND ref_id IN (:ids)",
+                claimIds, "ref_id", null);
+        collectUnlinked(payloads, "appointments", "SELECT claim_id, id FROM appointments WHERE claim_id IN (:ids)",
+                claimIds, null);
+        collectUnlinked(payloads, "stock_reservations",
+                "SELECT claim_id, id FROM stock_reservations WHERE claim_id IN (:ids)", claimIds, null);
+        collectUnlinked(payloads, "shipments", "SELECT claim_id, id FROM shipments WHERE claim_id IN (:ids)",
+                claimIds, null);
+        collectUnlinked(payloads, RESERVED_SERIALS, "SELECT reserved_for_claim_id, id FROM third_party_part_serials "
+                + "WHERE reserved_for_claim_id IN (:ids)", claimIds, null);
+
+        if (!claimByWorkOrder.isEmpty()) {
+            MapSqlParameterSource workOrderIds = new MapSqlParameterSource("ids", claimByWorkOrder.keySet());
+            collectRows(payloads, "work_order_parts", "SELECT * FROM work_order_parts WHERE work_order_id IN (:ids)",
+                    workOrderIds, "work_order_id", claimByWorkOrder);
+            collectRows(payloads, "shipment_links", "SELECT * FROM shipment_links WHERE link_type = '"
+                    + ShipmentLink.WORK_ORDER + "' AND ref_id IN (:ids)", workOrderIds, "ref_id", claimByWorkOrder);
+            for (String table : List.of("part_serial_history", "third_party_part_serials", "stock_reservations",
+                    "shipments")) {
+                collectUnlinked(payloads, table, "SELECT work_order_id, id FROM " + table
+                        + " WHERE work_order_id IN (:ids)", workOrderIds, claimByWorkOrder);
+            }
+        }
+        return payloads;
+    }
+
+    /** @return workOrderId → claimId */
+    private Map<Integer, Integer> workOrderIdsByClaim(List<Integer> claimIds) {
+        Map<Integer, Integer> claimByWorkOrder = new LinkedHashMap<>();
+        jdbc.query("SELECT id, claim_id FROM work_orders WHERE claim_id IN (:ids)",
+                new MapSqlParameterSource("ids", claimIds),
+                rs -> {
+                    claimByWorkOrder.put(rs.getInt(1), rs.getInt(2));
+                });
+        return claimByWorkOrder;
+    }
+
+    /** @param ownerToClaim null khi cột khóa đã là claim id, ngược lại work order id → claim id */
+    private void collectRows(Map<Integer, ArchivedClaimPayload> payloads, String table, String sql,
+                             MapSqlParameterSource params, String keyColumn, Map<Integer, Integer> ownerToClaim) {
+        for (Map<String, Object> row : jdbc.queryForList(sql, params)) {
+            Map<String, Object> normalized = new LinkedHashMap<>();
+            Object key = null;
+            for (Map.Entry<String, Object> column : row.entrySet()) {
+                String name = column.getKey().toLowerCase();
+                Object value = normalize(column.getValue());
+                normalized.put(name, value);
+                if (name.equals(keyColumn)) {
+                    key = value;
+                }
+            }
+            ArchivedClaimPayload payload = payloadFor(payloads, key, ownerToClaim);
+            if (payload != null) {
+                payload.rows().computeIfAbsent(table, t -> new ArrayList<>()).add(normalized);
+            }
+        }
+    }
+
+    private void collectUnlinked(Map<Integer, ArchivedClaimPayload> payloads, String table, String sql,
+                                 MapSqlParameterSource params, Map<Integer, Integer> ownerToClaim) {
+        jdbc.query(sql, params, rs -> {
+            ArchivedClaimPayload payload = payloadFor(payloads, rs.getObject(1), ownerToClaim);
+            if (payload != null) {
+                payload.unlinked().computeIfAbsent(table, t -> new ArrayList<>()).add(rs.getObject(2));
+            }
+        });
+    }
+
+    private static ArchivedClaimPayload payloadFor(Map<Integer, ArchivedClaimPayload> payloads, Object key,
+                                                   Map<Integer, Integer> ownerToClaim) {
+        if (!(key instanceof Number number)) {
+            return null;
+        }
+        Integer claimId = ownerToClaim != null ? ownerToClaim.get(number.intValue()) : Integer.valueOf(number.intValue());
+        return claimId != null ? payloads.get(claimId) : null;
+    }
+
+    // LOB của driver không serialize được sau khi đóng ResultSet
+    private static Object normalize(Object value) {
+        try {
+            if (value instanceof Clob clob) {
+                return clob.getSubString(1, (int) clob.length());
+            }
+            if (value instanceof Blob blob) {
+                return blob.getBytes(1, (int) blob.length());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read LOB column while archiving: " + e.getMessage(), e);
+        }
+        return value;
+    }
+
+    private byte[] compress(ArchivedClaimPayload payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize archived claim", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // ==================== ROLLUP ====================
+
+    private void addToRollups(List<ClaimRow> claims, Map<Integer, ArchivedClaimPayload> payloads, LocalDateTime now) {
+        Map<String, ClaimHistoryRollup> deltas = new LinkedHashMap<>();
+        for (ClaimRow claim : claims) {
+            String period = claim.createdAt() != null ? claim.createdAt().format(PERIOD) : claim.updatedAt().format(PERIOD);
+            String model = claim.vehicleModel() != null && !claim.vehicleModel().isBlank() ? claim.vehicleModel() : UNKNOWN_MODEL;
+            ClaimHistoryRollup delta = deltas.computeIfAbsent(period + "|" + model + "|" + claim.statusCode(),
+                    key -> ClaimHistoryRollup.builder()
+                            .period(period)
+                            .vehicleModel(model)
+                            .finalStatus(claim.statusCode())
+                            .claimCount(0)
+                            .totalWarrantyCost(BigDecimal.ZERO)
+                            .totalDaysOpen(0L)
+                            .statusTransitions(0)
+                            .build());
+            delta.setClaimCount(delta.getClaimCount() + 1);
+            if (claim.warrantyCost() != null) {
+                delta.setTotalWarrantyCost(delta.getTotalWarrantyCost().add(claim.warrantyCost()));
+            }
+            if (claim.createdAt() != null) {
+                delta.setTotalDaysOpen(delta.getTotalDaysOpen() + Duration.between(claim.createdAt(), claim.updatedAt()).toDays());
+            }
+            ArchivedClaimPayload payload = payloads.get(claim.id());
+            if (payload != null) {
+                delta.setStatusTransitions(delta.getStatusTransitions()
+                        + payload.rows().getOrDefault("claim_status_history", List.of()).size());
+            }
+        }
+
+        Set<String> periods = new HashSet<>();
+        deltas.values().forEach(d -> periods.add(d.getPeriod()));
+        Map<String, ClaimHistoryRollup> existing = new HashMap<>();
+        for (ClaimHistoryRollup rollup : rollupRepository.findByPeriodIn(periods)) {
+            existing.put(rollup.getPeriod() + "|" + rollup.getVehicleModel() + "|" + rollup.getFinalStatus(), rollup);
+        }
+
+        List<ClaimHistoryRollup> changed = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            ClaimHistoryRollup rollup = existing.get(key);
+            if (rollup == null) {
+                delta.setUpdatedAt(now);
+                changed.add(delta);
+                return;
+            }
+            rollup.setClaimCount(rollup.getClaimCount() + delta.getClaimCount());
+            rollup.setTotalWarrantyCost(rollup.getTotalWarrantyCost().add(delta.getTotalWarrantyCost()));
+            rollup.setTotalDaysOpen(rollup.getTotalDaysOpen() + delta.getTotalDaysOpen());
+            rollup.setStatusTransitions(rollup.getStatusTransitions() + delta.getStatusTransitions());
+            rollup.setUpdatedAt(now);
+            changed.add(rollup);
+        });
+        rollupRepository.saveAll(changed);
+    }
+
+    // ==================== DELETE ====================
+
+    private void delete(List<Integer> claimIds, Set<Integer> workOrderIds) {
+        MapSqlParameterSource claims = new MapSqlParameterSource("ids", claimIds);
+        if (!workOrderIds.isEmpty()) {
+            MapSqlParameterSource workOrders = new MapSqlParameterSource("ids", workOrderIds);
+            for (String table : List.of("part_serial_history", "third_party_part_serials", "stock_reservations",
+                    "shipments")) {
+                jdbc.update("UPDATE " + table + " SET work_order_id = NULL WHERE work_order_id IN (:ids)", workOrders);
+            }
+            jdbc.update("DELETE FROM shipment_links WHERE link_type = '" + ShipmentLink.WORK_ORDER
+                    + "' AND ref_id IN (:ids)", workOrders);
+            jdbc.update("DELETE FROM work_order_parts WHERE work_order_id IN (:ids)", workOrders);
+            jdbc.update("DELETE FROM work_orders WHERE id IN (:ids)", workOrders);
+        }
+        for (String table : List.of("appointments", "stock_reservations", "shipments")) {
+            jdbc.update("UPDATE " + table + " SET claim_id = NULL WHERE claim_id IN (:ids)", claims);
+        }
+        jdbc.update("UPDATE third_party_part_serials SET reserved_for_claim_id = NULL "
+                + "WHERE reserved_for_claim_id IN (:ids)", claims);
+        jdbc.update("DELETE FROM shipment_links WHERE link_type = '" + ShipmentLink.CLAIM + "' AND ref_id IN (:ids)",
+                claims);
+        for (String table : CLAIM_CHILD_TABLES) {
+            jdbc.update("DELETE FROM " + table + " WHERE claim_id IN (:ids)", claims);
+        }
+        jdbc.update("DELETE FROM claims WHERE id IN (:ids)", claims);
+    }
+
+    private static ClaimRow toClaimRow(Object[] row) {
+        return new ClaimRow((Integer) row[0], (String) row[1], (Integer) row[2], (String) row[3], (String) row[4],
+                (Integer) row[5], (String) row[6], (String) row[7], (String) row[8], (BigDecimal) row[9],
+                (LocalDateTime) row[10], (LocalDateTime) row[11]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimOutboxEvent;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.repository.ClaimOutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ghi claim event vào outbox (claim_outbox_events) trong transaction của thao tác trên claim.
+ * Side effect chỉ chạy sau khi transaction commit (ClaimOutboxDispatcher); rollback thì event biến mất cùng thay đổi.
+ * Caller không có transaction (vd. EVM approveClaim) thì event được ghi và commit ngay trong transaction riêng.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClaimEventOutbox {
+
+    /** Phát sau khi ghi outbox; dispatcher nhận lúc AFTER_COMMIT. */
+    public record OutboxAppended(List<Long> ids) {
+    }
+
+    private final ClaimOutboxEventRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void append(ClaimEventType type, Claim claim, User actor, String note) {
+        String eventKey = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<ClaimOutboxEvent> rows = new ArrayList<>();
+        for (ClaimEventType.SideEffect effect : type.getSideEffects()) {
+            rows.add(ClaimOutboxEvent.builder()
+                    .idempotencyKey(eventKey + ":" + effect.name())
+                    .eventType(type.name())
+                    .handler(effect.name())
+                    .claimId(claim.getId())
+                    .actorUserId(actor != null ? actor.getId() : null)
+                    .note(note)
+                    .status("PENDING")
+                    .attempts(0)
+                    .nextAttemptAt(now)
+                    .build());
+        }
+        List<Long> ids = outboxRepository.saveAll(rows).stream().map(ClaimOutboxEvent::getId).toList();
+        eventPublisher.publishEvent(new OutboxAppended(ids));
+    }
+}
@@ -0,0 +1,37 @@
+package com.ev.warranty.service.impl;
+
+import java.util.List;
+
+/**
+ * Claim domain event ghi vào outbox, kèm danh sách side effect chạy sau commit.
+ * Thêm event mới: khai báo ở đây rồi gọi ClaimEventOutbox.append() trong transaction của thao tác.
+ */
+public enum ClaimEventType {
+    // closeClaim: trừ reserved / tồn kho theo phụ tùng đã dùng
+    USED_PARTS_SETTLED(SideEffect.INVENTORY),
+    CLAIM_DONE(SideEffect.SERVICE_HISTORY),
+    CLAIM_CLOSED(SideEffect.SERVICE_HISTORY),
+    CANCEL_REQUESTED(SideEffect.NOTIFICATION),
+    CANCEL_ACCEPTED(SideEffect.NOTIFICATION),
+    CANCEL_REJECTED(SideEffect.NOTIFICATION),
+    CANCEL_FINALIZED(SideEffect.SERVICE_HISTORY, SideEffect.NOTIFICATION),
+    CANCEL_REOPENED(SideEffect.NOTIFICATION),
+    EVM_APPROVED(SideEffect.NOTIFICATION),
+    EVM_REJECTED(SideEffect.NOTIFICATION);
+
+    public enum SideEffect {
+        INVENTORY,
+        SERVICE_HISTORY,
+        NOTIFICATION
+    }
+
+    private final List<SideEffect> sideEffects;
+
+    ClaimEventType(SideEffect... sideEffects) {
+        this.sideEffects = List.of(sideEffects);
+    }
+
+    public List<SideEffect> getSideEffects() {
+        return sideEffects;
+    }
+}
@@ -0,0 +1,258 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.export.RowWriter;
+import com.ev.warranty.model.dto.claim.ClaimListItemDTO;
+import com.ev.warranty.model.entity.Claim;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Đọc danh sách claim dạng projection: một query chỉ SELECT các cột được yêu cầu và chỉ JOIN
+ * các bảng chứa chúng (status, vehicle, customer, assignment → technician, cost).
+ * Đủ mọi cột thì trả ClaimListItemDTO, một phần cột (fields=) thì trả Map theo đúng thứ tự cột.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClaimListProjection {
+
+    /** fields=summary (hoặc *) = mọi cột của ClaimListItemDTO. */
+    public static final String SUMMARY = "summary";
+
+    private static final Map<String, Function<Joins, Selection<?>>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", j -> j.root.get("id"));
+        COLUMNS.put("claimNumber", j -> j.root.get("claimNumber"));
+        COLUMNS.put("status", j -> j.status().get("code"));
+        COLUMNS.put("statusLabel", j -> j.status().get("label"));
+        COLUMNS.put("vin", j -> j.vehicle().get("vin"));
+        COLUMNS.put("vehicleModel", j -> j.vehicle().get("model"));
+        COLUMNS.put("customerName", j -> j.customer().get("name"));
+        COLUMNS.put("technicianId", j -> j.technician().get("id"));
+        COLUMNS.put("technicianName", j -> j.technician().get("fullName"));
+        COLUMNS.put("warrantyCost", j -> j.cost().get("warrantyCost"));
+        COLUMNS.put("totalEstimatedCost", j -> j.cost().get("totalEstimatedCost"));
+        COLUMNS.put("createdAt", j -> j.root.get("createdAt"));
+    }
+
+    private final EntityManager entityManager;
+
+    /** @return tập cột theo thứ tự chuẩn; rỗng = mọi cột */
+    public static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new LinkedHashSet<>(COLUMNS.keySet());
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (SUMMARY.equalsIgnoreCase(name) || "*".equals(name)) {
+                return new LinkedHashSet<>(COLUMNS.keySet());
+            }
+            if (!COLUMNS.containsKey(name)) {
+                throw new BadRequestException("Unknown claim field '" + name + "'. Allowed: " + COLUMNS.keySet());
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            return new LinkedHashSet<>(COLUMNS.keySet());
+        }
+        Set<String> ordered = new LinkedHashSet<>(COLUMNS.keySet());
+        ordered.retainAll(requested);
+        return ordered;
+    }
+
+    /** @param limit <= 0: không giới hạn */
+    public List<?> find(Specification<Claim> specification, Set<String> fields, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Claim> root = query.from(Claim.class);
+        query.multiselect(selections(new Joins(root), fields, false));
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (offset > 0) {
+            typed.setFirstResult((int) offset);
+        }
+        if (limit > 0) {
+            typed.setMaxResults(limit);
+        }
+        return typed.getResultList().stream().map(t -> toRow(t, fields)).toList();
+    }
+
+    /**
+     * Đọc mọi dòng khớp qua cursor forward-only (fetch size cố định) và ghi ngay ra writer: chỉ một nhóm fetchSize
+     * dòng nằm trong bộ nhớ, kết quả là scalar nên persistence context không lớn dần.
+     * Writer ném IOException (client hủy) thì cursor được đóng ngay, không đọc tiếp.
+     *
+     * @return số dòng đã ghi
+     */
+    public long scroll(Specification<Claim> specification, Set<String> fields, Sort sort, int fetchSize,
+                       int flushEveryRows, RowWriter writer) throws IOException {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Claim> root = query.from(Claim.class);
+        query.multiselect(selections(new Joins(root), fields, false));
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        @SuppressWarnings("unchecked")
+        Query<Tuple> hibernateQuery = entityManager.createQuery(query).unwrap(Query.class);
+        hibernateQuery.setFetchSize(fetchSize);
+        hibernateQuery.setReadOnly(true);
+
+        long rows = 0;
+        try (ScrollableResults<Tuple> results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                writer.write(results.get().toArray());
+                if (++rows % flushEveryRows == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        return rows;
+    }
+
+    public long count(Specification<Claim> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Claim> root = query.from(Claim.class);
+        query.select(cb.count(root));
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /** Giữ nguyên thứ tự ids (vd. thứ hạng từ search index). */
+    public List<?> findByIds(List<Integer> ids, Set<String> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Claim> root = query.from(Claim.class);
+        query.multiselect(selections(new Joins(root), fields, true)).where(root.get("id").in(ids));
+
+        Map<Integer, Object> rowsById = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            rowsById.put(tuple.get("id", Integer.class), toRow(tuple, fields));
+        }
+        return ids.stream().map(rowsById::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<Selection<?>> selections(Joins joins, Set<String> fields, boolean withId) {
+        List<Selection<?>> selections = new ArrayList<>();
+        if (withId && !fields.contains("id")) {
+            selections.add(COLUMNS.get("id").apply(joins).alias("id"));
+        }
+        for (String field : fields) {
+            selections.add(COLUMNS.get(field).apply(joins).alias(field));
+        }
+        return selections;
+    }
+
+    private Object toRow(Tuple tuple, Set<String> fields) {
+        if (fields.size() == COLUMNS.size()) {
+            return new ClaimListItemDTO(
+                    tuple.get("id", Integer.class),
+                    tuple.get("claimNumber", String.class),
+                    tuple.get("status", String.class),
+                    tuple.get("statusLabel", String.class),
+                    tuple.get("vin", String.class),
+                    tuple.get("vehicleModel", String.class),
+                    tuple.get("customerName", String.class),
+                    tuple.get("technicianId", Integer.class),
+                    tuple.get("technicianName", String.class),
+                    tuple.get("warrantyCost", BigDecimal.class),
+                    tuple.get("totalEstimatedCost", BigDecimal.class),
+                    tuple.get("createdAt", LocalDateTime.class));
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+
+    // Chỉ join bảng khi có cột cần đến nó; quan hệ tùy chọn dùng LEFT JOIN để không làm mất dòng
+    private static final class Joins {
+        private final Root<Claim> root;
+        private Join<?, ?> status;
+        private Join<?, ?> vehicle;
+        private Join<?, ?> customer;
+        private Join<?, ?> assignment;
+        private Join<?, ?> technician;
+        private Join<?, ?> cost;
+
+        Joins(Root<Claim> root) {
+            this.root = root;
+        }
+
+        Join<?, ?> status() {
+            return status != null ? status : (status = root.join("status"));
+        }
+
+        Join<?, ?> vehicle() {
+            return vehicle != null ? vehicle : (vehicle = root.join("vehicle"));
+        }
+
+        Join<?, ?> customer() {
+            return customer != null ? customer : (customer = root.join("customer"));
+        }
+
+        Join<?, ?> technician() {
+            if (technician == null) {
+                if (assignment == null) {
+                    assignment = root.join("assignment", JoinType.LEFT);
+                }
+                technician = assignment.join("assignedTechnician", JoinType.LEFT);
+            }
+            return technician;
+        }
+
+        Join<?, ?> cost() {
+            return cost != null ? cost : (cost = root.join("cost", JoinType.LEFT));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.ClaimOutboxProperties;
+import com.ev.warranty.model.entity.ClaimOutboxEvent;
+import com.ev.warranty.repository.ClaimOutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Xử lý các dòng claim_outbox_events:
+ * - Sau commit: đẩy từng dòng vừa ghi vào claimEventExecutor (bounded, đầy thì bỏ qua).
+ * - Relay định kỳ: nhặt dòng đến hạn mà chưa ai xử lý (bị bỏ qua, node chết giữa chừng, chờ retry).
+ * Mỗi dòng được nhận qua UPDATE có điều kiện nên chạy trên nhiều node cùng lúc vẫn an toàn.
+ * Lỗi: retry với backoff gấp đôi mỗi lần, quá maxAttempts thì FAILED để xử lý tay.
+ */
+@Component
+@Slf4j
+public class ClaimOutboxDispatcher {
+
+    static final String JOB_OUTBOX_PURGE = "claim-outbox-purge";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ClaimOutboxEventRepository outboxRepository;
+    private final ClaimSideEffectHandlers handlers;
+    private final ClaimOutboxProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+    private final ClusterJobRunner jobRunner;
+    private final TransactionTemplate transactionTemplate;
+
+    public ClaimOutboxDispatcher(ClaimOutboxEventRepository outboxRepository,
+                                 ClaimSideEffectHandlers handlers,
+                                 ClaimOutboxProperties properties,
+                                 @Qualifier("claimEventExecutor") ThreadPoolTaskExecutor executor,
+                                 ClusterJobRunner jobRunner,
+                                 PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.handlers = handlers;
+        this.properties = properties;
+        this.executor = executor;
+        this.jobRunner = jobRunner;
+        // Luôn chạy ngoài transaction của user nên mở transaction riêng
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener
+    public void onAppended(ClaimEventOutbox.OutboxAppended event) {
+        for (Long id : event.ids()) {
+            executor.execute(() -> process(id));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-millis:15000}")
+    public void relay() {
+        relayDue();
+    }
+
+    // Every day at 03:40
+    @Scheduled(cron = "0 40 3 * * *")
+    public void purgeProcessed() {
+        jobRunner.runIfLeader(JOB_OUTBOX_PURGE, () -> {
+            Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteProcessedBefore(
+                    LocalDateTime.now().minusDays(properties.getRetentionDays())));
+            log.info("Purged {} processed claim outbox events", deleted);
+        });
+    }
+
+    /**
+     * Xử lý một lượt các dòng đến hạn.
+     * @return số dòng đã xử lý thành công
+     */
+    public int relayDue() {
+        List<Long> due = outboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, properties.getRelayBatchSize()));
+        int processed = 0;
+        for (Long id : due) {
+            if (process(id)) {
+                processed++;
+            }
+        }
+        if (!due.isEmpty()) {
+            log.info("Claim outbox relay: {} due, {} processed", due.size(), processed);
+        }
+        return processed;
+    }
+
+    /**
+     * Nhận và chạy side effect của một dòng. Dòng đã DONE / đang được worker khác giữ thì bỏ qua,
+     * nên giao cùng một id nhiều lần (dispatch + relay) không chạy side effect hai lần.
+     * @return true nếu side effect đã chạy và dòng được đánh dấu DONE
+     */
+    public boolean process(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                outboxRepository.claim(id, now, now.plusSeconds(properties.getProcessingTimeoutSeconds())));
+        if (claimed == null || claimed != 1) {
+            return false;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ClaimOutboxEvent event = outboxRepository.findById(id)
+                        .orElseThrow(() -> new IllegalStateException("Outbox event disappeared: " + id));
+                handlers.handle(event);
+                outboxRepository.markDone(id, LocalDateTime.now());
+            });
+            return true;
+        } catch (Exception e) {
+            recordFailure(id, e);
+            return false;
+        }
+    }
+
+    private void recordFailure(Long id, Exception error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(id).ifPresent(event -> {
+                int attempts = event.getAttempts();
+                String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+                if (message.length() > MAX_ERROR_LENGTH) {
+                    message = message.substring(0, MAX_ERROR_LENGTH);
+                }
+                if (attempts >= properties.getMaxAttempts()) {
+                    log.error("Claim outbox event {} ({} / {}) for claim {} failed permanently after {} attempts: {}",
+                            id, event.getEventType(), event.getHandler(), event.getClaimId(), attempts, message);
+                    outboxRepository.markFailedAttempt(id, "FAILED", event.getNextAttemptAt(), message);
+                } else {
+                    long delay = (long) properties.getRetryBackoffSeconds() << Math.min(attempts - 1, 20);
+                    log.warn("Claim outbox event {} ({} / {}) for claim {} failed (attempt {}), retry in {}s: {}",
+                            id, event.getEventType(), event.getHandler(), event.getClaimId(), attempts, delay, message);
+                    outboxRepository.markFailedAttempt(id, "PENDING", LocalDateTime.now().plusSeconds(delay), message);
+                }
+            }));
+        } catch (Exception e) {
+            // Dòng vẫn PROCESSING; relay nhận lại sau processingTimeoutSeconds
+            log.error("Failed to record failure of claim outbox event {}: {}", id, e.getMessage());
+        }
+    }
+}
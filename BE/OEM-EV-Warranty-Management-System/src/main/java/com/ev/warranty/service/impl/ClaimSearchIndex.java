@@ -0,0 +1,554 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.SearchIndexProperties;
+import com.ev.warranty.repository.ClaimOutboxEventRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index cho ô tìm kiếm claim của EVM (thay cho LIKE '%kw%' trên 4 bảng).
+ * - Field: số claim, VIN, model xe, tên/SĐT khách hàng, mô tả lỗi (reportedFailure).
+ * - Tìm theo prefix, chịu lỗi gõ 1 ký tự (kể cả khi đang gõ dở), xếp hạng theo trọng số field * idf.
+ * - Cập nhật tăng dần sau commit (ClaimSearchIndexListener); rebuild toàn bộ theo chunk rồi swap.
+ * - Index riêng từng node: claim có outbox event mới (ghi trên bất kỳ node nào) được nạp lại theo chu kỳ,
+ *   và index được rebuild định kỳ cho các thay đổi không có outbox event.
+ * Mọi thao tác ghi chạy tuần tự trên searchIndexExecutor; đọc không khóa.
+ */
+@Component
+@Slf4j
+public class ClaimSearchIndex {
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MIN_SUFFIX_LENGTH = 4;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final int MAX_FUZZY_SCAN = 5000;
+    private static final int REFRESH_CHUNK = 1000;
+    private static final int SNIPPET_RADIUS = 60;
+
+    private static final double PREFIX_FACTOR = 0.8;
+    private static final double FUZZY_FACTOR = 0.5;
+    private static final float SUFFIX_FACTOR = 0.6f;
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    public record Hit(Integer claimId, double score) {
+    }
+
+    public record SearchResult(List<Hit> hits, int totalHits, long tookMicros) {
+    }
+
+    public record IndexStats(boolean ready, int documents, int terms, long lastRebuildMillis,
+                             LocalDateTime lastRebuildAt) {
+    }
+
+    enum Field {
+        CLAIM_NUMBER("claimNumber", 5f, true),
+        VIN("vin", 5f, true),
+        VEHICLE_MODEL("vehicleModel", 1.5f, false),
+        CUSTOMER_NAME("customerName", 3f, false),
+        CUSTOMER_PHONE("customerPhone", 3f, true),
+        REPORTED_FAILURE("reportedFailure", 1f, false);
+
+        final String key;
+        final float weight;
+        // Field định danh: index thêm dạng liền (bỏ dấu gạch) và các hậu tố để tìm "chứa"
+        final boolean identifier;
+
+        Field(String key, float weight, boolean identifier) {
+            this.key = key;
+            this.weight = weight;
+            this.identifier = identifier;
+        }
+    }
+
+    // Một claim đã index: giá trị gốc (để highlight) và trọng số từng term
+    record Document(Integer claimId, Map<Field, String> values, Map<String, Float> terms) {
+    }
+
+    static final class Segment {
+        final ConcurrentHashMap<String, ConcurrentHashMap<Integer, Float>> postings = new ConcurrentHashMap<>();
+        // Toàn bộ term (kể cả hậu tố định danh) cho prefix scan
+        final ConcurrentSkipListSet<String> terms = new ConcurrentSkipListSet<>();
+        // Chỉ từ/định danh đầy đủ, dùng cho fuzzy scan
+        final ConcurrentSkipListSet<String> words = new ConcurrentSkipListSet<>();
+        final ConcurrentHashMap<Integer, Document> docs = new ConcurrentHashMap<>();
+
+        void add(Document doc, Set<String> wordTerms) {
+            remove(doc.claimId());
+            docs.put(doc.claimId(), doc);
+            doc.terms().forEach((term, weight) -> {
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(doc.claimId(), weight);
+                terms.add(term);
+            });
+            words.addAll(wordTerms);
+        }
+
+        void remove(Integer claimId) {
+            Document old = docs.remove(claimId);
+            if (old == null) {
+                return;
+            }
+            for (String term : old.terms().keySet()) {
+                ConcurrentHashMap<Integer, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                posting.remove(claimId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    terms.remove(term);
+                    words.remove(term);
+                }
+            }
+        }
+    }
+
+    private final ClaimRepository claimRepository;
+    private final ClaimOutboxEventRepository outboxRepository;
+    private final SearchIndexProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final AtomicReference<Segment> current = new AtomicReference<>(new Segment());
+    private final AtomicBoolean ready = new AtomicBoolean(false);
+    private final Set<Integer> pendingClaimIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    // Id outbox event lớn nhất đã xử lý; -1 khi chưa khởi tạo
+    private final AtomicLong lastOutboxId = new AtomicLong(-1);
+    private volatile long lastRebuildMillis;
+    private volatile LocalDateTime lastRebuildAt;
+
+    public ClaimSearchIndex(ClaimRepository claimRepository,
+                            ClaimOutboxEventRepository outboxRepository,
+                            SearchIndexProperties properties,
+                            @Qualifier("searchIndexExecutor") ThreadPoolTaskExecutor executor) {
+        this.claimRepository = claimRepository;
+        this.outboxRepository = outboxRepository;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (properties.isEnabled() && properties.isRebuildOnStartup()) {
+            // Mốc outbox lấy trước rebuild: event ghi trong lúc rebuild vẫn được poll lại
+            lastOutboxId.set(outboxRepository.findMaxId());
+            executor.execute(this::rebuildNow);
+        }
+    }
+
+    /**
+     * Nạp lại các claim có outbox event mới kể từ lần poll trước, kể cả event do node khác ghi.
+     * Id IDENTITY có thể commit không theo thứ tự: event lỡ mất được rebuild định kỳ bù lại.
+     */
+    @Scheduled(fixedDelayString = "${app.search.outbox-poll-millis:5000}")
+    public void pollOutbox() {
+        if (!isReady()) {
+            return;
+        }
+        long afterId = lastOutboxId.get();
+        if (afterId < 0) {
+            lastOutboxId.compareAndSet(afterId, outboxRepository.findMaxId());
+            return;
+        }
+        Set<Integer> claimIds = new LinkedHashSet<>();
+        List<Object[]> rows;
+        do {
+            rows = outboxRepository.findClaimIdsAfter(afterId, PageRequest.of(0, REFRESH_CHUNK));
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                if (row[1] != null) {
+                    claimIds.add((Integer) row[1]);
+                }
+            }
+        } while (rows.size() == REFRESH_CHUNK);
+        lastOutboxId.set(afterId);
+        refreshClaims(claimIds);
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval-minutes:30}",
+            initialDelayString = "${app.search.rebuild-interval-minutes:30}", timeUnit = TimeUnit.MINUTES)
+    public void scheduledRebuild() {
+        if (properties.isEnabled()) {
+            executor.execute(this::rebuildNow);
+        }
+    }
+
+    /**
+     * Index sẵn sàng phục vụ truy vấn (đã rebuild ít nhất một lần).
+     */
+    public boolean isReady() {
+        return properties.isEnabled() && ready.get();
+    }
+
+    // ==================== WRITE SIDE ====================
+
+    /**
+     * Đánh dấu claim cần index lại; được gom lại và nạp lại từ DB trên executor.
+     * Claim không còn trong DB sẽ bị xóa khỏi index.
+     */
+    public void refreshClaims(Collection<Integer> claimIds) {
+        if (!properties.isEnabled() || claimIds == null || claimIds.isEmpty()) {
+            return;
+        }
+        pendingClaimIds.addAll(claimIds);
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drainPending);
+        }
+    }
+
+    public void refreshCustomer(Integer customerId) {
+        if (!properties.isEnabled() || customerId == null) {
+            return;
+        }
+        executor.execute(() -> refreshClaims(claimRepository.findIdsByCustomerId(customerId)));
+    }
+
+    /**
+     * Rebuild toàn bộ index (lệnh admin); chạy trên executor nên các cập nhật tăng dần
+     * đến trong lúc rebuild sẽ được áp dụng sau khi swap.
+     */
+    public IndexStats rebuild() {
+        try {
+            executor.submit(this::rebuildNow).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search index rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search index rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return getStats();
+    }
+
+    public IndexStats getStats() {
+        Segment segment = current.get();
+        return new IndexStats(ready.get(), segment.docs.size(), segment.postings.size(), lastRebuildMillis, lastRebuildAt);
+    }
+
+    synchronized void rebuildNow() {
+        long start = System.currentTimeMillis();
+        Segment fresh = new Segment();
+        int afterId = 0;
+        int chunkSize = Math.max(1, properties.getRebuildChunkSize());
+
+        while (true) {
+            List<Object[]> rows = claimRepository.findSearchRowsAfter(afterId, PageRequest.of(0, chunkSize));
+            for (Object[] row : rows) {
+                addRow(fresh, row);
+            }
+            if (rows.size() < chunkSize) {
+                break;
+            }
+            afterId = (Integer) rows.get(rows.size() - 1)[0];
+        }
+
+        current.set(fresh);
+        ready.set(true);
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        lastRebuildAt = LocalDateTime.now();
+        log.info("Claim search index rebuilt: {} claims, {} terms in {} ms",
+                fresh.docs.size(), fresh.postings.size(), lastRebuildMillis);
+    }
+
+    synchronized void drainPending() {
+        drainScheduled.set(false);
+        List<Integer> ids = new ArrayList<>(pendingClaimIds);
+        pendingClaimIds.removeAll(ids);
+        Segment segment = current.get();
+
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK, ids.size()));
+            try {
+                Set<Integer> missing = new LinkedHashSet<>(chunk);
+                for (Object[] row : claimRepository.findSearchRowsByIds(chunk)) {
+                    addRow(segment, row);
+                    missing.remove((Integer) row[0]);
+                }
+                missing.forEach(segment::remove);
+            } catch (Exception e) {
+                log.error("Failed to refresh {} claims in search index: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void addRow(Segment segment, Object[] row) {
+        Map<Field, String> values = new EnumMap<>(Field.class);
+        putIfPresent(values, Field.CLAIM_NUMBER, row[1]);
+        putIfPresent(values, Field.VIN, row[2]);
+        putIfPresent(values, Field.VEHICLE_MODEL, row[3]);
+        putIfPresent(values, Field.CUSTOMER_NAME, row[4]);
+        putIfPresent(values, Field.CUSTOMER_PHONE, row[5]);
+        putIfPresent(values, Field.REPORTED_FAILURE, row[6]);
+
+        Map<String, Float> terms = new HashMap<>();
+        Set<String> wordTerms = new LinkedHashSet<>();
+        values.forEach((field, value) -> analyzeField(field, value, terms, wordTerms));
+        segment.add(new Document((Integer) row[0], values, terms), wordTerms);
+    }
+
+    private static void putIfPresent(Map<Field, String> values, Field field, Object value) {
+        if (value != null && !value.toString().isBlank()) {
+            values.put(field, value.toString());
+        }
+    }
+
+    private static void analyzeField(Field field, String value, Map<String, Float> terms, Set<String> wordTerms) {
+        for (String token : tokenize(value)) {
+            if (field.identifier || token.length() >= MIN_PREFIX_LENGTH) {
+                terms.merge(token, field.weight, Math::max);
+                wordTerms.add(token);
+            }
+        }
+        if (!field.identifier) {
+            return;
+        }
+        String compact = String.join("", tokenize(value));
+        terms.merge(compact, field.weight, Math::max);
+        wordTerms.add(compact);
+        for (int i = 1; i + MIN_SUFFIX_LENGTH <= compact.length(); i++) {
+            terms.merge(compact.substring(i), field.weight * SUFFIX_FACTOR, Math::max);
+        }
+    }
+
+    // ==================== READ SIDE ====================
+
+    /**
+     * Tìm claim theo từ khóa. Mọi token phải khớp (AND); mỗi token khớp chính xác,
+     * theo prefix hoặc sai 1 ký tự. Kết quả sắp theo điểm giảm dần, hòa điểm thì claim mới hơn trước.
+     */
+    public SearchResult search(String query, int limit) {
+        long start = System.nanoTime();
+        Segment segment = current.get();
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new SearchResult(List.of(), 0, 0);
+        }
+
+        Map<Integer, Double> scores = null;
+        for (String token : new LinkedHashSet<>(tokens)) {
+            Map<Integer, Double> tokenScores = scoreToken(segment, token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+
+        List<Hit> hits = scores.entrySet().stream()
+                .map(e -> new Hit(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingDouble(Hit::score).reversed()
+                        .thenComparing(Hit::claimId, Comparator.reverseOrder()))
+                .limit(Math.max(0, limit))
+                .toList();
+        return new SearchResult(hits, scores.size(), (System.nanoTime() - start) / 1000);
+    }
+
+    private Map<Integer, Double> scoreToken(Segment segment, String token) {
+        Map<Integer, Double> scores = new HashMap<>();
+        int totalDocs = Math.max(1, segment.docs.size());
+
+        accumulate(segment, token, 1.0, totalDocs, scores);
+
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (String term : segment.terms.subSet(token, false, token + Character.MAX_VALUE, false)) {
+                if (++expanded > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                accumulate(segment, term, PREFIX_FACTOR, totalDocs, scores);
+            }
+        }
+
+        if (isFuzzyCandidate(token)) {
+            // Giống prefixLength của Lucene: 2 ký tự đầu phải đúng để giới hạn vùng quét
+            String head = token.substring(0, 2);
+            int scanned = 0;
+            for (String term : segment.words.subSet(head, true, head + Character.MAX_VALUE, false)) {
+                if (++scanned > MAX_FUZZY_SCAN) {
+                    break;
+                }
+                if (!term.startsWith(token) && fuzzyPrefixMatch(token, term)) {
+                    accumulate(segment, term, FUZZY_FACTOR, totalDocs, scores);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void accumulate(Segment segment, String term, double factor, int totalDocs,
+                                   Map<Integer, Double> scores) {
+        Map<Integer, Float> posting = segment.postings.get(term);
+        if (posting == null || posting.isEmpty()) {
+            return;
+        }
+        double idf = Math.log(1.0 + (double) totalDocs / posting.size());
+        posting.forEach((claimId, weight) -> scores.merge(claimId, weight * factor * idf, Math::max));
+    }
+
+    /**
+     * Đoạn trích có đánh dấu {@code <mark>} cho các field khớp từ khóa (đã escape HTML).
+     */
+    public Map<String, String> highlight(Integer claimId, String query) {
+        Document doc = current.get().docs.get(claimId);
+        List<String> tokens = tokenize(query);
+        Map<String, String> highlights = new LinkedHashMap<>();
+        if (doc == null || tokens.isEmpty()) {
+            return highlights;
+        }
+        doc.values().forEach((field, value) -> {
+            String snippet = highlightValue(field, value, tokens);
+            if (snippet != null) {
+                highlights.put(field.key, snippet);
+            }
+        });
+        return highlights;
+    }
+
+    private static String highlightValue(Field field, String value, List<String> tokens) {
+        String compact = field.identifier ? String.join("", tokenize(value)) : "";
+        boolean identifierHit = field.identifier && tokens.stream()
+                .anyMatch(t -> t.length() >= MIN_SUFFIX_LENGTH && compact.contains(t));
+
+        List<int[]> matches = new ArrayList<>();
+        Matcher matcher = WORD.matcher(value);
+        while (matcher.find()) {
+            String word = normalize(matcher.group());
+            if (identifierHit || tokens.stream().anyMatch(t -> word.startsWith(t)
+                    || (isFuzzyCandidate(t) && fuzzyPrefixMatch(t, word)))) {
+                matches.add(new int[]{matcher.start(), matcher.end()});
+            }
+        }
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        // Mô tả dài: chỉ giữ một đoạn quanh vị trí khớp đầu tiên, cắt theo khoảng trắng
+        int from = 0;
+        int to = value.length();
+        if (field == Field.REPORTED_FAILURE && value.length() > SNIPPET_RADIUS * 2) {
+            from = Math.max(0, matches.get(0)[0] - SNIPPET_RADIUS);
+            to = Math.min(value.length(), matches.get(0)[1] + SNIPPET_RADIUS);
+            while (from > 0 && from < matches.get(0)[0] && !Character.isWhitespace(value.charAt(from - 1))) {
+                from++;
+            }
+            while (to < value.length() && to > matches.get(0)[1] && !Character.isWhitespace(value.charAt(to))) {
+                to--;
+            }
+        }
+
+        StringBuilder out = new StringBuilder(from > 0 ? "…" : "");
+        int last = from;
+        for (int[] m : matches) {
+            if (m[0] < from || m[1] > to) {
+                continue;
+            }
+            out.append(escapeHtml(value.substring(last, m[0])))
+                    .append("<mark>").append(escapeHtml(value.substring(m[0], m[1]))).append("</mark>");
+            last = m[1];
+        }
+        out.append(escapeHtml(value.substring(last, to)));
+        return to < value.length() ? out.append("…").toString() : out.toString();
+    }
+
+    // ==================== ANALYSIS ====================
+
+    /**
+     * Chữ thường, bỏ dấu tiếng Việt, tách theo ký tự không phải chữ/số.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        Matcher matcher = WORD.matcher(normalize(text));
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        return tokens;
+    }
+
+    static String normalize(String text) {
+        String lower = text.toLowerCase().replace('đ', 'd');
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    // Token có chữ số (số claim, VIN, SĐT) phải khớp chính xác/prefix, không sửa lỗi gõ
+    private static boolean isFuzzyCandidate(String token) {
+        return token.length() >= MIN_FUZZY_LENGTH && token.chars().noneMatch(Character::isDigit);
+    }
+
+    /**
+     * Token (đang gõ) khớp term với tối đa 1 lỗi (thêm/bớt/thay/đảo 2 ký tự liền kề),
+     * so với cả term lẫn prefix cùng độ dài của term.
+     */
+    static boolean fuzzyPrefixMatch(String token, String term) {
+        if (Math.abs(token.length() - term.length()) <= 1 && osaDistance(token, term) <= 1) {
+            return true;
+        }
+        for (int len = token.length() - 1; len <= token.length() + 1; len++) {
+            if (len > 0 && len < term.length() && osaDistance(token, term.substring(0, len)) <= 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Optimal string alignment distance (Damerau-Levenshtein giới hạn)
+    static int osaDistance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
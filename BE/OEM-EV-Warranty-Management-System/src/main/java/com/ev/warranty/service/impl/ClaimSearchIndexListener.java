@@ -0,0 +1,56 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimDiagnostic;
+import com.ev.warranty.model.entity.Customer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * JPA entity listener trên Claim, ClaimDiagnostic, Customer: sau khi transaction commit
+ * thì báo ClaimSearchIndex nạp lại các claim bị ảnh hưởng (rollback thì bỏ qua).
+ * Dùng ObjectProvider vì listener được Hibernate tạo cùng lúc với EntityManagerFactory.
+ */
+@Component
+public class ClaimSearchIndexListener {
+
+    private final ObjectProvider<ClaimSearchIndex> searchIndex;
+
+    public ClaimSearchIndexListener(ObjectProvider<ClaimSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Claim claim) {
+            afterCommit(() -> searchIndex.ifAvailable(index -> index.refreshClaims(List.of(claim.getId()))));
+        } else if (entity instanceof ClaimDiagnostic diagnostic && diagnostic.getClaim() != null) {
+            Integer claimId = diagnostic.getClaim().getId();
+            afterCommit(() -> searchIndex.ifAvailable(index -> index.refreshClaims(List.of(claimId))));
+        } else if (entity instanceof Customer customer) {
+            afterCommit(() -> searchIndex.ifAvailable(index -> index.refreshCustomer(customer.getId())));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
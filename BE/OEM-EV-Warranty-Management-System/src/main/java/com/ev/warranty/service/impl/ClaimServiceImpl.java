@@ -12,13 +12,17 @@ import com.ev.warranty.service.inter.NotificationService;
 import com.ev.warranty.service.inter.WorkOrderService;
 import com.ev.warranty.model.dto.workorder.WorkOrderCreateRequestDTO;
 import com.ev.warranty.model.dto.workorder.WorkOrderResponseDTO;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -30,7 +34,7 @@ public class ClaimServiceImpl implements ClaimService {
     // Dependencies
     private final ClaimRepository claimRepository;
     private final WorkOrderRepository workOrderRepository;
-    private final ClaimStatusRepository claimStatusRepository;
+    private final ClaimStatusRegistry claimStatusRegistry;
     private final ClaimStatusHistoryRepository claimStatusHistoryRepository;
     private final ClaimAttachmentRepository claimAttachmentRepository;
     private final CustomerRepository customerRepository;
@@ -39,13 +43,14 @@ public class ClaimServiceImpl implements ClaimService {
     private final ClaimMapper claimMapper; // 🔧 Use mapper instead of manual mapping
     private final WorkOrderPartRepository workOrderPartRepository;
     private final ClaimItemRepository claimItemRepository;
-    private final InventoryRepository inventoryRepository;
     private final NotificationService notificationService;
-    private final com.ev.warranty.service.inter.ServiceHistoryService serviceHistoryService;
     private final WorkOrderService workOrderService;
     private final com.ev.warranty.service.inter.PartSerialService partSerialService;
     private final com.ev.warranty.service.inter.ThirdPartyPartService thirdPartyPartService;
     private final com.ev.warranty.service.inter.WarrantyEligibilityService warrantyEligibilityService;
+    private final ClaimEventOutbox claimEventOutbox;
+    private final ClaimListProjection claimListProjection;
+    private final com.ev.warranty.service.inter.ClaimArchiveService claimArchiveService;
 
     private static final int MAX_PROBLEM_REPORTS = 5;
     private static final int MAX_RESUBMIT_COUNT = 1;
@@ -100,7 +105,7 @@ public class ClaimServiceImpl implements ClaimService {
 
         // Set status based on flow.
         String statusCode = determineInitialStatus(request.getFlow());
-        ClaimStatus initialStatus = claimStatusRepository.findByCode(statusCode)
+        ClaimStatus initialStatus = claimStatusRegistry.findByCode(statusCode)
                 .orElseThrow(() -> new NotFoundException("Status " + statusCode + " not found"));
 
         // Use mapper to set relationships.
@@ -224,7 +229,7 @@ public class ClaimServiceImpl implements ClaimService {
         ClaimWarrantyEligibility warrantyEligibility = claim.getWarrantyEligibility();
         if (request.getRepairType() != null && "SC_REPAIR".equals(request.getRepairType())) {
             // SC Repair flow - go to payment pending
-            ClaimStatus paymentPending = claimStatusRepository.findByCode("CUSTOMER_PAYMENT_PENDING")
+            ClaimStatus paymentPending = claimStatusRegistry.findByCode("CUSTOMER_PAYMENT_PENDING")
                     .orElseThrow(() -> new NotFoundException("Status CUSTOMER_PAYMENT_PENDING not found"));
             claim.setStatus(paymentPending);
             // repairConfig already created in updateEntityFromDiagnosticRequest, just update payment status
@@ -237,14 +242,14 @@ public class ClaimServiceImpl implements ClaimService {
             if (request.getIsWarrantyEligible()) {
                 // If eligible -> set to PENDING_APPROVAL (technician will use "Gui toi EVM"
                 // button to submit to EVM)
-                ClaimStatus pendingApproval = claimStatusRepository.findByCode("PENDING_APPROVAL")
+                ClaimStatus pendingApproval = claimStatusRegistry.findByCode("PENDING_APPROVAL")
                         .orElseThrow(() -> new NotFoundException("Status PENDING_APPROVAL not found"));
                 claim.setStatus(pendingApproval);
                 createStatusHistory(claim, pendingApproval, currentUser,
                         "Diagnosis submitted. Waiting for technician to send to EVM for approval.");
             } else {
                 // Not eligible -> pending customer approval for third-party parts
-                ClaimStatus pendingCustomer = claimStatusRepository.findByCode("PENDING_CUSTOMER_APPROVAL")
+                ClaimStatus pendingCustomer = claimStatusRegistry.findByCode("PENDING_CUSTOMER_APPROVAL")
                         .orElseThrow(() -> new NotFoundException("Status PENDING_CUSTOMER_APPROVAL not found"));
                 claim.setStatus(pendingCustomer);
                 createStatusHistory(claim, pendingCustomer, currentUser,
@@ -305,19 +310,19 @@ public class ClaimServiceImpl implements ClaimService {
         }
 
         if (Boolean.TRUE.equals(approved)) {
-            ClaimStatus approvedStatus = claimStatusRepository.findByCode("CUSTOMER_APPROVED_THIRD_PARTY")
+            ClaimStatus approvedStatus = claimStatusRegistry.findByCode("CUSTOMER_APPROVED_THIRD_PARTY")
                     .orElseThrow(() -> new NotFoundException("Status CUSTOMER_APPROVED_THIRD_PARTY not found"));
             claim.setStatus(approvedStatus);
             createStatusHistory(claim, approvedStatus, currentUser,
                     notes != null ? notes : "Customer approved third-party repair");
 
             // Move to READY_FOR_REPAIR next
-            ClaimStatus ready = claimStatusRepository.findByCode("READY_FOR_REPAIR")
+            ClaimStatus ready = claimStatusRegistry.findByCode("READY_FOR_REPAIR")
                     .orElseThrow(() -> new NotFoundException("Status READY_FOR_REPAIR not found"));
             claim.setStatus(ready);
             createStatusHistory(claim, ready, currentUser, "Ready to create work order with third-party parts");
         } else {
-            ClaimStatus cancelled = claimStatusRepository.findByCode("CANCELLED")
+            ClaimStatus cancelled = claimStatusRegistry.findByCode("CANCELLED")
                     .orElseThrow(() -> new NotFoundException("Status CANCELLED not found"));
             claim.setStatus(cancelled);
             createStatusHistory(claim, cancelled, currentUser,
@@ -349,7 +354,7 @@ public class ClaimServiceImpl implements ClaimService {
         validateUserCanModifyStatus(currentUser, claim);
 
         // Find new status
-        ClaimStatus newStatus = claimStatusRepository.findByCode(statusCode)
+        ClaimStatus newStatus = claimStatusRegistry.findByCode(statusCode)
                 .orElseThrow(() -> new NotFoundException("Status not found: " + statusCode));
 
         // Validate status transition
@@ -364,9 +369,10 @@ public class ClaimServiceImpl implements ClaimService {
         createStatusHistory(claim, newStatus, currentUser,
                 String.format("Status updated from %s to %s", oldStatus.getCode(), statusCode));
 
-        // ===== NEW: Save to service history when claim is done or closed =====
+        // Claim kết thúc: service history được ghi sau commit qua outbox
         if ("CLAIM_DONE".equals(statusCode) || "CLOSED".equals(statusCode)) {
-            saveClaimToServiceHistory(claim, currentUser);
+            claimEventOutbox.append("CLOSED".equals(statusCode) ? ClaimEventType.CLAIM_CLOSED : ClaimEventType.CLAIM_DONE,
+                    claim, currentUser, null);
         }
 
         return claimMapper.toResponseDto(claim);
@@ -431,7 +437,7 @@ public class ClaimServiceImpl implements ClaimService {
         }
 
         // Update status to FINAL_INSPECTION (per workflow: repair -> final inspect)
-        ClaimStatus repairCompletedStatus = claimStatusRepository.findByCode("FINAL_INSPECTION")
+        ClaimStatus repairCompletedStatus = claimStatusRegistry.findByCode("FINAL_INSPECTION")
                 .orElseThrow(() -> new NotFoundException("Status FINAL_INSPECTION not found"));
 
         claim.setStatus(repairCompletedStatus);
@@ -460,7 +466,7 @@ public class ClaimServiceImpl implements ClaimService {
         // Check if there are issues - if customer is not satisfied, set back to OPEN
         if (request.getCustomerSatisfied() == null || !request.getCustomerSatisfied()) {
             // Customer has issues - set claim back to OPEN with new diagnosis
-            ClaimStatus openStatus = claimStatusRepository.findByCode("OPEN")
+            ClaimStatus openStatus = claimStatusRegistry.findByCode("OPEN")
                     .orElseThrow(() -> new NotFoundException("Status OPEN not found"));
             claim.setStatus(openStatus);
 
@@ -491,7 +497,7 @@ public class ClaimServiceImpl implements ClaimService {
     public ClaimResponseDto closeClaim(Integer claimId, ClaimClosureRequest request) {
         // Đóng claim/hoàn tất quy trình
         // - Auto-progress nếu cần
-        // - Điều chỉnh tồn kho theo các phụ tùng đã dùng
+        // - Điều chỉnh tồn kho theo các phụ tùng đã dùng (sau commit, qua outbox)
         // - Chuyển trạng thái sang CLOSED (gọi updateClaimStatus)
         User currentUser = getCurrentUser();
 
@@ -501,9 +507,9 @@ public class ClaimServiceImpl implements ClaimService {
         // Auto-progress to WORK_DONE if needed
         autoProgressToValidStatus(claim, Set.of("WORK_DONE", "CLAIM_DONE"), currentUser);
 
-        // Adjust inventory based on used parts (consume reserved, decrease stock) -
-        // default warehouse 1
-        adjustInventoryForClaimUsedParts(claimId);
+        // Adjust inventory based on used parts (consume reserved, decrease stock at default warehouse 1)
+        // after commit so the close does not hold inventory row locks
+        claimEventOutbox.append(ClaimEventType.USED_PARTS_SETTLED, claim, currentUser, null);
 
         // Update status to CLAIM_DONE (which will trigger service history save)
         return updateClaimStatus(claimId, "CLOSED");
@@ -514,8 +520,12 @@ public class ClaimServiceImpl implements ClaimService {
     public ClaimResponseDto getClaimById(Integer claimId) {
         // Lấy claim và trả về DTO kèm thông tin validate để frontend biết có thể submit
         // hay không
-        Claim claim = claimRepository.findById(claimId)
-                .orElseThrow(() -> new NotFoundException("Claim not found"));
+        Claim claim = claimRepository.findById(claimId).orElse(null);
+        if (claim == null) {
+            // Claim đã đóng lâu có thể đã được chuyển sang archived_claims (chỉ xem)
+            return claimArchiveService.findArchivedClaim(claimId)
+                    .orElseThrow(() -> new NotFoundException("Claim not found"));
+        }
 
         // ===== NEW: Auto-trigger warranty check khi FE load trang chi tiết =====
         try {
@@ -596,6 +606,24 @@ public class ClaimServiceImpl implements ClaimService {
         return claims.stream().map(claimMapper::toResponseDto).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<?> getClaimListView(String statusCode, Integer technicianId, String fields) {
+        // Một query chỉ lấy các cột cần hiển thị; không chạy auto-check eligibility như bản đầy đủ
+        Specification<Claim> specification = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (statusCode != null) {
+                predicates.add(cb.equal(root.get("status").get("code"), statusCode));
+            }
+            if (technicianId != null) {
+                predicates.add(cb.equal(root.get("assignment").get("assignedTechnician").get("id"), technicianId));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return claimListProjection.find(specification, ClaimListProjection.parseFields(fields),
+                Sort.by(Sort.Direction.DESC, "id"), 0, 0);
+    }
+
     public List<ClaimResponseDto> getPendingApprovalClaims() {
         // Lấy danh sách claim đang chờ EVM phê duyệt và chạy auto-check để hiện cột
         // eligibility
@@ -726,7 +754,7 @@ public class ClaimServiceImpl implements ClaimService {
             // Auto-progress based on current status
             String targetStatus = determineTargetStatus(currentStatus, validStatuses);
             if (targetStatus != null) {
-                ClaimStatus newStatus = claimStatusRepository.findByCode(targetStatus)
+                ClaimStatus newStatus = claimStatusRegistry.findByCode(targetStatus)
                         .orElseThrow(() -> new NotFoundException("Status " + targetStatus + " not found"));
 
                 claim.setStatus(newStatus);
@@ -822,7 +850,7 @@ public class ClaimServiceImpl implements ClaimService {
         String currentStatus = claim.getStatus().getCode();
 
         if ("DRAFT".equals(currentStatus) || "OPEN".equals(currentStatus)) {
-            ClaimStatus pendingApprovalStatus = claimStatusRepository.findByCode("PENDING_APPROVAL")
+            ClaimStatus pendingApprovalStatus = claimStatusRegistry.findByCode("PENDING_APPROVAL")
                     .orElse(null);
             if (pendingApprovalStatus != null) {
                 claim.setStatus(pendingApprovalStatus);
@@ -901,39 +929,6 @@ public class ClaimServiceImpl implements ClaimService {
         claimStatusHistoryRepository.save(history);
     }
 
-    private void adjustInventoryForClaimUsedParts(Integer claimId) {
-        // Điều chỉnh tồn kho khi đóng claim: trừ reserved và current stock theo số
-        // lượng phụ tùng đã dùng
-        List<WorkOrderPart> usedParts = workOrderPartRepository.findByClaimId(claimId);
-        if (usedParts == null || usedParts.isEmpty())
-            return;
-
-        // Aggregate quantities by part id
-        java.util.Map<Integer, Integer> usedByPartId = new java.util.HashMap<>();
-        for (WorkOrderPart wop : usedParts) {
-            if (wop.getPart() == null)
-                continue;
-            Integer partId = wop.getPart().getId();
-            usedByPartId.merge(partId, wop.getQuantity() != null ? wop.getQuantity() : 1, Integer::sum);
-        }
-
-        // Apply to inventory at default warehouse (id=1)
-        for (var entry : usedByPartId.entrySet()) {
-            Integer partId = entry.getKey();
-            Integer qtyUsed = entry.getValue();
-            var optInv = inventoryRepository.findByPartIdAndWarehouseId(partId, 1);
-            if (optInv.isEmpty())
-                continue;
-            var inv = optInv.get();
-            int reserved = inv.getReservedStock() != null ? inv.getReservedStock() : 0;
-            int current = inv.getCurrentStock() != null ? inv.getCurrentStock() : 0;
-            int consumeFromReserved = Math.min(reserved, qtyUsed);
-            inv.setReservedStock(reserved - consumeFromReserved);
-            inv.setCurrentStock(Math.max(current - qtyUsed, 0));
-            inventoryRepository.save(inv);
-        }
-    }
-
     private void autoClassifyCostTypes(Claim claim) {
         // Tự động phân loại loại chi phí cho các ClaimItem dựa vào warranty của xe và
         // trạng thái item
@@ -1028,7 +1023,7 @@ public class ClaimServiceImpl implements ClaimService {
 
         // Transition from PENDING_APPROVAL to PENDING_EVM_APPROVAL
         User currentUser = getCurrentUser();
-        ClaimStatus pendingEvmStatus = claimStatusRepository.findByCode("PENDING_EVM_APPROVAL")
+        ClaimStatus pendingEvmStatus = claimStatusRegistry.findByCode("PENDING_EVM_APPROVAL")
                 .orElseThrow(() -> new NotFoundException("Status PENDING_EVM_APPROVAL not found"));
 
         claim.setStatus(pendingEvmStatus);
@@ -1363,7 +1358,7 @@ public class ClaimServiceImpl implements ClaimService {
         claim.setDiagnostic(diagnostic);
 
         // Move to PROBLEM_CONFLICT
-        ClaimStatus conflict = claimStatusRepository.findByCode("PROBLEM_CONFLICT")
+        ClaimStatus conflict = claimStatusRegistry.findByCode("PROBLEM_CONFLICT")
                 .orElseThrow(() -> new NotFoundException("Status PROBLEM_CONFLICT not found"));
         claim.setStatus(conflict);
         claim = claimRepository.save(claim);
@@ -1397,7 +1392,7 @@ public class ClaimServiceImpl implements ClaimService {
             throw new BadRequestException("Claim must be in PROBLEM_CONFLICT status to resolve");
         }
 
-        ClaimStatus solved = claimStatusRepository.findByCode("PROBLEM_SOLVED")
+        ClaimStatus solved = claimStatusRegistry.findByCode("PROBLEM_SOLVED")
                 .orElseThrow(() -> new NotFoundException("Status PROBLEM_SOLVED not found"));
 
         claim.setStatus(solved);
@@ -1445,7 +1440,7 @@ public class ClaimServiceImpl implements ClaimService {
             return claimMapper.toResponseDto(claim);
         }
 
-        ClaimStatus targetStatus = claimStatusRepository.findByCode(target)
+        ClaimStatus targetStatus = claimStatusRegistry.findByCode(target)
                 .orElseThrow(() -> new NotFoundException("Status " + target + " not found"));
         claim.setStatus(targetStatus);
         if (claim.getDiagnostic() != null) {
@@ -1496,7 +1491,7 @@ public class ClaimServiceImpl implements ClaimService {
         approval.setRejectionNotes(null);
         claim.setApproval(approval);
 
-        ClaimStatus pending = claimStatusRepository.findByCode("PENDING_EVM_APPROVAL")
+        ClaimStatus pending = claimStatusRegistry.findByCode("PENDING_EVM_APPROVAL")
                 .orElseThrow(() -> new NotFoundException("Status PENDING_EVM_APPROVAL not found"));
         claim.setStatus(pending);
         claim = claimRepository.save(claim);
@@ -1541,7 +1536,7 @@ public class ClaimServiceImpl implements ClaimService {
         cancellation.setCancelReason(request.getReason());
         claim.setCancellation(cancellation);
 
-        ClaimStatus pending = claimStatusRepository.findByCode("CANCEL_PENDING")
+        ClaimStatus pending = claimStatusRegistry.findByCode("CANCEL_PENDING")
                 .orElseThrow(() -> new NotFoundException("Status CANCEL_PENDING not found"));
         claim.setStatus(pending);
         claim = claimRepository.save(claim);
@@ -1550,12 +1545,7 @@ public class ClaimServiceImpl implements ClaimService {
         // Audit log and notification
         log.info("Cancel requested for claim {} by user {}: {}", claim.getClaimNumber(), currentUser.getUsername(),
                 request.getReason());
-        try {
-            notificationService.sendClaimEventNotification(claim, "CANCEL_REQUESTED", currentUser.getUsername(),
-                    request.getReason());
-        } catch (Exception e) {
-            log.warn("Failed to send cancel request notification: {}", e.getMessage());
-        }
+        claimEventOutbox.append(ClaimEventType.CANCEL_REQUESTED, claim, currentUser, request.getReason());
         return claimMapper.toResponseDto(claim);
     }
 
@@ -1575,7 +1565,7 @@ public class ClaimServiceImpl implements ClaimService {
             throw new BadRequestException("Claim is not in CANCEL_PENDING status");
         }
 
-        ClaimStatus ready = claimStatusRepository.findByCode("CANCELED_READY_TO_HANDOVER")
+        ClaimStatus ready = claimStatusRegistry.findByCode("CANCELED_READY_TO_HANDOVER")
                 .orElseThrow(() -> new NotFoundException("Status CANCELED_READY_TO_HANDOVER not found"));
 
         claim.setStatus(ready);
@@ -1589,11 +1579,7 @@ public class ClaimServiceImpl implements ClaimService {
         // Audit log and notification
         log.info("Cancel ACCEPTED for claim {} by user {}: {}", claim.getClaimNumber(), currentUser.getUsername(),
                 note);
-        try {
-            notificationService.sendClaimEventNotification(claim, "CANCEL_ACCEPTED", currentUser.getUsername(), note);
-        } catch (Exception e) {
-            log.warn("Failed to send cancel accept notification: {}", e.getMessage());
-        }
+        claimEventOutbox.append(ClaimEventType.CANCEL_ACCEPTED, claim, currentUser, note);
         return claimMapper.toResponseDto(claim);
     }
 
@@ -1622,7 +1608,7 @@ public class ClaimServiceImpl implements ClaimService {
         // Ensure 'prev' is effectively final for lambda usage
         final String previousStatus = prev;
 
-        ClaimStatus prevStatus = claimStatusRepository.findByCode(previousStatus)
+        ClaimStatus prevStatus = claimStatusRegistry.findByCode(previousStatus)
                 .orElseThrow(() -> new NotFoundException("Previous status not found: " + previousStatus));
 
         claim.setStatus(prevStatus);
@@ -1637,11 +1623,7 @@ public class ClaimServiceImpl implements ClaimService {
         // Audit log and notification
         log.info("Cancel REJECTED for claim {} by user {}: {}", claim.getClaimNumber(), currentUser.getUsername(),
                 note);
-        try {
-            notificationService.sendClaimEventNotification(claim, "CANCEL_REJECTED", currentUser.getUsername(), note);
-        } catch (Exception e) {
-            log.warn("Failed to send cancel reject notification: {}", e.getMessage());
-        }
+        claimEventOutbox.append(ClaimEventType.CANCEL_REJECTED, claim, currentUser, note);
         return claimMapper.toResponseDto(claim);
     }
 
@@ -1695,7 +1677,7 @@ public class ClaimServiceImpl implements ClaimService {
             }
         }
 
-        ClaimStatus done = claimStatusRepository.findByCode("CANCELED_DONE")
+        ClaimStatus done = claimStatusRegistry.findByCode("CANCELED_DONE")
                 .orElseThrow(() -> new NotFoundException("Status CANCELED_DONE not found"));
         claim.setStatus(done);
         ClaimCancellation cancellation = claim.getOrCreateCancellation();
@@ -1706,19 +1688,10 @@ public class ClaimServiceImpl implements ClaimService {
 
         createStatusHistory(claim, done, currentUser,
                 note != null ? note : "Cancel finalized - serials released and work orders cancelled");
-        // Save to service history as a cancel event
-        try {
-            saveClaimToServiceHistory(claim, currentUser);
-        } catch (Exception ignored) {
-        }
-        // Audit log and notification
+        // Audit log; service history + notification run after commit
         log.info("Cancel FINALIZED for claim {} by user {}: {}", claim.getClaimNumber(), currentUser.getUsername(),
                 note);
-        try {
-            notificationService.sendClaimEventNotification(claim, "CANCEL_FINALIZED", currentUser.getUsername(), note);
-        } catch (Exception e) {
-            log.warn("Failed to send cancel finalized notification: {}", e.getMessage());
-        }
+        claimEventOutbox.append(ClaimEventType.CANCEL_FINALIZED, claim, currentUser, note);
         return claimMapper.toResponseDto(claim);
     }
 
@@ -1743,7 +1716,7 @@ public class ClaimServiceImpl implements ClaimService {
         // Ensure 'prev' is effectively final for lambda usage
         final String previousStatus = prev;
 
-        ClaimStatus prevStatus = claimStatusRepository.findByCode(previousStatus)
+        ClaimStatus prevStatus = claimStatusRegistry.findByCode(previousStatus)
                 .orElseThrow(() -> new NotFoundException("Previous status not found: " + previousStatus));
 
         claim.setStatus(prevStatus);
@@ -1758,64 +1731,10 @@ public class ClaimServiceImpl implements ClaimService {
         // Audit log and notification
         log.info("Cancel REOPENED for claim {} by user {}: {}", claim.getClaimNumber(), currentUser.getUsername(),
                 note);
-        try {
-            notificationService.sendClaimEventNotification(claim, "CANCEL_REOPENED", currentUser.getUsername(), note);
-        } catch (Exception e) {
-            log.warn("Failed to send cancel reopen notification: {}", e.getMessage());
-        }
+        claimEventOutbox.append(ClaimEventType.CANCEL_REOPENED, claim, currentUser, note);
         return claimMapper.toResponseDto(claim);
     }
 
-    // ===== NEW: Save claim to service history =====
-    private void saveClaimToServiceHistory(Claim claim, User currentUser) {
-        // Gọi service history service để lưu thông tin lịch sử service khi claim hoàn
-        // tất
-        // - Xác định loại dịch vụ (warranty vs sc_repair)
-        // - Build DTO và gọi serviceHistoryService.createServiceHistory
-        try {
-            // Determine service type based on repair type
-            ClaimRepairConfiguration repairConfig = claim.getRepairConfiguration();
-            String serviceType;
-            if (repairConfig != null && repairConfig.getRepairType() != null && "SC_REPAIR".equals(repairConfig.getRepairType())) {
-                serviceType = "sc_repair"; // Non-warranty service
-            } else {
-                serviceType = "warranty_repair"; // Warranty repair
-            }
-
-            // Build description
-            ClaimDiagnostic diagnostic = claim.getDiagnostic();
-            StringBuilder description = new StringBuilder();
-            description.append("Claim: ").append(claim.getClaimNumber());
-            if (diagnostic != null && diagnostic.getReportedFailure() != null) {
-                description.append(" - ").append(diagnostic.getReportedFailure());
-            }
-            if (diagnostic != null && diagnostic.getDiagnosticDetails() != null) {
-                description.append("\nDiagnosis: ").append(diagnostic.getDiagnosticDetails());
-            }
-
-            // Get mileage from vehicle
-            Integer mileageKm = null;
-            if (claim.getVehicle() != null) {
-                mileageKm = claim.getVehicle().getMileageKm();
-            }
-
-            // Create service history
-            com.ev.warranty.model.dto.servicehistory.ServiceHistoryRequestDTO historyRequest = new com.ev.warranty.model.dto.servicehistory.ServiceHistoryRequestDTO();
-            historyRequest.setVehicleId(claim.getVehicle().getId());
-            historyRequest.setCustomerId(claim.getCustomer().getId());
-            historyRequest.setServiceType(serviceType);
-            historyRequest.setDescription(description.toString());
-            historyRequest.setPerformedById(currentUser.getId());
-            historyRequest.setMileageKm(mileageKm);
-
-            serviceHistoryService.createServiceHistory(historyRequest);
-            log.info("Service history saved for claim {} with service type {}", claim.getClaimNumber(), serviceType);
-        } catch (Exception e) {
-            log.error("Failed to save service history for claim {}: {}", claim.getClaimNumber(), e.getMessage());
-            // Don't throw - service history is supplementary
-        }
-    }
-
     // ===== NEW: Payment and work completion methods =====
 
     @Override
@@ -1830,15 +1749,12 @@ public class ClaimServiceImpl implements ClaimService {
             throw new BadRequestException("Claim is not in payment pending status");
         }
 
-        ClaimRepairConfiguration repairConfig = claim.getOrCreateRepairConfiguration();
         if ("PAID".equals(paymentStatus)) {
-            repairConfig.setCustomerPaymentStatus("PAID");
-            claim.setRepairConfiguration(repairConfig);
-            ClaimStatus paidStatus = claimStatusRepository.findByCode("CUSTOMER_PAID")
+            ClaimStatus paidStatus = claimStatusRegistry.findByCode("CUSTOMER_PAID")
                     .orElseThrow(() -> new NotFoundException("Status CUSTOMER_PAID not found"));
-            claim.setStatus(paidStatus);
-            createStatusHistory(claim, paidStatus, currentUser, "Customer payment received");
+            markCustomerPaid(claim, paidStatus, currentUser, "Customer payment received");
         } else {
+            ClaimRepairConfiguration repairConfig = claim.getOrCreateRepairConfiguration();
             repairConfig.setCustomerPaymentStatus(paymentStatus);
             claim.setRepairConfiguration(repairConfig);
         }
@@ -1847,6 +1763,41 @@ public class ClaimServiceImpl implements ClaimService {
         return claimMapper.toResponseDto(claim);
     }
 
+    @Override
+    @Transactional
+    public boolean applyGatewayPayment(Integer claimId, String txnRef) {
+        // Gọi từ IPN / đối soát (không có user đăng nhập): không ném lỗi để không rollback giao dịch thanh toán
+        Claim claim = claimRepository.findById(claimId).orElse(null);
+        if (claim == null) {
+            return false;
+        }
+        if (claim.getRepairConfiguration() != null
+                && "PAID".equals(claim.getRepairConfiguration().getCustomerPaymentStatus())) {
+            return true;
+        }
+        if (!"CUSTOMER_PAYMENT_PENDING".equals(claim.getStatus().getCode())) {
+            log.warn("VNPay payment {} received for claim {} in status {}", txnRef, claim.getClaimNumber(),
+                    claim.getStatus().getCode());
+            return false;
+        }
+        ClaimStatus paidStatus = claimStatusRegistry.findByCode("CUSTOMER_PAID").orElse(null);
+        if (paidStatus == null) {
+            log.error("Status CUSTOMER_PAID not found; VNPay payment {} left for reconciliation", txnRef);
+            return false;
+        }
+        markCustomerPaid(claim, paidStatus, null, "Customer payment received via VNPay (txnRef " + txnRef + ")");
+        claimRepository.save(claim);
+        return true;
+    }
+
+    private void markCustomerPaid(Claim claim, ClaimStatus paidStatus, User changedBy, String note) {
+        ClaimRepairConfiguration repairConfig = claim.getOrCreateRepairConfiguration();
+        repairConfig.setCustomerPaymentStatus("PAID");
+        claim.setRepairConfiguration(repairConfig);
+        claim.setStatus(paidStatus);
+        createStatusHistory(claim, paidStatus, changedBy, note);
+    }
+
     @Override
     @Transactional
     public ClaimResponseDto markWorkDone(Integer claimId, String notes) {
@@ -1858,7 +1809,7 @@ public class ClaimServiceImpl implements ClaimService {
         // Validate user can modify claim
         validateUserCanModifyClaim(currentUser, claim);
 
-        ClaimStatus workDoneStatus = claimStatusRepository.findByCode("WORK_DONE")
+        ClaimStatus workDoneStatus = claimStatusRegistry.findByCode("WORK_DONE")
                 .orElseThrow(() -> new NotFoundException("Status WORK_DONE not found"));
 
         claim.setStatus(workDoneStatus);
@@ -1894,7 +1845,7 @@ public class ClaimServiceImpl implements ClaimService {
             autoProgressToValidStatus(claim, Set.of("HANDOVER_PENDING", "WORK_DONE", "CLAIM_DONE", "PROBLEM_SOLVED"), currentUser);
         }
 
-        ClaimStatus claimDoneStatus = claimStatusRepository.findByCode("CLAIM_DONE")
+        ClaimStatus claimDoneStatus = claimStatusRegistry.findByCode("CLAIM_DONE")
                 .orElseThrow(() -> new NotFoundException("Status CLAIM_DONE not found"));
 
         claim.setStatus(claimDoneStatus);
@@ -1906,9 +1857,8 @@ public class ClaimServiceImpl implements ClaimService {
                     "Claim completed - vehicle handed over to customer");
         createStatusHistory(claim, claimDoneStatus, currentUser, historyNote);
 
-        // Save to service history (will be called by updateClaimStatus, but we're
-        // calling it directly)
-        saveClaimToServiceHistory(claim, currentUser);
+        // Service history is written after commit via outbox
+        claimEventOutbox.append(ClaimEventType.CLAIM_DONE, claim, currentUser, null);
 
         return claimMapper.toResponseDto(claim);
     }
@@ -0,0 +1,114 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.dto.servicehistory.ServiceHistoryRequestDTO;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimDiagnostic;
+import com.ev.warranty.model.entity.ClaimOutboxEvent;
+import com.ev.warranty.model.entity.ClaimRepairConfiguration;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.WorkOrderPart;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.InventoryRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.WorkOrderPartRepository;
+import com.ev.warranty.service.inter.NotificationService;
+import com.ev.warranty.service.inter.ServiceHistoryService;
+import com.ev.warranty.service.inter.StockAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Side effect của claim event (trước đây chạy đồng bộ trong ClaimServiceImpl).
+ * Chạy trong transaction của ClaimOutboxDispatcher cùng với việc đánh dấu dòng outbox DONE,
+ * nên thay đổi DB chỉ được áp dụng đúng một lần; lỗi thì ném ra để dispatcher retry.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClaimSideEffectHandlers {
+
+    private static final int DEFAULT_WAREHOUSE_ID = 1;
+
+    private final ClaimRepository claimRepository;
+    private final UserRepository userRepository;
+    private final WorkOrderPartRepository workOrderPartRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockAvailabilityService stockAvailabilityService;
+    private final ServiceHistoryService serviceHistoryService;
+    private final NotificationService notificationService;
+
+    public void handle(ClaimOutboxEvent event) {
+        switch (ClaimEventType.SideEffect.valueOf(event.getHandler())) {
+            case INVENTORY -> consumeUsedParts(event.getClaimId());
+            case SERVICE_HISTORY -> saveServiceHistory(loadClaim(event), loadActor(event));
+            case NOTIFICATION -> {
+                User actor = loadActor(event);
+                notificationService.sendClaimEventNotification(loadClaim(event), event.getEventType(),
+                        actor != null ? actor.getUsername() : null, event.getNote());
+            }
+        }
+    }
+
+    private void consumeUsedParts(Integer claimId) {
+        // Trừ reserved và current stock ở kho mặc định theo số lượng phụ tùng đã dùng
+        List<WorkOrderPart> usedParts = workOrderPartRepository.findByClaimId(claimId);
+        if (usedParts == null || usedParts.isEmpty())
+            return;
+
+        Map<Integer, Integer> usedByPartId = new HashMap<>();
+        for (WorkOrderPart wop : usedParts) {
+            if (wop.getPart() == null)
+                continue;
+            usedByPartId.merge(wop.getPart().getId(), wop.getQuantity() != null ? wop.getQuantity() : 1, Integer::sum);
+        }
+
+        for (var entry : usedByPartId.entrySet()) {
+            if (inventoryRepository.findAvailableStock(entry.getKey(), DEFAULT_WAREHOUSE_ID).isEmpty())
+                continue;
+            stockAvailabilityService.consume(entry.getKey(), DEFAULT_WAREHOUSE_ID, entry.getValue());
+        }
+    }
+
+    private void saveServiceHistory(Claim claim, User performedBy) {
+        // SC_REPAIR là sửa chữa ngoài bảo hành, còn lại là sửa chữa bảo hành
+        ClaimRepairConfiguration repairConfig = claim.getRepairConfiguration();
+        String serviceType = repairConfig != null && "SC_REPAIR".equals(repairConfig.getRepairType())
+                ? "sc_repair" : "warranty_repair";
+
+        ClaimDiagnostic diagnostic = claim.getDiagnostic();
+        StringBuilder description = new StringBuilder();
+        description.append("Claim: ").append(claim.getClaimNumber());
+        if (diagnostic != null && diagnostic.getReportedFailure() != null) {
+            description.append(" - ").append(diagnostic.getReportedFailure());
+        }
+        if (diagnostic != null && diagnostic.getDiagnosticDetails() != null) {
+            description.append("\nDiagnosis: ").append(diagnostic.getDiagnosticDetails());
+        }
+
+        ServiceHistoryRequestDTO historyRequest = new ServiceHistoryRequestDTO();
+        historyRequest.setVehicleId(claim.getVehicle().getId());
+        historyRequest.setCustomerId(claim.getCustomer().getId());
+        historyRequest.setServiceType(serviceType);
+        historyRequest.setDescription(description.toString());
+        historyRequest.setPerformedById(performedBy != null ? performedBy.getId() : null);
+        historyRequest.setMileageKm(claim.getVehicle().getMileageKm());
+
+        serviceHistoryService.createServiceHistory(historyRequest);
+        log.info("Service history saved for claim {} with service type {}", claim.getClaimNumber(), serviceType);
+    }
+
+    private Claim loadClaim(ClaimOutboxEvent event) {
+        return claimRepository.findById(event.getClaimId())
+                .orElseThrow(() -> new NotFoundException("Claim not found: " + event.getClaimId()));
+    }
+
+    private User loadActor(ClaimOutboxEvent event) {
+        return event.getActorUserId() != null ? userRepository.findById(event.getActorUserId()).orElse(null) : null;
+    }
+}
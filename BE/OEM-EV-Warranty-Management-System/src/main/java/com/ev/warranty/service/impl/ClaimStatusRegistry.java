@@ -0,0 +1,35 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.repository.ClaimStatusRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tra claim status theo code từ bộ nhớ: các bước chuyển trạng thái claim không query bảng claim_statuses.
+ * Entity trả về là bản detached, chỉ dùng để gán quan hệ (claim.setStatus) hoặc đọc code/label.
+ */
+@Component
+public class ClaimStatusRegistry {
+
+    private final ReferenceDataCache<String, ClaimStatus> cache;
+
+    public ClaimStatusRegistry(ClaimStatusRepository claimStatusRepository, ReferenceDataCaches caches) {
+        this.cache = caches.create("claim-status", claimStatusRepository::findAll, ClaimStatus::getCode);
+    }
+
+    public Optional<ClaimStatus> findByCode(String code) {
+        return cache.get(code);
+    }
+
+    public ClaimStatus byCode(String code) {
+        return cache.get(code).orElseThrow(() -> new NotFoundException("Claim status not found: " + code));
+    }
+
+    public List<ClaimStatus> all() {
+        return cache.values();
+    }
+}
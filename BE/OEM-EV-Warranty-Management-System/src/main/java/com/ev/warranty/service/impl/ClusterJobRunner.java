@@ -0,0 +1,155 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.JobSchedulerProperties;
+import com.ev.warranty.model.entity.JobLease;
+import com.ev.warranty.repository.JobLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chạy job định kỳ trên đúng một node trong cluster.
+ * Mỗi job có một dòng trong job_leases; node nào cập nhật được lease (hết hạn hoặc đang do chính nó giữ)
+ * thì chạy job ở tick đó, các node khác bỏ qua.
+ * Trong lúc job chạy, lease được gia hạn định kỳ (app.jobs.lease-renew-seconds) kèm fencing token;
+ * gia hạn thất bại nghĩa là node khác đã chiếm lease, job kiểm tra holdsLease() giữa các chunk để dừng.
+ */
+@Component
+@Slf4j
+public class ClusterJobRunner {
+
+    private final JobLeaseRepository leaseRepository;
+    private final JobSchedulerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, HeldLease> heldLeases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("lease-renewal").daemon().factory());
+
+    public ClusterJobRunner(JobLeaseRepository leaseRepository,
+                            JobSchedulerProperties properties,
+                            PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        long period = properties.getLeaseRenewSeconds();
+        renewer.scheduleAtFixedRate(this::renewHeldLeases, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Run the job if this node wins (or already holds) the lease.
+     * @return true if the job ran on this node
+     */
+    public boolean runIfLeader(String jobName, Runnable job) {
+        HeldLease lease = acquireLease(jobName);
+        if (lease == null) {
+            log.debug("Job {} skipped: lease held by another node", jobName);
+            return false;
+        }
+
+        heldLeases.put(jobName, lease);
+        long started = System.currentTimeMillis();
+        try {
+            job.run();
+            log.info("Job {} finished on {} in {} ms", jobName, properties.getNodeId(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Job {} failed on {}: {}", jobName, properties.getNodeId(), e.getMessage(), e);
+        } finally {
+            heldLeases.remove(jobName, lease);
+        }
+        return true;
+    }
+
+    /**
+     * Whether this node still holds the lease of a job it is running: false once another node
+     * has taken it over or the lease ran out without being renewed.
+     */
+    public boolean holdsLease(String jobName) {
+        HeldLease lease = heldLeases.get(jobName);
+        return lease != null && !lease.lost && LocalDateTime.now().isBefore(lease.until);
+    }
+
+    /**
+     * Extend the lease of every job running on this node (called by the renewal thread).
+     */
+    public void renewHeldLeases() {
+        for (Map.Entry<String, HeldLease> entry : heldLeases.entrySet()) {
+            HeldLease lease = entry.getValue();
+            if (lease.lost) {
+                continue;
+            }
+            LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(properties.getLeaseSeconds());
+            try {
+                Integer renewed = transactionTemplate.execute(status ->
+                        leaseRepository.renew(entry.getKey(), properties.getNodeId(), lease.fencingToken, leaseUntil));
+                if (renewed != null && renewed == 1) {
+                    lease.until = leaseUntil;
+                } else {
+                    lease.lost = true;
+                    log.warn("Job {} lost its lease on {}: taken over by another node", entry.getKey(), properties.getNodeId());
+                }
+            } catch (Exception e) {
+                // Lỗi DB tạm thời: thử lại lần sau, holdsLease() vẫn tự hết hạn theo lease.until
+                log.warn("Could not renew lease of job {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return properties.getNodeId();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    private HeldLease acquireLease(String jobName) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(properties.getLeaseSeconds());
+        String owner = properties.getNodeId();
+
+        try {
+            Long fencingToken = transactionTemplate.execute(status -> {
+                if (leaseRepository.tryAcquire(jobName, owner, now, leaseUntil) == 1) {
+                    return leaseRepository.findFencingToken(jobName);
+                }
+                if (leaseRepository.existsById(jobName)) {
+                    return null;
+                }
+                // Lần đầu job chạy: tạo dòng lease, node insert trùng sẽ nhận lỗi unique và thua
+                leaseRepository.saveAndFlush(JobLease.builder()
+                        .jobName(jobName)
+                        .ownerId(owner)
+                        .leaseUntil(leaseUntil)
+                        .lastRunAt(now)
+                        .fencingToken(1L)
+                        .build());
+                return 1L;
+            });
+            return fencingToken == null ? null : new HeldLease(fencingToken, leaseUntil);
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    private static final class HeldLease {
+        private final long fencingToken;
+        private volatile LocalDateTime until;
+        private volatile boolean lost;
+
+        private HeldLease(long fencingToken, LocalDateTime until) {
+            this.fencingToken = fencingToken;
+            this.until = until;
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.ev.warranty.service.impl;
 
 
+import com.ev.warranty.config.ExportProperties;
+import com.ev.warranty.config.SearchIndexProperties;
+import com.ev.warranty.exception.BadRequestException;
 import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.export.ExportFormat;
+import com.ev.warranty.export.RowWriter;
 import com.ev.warranty.mapper.ClaimMapper;
 import com.ev.warranty.mapper.EVMClaimMapper;
 import com.ev.warranty.model.dto.claim.*;
+import com.ev.warranty.model.dto.inventory.PartAvailabilityDTO;
 import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimApproval;
+import com.ev.warranty.model.entity.ClaimCost;
+import com.ev.warranty.model.entity.ClaimItem;
 import com.ev.warranty.model.entity.ClaimStatus;
 import com.ev.warranty.model.entity.ClaimStatusHistory;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.PartSerial;
+import com.ev.warranty.model.entity.StockReservation;
 import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Warehouse;
 import com.ev.warranty.repository.ClaimRepository;
-import com.ev.warranty.repository.ClaimStatusRepository;
 import com.ev.warranty.repository.ClaimStatusHistoryRepository;
 import com.ev.warranty.repository.UserRepository;
 import com.ev.warranty.service.inter.EVMClaimService;
+import com.ev.warranty.service.inter.StockAvailabilityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -22,8 +35,17 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -35,16 +57,30 @@ public class EVMClaimServiceImpl implements EVMClaimService {
     private final ClaimRepository claimRepository;
     private final EVMClaimMapper evmClaimMapper;
     private final ClaimMapper claimMapper;
-    private final ClaimStatusRepository claimStatusRepository;
+    private final ClaimStatusRegistry claimStatusRegistry;
     private final ClaimStatusHistoryRepository claimStatusHistoryRepository;
     private final UserRepository userRepository;
     private final com.ev.warranty.repository.ClaimItemRepository claimItemRepository;
-    private final com.ev.warranty.repository.InventoryRepository inventoryRepository;
+    private final StockAvailabilityService stockAvailabilityService;
     private final com.ev.warranty.service.inter.PartSerialService partSerialService;
     private final com.ev.warranty.repository.StockReservationRepository stockReservationRepository;
     private final com.ev.warranty.repository.WarehouseRepository warehouseRepository;
     private final com.ev.warranty.repository.PartRepository partRepository;
     private final com.ev.warranty.repository.PartSerialRepository partSerialRepository;
+    private final ClaimSearchIndex claimSearchIndex;
+    private final SearchIndexProperties searchIndexProperties;
+    private final EntityManager entityManager;
+    private final ClaimEventOutbox claimEventOutbox;
+    private final ClaimListProjection claimListProjection;
+    private final ExportProperties exportProperties;
+
+    private final PlatformTransactionManager transactionManager;
+
+    // Giới hạn số id trong một mệnh đề IN (SQL Server tối đa 2100 tham số)
+    private static final int ID_CHUNK_SIZE = 1000;
+    // Số claim mỗi transaction khi duyệt/từ chối hàng loạt
+    private static final int DECISION_CHUNK_SIZE = 50;
+    private static final int DEFAULT_WAREHOUSE_ID = 1;
 
     @Override
     public ClaimResponseDto approveClaim(Integer claimId, EVMApprovalRequestDTO request, String evmStaffUsername) {
@@ -73,7 +109,7 @@ public class EVMClaimServiceImpl implements EVMClaimService {
                 .orElseThrow(() -> new NotFoundException("EVM Staff not found: " + evmStaffUsername));
 
         // Lấy đối tượng ClaimStatus tương ứng với mã EVM_APPROVED
-        ClaimStatus approvedStatus = claimStatusRepository.findByCode("EVM_APPROVED")
+        ClaimStatus approvedStatus = claimStatusRegistry.findByCode("EVM_APPROVED")
                 .orElseThrow(() -> new NotFoundException("EVM Approved status not found"));
 
         // Cập nhật các trường liên quan tới việc duyệt
@@ -101,7 +137,7 @@ public class EVMClaimServiceImpl implements EVMClaimService {
             // Nếu không có phụ tùng cần thay thế thì coi là đủ phụ tùng
             // (không cần gán lại allAvailable vì đã khởi tạo true ở trên)
         } else {
-            // Duyệt từng item để kiểm tra tổng tồn - tổng đặt trước
+            // Duyệt từng item để kiểm tra tồn khả dụng (tổng tồn - tổng đặt trước) trên mọi kho
             for (var item : warrantyParts) {
                 Integer partId = item.getPart() != null ? item.getPart().getId() : null;
                 if (partId == null) continue; // bỏ qua item không hợp lệ
@@ -109,9 +145,7 @@ public class EVMClaimServiceImpl implements EVMClaimService {
                 String partName = item.getPart() != null ? item.getPart().getName() : "Unknown";
                 String partNumber = item.getPart() != null ? item.getPart().getPartNumber() : "N/A";
                 
-                long totalStock = inventoryRepository.getTotalStockByPartId(partId) != null ? inventoryRepository.getTotalStockByPartId(partId) : 0L;
-                long totalReserved = inventoryRepository.getTotalReservedStockByPartId(partId) != null ? inventoryRepository.getTotalReservedStockByPartId(partId) : 0L;
-                long available = totalStock - totalReserved;
+                long available = stockAvailabilityService.getTotalAvailable(partId);
                 
                 if (available < item.getQuantity()) {
                     // Nếu bất kỳ part nào không đủ số lượng thì đánh dấu không đủ và lưu thông tin
@@ -136,32 +170,19 @@ public class EVMClaimServiceImpl implements EVMClaimService {
                 Integer partId = item.getPart() != null ? item.getPart().getId() : null;
                 if (partId == null) continue;
                 
-                com.ev.warranty.model.entity.Part part = partRepository.findById(partId)
-                        .orElseThrow(() -> new NotFoundException("Part not found with ID: " + partId));
-                
-                var optInv = inventoryRepository.findByPartIdAndWarehouseId(partId, 1);
-                if (optInv.isEmpty()) {
-                    String partName = part.getName();
-                    throw new com.ev.warranty.exception.BadRequestException(
-                            "Không tìm thấy kho cho linh kiện: " + partName);
-                }
-                var inv = optInv.get();
-                int free = inv.getCurrentStock() - inv.getReservedStock();
-                if (free < item.getQuantity()) {
-                    String partName = part.getName();
-                    throw new com.ev.warranty.exception.BadRequestException(
-                            String.format("Không đủ linh kiện trong kho: %s - Yêu cầu: %d, Có sẵn: %d", 
-                                    partName, item.getQuantity(), free));
+                // Tăng reservedStock để giữ số lượng cho việc sửa chữa sau này; ATP service khóa dòng
+                // tồn kho và báo BadRequest nếu kho mặc định không còn đủ
+                try {
+                    stockAvailabilityService.reserve(partId, DEFAULT_WAREHOUSE_ID, item.getQuantity());
+                } catch (NotFoundException e) {
+                    throw new BadRequestException("Không tìm thấy kho cho linh kiện: " + item.getPart().getName());
                 }
-                // Tăng reservedStock để giữ số lượng cho việc sửa chữa sau này
-                inv.setReservedStock(inv.getReservedStock() + item.getQuantity());
-                inventoryRepository.save(inv);
             }
         }
 
         // Xác định trạng thái tiếp theo - nếu đến đây thì đã đủ phụ tùng
         String nextStatusCode = "READY_FOR_REPAIR";
-        ClaimStatus nextStatus = claimStatusRepository.findByCode(nextStatusCode)
+        ClaimStatus nextStatus = claimStatusRegistry.findByCode(nextStatusCode)
                 .orElseThrow(() -> new NotFoundException(nextStatusCode + " status not found"));
 
         // Cập nhật trạng thái claim tới trạng thái tiếp theo
@@ -276,6 +297,7 @@ public class EVMClaimServiceImpl implements EVMClaimService {
             }
         }
 
+        claimEventOutbox.append(ClaimEventType.EVM_APPROVED, savedClaim, evmStaff, request.getApprovalNotes());
         log.info("Claim {} approved and set to {} by EVM Staff {}", claimId, nextStatusCode, evmStaffUsername);
         return claimMapper.toResponseDto(savedClaim);
     }
@@ -307,7 +329,7 @@ public class EVMClaimServiceImpl implements EVMClaimService {
                 .orElseThrow(() -> new NotFoundException("EVM Staff not found: " + evmStaffUsername));
 
         // Lấy status EVM_REJECTED
-        ClaimStatus rejectedStatus = claimStatusRepository.findByCode("EVM_REJECTED")
+        ClaimStatus rejectedStatus = claimStatusRegistry.findByCode("EVM_REJECTED")
                 .orElseThrow(() -> new NotFoundException("EVM Rejected status not found"));
 
         // Cập nhật thông tin từ chối lên claim
@@ -334,10 +356,290 @@ public class EVMClaimServiceImpl implements EVMClaimService {
         // Ghi lịch sử trạng thái từ chối
         logStatusChange(savedClaim, rejectedStatus, evmStaff.getId().longValue(), request.getRejectionNotes());
 
+        claimEventOutbox.append(ClaimEventType.EVM_REJECTED, savedClaim, evmStaff, request.getRejectionReason());
         log.info("Claim {} rejected successfully by EVM Staff {}", claimId, evmStaffUsername);
         return claimMapper.toResponseDto(savedClaim);
     }
 
+    @Override
+    public EVMBulkDecisionResultDTO bulkApproveClaims(EVMBulkApprovalRequestDTO request, String evmStaffUsername) {
+        User evmStaff = userRepository.findByUsername(evmStaffUsername)
+                .orElseThrow(() -> new NotFoundException("EVM Staff not found: " + evmStaffUsername));
+
+        // Bỏ id trùng, giữ thứ tự gửi lên (thứ tự này quyết định claim nào được ưu tiên phụ tùng)
+        Map<Integer, EVMBulkApprovalRequestDTO.ClaimApprovalItem> items = new LinkedHashMap<>();
+        for (var item : request.getClaims()) {
+            items.putIfAbsent(item.getClaimId(), item);
+        }
+        log.info("EVM Staff {} bulk approving {} claims", evmStaffUsername, items.size());
+
+        return processInChunks(new ArrayList<>(items.keySet()),
+                chunk -> approveChunk(chunk, items, request.getApprovalNotes(), evmStaff));
+    }
+
+    @Override
+    public EVMBulkDecisionResultDTO bulkRejectClaims(EVMBulkRejectionRequestDTO request, String evmStaffUsername) {
+        User evmStaff = userRepository.findByUsername(evmStaffUsername)
+                .orElseThrow(() -> new NotFoundException("EVM Staff not found: " + evmStaffUsername));
+
+        List<Integer> claimIds = new ArrayList<>(new LinkedHashSet<>(request.getClaimIds()));
+        log.info("EVM Staff {} bulk rejecting {} claims", evmStaffUsername, claimIds.size());
+
+        return processInChunks(claimIds, chunk -> rejectChunk(chunk, request, evmStaff));
+    }
+
+    /**
+     * Chạy từng chunk trong transaction riêng. Chunk lỗi thì rollback và mọi claim trong chunk
+     * được báo FAILED; các chunk đã commit trước đó giữ nguyên.
+     */
+    private EVMBulkDecisionResultDTO processInChunks(List<Integer> claimIds,
+                                                     java.util.function.Function<List<Integer>, List<EVMBulkDecisionResultDTO.ClaimResult>> chunkProcessor) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<EVMBulkDecisionResultDTO.ClaimResult> results = new ArrayList<>(claimIds.size());
+
+        for (int from = 0; from < claimIds.size(); from += DECISION_CHUNK_SIZE) {
+            List<Integer> chunk = claimIds.subList(from, Math.min(from + DECISION_CHUNK_SIZE, claimIds.size()));
+            try {
+                results.addAll(transaction.execute(status -> chunkProcessor.apply(chunk)));
+            } catch (RuntimeException e) {
+                log.error("Bulk decision chunk {}..{} rolled back: {}", chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+                for (Integer claimId : chunk) {
+                    results.add(claimResult(claimId, null, "FAILED", null, "Rolled back: " + e.getMessage()));
+                }
+            }
+        }
+
+        Map<String, Long> counts = results.stream()
+                .collect(java.util.stream.Collectors.groupingBy(EVMBulkDecisionResultDTO.ClaimResult::getOutcome,
+                        java.util.stream.Collectors.counting()));
+        long skipped = counts.getOrDefault("SKIPPED", 0L);
+        long failed = counts.getOrDefault("FAILED", 0L);
+        return EVMBulkDecisionResultDTO.builder()
+                .requested(claimIds.size())
+                .succeeded((int) (results.size() - skipped - failed))
+                .skipped((int) skipped)
+                .failed((int) failed)
+                .results(results)
+                .build();
+    }
+
+    private List<EVMBulkDecisionResultDTO.ClaimResult> approveChunk(List<Integer> chunk,
+                                                                   Map<Integer, EVMBulkApprovalRequestDTO.ClaimApprovalItem> items,
+                                                                   String defaultNotes,
+                                                                   User evmStaff) {
+        Map<Integer, EVMBulkDecisionResultDTO.ClaimResult> results = new HashMap<>();
+        List<Claim> pending = loadPendingClaims(chunk, results);
+
+        // Một query cho ClaimItem của cả chunk, một query tổng hợp tồn kho cho mọi part liên quan
+        Map<Integer, List<ClaimItem>> partsByClaim = new HashMap<>();
+        if (!pending.isEmpty()) {
+            for (ClaimItem item : claimItemRepository.findWarrantyPartsByClaimIds(pending.stream().map(Claim::getId).toList())) {
+                if (item.getPart() != null) {
+                    partsByClaim.computeIfAbsent(item.getClaim().getId(), k -> new ArrayList<>()).add(item);
+                }
+            }
+        }
+        Set<Integer> partIds = new HashSet<>();
+        partsByClaim.values().forEach(list -> list.forEach(item -> partIds.add(item.getPart().getId())));
+        Map<Integer, PartAvailabilityDTO> stock = stockAvailabilityService.getAvailability(partIds, DEFAULT_WAREHOUSE_ID);
+
+        // Phân bổ tồn kho trong bộ nhớ theo thứ tự claim: claim sau chỉ thấy phần còn lại
+        Map<Integer, Integer> reserveByPart = new LinkedHashMap<>();
+        List<Claim> approved = new ArrayList<>();
+        for (Claim claim : pending) {
+            Map<Integer, Integer> needed = new LinkedHashMap<>();
+            Map<Integer, Part> parts = new HashMap<>();
+            for (ClaimItem item : partsByClaim.getOrDefault(claim.getId(), List.of())) {
+                needed.merge(item.getPart().getId(), item.getQuantity(), Integer::sum);
+                parts.put(item.getPart().getId(), item.getPart());
+            }
+
+            List<String> insufficientParts = new ArrayList<>();
+            for (var entry : needed.entrySet()) {
+                Part part = parts.get(entry.getKey());
+                PartAvailabilityDTO level = stock.get(entry.getKey());
+                int taken = reserveByPart.getOrDefault(entry.getKey(), 0);
+                if (level == null || !level.isStockedInWarehouse()) {
+                    insufficientParts.add("Không tìm thấy kho cho linh kiện: " + part.getName());
+                    continue;
+                }
+                long available = Math.min(level.getAvailableAllWarehouses(), level.getAvailableInWarehouse()) - taken;
+                if (available < entry.getValue()) {
+                    insufficientParts.add(String.format("%s (Mã: %s) - Yêu cầu: %d, Có sẵn: %d",
+                            part.getName(), part.getPartNumber(), entry.getValue(), Math.max(available, 0)));
+                }
+            }
+
+            if (!insufficientParts.isEmpty()) {
+                results.put(claim.getId(), claimResult(claim.getId(), claim.getClaimNumber(), "FAILED",
+                        claim.getStatus().getCode(),
+                        "Không đủ linh kiện EVM trong kho: " + String.join("; ", insufficientParts)));
+                continue;
+            }
+            needed.forEach((partId, quantity) -> reserveByPart.merge(partId, quantity, Integer::sum));
+            approved.add(claim);
+        }
+
+        if (!approved.isEmpty()) {
+            // Giữ hàng theo tổng số lượng mỗi part; kho bị đổi giữa lúc đọc và lúc ghi thì rollback cả chunk
+            reserveByPart.forEach((partId, quantity) ->
+                    stockAvailabilityService.reserve(partId, DEFAULT_WAREHOUSE_ID, quantity));
+            applyApprovals(approved, partsByClaim, reserveByPart.keySet(), items, defaultNotes, evmStaff, results);
+        }
+
+        return chunk.stream().map(results::get).toList();
+    }
+
+    private void applyApprovals(List<Claim> approved,
+                                Map<Integer, List<ClaimItem>> partsByClaim,
+                                Set<Integer> reservedPartIds,
+                                Map<Integer, EVMBulkApprovalRequestDTO.ClaimApprovalItem> items,
+                                String defaultNotes,
+                                User evmStaff,
+                                Map<Integer, EVMBulkDecisionResultDTO.ClaimResult> results) {
+        ClaimStatus approvedStatus = claimStatusRegistry.byCode("EVM_APPROVED");
+        ClaimStatus nextStatus = claimStatusRegistry.byCode("READY_FOR_REPAIR");
+        Warehouse defaultWarehouse = reservedPartIds.isEmpty() ? null : warehouseRepository.findById(DEFAULT_WAREHOUSE_ID)
+                .orElseThrow(() -> new NotFoundException("Default warehouse (ID=1) not found"));
+
+        // Serial còn trong kho của mọi part cần giữ, lấy theo thứ tự id như luồng duyệt đơn lẻ
+        Map<Integer, Deque<PartSerial>> serialsByPart = new HashMap<>();
+        if (!reservedPartIds.isEmpty()) {
+            for (PartSerial serial : partSerialRepository.findAvailablePartsByPartIds(reservedPartIds)) {
+                serialsByPart.computeIfAbsent(serial.getPart().getId(), k -> new ArrayDeque<>()).add(serial);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> reservations = new ArrayList<>();
+        List<ClaimStatusHistory> histories = new ArrayList<>();
+        for (Claim claim : approved) {
+            var item = items.get(claim.getId());
+
+            ClaimApproval approval = claim.getOrCreateApproval();
+            approval.setApprovedAt(now);
+            approval.setApprovedBy(evmStaff);
+            claim.setApproval(approval);
+
+            ClaimCost cost = claim.getOrCreateCost();
+            cost.setWarrantyCost(item.getWarrantyCost());
+            cost.setCompanyPaidCost(item.getCompanyPaidCost());
+            claim.setCost(cost);
+
+            claim.setStatus(nextStatus);
+
+            for (ClaimItem claimItem : partsByClaim.getOrDefault(claim.getId(), List.of())) {
+                Deque<PartSerial> serials = serialsByPart.getOrDefault(claimItem.getPart().getId(), new ArrayDeque<>());
+                for (int i = 0; i < claimItem.getQuantity(); i++) {
+                    // Serial được cập nhật qua dirty checking; thiếu serial thì để reservation chờ hàng
+                    PartSerial serial = serials.poll();
+                    if (serial != null) {
+                        serial.setStatus("allocated");
+                    }
+                    reservations.add(StockReservation.builder()
+                            .claim(claim)
+                            .warehouse(defaultWarehouse)
+                            .part(claimItem.getPart())
+                            .partSerial(serial)
+                            .quantity(1)
+                            .status(serial != null ? "COMMITTED" : "CREATED")
+                            .createdBy(evmStaff)
+                            .build());
+                }
+            }
+
+            String notes = item.getApprovalNotes() != null ? item.getApprovalNotes() : defaultNotes;
+            histories.add(statusHistory(claim, approvedStatus, evmStaff, notes, now));
+            histories.add(statusHistory(claim, nextStatus, evmStaff, "Approved - parts available", now));
+            claimEventOutbox.append(ClaimEventType.EVM_APPROVED, claim, evmStaff, notes);
+            results.put(claim.getId(), claimResult(claim.getId(), claim.getClaimNumber(), "APPROVED",
+                    nextStatus.getCode(), null));
+        }
+
+        claimRepository.saveAll(approved);
+        stockReservationRepository.saveAll(reservations);
+        claimStatusHistoryRepository.saveAll(histories);
+    }
+
+    private List<EVMBulkDecisionResultDTO.ClaimResult> rejectChunk(List<Integer> chunk,
+                                                                  EVMBulkRejectionRequestDTO request,
+                                                                  User evmStaff) {
+        Map<Integer, EVMBulkDecisionResultDTO.ClaimResult> results = new HashMap<>();
+        List<Claim> pending = loadPendingClaims(chunk, results);
+        ClaimStatus rejectedStatus = claimStatusRegistry.byCode("EVM_REJECTED");
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ClaimStatusHistory> histories = new ArrayList<>();
+        for (Claim claim : pending) {
+            claim.setStatus(rejectedStatus);
+
+            ClaimApproval approval = claim.getOrCreateApproval();
+            approval.setRejectedBy(evmStaff);
+            approval.setRejectedAt(now);
+            approval.setRejectionReason(request.getRejectionReason());
+            approval.setRejectionNotes(request.getRejectionNotes());
+            Integer rejCount = approval.getRejectionCount() != null ? approval.getRejectionCount() : 0;
+            approval.setRejectionCount(rejCount + 1);
+            if (Boolean.TRUE.equals(request.getIsFinalRejection())) {
+                approval.setCanResubmit(false);
+            }
+            claim.setApproval(approval);
+
+            histories.add(statusHistory(claim, rejectedStatus, evmStaff, request.getRejectionNotes(), now));
+            claimEventOutbox.append(ClaimEventType.EVM_REJECTED, claim, evmStaff, request.getRejectionReason());
+            results.put(claim.getId(), claimResult(claim.getId(), claim.getClaimNumber(), "REJECTED",
+                    rejectedStatus.getCode(), null));
+        }
+
+        claimRepository.saveAll(pending);
+        claimStatusHistoryRepository.saveAll(histories);
+        return chunk.stream().map(results::get).toList();
+    }
+
+    /**
+     * Tải claim của chunk trong 1 query; claim không tồn tại hoặc không chờ EVM duyệt
+     * được ghi kết quả ngay (FAILED / SKIPPED) và không xử lý tiếp.
+     */
+    private List<Claim> loadPendingClaims(List<Integer> chunk, Map<Integer, EVMBulkDecisionResultDTO.ClaimResult> results) {
+        Map<Integer, Claim> claims = new HashMap<>();
+        claimRepository.findForDecisionByIdIn(chunk).forEach(claim -> claims.put(claim.getId(), claim));
+
+        List<Claim> pending = new ArrayList<>();
+        for (Integer claimId : chunk) {
+            Claim claim = claims.get(claimId);
+            if (claim == null) {
+                results.put(claimId, claimResult(claimId, null, "FAILED", null, "Claim not found with ID: " + claimId));
+            } else if (!"PENDING_EVM_APPROVAL".equals(claim.getStatus().getCode())) {
+                results.put(claimId, claimResult(claimId, claim.getClaimNumber(), "SKIPPED",
+                        claim.getStatus().getCode(), "Claim is not pending EVM approval"));
+            } else {
+                pending.add(claim);
+            }
+        }
+        return pending;
+    }
+
+    private EVMBulkDecisionResultDTO.ClaimResult claimResult(Integer claimId, String claimNumber, String outcome,
+                                                            String statusCode, String message) {
+        return EVMBulkDecisionResultDTO.ClaimResult.builder()
+                .claimId(claimId)
+                .claimNumber(claimNumber)
+                .outcome(outcome)
+                .statusCode(statusCode)
+                .message(message)
+                .build();
+    }
+
+    private ClaimStatusHistory statusHistory(Claim claim, ClaimStatus status, User user, String notes, LocalDateTime at) {
+        ClaimStatusHistory history = new ClaimStatusHistory();
+        history.setClaim(claim);
+        history.setStatus(status);
+        history.setChangedAt(at);
+        history.setChangedBy(user);
+        history.setNote(notes);
+        return history;
+    }
+
     @Override
     public ClaimResponseDto getClaimForReview(Integer claimId) {
         // Lấy claim để hiển thị review, ném NotFound nếu không tồn tại
@@ -358,6 +660,7 @@ public class EVMClaimServiceImpl implements EVMClaimService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<EVMClaimSummaryDTO> getPendingClaims(EVMClaimFilterRequestDTO filter) {
         log.info("Getting pending claims awaiting EVM approval");
         // Ép filter chỉ lấy các claim đang chờ duyệt
@@ -366,12 +669,19 @@ public class EVMClaimServiceImpl implements EVMClaimService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<EVMClaimSummaryDTO> getAllClaims(EVMClaimFilterRequestDTO filter) {
         log.info("EVM: Getting all warranty claims with filters - statusCodes: {}, cost range: {}-{}, search: {}",
                 filter.getStatusCodes(), filter.getMinWarrantyCost(), filter.getMaxWarrantyCost(), filter.getSearchKeyword());
 
+        // Có từ khóa, index sẵn sàng và kết quả không bị cắt: lấy id đã xếp hạng từ index, DB chỉ nạp trang hiện tại
+        ClaimSearchIndex.SearchResult indexed = searchIndexIfComplete(filter);
+        if (indexed != null) {
+            return searchClaimsByIndex(filter, indexed);
+        }
+
         // Xây dựng Specification động dựa trên filter
-        Specification<Claim> specification = buildClaimSpecification(filter);
+        Specification<Claim> specification = buildClaimSpecification(filter, true);
 
         // Xây dựng sort và pagination
         Sort sort = buildSort(filter.getSortBy(), filter.getSortDirection());
@@ -388,13 +698,174 @@ public class EVMClaimServiceImpl implements EVMClaimService {
         return new PageImpl<>(evmClaims, pageable, claimsPage.getTotalElements());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<?> getClaimListView(EVMClaimFilterRequestDTO filter, String fieldList) {
+        Set<String> fields = ClaimListProjection.parseFields(fieldList);
+        ClaimSearchIndex.SearchResult indexed = searchIndexIfComplete(filter);
+        if (indexed != null) {
+            PageRequest pageable = PageRequest.of(filter.getPage(), filter.getSize());
+            List<Integer> rankedIds = rankedIdsMatchingFilters(indexed, filter);
+            int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+            int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+            return new PageImpl<>(claimListProjection.findByIds(rankedIds.subList(from, to), fields),
+                    pageable, rankedIds.size());
+        }
+
+        Specification<Claim> specification = buildClaimSpecification(filter, true);
+        PageRequest pageable = PageRequest.of(filter.getPage(), filter.getSize(),
+                buildSort(filter.getSortBy(), filter.getSortDirection()));
+        List<?> rows = claimListProjection.find(specification, fields, pageable.getSort(),
+                pageable.getOffset(), pageable.getPageSize());
+        // Trang đầu chưa đầy thì đã biết tổng, khỏi chạy COUNT
+        long total = filter.getPage() == 0 && rows.size() < pageable.getPageSize()
+                ? rows.size() : claimListProjection.count(specification);
+        log.info("EVM: Retrieved {} claim rows ({} fields) out of {} total", rows.size(), fields.size(), total);
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportClaims(EVMClaimFilterRequestDTO filter, Set<String> fields, ExportFormat format, OutputStream out)
+            throws IOException {
+        // File xuất không cần xếp hạng theo độ liên quan: từ khóa được lọc bằng LIKE như khi index chưa sẵn sàng
+        Specification<Claim> specification = buildClaimSpecification(filter, true);
+        Sort sort = buildSort(filter.getSortBy(), filter.getSortDirection());
+        long started = System.nanoTime();
+        long rows = 0;
+        try (RowWriter writer = format.open(out, List.copyOf(fields))) {
+            rows = claimListProjection.scroll(specification, fields, sort, exportProperties.getFetchSize(),
+                    exportProperties.getFlushEveryRows(), writer);
+        } catch (IOException e) {
+            log.info("EVM: Claim export ({}) cancelled by client: {}", format, e.getMessage());
+            throw e;
+        }
+        log.info("EVM: Exported {} claims as {} in {} ms", rows, format, (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    @Override
+    public Map<String, Object> rebuildSearchIndex() {
+        log.info("Rebuilding claim search index");
+        return toStatsMap(claimSearchIndex.rebuild());
+    }
+
+    @Override
+    public Map<String, Object> getSearchIndexStats() {
+        return toStatsMap(claimSearchIndex.getStats());
+    }
+
     // ==================== PRIVATE HELPER METHODS ====================
 
+    /**
+     * Tìm kiếm theo từ khóa qua ClaimSearchIndex: kết quả sắp theo độ liên quan,
+     * các filter còn lại được áp dụng trên tập id ứng viên, chỉ hydrate claim của trang hiện tại.
+     */
+    private Page<EVMClaimSummaryDTO> searchClaimsByIndex(EVMClaimFilterRequestDTO filter, ClaimSearchIndex.SearchResult result) {
+        PageRequest pageable = PageRequest.of(filter.getPage(), filter.getSize());
+
+        Map<Integer, Double> scores = new HashMap<>();
+        for (ClaimSearchIndex.Hit hit : result.hits()) {
+            scores.put(hit.claimId(), hit.score());
+        }
+        List<Integer> rankedIds = rankedIdsMatchingFilters(result, filter);
+
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<Integer> pageIds = rankedIds.subList(from, to);
+
+        Map<Integer, Claim> claimsById = new HashMap<>();
+        claimRepository.findAllById(pageIds).forEach(c -> claimsById.put(c.getId(), c));
+        List<Claim> pageClaims = pageIds.stream().map(claimsById::get).filter(Objects::nonNull).toList();
+
+        List<EVMClaimSummaryDTO> evmClaims = evmClaimMapper.toEVMSummaryDTOList(pageClaims);
+        for (EVMClaimSummaryDTO dto : evmClaims) {
+            dto.setRelevanceScore(scores.get(dto.getId()));
+            dto.setHighlights(claimSearchIndex.highlight(dto.getId(), filter.getSearchKeyword()));
+        }
+
+        log.info("EVM: Index search '{}' matched {} claims ({} after filters) in {} µs",
+                filter.getSearchKeyword(), result.totalHits(), rankedIds.size(), result.tookMicros());
+        return new PageImpl<>(evmClaims, pageable, rankedIds.size());
+    }
+
+    // Id theo thứ hạng của index, chỉ giữ các claim thỏa các filter có cấu trúc
+    private List<Integer> rankedIdsMatchingFilters(ClaimSearchIndex.SearchResult result, EVMClaimFilterRequestDTO filter) {
+        List<Integer> rankedIds = new ArrayList<>();
+        for (ClaimSearchIndex.Hit hit : result.hits()) {
+            rankedIds.add(hit.claimId());
+        }
+        if (hasStructuredFilters(filter) && !rankedIds.isEmpty()) {
+            rankedIds = retainMatching(rankedIds, buildClaimSpecification(filter, false));
+        }
+        return rankedIds;
+    }
+
+    // Giữ lại các id thỏa các filter còn lại, truy vấn theo từng chunk id và giữ nguyên thứ tự xếp hạng
+    private List<Integer> retainMatching(List<Integer> rankedIds, Specification<Claim> specification) {
+        Set<Integer> matching = new HashSet<>();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        for (int i = 0; i < rankedIds.size(); i += ID_CHUNK_SIZE) {
+            List<Integer> chunk = rankedIds.subList(i, Math.min(i + ID_CHUNK_SIZE, rankedIds.size()));
+            CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+            Root<Claim> root = query.from(Claim.class);
+            query.select(root.get("id")).distinct(true)
+                    .where(cb.and(specification.toPredicate(root, query, cb), root.get("id").in(chunk)));
+            matching.addAll(entityManager.createQuery(query).getResultList());
+        }
+        return rankedIds.stream().filter(matching::contains).toList();
+    }
+
+    /**
+     * Kết quả từ index khi dùng được: có từ khóa, không yêu cầu sort riêng (index chỉ xếp theo độ liên quan)
+     * và số kết quả chưa chạm app.search.max-hits. Ngược lại trả null để đi đường DB (LIKE), tổng và thứ tự đúng.
+     */
+    private ClaimSearchIndex.SearchResult searchIndexIfComplete(EVMClaimFilterRequestDTO filter) {
+        if (!hasSearchKeyword(filter) || filter.getSortBy() != null || !claimSearchIndex.isReady()) {
+            return null;
+        }
+        ClaimSearchIndex.SearchResult result =
+                claimSearchIndex.search(filter.getSearchKeyword(), searchIndexProperties.getMaxHits());
+        if (result.totalHits() > result.hits().size()) {
+            log.info("EVM: Index search '{}' matched {} claims (cap {}), using database search",
+                    filter.getSearchKeyword(), result.totalHits(), searchIndexProperties.getMaxHits());
+            return null;
+        }
+        return result;
+    }
+
+    private boolean hasSearchKeyword(EVMClaimFilterRequestDTO filter) {
+        return filter.getSearchKeyword() != null && !filter.getSearchKeyword().trim().isEmpty();
+    }
+
+    // Các filter được buildClaimSpecification xử lý, ngoài từ khóa
+    private boolean hasStructuredFilters(EVMClaimFilterRequestDTO filter) {
+        return (filter.getStatusCodes() != null && !filter.getStatusCodes().isEmpty())
+                || filter.getCreatedFrom() != null || filter.getCreatedTo() != null
+                || filter.getApprovedFrom() != null || filter.getApprovedTo() != null
+                || filter.getMinWarrantyCost() != null || filter.getMaxWarrantyCost() != null
+                || (filter.getVehicleModels() != null && !filter.getVehicleModels().isEmpty())
+                || (filter.getVehicleYears() != null && !filter.getVehicleYears().isEmpty())
+                || (filter.getCreatedByUserIds() != null && !filter.getCreatedByUserIds().isEmpty())
+                || (filter.getAssignedTechnicianIds() != null && !filter.getAssignedTechnicianIds().isEmpty());
+    }
+
+    private Map<String, Object> toStatsMap(ClaimSearchIndex.IndexStats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", stats.ready());
+        result.put("documents", stats.documents());
+        result.put("terms", stats.terms());
+        result.put("lastRebuildMillis", stats.lastRebuildMillis());
+        result.put("lastRebuildAt", stats.lastRebuildAt());
+        return result;
+    }
+
     /**
      * Xây dựng JPA Specification động dựa trên các tiêu chí trong filter
      * Giúp tránh nổ tung số lượng phương thức query khi có nhiều điều kiện.
+     * includeKeyword = false khi từ khóa đã được search index xử lý.
      */
-    private Specification<Claim> buildClaimSpecification(EVMClaimFilterRequestDTO filter) {
+    private Specification<Claim> buildClaimSpecification(EVMClaimFilterRequestDTO filter, boolean includeKeyword) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -465,7 +936,8 @@ public class EVMClaimServiceImpl implements EVMClaimService {
             }
 
             // 8. Tìm kiếm theo từ khóa trên nhiều trường (số claim, VIN, tên khách hàng, mô tả lỗi)
-            if (filter.getSearchKeyword() != null && !filter.getSearchKeyword().trim().isEmpty()) {
+            //    Chỉ dùng khi search index chưa sẵn sàng (fallback)
+            if (includeKeyword && hasSearchKeyword(filter)) {
                 String keyword = "%" + filter.getSearchKeyword().toLowerCase() + "%";
 
                 Predicate claimNumberPredicate = criteriaBuilder.like(
@@ -495,7 +967,7 @@ public class EVMClaimServiceImpl implements EVMClaimService {
                 Sort.Direction.ASC : Sort.Direction.DESC;
 
         // Map tên trường được yêu cầu sang thuộc tính entity tương ứng
-        String entityProperty = switch (sortBy) {
+        String entityProperty = switch (sortBy == null ? "createdAt" : sortBy) {
             case "warrantyCost" -> "cost.warrantyCost";
             case "status" -> "status.code";
             case "createdAt" -> "createdAt";
@@ -4,13 +4,19 @@ import com.ev.warranty.mapper.EVMWarrantyCostReportMapper;
 import com.ev.warranty.model.dto.cost.WarrantyCostReportRequestDTO;
 import com.ev.warranty.model.dto.cost.WarrantyCostReportResponseDTO;
 import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ReportSnapshot;
 import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.ReportSnapshotRepository;
 import com.ev.warranty.service.inter.EVMWarrantyCostReportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,8 +27,13 @@ public class EVMWarrantyCostReportServiceImpl implements EVMWarrantyCostReportSe
 
     private final ClaimRepository claimRepository;
     private final EVMWarrantyCostReportMapper reportMapper;
+    private final ReportSnapshotRepository reportSnapshotRepository;
+    private final ObjectMapper objectMapper;
+
+    static final String MTD_SUMMARY_KEY = "WARRANTY_COST_SUMMARY_MTD";
 
     @Override
+    @Transactional(readOnly = true)
     public WarrantyCostReportResponseDTO generateCostReport(WarrantyCostReportRequestDTO request, String generatedBy) {
         log.info("EVM: Generating warranty cost report for period {} to {} by user {}",
                 request.getReportStartDate(), request.getReportEndDate(), generatedBy);
@@ -47,6 +58,7 @@ public class EVMWarrantyCostReportServiceImpl implements EVMWarrantyCostReportSe
     }
 
     @Override
+    @Transactional(readOnly = true)
     public WarrantyCostReportResponseDTO.ExecutiveSummaryDTO generateQuickSummary(LocalDate startDate, LocalDate endDate) {
         log.info("EVM: Generating quick summary for period {} to {}", startDate, endDate);
 
@@ -58,6 +70,38 @@ public class EVMWarrantyCostReportServiceImpl implements EVMWarrantyCostReportSe
         return reportMapper.mapToExecutiveSummary(claims);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public WarrantyCostReportResponseDTO.ExecutiveSummaryDTO getMonthToDateSummary() {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        return reportSnapshotRepository.findById(MTD_SUMMARY_KEY)
+                .filter(snapshot -> !snapshot.getGeneratedAt().toLocalDate().isBefore(monthStart))
+                .map(snapshot -> {
+                    try {
+                        return objectMapper.readValue(snapshot.getPayload(), WarrantyCostReportResponseDTO.ExecutiveSummaryDTO.class);
+                    } catch (JsonProcessingException e) {
+                        log.warn("EVM: Unreadable report snapshot {}: {}", MTD_SUMMARY_KEY, e.getMessage());
+                        return null;
+                    }
+                })
+                .orElseGet(() -> generateQuickSummary(monthStart, LocalDate.now()));
+    }
+
+    @Override
+    public void precomputeMonthToDateSummary() {
+        WarrantyCostReportResponseDTO.ExecutiveSummaryDTO summary =
+                generateQuickSummary(LocalDate.now().withDayOfMonth(1), LocalDate.now());
+        try {
+            reportSnapshotRepository.save(ReportSnapshot.builder()
+                    .reportKey(MTD_SUMMARY_KEY)
+                    .payload(objectMapper.writeValueAsString(summary))
+                    .generatedAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            log.error("EVM: Failed to serialize report snapshot {}: {}", MTD_SUMMARY_KEY, e.getMessage());
+        }
+    }
+
     // ==================== PRIVATE HELPER METHODS (Business Logic Only) ====================
 
     private List<Claim> getClaimsForPeriod(WarrantyCostReportRequestDTO request) {
@@ -0,0 +1,93 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.ShipmentTrackingProperties;
+import com.ev.warranty.model.dto.shipment.CarrierTrackingEventDTO;
+import com.ev.warranty.model.dto.shipment.TrackingIngestResultDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Nguồn sự kiện carrier dạng file: hãng (hoặc môi trường test) thả file CSV vào app.shipments.tracking.feed-directory,
+ * mỗi dòng "carrier,trackingNumber,status,eventTime,location" (eventTime ISO-8601, dòng tiêu đề tùy chọn).
+ * File đã xử lý được đổi tên thành *.done.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FileCarrierTrackingFeed {
+
+    private final CarrierTrackingIngestor ingestor;
+    private final ShipmentTrackingProperties properties;
+
+    /** @return số file đã xử lý */
+    public int pollDirectory() {
+        String directory = properties.getFeedDirectory();
+        if (directory == null || directory.isBlank()) {
+            return 0;
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(Path.of(directory))) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(".csv")).sorted().toList();
+        } catch (IOException e) {
+            log.warn("Carrier feed directory {} not readable: {}", directory, e.getMessage());
+            return 0;
+        }
+        for (Path file : files) {
+            TrackingIngestResultDTO result = ingestor.ingest(read(file));
+            log.info("Carrier feed {}: {}", file.getFileName(), result);
+            try {
+                Files.move(file, file.resolveSibling(file.getFileName() + ".done"), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                // Đọc lại lần sau cũng không sao: các sự kiện đã nhận sẽ bị tính là trùng
+                log.warn("Could not mark carrier feed {} as done: {}", file, e.getMessage());
+            }
+        }
+        return files.size();
+    }
+
+    public List<CarrierTrackingEventDTO> read(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<CarrierTrackingEventDTO> events = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || (i == 0 && line.toLowerCase().startsWith("carrier,"))) {
+                continue;
+            }
+            String[] cols = line.split(",", 5);
+            if (cols.length < 4) {
+                log.warn("Carrier feed {} line {} skipped: expected at least 4 columns", file.getFileName(), i + 1);
+                continue;
+            }
+            try {
+                events.add(CarrierTrackingEventDTO.builder()
+                        .carrier(cols[0].strip())
+                        .trackingNumber(cols[1].strip())
+                        .status(cols[2].strip())
+                        .eventTime(LocalDateTime.parse(cols[3].strip()))
+                        .location(cols.length > 4 ? cols[4].strip() : null)
+                        .build());
+            } catch (DateTimeParseException e) {
+                log.warn("Carrier feed {} line {} skipped: bad event time {}", file.getFileName(), i + 1, cols[3]);
+            }
+        }
+        return events;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ev.warranty.service.impl;
 
+import com.ev.warranty.bulkhead.Bulkhead;
+import com.ev.warranty.bulkhead.BulkheadRegistry;
 import com.ev.warranty.model.entity.ClaimAttachment;
 import com.ev.warranty.repository.ClaimAttachmentRepository;
 import com.ev.warranty.service.inter.FileUploadService;
@@ -29,6 +31,7 @@ import java.util.UUID;
 public class FileUploadServiceImpl implements FileUploadService {
 
     private final ClaimAttachmentRepository claimAttachmentRepository;
+    private final BulkheadRegistry bulkheadRegistry;
 
     @Value("${file.upload.dir:uploads/attachments}")
     private String uploadDir;
@@ -76,7 +79,9 @@ public class FileUploadServiceImpl implements FileUploadService {
         Path filePath = uploadPath.resolve(uniqueFileName);
 
         // Save file to disk
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        try (Bulkhead.Permit ignored = filesystemPermit()) {
+            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
 
         // Store relative path for easier access (uploads/attachments/filename)
         String relativePath = "uploads/attachments/" + uniqueFileName;
@@ -181,7 +186,9 @@ public class FileUploadServiceImpl implements FileUploadService {
             Files.createDirectories(uploadPath);
         }
         Path newFilePath = uploadPath.resolve(uniqueFileName);
-        Files.copy(newFile.getInputStream(), newFilePath, StandardCopyOption.REPLACE_EXISTING);
+        try (Bulkhead.Permit ignored = filesystemPermit()) {
+            Files.copy(newFile.getInputStream(), newFilePath, StandardCopyOption.REPLACE_EXISTING);
+        }
 
         // Store relative path
         String relativePath = "uploads/attachments/" + uniqueFileName;
@@ -210,7 +217,14 @@ public class FileUploadServiceImpl implements FileUploadService {
             throw new NotFoundException("File not found: " + attachment.getFileName());
         }
 
-        return Files.readAllBytes(filePath);
+        try (Bulkhead.Permit ignored = filesystemPermit()) {
+            return Files.readAllBytes(filePath);
+        }
+    }
+
+    // Copy / đọc file lớn chiếm I/O đĩa lâu; giới hạn số thao tác đồng thời
+    private Bulkhead.Permit filesystemPermit() {
+        return bulkheadRegistry.get("filesystem").acquire();
     }
     
     /**
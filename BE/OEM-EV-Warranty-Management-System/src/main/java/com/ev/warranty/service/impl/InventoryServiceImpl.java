@@ -4,6 +4,7 @@ import com.ev.warranty.model.dto.inventory.*;
 import com.ev.warranty.model.entity.*;
 import com.ev.warranty.repository.*;
 import com.ev.warranty.service.inter.InventoryService;
+import com.ev.warranty.service.inter.StockAvailabilityService;
 import com.ev.warranty.exception.NotFoundException;
 import com.ev.warranty.exception.BadRequestException;
 import lombok.RequiredArgsConstructor;
@@ -11,12 +12,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +33,9 @@ public class InventoryServiceImpl implements InventoryService {
     private final ShipmentRepository shipmentRepository;
     private final ShipmentItemRepository shipmentItemRepository;
     private final UserRepository userRepository;
+    private final StockAvailabilityService stockAvailabilityService;
+
+    private static final List<String> ALERT_STATUSES = List.of("low_stock", "out_of_stock");
 
     @Override
     @Transactional(readOnly = true)
@@ -66,10 +72,8 @@ public class InventoryServiceImpl implements InventoryService {
     public List<InventoryStockDTO> getLowStockAlerts() {
         log.info("Getting low stock alerts");
 
-        List<Inventory> inventories = inventoryRepository.findAll();
+        List<Inventory> inventories = inventoryRepository.findLowStockItems();
         return inventories.stream()
-                .filter(inv -> inv.getCurrentStock() <= inv.getMinimumStock())
-                .filter(inv -> inv.getCurrentStock() > 0) // Not out of stock
                 .map(this::mapToStockDTO)
                 .collect(Collectors.toList());
     }
@@ -79,9 +83,8 @@ public class InventoryServiceImpl implements InventoryService {
     public List<InventoryStockDTO> getOutOfStockItems() {
         log.info("Getting out of stock items");
 
-        List<Inventory> inventories = inventoryRepository.findAll();
+        List<Inventory> inventories = inventoryRepository.findOutOfStockItems();
         return inventories.stream()
-                .filter(inv -> inv.getCurrentStock() == 0)
                 .map(this::mapToStockDTO)
                 .collect(Collectors.toList());
     }
@@ -101,22 +104,8 @@ public class InventoryServiceImpl implements InventoryService {
         User updatedByUser = userRepository.findByUsername(updatedBy)
                 .orElseThrow(() -> new NotFoundException("User not found: " + updatedBy));
 
-        Inventory inventory = inventoryRepository.findByPartIdAndWarehouseId(partId, warehouseId)
-                .orElse(Inventory.builder()
-                        .part(part)
-                        .warehouse(warehouse)
-                        .currentStock(0)
-                        .reservedStock(0)
-                        .minimumStock(0)
-                        .maximumStock(1000)
-                        .build());
-
-        // Update stock levels
-        inventory.setCurrentStock(inventory.getCurrentStock() + quantity);
-        inventory.setLastUpdated(LocalDateTime.now());
-        inventory.setLastUpdatedBy(updatedByUser);
-
-        Inventory updatedInventory = inventoryRepository.save(inventory);
+        // Nhập/xuất qua ATP service: khóa dòng tồn kho và tính lại tồn khả dụng
+        Inventory updatedInventory = stockAvailabilityService.receive(part, warehouse, quantity, updatedByUser);
 
         log.info("Stock updated successfully - part: {}, warehouse: {}, new stock: {}", 
                 partId, warehouseId, updatedInventory.getCurrentStock());
@@ -131,17 +120,7 @@ public class InventoryServiceImpl implements InventoryService {
 
         List<InventoryStockDTO> reservedParts = request.getItems().stream()
                 .map(item -> {
-                    Inventory inventory = inventoryRepository.findByPartIdAndWarehouseId(item.getPartId(), 1) // Default warehouse
-                            .orElseThrow(() -> new NotFoundException("Inventory not found for part: " + item.getPartId()));
-
-                    if (inventory.getCurrentStock() - inventory.getReservedStock() < item.getQuantity()) {
-                        throw new BadRequestException("Insufficient stock for part: " + item.getPartId());
-                    }
-
-                    inventory.setReservedStock(inventory.getReservedStock() + item.getQuantity());
-                    inventory.setLastUpdated(LocalDateTime.now());
-                    inventoryRepository.save(inventory);
-
+                    Inventory inventory = stockAvailabilityService.reserve(item.getPartId(), 1, item.getQuantity()); // Default warehouse
                     return mapToStockDTO(inventory);
                 })
                 .collect(Collectors.toList());
@@ -161,12 +140,8 @@ public class InventoryServiceImpl implements InventoryService {
         
         List<InventoryStockDTO> releasedParts = inventories.stream()
                 .filter(inv -> inv.getReservedStock() > 0)
-                .map(inv -> {
-                    inv.setReservedStock(0);
-                    inv.setLastUpdated(LocalDateTime.now());
-                    inventoryRepository.save(inv);
-                    return mapToStockDTO(inv);
-                })
+                .map(inv -> mapToStockDTO(stockAvailabilityService.release(
+                        inv.getPart().getId(), inv.getWarehouse().getId(), inv.getReservedStock())))
                 .collect(Collectors.toList());
 
         log.info("Reserved parts released for work order: {}", workOrderId);
@@ -285,6 +260,31 @@ public class InventoryServiceImpl implements InventoryService {
         return mapToShipmentResponseDTO(receivedShipment);
     }
 
+    @Override
+    @Transactional
+    public void receiveDeliveredShipment(Integer shipmentId, LocalDateTime deliveredAt) {
+        Shipment shipment = shipmentRepository.findById(shipmentId)
+                .orElseThrow(() -> new NotFoundException("Shipment not found with ID: " + shipmentId));
+        // Hãng có thể báo delivered nhiều lần: chỉ nhập kho một lần
+        if ("delivered".equals(shipment.getStatus()) || "cancelled".equals(shipment.getStatus())) {
+            return;
+        }
+        // Cùng quy ước với receiveShipment: kho nhận có id = destinationCenterId.
+        // Tra kho trước khi đổi trạng thái: thiếu kho thì lỗi để chunk rollback và sự kiện delivered gửi lại
+        // vẫn nhập kho được, thay vì shipment thành delivered mà không có hàng
+        Warehouse warehouse = (shipment.getDestinationCenterId() != null
+                ? warehouseRepository.findById(shipment.getDestinationCenterId())
+                : Optional.<Warehouse>empty())
+                .orElseThrow(() -> new NotFoundException("Destination warehouse not found for shipment "
+                        + shipmentId + ": " + shipment.getDestinationCenterId()));
+        shipment.setStatus("delivered");
+        shipment.setDeliveredAt(deliveredAt);
+        for (ShipmentItem item : shipmentItemRepository.findByShipmentId(shipmentId)) {
+            stockAvailabilityService.receive(item.getPart(), warehouse, item.getQuantity(), null);
+        }
+        log.info("Shipment {} delivered by carrier, stock received at warehouse {}", shipmentId, warehouse.getId());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ShipmentResponseDTO getShipmentById(Integer shipmentId) {
@@ -349,18 +349,37 @@ public class InventoryServiceImpl implements InventoryService {
     public List<InventoryStockDTO> getStockAlerts() {
         log.info("Getting stock alerts");
 
-        List<Inventory> inventories = inventoryRepository.findAll();
+        List<Inventory> inventories = inventoryRepository.findStockAlerts();
         return inventories.stream()
-                .filter(inv -> inv.getCurrentStock() <= inv.getMinimumStock())
                 .map(this::mapToStockDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<InventoryStockDTO> getStockAlertFeed(String alertType, Integer warehouseId, int page, int size) {
+        log.info("Getting stock alert feed - type: {}, warehouse: {}, page: {}, size: {}", alertType, warehouseId, page, size);
+
+        List<String> statuses;
+        if (alertType == null || alertType.isBlank()) {
+            statuses = ALERT_STATUSES;
+        } else if (ALERT_STATUSES.contains(alertType)) {
+            statuses = List.of(alertType);
+        } else {
+            throw new BadRequestException("Invalid alert type: " + alertType + " (expected low_stock or out_of_stock)");
+        }
+
+        // Hết hàng trước, sau đó theo tồn khả dụng tăng dần
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Order.desc("stockStatus"), Sort.Order.asc("availableStock"), Sort.Order.asc("id")));
+        return inventoryRepository.findAlertFeed(statuses, warehouseId, pageable).map(this::mapToStockDTO);
+    }
+
     // ==================== PRIVATE HELPER METHODS ====================
 
     private InventoryStockDTO mapToStockDTO(Inventory inventory) {
         int availableStock = inventory.getCurrentStock() - inventory.getReservedStock();
-        String stockStatus = determineStockStatus(inventory.getCurrentStock(), inventory.getMinimumStock());
+        String stockStatus = Inventory.stockStatusOf(inventory.getCurrentStock(), inventory.getMinimumStock());
         
         return InventoryStockDTO.builder()
                 .id(inventory.getId())
@@ -426,16 +445,4 @@ public class InventoryServiceImpl implements InventoryService {
                 .notes(item.getNotes())
                 .build();
     }
-
-    private String determineStockStatus(Integer currentStock, Integer minimumStock) {
-        if (currentStock == 0) {
-            return "out_of_stock";
-        } else if (currentStock <= minimumStock) {
-            return "low_stock";
-        } else if (currentStock > minimumStock * 2) {
-            return "overstock";
-        } else {
-            return "in_stock";
-        }
-    }
 }
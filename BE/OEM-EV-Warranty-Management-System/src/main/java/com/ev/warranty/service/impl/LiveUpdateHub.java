@@ -0,0 +1,389 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.LiveUpdateProperties;
+import com.ev.warranty.exception.BulkheadFullException;
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.entity.LiveUpdateEvent;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.LiveUpdateEventRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Kênh SSE (/api/live/stream) thay cho việc front end poll danh sách claim và dashboard.
+ * Thay đổi trạng thái claim, work order và cảnh báo tồn kho (LiveUpdateListener) được lọc theo role /
+ * service center của từng kết nối, gom theo khóa topic:id (bản mới nhất thắng) và gửi theo chu kỳ flush.
+ * Kết nối rảnh không giữ thread nào (async servlet); mỗi lần gửi chạy trên một virtual thread.
+ * Nhiều node: thay đổi sau commit được ghi vào live_update_events, node nào đang có kết nối thì poll bảng này
+ * mỗi app.live.poll-interval-millis, nên stream trên node A vẫn nhận thay đổi commit trên node B.
+ */
+@Component
+@Slf4j
+public class LiveUpdateHub {
+
+    public static final String TOPIC_CLAIM_STATUS = "claim.status";
+    public static final String TOPIC_WORK_ORDER = "workorder";
+    public static final String TOPIC_STOCK_ALERT = "stock.alert";
+
+    static final String JOB_EVENT_PURGE = "live-update-event-purge";
+    private static final TypeReference<Map<String, Object>> DATA_TYPE = new TypeReference<>() {
+    };
+
+    private final LiveUpdateProperties properties;
+    private final ClaimRepository claimRepository;
+    private final UserRepository userRepository;
+    private final LiveUpdateEventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+    private final ClusterJobRunner jobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    // Thay đổi đã commit nhưng chưa ghi live_update_events; ghi gộp một transaction mỗi lần poll
+    private final Queue<Change> unrecorded = new ConcurrentLinkedQueue<>();
+    // Event đã phát trên node này (id -> created_at), để cửa sổ poll chồng lên nhau không gửi lại
+    private final Map<Long, LocalDateTime> seenEvents = new ConcurrentHashMap<>();
+    // Mốc poll kế tiếp; null khi node không có kết nối nào (không poll)
+    private volatile LocalDateTime pollFrom;
+
+    public LiveUpdateHub(LiveUpdateProperties properties,
+                         ClaimRepository claimRepository,
+                         UserRepository userRepository,
+                         LiveUpdateEventRepository eventRepository,
+                         ObjectMapper objectMapper,
+                         ClusterJobRunner jobRunner,
+                         MeterRegistry meterRegistry,
+                         PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.claimRepository = claimRepository;
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        this.jobRunner = jobRunner;
+        // Ghi từ thread của scheduler, sau khi transaction nguồn đã commit
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("live.connections", subscribers, Set::size).register(meterRegistry);
+    }
+
+    /** Mở stream cho user; SC_STAFF / SC_TECHNICIAN chỉ nhận claim và work order của service center mình. */
+    public Subscriber subscribe(String username, String role) {
+        if (subscribers.size() >= properties.getMaxConnections()) {
+            throw new BulkheadFullException("live", "Too many live update connections, please retry shortly");
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new NotFoundException("User not found: " + username));
+        Integer serviceCenterId = user.getServiceCenterId();
+
+        SseEmitter emitter = new SseEmitter(Duration.ofMinutes(properties.getEmitterTimeoutMinutes()).toMillis());
+        Subscriber subscriber = new Subscriber(emitter, role, serviceCenterId, properties.getMaxPendingPerConnection());
+        if (pollFrom == null) {
+            // Kết nối đầu tiên của node: nhận thay đổi từ bây giờ (client vừa tải dữ liệu đầy đủ)
+            pollFrom = LocalDateTime.now();
+        }
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return subscriber;
+    }
+
+    /**
+     * Gọi sau commit: chỉ xếp hàng, lần poll kế tiếp ghi live_update_events cho mọi node (kể cả node này).
+     * Luôn ghi kể cả khi node này không có kết nối, vì kết nối có thể nằm trên node khác. Không ghi ngay trong
+     * afterCommit để không lấy thêm một connection (và permit bulkhead "database") cho mỗi commit.
+     */
+    public void publish(List<Change> changes) {
+        unrecorded.addAll(changes);
+    }
+
+    private void recordPending() {
+        List<Change> changes = new ArrayList<>();
+        for (Change change; (change = unrecorded.poll()) != null; ) {
+            changes.add(change);
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            // Tra service center và ghi trong cùng transaction: một connection cho cả lượt
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                eventRepository.saveAll(toDeltas(changes).stream()
+                        .map(delta -> LiveUpdateEvent.builder()
+                                .topic(delta.topic())
+                                .entityId(delta.id())
+                                .serviceCenterId(delta.serviceCenterId())
+                                .payload(writeData(delta.data()))
+                                .createdAt(now)
+                                .build())
+                        .toList());
+            });
+        } catch (Exception e) {
+            // Live update là best effort: client thấy thay đổi ở lần tải lại kế tiếp
+            log.warn("Failed to record {} live updates: {}", changes.size(), e.getMessage());
+        }
+    }
+
+    /** Phân phát đồng bộ vào hàng đợi của từng kết nối trên node này (chưa gửi; xem flush). */
+    public void dispatch(List<Change> changes) {
+        deliver(toDeltas(changes));
+    }
+
+    /**
+     * Ghi các thay đổi đang chờ, rồi đọc live_update_events từ mốc lần trước (lùi app.live.poll-lookback-seconds để bắt các dòng commit trễ
+     * hoặc lệch đồng hồ giữa các node) và phát những dòng chưa phát. Node không có kết nối thì không query.
+     */
+    @Scheduled(fixedDelayString = "${app.live.poll-interval-millis:500}")
+    public void poll() {
+        recordPending();
+        LocalDateTime from = pollFrom;
+        if (subscribers.isEmpty()) {
+            pollFrom = null;
+            seenEvents.clear();
+            return;
+        }
+        if (from == null) {
+            from = LocalDateTime.now();
+        }
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = from.minusSeconds(properties.getPollLookbackSeconds());
+        try {
+            List<LiveUpdateEvent> events = eventRepository.findCreatedSince(since,
+                    PageRequest.of(0, properties.getMaxEventsPerPoll()));
+            List<Delta> deltas = new ArrayList<>();
+            for (LiveUpdateEvent event : events) {
+                if (seenEvents.putIfAbsent(event.getId(), event.getCreatedAt()) == null) {
+                    deltas.add(new Delta(event.getTopic(), event.getEntityId(), event.getServiceCenterId(),
+                            readData(event.getPayload())));
+                }
+            }
+            if (events.size() >= properties.getMaxEventsPerPoll()) {
+                // Quá nhiều thay đổi trong một lượt: không chắc đã đọc hết, mọi kết nối tải lại
+                log.warn("Live update poll hit {} events, asking every connection to resync", events.size());
+                subscribers.forEach(Subscriber::requestResync);
+            } else {
+                deliver(deltas);
+            }
+            pollFrom = started;
+            seenEvents.values().removeIf(createdAt -> createdAt.isBefore(since));
+        } catch (Exception e) {
+            log.warn("Live update poll failed: {}", e.getMessage());
+        }
+    }
+
+    // Every 10 minutes
+    @Scheduled(cron = "0 */10 * * * *")
+    public void purgeEvents() {
+        jobRunner.runIfLeader(JOB_EVENT_PURGE, () -> {
+            Integer deleted = transactionTemplate.execute(status -> eventRepository.deleteCreatedBefore(
+                    LocalDateTime.now().minusMinutes(properties.getEventRetentionMinutes())));
+            log.info("Purged {} live update events", deleted);
+        });
+    }
+
+    private List<Delta> toDeltas(List<Change> changes) {
+        Map<Integer, Integer> serviceCenters = serviceCentersOf(changes);
+        List<Delta> deltas = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            Integer serviceCenterId = change.claimId() != null ? serviceCenters.get(change.claimId()) : null;
+            deltas.add(new Delta(change.topic(), change.id(), serviceCenterId, change.data()));
+        }
+        return deltas;
+    }
+
+    private void deliver(List<Delta> deltas) {
+        for (Delta delta : deltas) {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.canSee(delta)) {
+                    subscriber.offer(delta);
+                }
+            }
+        }
+    }
+
+    private String writeData(Map<String, Object> data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize live update: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Object> readData(String payload) {
+        try {
+            return objectMapper.readValue(payload, DATA_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable live update payload: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.live.flush-interval-millis:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        long heartbeatMillis = Duration.ofSeconds(properties.getHeartbeatSeconds()).toMillis();
+        for (Subscriber subscriber : subscribers) {
+            boolean due = subscriber.hasPending() || now - subscriber.lastSentAt >= heartbeatMillis;
+            // Client chậm vẫn đang nhận lô trước: delta tiếp tục được gom, gửi ở lần flush sau
+            if (due && subscriber.sending.compareAndSet(false, true)) {
+                sender.execute(() -> send(subscriber));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            subscriber.sendPending();
+        } catch (IOException | IllegalStateException e) {
+            // Client đã ngắt; container sẽ gọi onError / onCompletion của emitter
+            subscribers.remove(subscriber);
+            log.debug("Live update stream closed: {}", e.getMessage());
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private Map<Integer, Integer> serviceCentersOf(List<Change> changes) {
+        Set<Integer> claimIds = changes.stream()
+                .map(Change::claimId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (claimIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, Integer> serviceCenters = new HashMap<>();
+        try {
+            for (Object[] row : claimRepository.findServiceCenterIdsByClaimIds(claimIds)) {
+                if (row[1] != null) {
+                    serviceCenters.put((Integer) row[0], (Integer) row[1]);
+                }
+            }
+        } catch (Exception e) {
+            // Không rõ service center thì chỉ EVM / ADMIN nhận, không lộ claim sang trung tâm khác
+            log.warn("Failed to resolve service centers for live updates: {}", e.getMessage());
+        }
+        return serviceCenters;
+    }
+
+    /** Thay đổi vừa commit; claimId (nếu có) dùng để xác định service center nhận được nó. */
+    public record Change(String topic, Integer id, Integer claimId, Map<String, Object> data) {
+    }
+
+    public record Delta(String topic, Integer id, Integer serviceCenterId, Map<String, Object> data) {
+    }
+
+    /** resync = hàng đợi đã tràn, client tải lại dữ liệu thay vì áp từng delta. */
+    public record Batch(boolean resync, List<Delta> deltas) {
+    }
+
+    public static final class Subscriber {
+        private final SseEmitter emitter;
+        private final String role;
+        private final Integer serviceCenterId;
+        private final int maxPending;
+        private final Map<String, Delta> pending = new LinkedHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private boolean overflow;
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Subscriber(SseEmitter emitter, String role, Integer serviceCenterId, int maxPending) {
+            this.emitter = emitter;
+            this.role = role;
+            this.serviceCenterId = serviceCenterId;
+            this.maxPending = maxPending;
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        boolean canSee(Delta delta) {
+            if ("EVM_STAFF".equals(role) || "ADMIN".equals(role)) {
+                return true;
+            }
+            if (TOPIC_STOCK_ALERT.equals(delta.topic())) {
+                return "SC_STAFF".equals(role);
+            }
+            return serviceCenterId != null && serviceCenterId.equals(delta.serviceCenterId());
+        }
+
+        synchronized void offer(Delta delta) {
+            if (overflow) {
+                return;
+            }
+            String key = delta.topic() + ":" + delta.id();
+            if (!pending.containsKey(key) && pending.size() >= maxPending) {
+                overflow = true;
+                pending.clear();
+                return;
+            }
+            pending.remove(key);
+            pending.put(key, delta);
+        }
+
+        synchronized void requestResync() {
+            overflow = true;
+            pending.clear();
+        }
+
+        synchronized boolean hasPending() {
+            return overflow || !pending.isEmpty();
+        }
+
+        /** Lấy và xóa các delta đang chờ. */
+        public synchronized Batch takePending() {
+            Batch batch = new Batch(overflow, new ArrayList<>(pending.values()));
+            pending.clear();
+            overflow = false;
+            return batch;
+        }
+
+        private void sendPending() throws IOException {
+            Batch batch = takePending();
+            if (batch.resync()) {
+                emitter.send(SseEmitter.event().name("resync").data(Map.of()));
+            } else if (!batch.deltas().isEmpty()) {
+                emitter.send(SseEmitter.event().name("updates").data(batch.deltas()));
+            } else {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            lastSentAt = System.currentTimeMillis();
+        }
+    }
+}
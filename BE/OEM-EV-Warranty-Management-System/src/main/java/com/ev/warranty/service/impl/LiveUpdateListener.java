@@ -0,0 +1,117 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.ClaimStatusHistory;
+import com.ev.warranty.model.entity.Inventory;
+import com.ev.warranty.model.entity.WorkOrder;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPA entity listener trên ClaimStatusHistory, WorkOrder, Inventory: gom thay đổi của transaction
+ * và đẩy sang LiveUpdateHub sau commit (rollback thì bỏ). Luôn đẩy: người nghe có thể đang kết nối ở node khác.
+ */
+@Component
+public class LiveUpdateListener {
+
+    private static final Set<String> ALERT_STOCK_STATUSES = Set.of("low_stock", "out_of_stock");
+
+    private final ObjectProvider<LiveUpdateHub> hub;
+
+    public LiveUpdateListener(ObjectProvider<LiveUpdateHub> hub) {
+        this.hub = hub;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Object entity) {
+        LiveUpdateHub liveUpdateHub = hub.getIfAvailable();
+        if (liveUpdateHub == null) {
+            return;
+        }
+        LiveUpdateHub.Change change = toChange(entity);
+        if (change == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            liveUpdateHub.publish(List.of(change));
+            return;
+        }
+        PendingChanges pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingChanges.class::isInstance)
+                .map(PendingChanges.class::cast)
+                .findFirst()
+                .orElse(null);
+        if (pending == null) {
+            pending = new PendingChanges(liveUpdateHub);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    private static final class PendingChanges implements TransactionSynchronization {
+        private final LiveUpdateHub hub;
+        private final List<LiveUpdateHub.Change> changes = new ArrayList<>();
+
+        private PendingChanges(LiveUpdateHub hub) {
+            this.hub = hub;
+        }
+
+        @Override
+        public void afterCommit() {
+            hub.publish(List.copyOf(changes));
+        }
+    }
+
+    private LiveUpdateHub.Change toChange(Object entity) {
+        if (entity instanceof ClaimStatusHistory history && history.getClaim() != null) {
+            Claim claim = history.getClaim();
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("claimId", claim.getId());
+            // Không khởi tạo proxy trong lúc flush; thiếu thì client tự tải claim
+            if (Hibernate.isInitialized(claim)) {
+                data.put("claimNumber", claim.getClaimNumber());
+            }
+            ClaimStatus status = history.getStatus();
+            if (status != null && Hibernate.isInitialized(status)) {
+                data.put("status", status.getCode());
+            }
+            data.put("changedAt", history.getChangedAt());
+            return new LiveUpdateHub.Change(LiveUpdateHub.TOPIC_CLAIM_STATUS, claim.getId(), claim.getId(), data);
+        }
+        if (entity instanceof WorkOrder workOrder) {
+            Integer claimId = workOrder.getClaim() != null ? workOrder.getClaim().getId() : null;
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("workOrderId", workOrder.getId());
+            data.put("claimId", claimId);
+            data.put("technicianId", workOrder.getTechnician() != null ? workOrder.getTechnician().getId() : null);
+            data.put("status", workOrder.getStatus());
+            data.put("workOrderType", workOrder.getWorkOrderType());
+            return new LiveUpdateHub.Change(LiveUpdateHub.TOPIC_WORK_ORDER, workOrder.getId(), claimId, data);
+        }
+        if (entity instanceof Inventory inventory && ALERT_STOCK_STATUSES.contains(inventory.getStockStatus())) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("inventoryId", inventory.getId());
+            data.put("partId", inventory.getPart() != null ? inventory.getPart().getId() : null);
+            data.put("warehouseId", inventory.getWarehouse() != null ? inventory.getWarehouse().getId() : null);
+            data.put("currentStock", inventory.getCurrentStock());
+            data.put("availableStock", inventory.getAvailableStock());
+            data.put("minimumStock", inventory.getMinimumStock());
+            data.put("stockStatus", inventory.getStockStatus());
+            return new LiveUpdateHub.Change(LiveUpdateHub.TOPIC_STOCK_ALERT, inventory.getId(), null, data);
+        }
+        return null;
+    }
+}
@@ -11,6 +11,7 @@ import com.ev.warranty.service.inter.PartFailureStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -30,6 +31,7 @@ public class PartFailureStatsServiceImpl implements PartFailureStatsService {
     private final VehicleRepository vehicleRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public PartFailureStatsResponseDTO generatePartFailureStats(
             PartFailureStatsRequestDTO request,
             String generatedBy) {
@@ -67,6 +69,7 @@ public class PartFailureStatsServiceImpl implements PartFailureStatsService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PartFailureStatsResponseDTO.ExecutiveSummaryDTO getQuickFailureStats(
             String startDate, String endDate) {
 
@@ -0,0 +1,146 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.PaymentProperties;
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.model.dto.payment.PaymentReconciliationResultDTO;
+import com.ev.warranty.model.entity.PaymentTransaction;
+import com.ev.warranty.repository.ArchivedClaimRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.PaymentTransactionRepository;
+import com.ev.warranty.service.inter.ClaimService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Đối soát sổ cái VNPay với claim, từng chunk một transaction:
+ * - Giao dịch SUCCESS chưa đối soát: claim đã PAID (hoặc đã lưu trữ) → MATCHED; claim còn chờ thanh toán
+ *   (IPN áp dụng claim thất bại) → đánh dấu đã trả rồi MATCHED; không có claim → NO_CLAIM; còn lại → MISMATCH.
+ * - Giao dịch PENDING quá hạn + expiry-grace → EXPIRED.
+ */
+@Component
+@Slf4j
+public class PaymentReconciler {
+
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final ClaimRepository claimRepository;
+    private final ArchivedClaimRepository archivedClaimRepository;
+    private final ClaimService claimService;
+    private final PaymentProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public PaymentReconciler(PaymentTransactionRepository paymentTransactionRepository,
+                             ClaimRepository claimRepository,
+                             ArchivedClaimRepository archivedClaimRepository,
+                             ClaimService claimService,
+                             PaymentProperties properties,
+                             PlatformTransactionManager transactionManager) {
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.claimRepository = claimRepository;
+        this.archivedClaimRepository = archivedClaimRepository;
+        this.claimService = claimService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public PaymentReconciliationResultDTO reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("Payment reconciliation is already running");
+        }
+        long started = System.currentTimeMillis();
+        try {
+            PaymentReconciliationResultDTO result = new PaymentReconciliationResultDTO();
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(properties.getExpiryGraceMinutes());
+            result.setExpired(Objects.requireNonNull(
+                    transactionTemplate.execute(status -> paymentTransactionRepository.expireStale(cutoff))));
+
+            long afterId = 0;
+            while (true) {
+                List<PaymentTransaction> chunk = paymentTransactionRepository.findUnreconciled(afterId,
+                        PageRequest.of(0, properties.getReconciliationChunkSize()));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getId();
+                transactionTemplate.executeWithoutResult(status -> reconcileChunk(chunk, result));
+            }
+            result.setDurationMs(System.currentTimeMillis() - started);
+            if (result.getExamined() > 0 || result.getExpired() > 0) {
+                log.info("Payment reconciliation: examined={}, matched={}, claimsUpdated={}, noClaim={}, " +
+                                "mismatched={}, expired={} in {} ms", result.getExamined(), result.getMatched(),
+                        result.getClaimsUpdated(), result.getNoClaim(), result.getMismatched(), result.getExpired(),
+                        result.getDurationMs());
+            }
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void reconcileChunk(List<PaymentTransaction> chunk, PaymentReconciliationResultDTO result) {
+        Set<Integer> claimIds = new HashSet<>();
+        for (PaymentTransaction tx : chunk) {
+            if (tx.getClaimId() != null) {
+                claimIds.add(tx.getClaimId());
+            }
+        }
+        // claimId → [statusCode, customerPaymentStatus]
+        Map<Integer, Object[]> states = new HashMap<>();
+        Set<Integer> archived = new HashSet<>();
+        if (!claimIds.isEmpty()) {
+            for (Object[] row : claimRepository.findPaymentStates(claimIds)) {
+                states.put((Integer) row[0], row);
+            }
+            archived.addAll(archivedClaimRepository.findArchivedIds(claimIds));
+        }
+
+        List<Long> matched = new ArrayList<>();
+        List<Long> noClaim = new ArrayList<>();
+        List<Long> mismatched = new ArrayList<>();
+        for (PaymentTransaction tx : chunk) {
+            Object[] state = tx.getClaimId() != null ? states.get(tx.getClaimId()) : null;
+            if (state == null) {
+                // Claim đã lưu trữ thì đã qua bước thanh toán từ trước
+                (archived.contains(tx.getClaimId()) ? matched : noClaim).add(tx.getId());
+            } else if ("PAID".equals(state[2])) {
+                matched.add(tx.getId());
+            } else if (claimService.applyGatewayPayment(tx.getClaimId(), tx.getTxnRef())) {
+                matched.add(tx.getId());
+                result.setClaimsUpdated(result.getClaimsUpdated() + 1);
+            } else {
+                log.warn("VNPay transaction {} ({} VND) does not match claim {} in status {}",
+                        tx.getTxnRef(), tx.getAmount(), tx.getClaimId(), state[1]);
+                mismatched.add(tx.getId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        mark(matched, PaymentTransaction.RECONCILE_MATCHED, now);
+        mark(noClaim, PaymentTransaction.RECONCILE_NO_CLAIM, now);
+        mark(mismatched, PaymentTransaction.RECONCILE_MISMATCH, now);
+        result.setExamined(result.getExamined() + chunk.size());
+        result.setMatched(result.getMatched() + matched.size());
+        result.setNoClaim(result.getNoClaim() + noClaim.size());
+        result.setMismatched(result.getMismatched() + mismatched.size());
+    }
+
+    private void mark(List<Long> ids, String reconcileStatus, LocalDateTime now) {
+        if (!ids.isEmpty()) {
+            paymentTransactionRepository.markReconciled(ids, reconcileStatus, now);
+        }
+    }
+}
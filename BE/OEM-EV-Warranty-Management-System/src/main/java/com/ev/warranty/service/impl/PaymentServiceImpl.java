@@ -1,21 +1,33 @@
 package com.ev.warranty.service.impl;
 
+import com.ev.warranty.config.PaymentProperties;
 import com.ev.warranty.config.VNPayProperties;
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.dto.payment.PaymentReconciliationResultDTO;
 import com.ev.warranty.model.dto.payment.VNPayCreatePaymentRequest;
+import com.ev.warranty.model.dto.payment.VNPayIpnResponse;
 import com.ev.warranty.model.dto.payment.VNPayPaymentInitResponse;
 import com.ev.warranty.model.dto.payment.VNPayReturnResponse;
+import com.ev.warranty.model.entity.PaymentTransaction;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.PaymentTransactionRepository;
+import com.ev.warranty.service.inter.ClaimService;
 import com.ev.warranty.service.inter.PaymentService;
 import com.ev.warranty.util.VNPayUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.UUID;
@@ -28,6 +40,12 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Qualifier("VNPayProperties")
     private final VNPayProperties vnPayProperties;
+    private final PaymentProperties paymentProperties;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final ClaimRepository claimRepository;
+    private final ClaimService claimService;
+    private final PaymentReconciler paymentReconciler;
+    private final MeterRegistry meterRegistry;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
@@ -39,8 +57,14 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         String txnRef = (req.getTxnRef() != null && !req.getTxnRef().isBlank()) ? req.getTxnRef() : generateTxnRef();
+        if (paymentTransactionRepository.existsByTxnRef(txnRef)) {
+            throw new BadRequestException("Transaction reference already used: " + txnRef);
+        }
+        if (req.getClaimId() != null && !claimRepository.existsById(req.getClaimId())) {
+            throw new NotFoundException("Claim not found");
+        }
         LocalDateTime createDate = LocalDateTime.now();
-        LocalDateTime expireDate = createDate.plusMinutes(15);
+        LocalDateTime expireDate = createDate.plusMinutes(paymentProperties.getPaymentUrlTtlMinutes());
 
         Map<String, String> params = new HashMap<>();
         params.put("vnp_Version", "2.1.0");
@@ -66,6 +90,18 @@ public class PaymentServiceImpl implements PaymentService {
         String secureHash = VNPayUtils.hmacSHA512(vnPayProperties.getHashSecret(), query);
         String paymentUrl = vnPayProperties.getPayUrl() + "?" + query + "&vnp_SecureHash=" + secureHash;
 
+        // Ghi sổ cái trước khi trả URL: IPN chỉ xác nhận được txnRef đã có dòng PENDING
+        paymentTransactionRepository.save(PaymentTransaction.builder()
+                .txnRef(txnRef)
+                .provider("VNPAY")
+                .claimId(req.getClaimId())
+                .amount(req.getAmount())
+                .orderInfo(params.get("vnp_OrderInfo"))
+                .status(PaymentTransaction.STATUS_PENDING)
+                .createdAt(createDate)
+                .expireAt(expireDate)
+                .build());
+
         log.info("Generated VNPay payment URL for txnRef {}", txnRef);
 
         return VNPayPaymentInitResponse.builder()
@@ -103,6 +139,72 @@ public class PaymentServiceImpl implements PaymentService {
                 .build();
     }
 
+    @Override
+    @Transactional
+    public VNPayIpnResponse handleVNPayIpn(Map<String, String> queryParams) {
+        VNPayIpnResponse response = applyIpn(queryParams);
+        meterRegistry.counter("payments.vnpay.ipn", "rsp_code", response.getRspCode()).increment();
+        return response;
+    }
+
+    private VNPayIpnResponse applyIpn(Map<String, String> queryParams) {
+        if (!VNPayUtils.verifySignature(queryParams, vnPayProperties.getHashSecret())) {
+            log.warn("VNPay IPN with invalid signature for txnRef {}", queryParams.get("vnp_TxnRef"));
+            return VNPayIpnResponse.INVALID_SIGNATURE;
+        }
+        String txnRef = queryParams.get("vnp_TxnRef");
+        if (txnRef == null) {
+            return VNPayIpnResponse.ORDER_NOT_FOUND;
+        }
+        Long amount = parseVnpAmount(queryParams.get("vnp_Amount"));
+
+        String responseCode = queryParams.get("vnp_ResponseCode");
+        String transactionStatus = queryParams.get("vnp_TransactionStatus");
+        boolean success = "00".equals(responseCode) && (transactionStatus == null || "00".equals(transactionStatus));
+        LocalDateTime now = LocalDateTime.now();
+        // Đường nóng: một UPDATE có điều kiện (txnRef + số tiền + chưa xác nhận); chỉ đọc dòng khi cần phân loại lỗi
+        int updated = amount == null ? 0 : paymentTransactionRepository.confirm(txnRef, amount,
+                success ? PaymentTransaction.STATUS_SUCCESS : PaymentTransaction.STATUS_FAILED, responseCode,
+                queryParams.get("vnp_TransactionNo"), queryParams.get("vnp_BankCode"), queryParams.get("vnp_PayDate"),
+                now);
+        if (updated == 0) {
+            PaymentTransaction tx = paymentTransactionRepository.findByTxnRef(txnRef).orElse(null);
+            if (tx == null) {
+                return VNPayIpnResponse.ORDER_NOT_FOUND;
+            }
+            if (!tx.getAmount().equals(amount)) {
+                return VNPayIpnResponse.INVALID_AMOUNT;
+            }
+            return VNPayIpnResponse.ALREADY_CONFIRMED; // callback trùng, kể cả khi đến đồng thời
+        }
+
+        if (success) {
+            PaymentTransaction tx = paymentTransactionRepository.findByTxnRef(txnRef).orElseThrow();
+            if (tx.getClaimId() != null && claimService.applyGatewayPayment(tx.getClaimId(), txnRef)) {
+                paymentTransactionRepository.markReconciled(List.of(tx.getId()), PaymentTransaction.RECONCILE_MATCHED,
+                        now);
+            }
+        }
+        log.debug("VNPay IPN applied txnRef={}, success={}, code={}", txnRef, success, responseCode);
+        return VNPayIpnResponse.CONFIRMED;
+    }
+
+    // vnp_Amount = số tiền VND x 100
+    private Long parseVnpAmount(String value) {
+        try {
+            long raw = Long.parseLong(value);
+            return raw % 100 == 0 ? raw / 100 : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentReconciliationResultDTO reconcilePayments() {
+        return paymentReconciler.reconcile();
+    }
+
     private String generateTxnRef() {
         return UUID.randomUUID().toString().replaceAll("-", "").substring(0, 12);
     }
@@ -0,0 +1,122 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.ClaimArchiveProperties;
+import com.ev.warranty.config.JobSchedulerProperties;
+import com.ev.warranty.model.entity.TechnicianProfile;
+import com.ev.warranty.repository.TechnicianProfileRepository;
+import com.ev.warranty.repository.WorkOrderRepository;
+import com.ev.warranty.service.inter.EVMWarrantyCostReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Các job định kỳ khác chạy qua ClusterJobRunner (một node mỗi tick):
+ * - Đối soát currentWorkload của technician với số work order đang mở thực tế (trong một transaction,
+ *   mỗi dòng ghi bằng UPDATE có điều kiện để không đè lên assign / complete chạy song song).
+ * - Tính trước báo cáo chi phí bảo hành month-to-date cho dashboard EVM.
+ * - Dựng lại technician_daily_stats cho các ngày gần đây (lần đầu: toàn bộ lịch sử).
+ * - Nhận file sự kiện carrier trong thư mục feed (nếu có cấu hình).
+ * - Lưu trữ claim đã đóng quá thời hạn giữ (app.claims.archive.*).
+ * - Đối soát sổ cái thanh toán VNPay với claim.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PeriodicMaintenanceJobs {
+
+    static final String JOB_WORKLOAD_RECONCILIATION = "technician-workload-reconciliation";
+    static final String JOB_REPORT_PRECOMPUTE = "warranty-cost-report-precompute";
+    static final String JOB_TECHNICIAN_STATS_ROLLUP = "technician-daily-stats-rollup";
+    static final String JOB_CARRIER_FEED = "carrier-tracking-feed";
+    static final String JOB_CLAIM_ARCHIVAL = "claim-archival";
+    static final String JOB_PAYMENT_RECONCILIATION = "payment-reconciliation";
+
+    private final ClusterJobRunner jobRunner;
+    private final TechnicianProfileRepository technicianProfileRepository;
+    private final WorkOrderRepository workOrderRepository;
+    private final EVMWarrantyCostReportService reportService;
+    private final TechnicianStatsRollup technicianStatsRollup;
+    private final JobSchedulerProperties jobSchedulerProperties;
+    private final FileCarrierTrackingFeed carrierTrackingFeed;
+    private final ClaimArchiver claimArchiver;
+    private final ClaimArchiveProperties claimArchiveProperties;
+    private final PaymentReconciler paymentReconciler;
+    private final PlatformTransactionManager transactionManager;
+
+    // Every 30 minutes
+    @Scheduled(cron = "0 */30 * * * *")
+    public void reconcileTechnicianWorkload() {
+        jobRunner.runIfLeader(JOB_WORKLOAD_RECONCILIATION, this::reconcileWorkloadNow);
+    }
+
+    // Every hour at minute 10
+    @Scheduled(cron = "0 10 * * * *")
+    public void precomputeReports() {
+        jobRunner.runIfLeader(JOB_REPORT_PRECOMPUTE, reportService::precomputeMonthToDateSummary);
+    }
+
+    // Every day at 02:15
+    @Scheduled(cron = "0 15 2 * * *")
+    public void rollupTechnicianStats() {
+        jobRunner.runIfLeader(JOB_TECHNICIAN_STATS_ROLLUP,
+                () -> technicianStatsRollup.rebuildRecent(jobSchedulerProperties.getTechnicianStatsTrailingDays()));
+    }
+
+    // Every 5 minutes
+    @Scheduled(cron = "0 */5 * * * *")
+    public void pollCarrierFeed() {
+        jobRunner.runIfLeader(JOB_CARRIER_FEED, carrierTrackingFeed::pollDirectory);
+    }
+
+    // Every day at 03:30
+    @Scheduled(cron = "0 30 3 * * *")
+    public void archiveClosedClaims() {
+        if (claimArchiveProperties.isEnabled()) {
+            jobRunner.runIfLeader(JOB_CLAIM_ARCHIVAL, claimArchiver::archiveEligible);
+        }
+    }
+
+    // Every 15 minutes, offset from the 30-minute workload job
+    @Scheduled(cron = "0 5/15 * * * *")
+    public void reconcilePayments() {
+        jobRunner.runIfLeader(JOB_PAYMENT_RECONCILIATION, paymentReconciler::reconcile);
+    }
+
+    public int reconcileWorkloadNow() {
+        Integer fixed = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<Integer, Integer> activeByTechnician = new HashMap<>();
+            for (Object[] row : workOrderRepository.countActiveWorkOrdersGroupedByTechnician()) {
+                activeByTechnician.put((Integer) row[0], ((Number) row[1]).intValue());
+            }
+
+            int updated = 0;
+            LocalDateTime now = LocalDateTime.now();
+            for (TechnicianProfile profile : technicianProfileRepository.findAll()) {
+                int actual = activeByTechnician.getOrDefault(profile.getUser().getId(), 0);
+                Integer stored = profile.getCurrentWorkload();
+                if (stored != null && stored == actual) {
+                    continue;
+                }
+                String assignmentStatus = actual >= profile.getMaxWorkload() ? "BUSY" : "AVAILABLE";
+                if (technicianProfileRepository.reconcileWorkload(profile.getId(), stored, actual, assignmentStatus, now) == 1) {
+                    log.info("Workload drift for technician {}: stored={}, actual={}",
+                            profile.getUser().getId(), stored, actual);
+                    updated++;
+                } else {
+                    // Workload vừa đổi bởi assign / complete: để lần chạy sau đối soát lại
+                    log.debug("Workload of technician {} changed during reconciliation, skipped", profile.getUser().getId());
+                }
+            }
+            return updated;
+        });
+        return fixed == null ? 0 : fixed;
+    }
+}
@@ -34,7 +34,7 @@ public class RecallCampaignServiceImpl implements RecallCampaignService {
     private final com.ev.warranty.repository.CampaignItemRepository campaignItemRepository;
     private final com.ev.warranty.repository.ClaimRepository claimRepository;
     private final com.ev.warranty.repository.ClaimItemRepository claimItemRepository;
-    private final com.ev.warranty.repository.ClaimStatusRepository claimStatusRepository;
+    private final ClaimStatusRegistry claimStatusRegistry;
 
     @Override
     @Transactional
@@ -202,7 +202,7 @@ public class RecallCampaignServiceImpl implements RecallCampaignService {
                 .orElseThrow(() -> new com.ev.warranty.exception.NotFoundException("User not found: " + createdBy));
 
         // Create claim and set READY_FOR_REPAIR
-        var status = claimStatusRepository.findByCode("READY_FOR_REPAIR")
+        var status = claimStatusRegistry.findByCode("READY_FOR_REPAIR")
                 .orElseThrow(() -> new com.ev.warranty.exception.NotFoundException("READY_FOR_REPAIR status not found"));
 
         var claim = com.ev.warranty.model.entity.Claim.builder()
@@ -0,0 +1,177 @@
+package com.ev.warranty.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot bất biến của một bảng dữ liệu tham chiếu (toàn bộ bảng nằm trong bộ nhớ).
+ * - Đọc: tra map, không chạm DB. Snapshot quá TTL được nạp lại bởi đúng 1 thread, các thread khác vẫn đọc bản cũ.
+ * - Tra theo code (nếu có codeFunction): map thứ hai dựng cùng snapshot, so khớp chính xác.
+ * - Ghi (admin): gọi invalidateAfterCommit() để lần đọc kế tiếp sau commit nạp lại.
+ * - Metrics: refdata.cache.lookups{cache, result=hit|miss}, refdata.cache.loads{cache}, refdata.cache.size{cache}.
+ * Tạo qua ReferenceDataCaches.
+ */
+@Slf4j
+public final class ReferenceDataCache<K, V> {
+
+    private record Snapshot<K, V>(Map<K, V> byKey, Map<String, V> byCode, List<V> values, long loadedAt) {
+    }
+
+    private final String name;
+    private final Supplier<List<V>> loader;
+    private final Function<V, K> keyFunction;
+    private final Function<V, String> codeFunction;
+    private final TransactionTemplate loadTransaction;
+    private final long ttlNanos;
+
+    private final AtomicReference<Snapshot<K, V>> snapshot = new AtomicReference<>();
+    // Tăng mỗi lần invalidate: snapshot nạp trước đó không được ghi đè bản mới
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter loads;
+
+    ReferenceDataCache(String name, Supplier<List<V>> loader, Function<V, K> keyFunction, Function<V, String> codeFunction,
+                       TransactionTemplate loadTransaction, Duration ttl, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.loader = loader;
+        this.keyFunction = keyFunction;
+        this.codeFunction = codeFunction;
+        this.loadTransaction = loadTransaction;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("refdata.cache.lookups").tag("cache", name).tag("result", "hit")
+                .description("Reference data lookups served from memory").register(meterRegistry);
+        this.misses = Counter.builder("refdata.cache.lookups").tag("cache", name).tag("result", "miss")
+                .description("Reference data lookups for a key that does not exist").register(meterRegistry);
+        this.loads = Counter.builder("refdata.cache.loads").tag("cache", name)
+                .description("Reference data snapshot loads from the database").register(meterRegistry);
+        Gauge.builder("refdata.cache.size", this, ReferenceDataCache::size).tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<V> get(K key) {
+        V value = key != null ? current().byKey().get(key) : null;
+        (value != null ? hits : misses).increment();
+        return Optional.ofNullable(value);
+    }
+
+    /** Tra theo code (chỉ dùng được khi cache được tạo kèm codeFunction). */
+    public Optional<V> getByCode(String code) {
+        V value = code != null ? current().byCode().get(code) : null;
+        (value != null ? hits : misses).increment();
+        return Optional.ofNullable(value);
+    }
+
+    /** Toàn bộ giá trị theo thứ tự loader trả về (list không sửa được). */
+    public List<V> values() {
+        hits.increment();
+        return current().values();
+    }
+
+    public int size() {
+        Snapshot<K, V> current = snapshot.get();
+        return current != null ? current.byKey().size() : 0;
+    }
+
+    /** Nạp lại ngay (warm-up). */
+    public void reload() {
+        loadLock.lock();
+        try {
+            load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+        log.debug("Reference data cache {} invalidated", name);
+    }
+
+    /** Invalidate sau khi transaction hiện tại commit (ngay lập tức nếu không có transaction). */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    private Snapshot<K, V> current() {
+        Snapshot<K, V> current = snapshot.get();
+        if (current != null && System.nanoTime() - current.loadedAt() < ttlNanos) {
+            return current;
+        }
+        if (current != null) {
+            // Hết TTL: một thread nạp lại, các thread khác tiếp tục dùng bản cũ
+            if (!loadLock.tryLock()) {
+                return current;
+            }
+        } else {
+            loadLock.lock();
+        }
+        try {
+            Snapshot<K, V> latest = snapshot.get();
+            if (latest != null && latest != current) {
+                return latest;
+            }
+            return load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot<K, V> load() {
+        long startGeneration = generation.get();
+        List<V> rows = loadTransaction != null ? loadTransaction.execute(status -> loader.get()) : loader.get();
+
+        Map<K, V> byKey = new LinkedHashMap<>();
+        Map<String, V> byCode = new HashMap<>();
+        for (V row : rows) {
+            byKey.put(keyFunction.apply(row), row);
+            if (codeFunction != null) {
+                byCode.put(codeFunction.apply(row), row);
+            }
+        }
+        Snapshot<K, V> loaded = new Snapshot<>(Collections.unmodifiableMap(byKey), Collections.unmodifiableMap(byCode),
+                List.copyOf(rows), System.nanoTime());
+        loads.increment();
+
+        // Có invalidate trong lúc nạp -> dùng kết quả cho lần gọi này nhưng không giữ lại
+        if (generation.get() == startGeneration) {
+            snapshot.set(loaded);
+        }
+        log.debug("Reference data cache {} loaded {} entries", name, byKey.size());
+        return loaded;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.config.ReferenceDataProperties;
+import com.ev.warranty.repository.RoleRepository;
+import com.ev.warranty.repository.WarrantyConditionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tạo và quản lý các ReferenceDataCache (claim status, vehicle model, service center).
+ * Warm-up khi app sẵn sàng: nạp mọi registry và đưa Role / WarrantyCondition vào Hibernate L2 cache.
+ */
+@Component
+@Slf4j
+public class ReferenceDataCaches {
+
+    private final MeterRegistry meterRegistry;
+    private final ReferenceDataProperties properties;
+    private final RoleRepository roleRepository;
+    private final WarrantyConditionRepository warrantyConditionRepository;
+    private final TransactionTemplate loadTransaction;
+
+    private final List<ReferenceDataCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    public ReferenceDataCaches(MeterRegistry meterRegistry,
+                               ReferenceDataProperties properties,
+                               RoleRepository roleRepository,
+                               WarrantyConditionRepository warrantyConditionRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.roleRepository = roleRepository;
+        this.warrantyConditionRepository = warrantyConditionRepository;
+        // Nạp trong transaction riêng: không thấy dữ liệu chưa commit của transaction đang gọi
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    public <K, V> ReferenceDataCache<K, V> create(String name, Supplier<List<V>> loader, Function<V, K> keyFunction) {
+        return create(name, loader, keyFunction, null);
+    }
+
+    /** Như create(name, loader, keyFunction), kèm map tra theo code (ReferenceDataCache.getByCode). */
+    public <K, V> ReferenceDataCache<K, V> create(String name, Supplier<List<V>> loader, Function<V, K> keyFunction,
+                                                  Function<V, String> codeFunction) {
+        ReferenceDataCache<K, V> cache = new ReferenceDataCache<>(name, loader, keyFunction, codeFunction, loadTransaction,
+                Duration.ofMinutes(properties.getTtlMinutes()), meterRegistry);
+        caches.add(cache);
+        return cache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isWarmOnStartup()) {
+            return;
+        }
+        for (ReferenceDataCache<?, ?> cache : caches) {
+            try {
+                cache.reload();
+            } catch (Exception e) {
+                // Lần đọc đầu tiên sẽ nạp lại
+                log.warn("Failed to warm reference data cache {}: {}", cache.getName(), e.getMessage());
+            }
+        }
+        try {
+            loadTransaction.executeWithoutResult(status -> {
+                roleRepository.findAll();
+                warrantyConditionRepository.findAll();
+            });
+        } catch (Exception e) {
+            log.warn("Failed to warm second-level cache: {}", e.getMessage());
+        }
+        log.info("Reference data caches warmed: {}", caches.stream()
+                .map(c -> c.getName() + "=" + c.size()).toList());
+    }
+
+    public void invalidateAll() {
+        caches.forEach(ReferenceDataCache::invalidate);
+    }
+}
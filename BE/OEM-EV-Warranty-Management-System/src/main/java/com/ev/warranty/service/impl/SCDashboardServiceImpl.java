@@ -4,48 +4,51 @@ import com.ev.warranty.model.dto.dashboard.SCDashboardSummaryDTO;
 import com.ev.warranty.repository.AppointmentRepository;
 import com.ev.warranty.repository.ClaimRepository;
 import com.ev.warranty.repository.WorkOrderRepository;
+import com.ev.warranty.security.ServiceCenterScope;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class SCDashboardServiceImpl implements com.ev.warranty.service.inter.SCDashboardService {
 
+    static final List<String> ACTIVE_STATUSES = List.of("OPEN", "IN_PROGRESS");
+    static final List<String> PENDING_STATUSES = List.of("PENDING_APPROVAL");
+
     private final ClaimRepository claimRepository;
     private final AppointmentRepository appointmentRepository;
     private final WorkOrderRepository workOrderRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public SCDashboardSummaryDTO getSummaryForServiceCenter(Integer serviceCenterId) {
-        // Note: serviceCenterId is not directly linked in entities; using approximations.
-        // Active claims: OPEN, IN_PROGRESS
-        long totalActiveClaims = claimRepository.findByStatusCode("OPEN").size()
-                + claimRepository.findByStatusCode("IN_PROGRESS").size();
-        long pendingClaims = claimRepository.findClaimsPendingApproval().size();
-
-        // Today's appointments
-        LocalDate today = LocalDate.now();
-        LocalDateTime start = today.atStartOfDay();
-        LocalDateTime end = today.atTime(LocalTime.MAX);
-        long todayAppointments = appointmentRepository.findTodayScheduledAppointments(start, end).size();
-
-        // Active work orders: endTime is null
-        long activeWorkOrders = workOrderRepository.findAll().stream()
-                .filter(wo -> wo.getEndTime() == null)
-                .count();
-
+        // No explicit center: use the caller's own center; users without one (EVM/ADMIN) see all centers
+        Integer centerId = serviceCenterId != null ? serviceCenterId : ServiceCenterScope.currentUserServiceCenterId();
+        LocalDateTime start = LocalDate.now().atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+
+        // Active claims: OPEN, IN_PROGRESS; today's appointments: [start, end); active work orders: endTime is null.
+        // Counts only, served by the (service_center_id, status, ...) indexes
+        if (centerId == null) {
+            return SCDashboardSummaryDTO.builder()
+                    .totalActiveClaims(claimRepository.countByStatusCodes(ACTIVE_STATUSES))
+                    .pendingClaims(claimRepository.countByStatusCodes(PENDING_STATUSES))
+                    .todayAppointments(appointmentRepository.countScheduled(start, end))
+                    .activeWorkOrders(workOrderRepository.countByEndTimeIsNull())
+                    .highlights(List.of("All service centers"))
+                    .build();
+        }
         return SCDashboardSummaryDTO.builder()
-                .totalActiveClaims(totalActiveClaims)
-                .pendingClaims(pendingClaims)
-                .todayAppointments(todayAppointments)
-                .activeWorkOrders(activeWorkOrders)
-                .highlights(List.of("SC summary based on global stats", "Filter by center can be added later"))
+                .totalActiveClaims(claimRepository.countByServiceCenterIdAndStatusCodes(centerId, ACTIVE_STATUSES))
+                .pendingClaims(claimRepository.countByServiceCenterIdAndStatusCodes(centerId, PENDING_STATUSES))
+                .todayAppointments(appointmentRepository.countScheduledForServiceCenter(centerId, start, end))
+                .activeWorkOrders(workOrderRepository.countByServiceCenterIdAndEndTimeIsNull(centerId))
+                .highlights(List.of("Service center " + centerId))
                 .build();
     }
 }
-
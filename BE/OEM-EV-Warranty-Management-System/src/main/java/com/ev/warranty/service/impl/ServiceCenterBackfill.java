@@ -0,0 +1,40 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.repository.AppointmentRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.WorkOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Điền service_center_id cho claim / work order / appointment tạo trước khi có cột (hoặc nạp bằng SQL thô):
+ * dòng NULL không bao giờ khớp filter service center nên user SC sẽ không thấy chúng.
+ * Thứ tự claim trước vì work order và appointment lấy theo claim.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.service-center-scope.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceCenterBackfill {
+
+    private final ClaimRepository claimRepository;
+    private final WorkOrderRepository workOrderRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int claims = claimRepository.backfillServiceCenterIds();
+        int workOrders = workOrderRepository.backfillServiceCenterIds();
+        int appointments = appointmentRepository.backfillServiceCenterIds();
+        if (claims + workOrders + appointments > 0) {
+            log.info("Backfilled service_center_id: {} claims, {} work orders, {} appointments",
+                    claims, workOrders, appointments);
+        }
+    }
+}
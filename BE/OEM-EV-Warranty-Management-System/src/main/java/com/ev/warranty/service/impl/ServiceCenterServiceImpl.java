@@ -8,29 +8,36 @@ import com.ev.warranty.model.dto.servicecenter.ServiceCenterResponseDTO;
 import com.ev.warranty.model.entity.ServiceCenter;
 import com.ev.warranty.repository.ServiceCenterRepository;
 import com.ev.warranty.service.inter.ServiceCenterService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ServiceCenterServiceImpl implements ServiceCenterService {
 
     private final ServiceCenterRepository serviceCenterRepository;
+    // DTO (kèm parent, branches) của mọi service center, dựng 1 lần khi nạp snapshot
+    private final ReferenceDataCache<Integer, ServiceCenterResponseDTO> centers;
+
+    public ServiceCenterServiceImpl(ServiceCenterRepository serviceCenterRepository, ReferenceDataCaches caches) {
+        this.serviceCenterRepository = serviceCenterRepository;
+        this.centers = caches.create("service-center",
+                () -> serviceCenterRepository.findAll(Sort.by("id")).stream().map(this::toDTO).toList(),
+                ServiceCenterResponseDTO::getId, ServiceCenterResponseDTO::getCode);
+    }
 
     @Override
     @Transactional(readOnly = true)
     public List<ServiceCenterResponseDTO> getAllServiceCenters() {
-        return serviceCenterRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return new ArrayList<>(centers.values());
     }
 
     @Override
@@ -43,17 +50,15 @@ public class ServiceCenterServiceImpl implements ServiceCenterService {
     @Override
     @Transactional(readOnly = true)
     public ServiceCenterResponseDTO getServiceCenterById(Integer id) {
-        ServiceCenter serviceCenter = serviceCenterRepository.findById(id)
+        return centers.get(id)
                 .orElseThrow(() -> new NotFoundException("Service center not found with id: " + id));
-        return toDTO(serviceCenter);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ServiceCenterResponseDTO getServiceCenterByCode(String code) {
-        ServiceCenter serviceCenter = serviceCenterRepository.findByCode(code)
+        return centers.getByCode(code)
                 .orElseThrow(() -> new NotFoundException("Service center not found with code: " + code));
-        return toDTO(serviceCenter);
     }
 
     @Override
@@ -95,6 +100,7 @@ public class ServiceCenterServiceImpl implements ServiceCenterService {
                 .build();
 
         ServiceCenter savedServiceCenter = serviceCenterRepository.save(serviceCenter);
+        centers.invalidateAfterCommit();
         log.info("Service center created successfully: {}", savedServiceCenter.getCode());
         return toDTO(savedServiceCenter);
     }
@@ -152,6 +158,7 @@ public class ServiceCenterServiceImpl implements ServiceCenterService {
         serviceCenter.setUpdatedBy(updatedBy);
 
         ServiceCenter updatedServiceCenter = serviceCenterRepository.save(serviceCenter);
+        centers.invalidateAfterCommit();
         log.info("Service center updated successfully: {}", updatedServiceCenter.getCode());
         return toDTO(updatedServiceCenter);
     }
@@ -172,30 +179,31 @@ public class ServiceCenterServiceImpl implements ServiceCenterService {
         // Soft delete by setting active = false
         serviceCenter.setActive(false);
         serviceCenterRepository.save(serviceCenter);
+        centers.invalidateAfterCommit();
         log.info("Service center deactivated successfully: {}", serviceCenter.getCode());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ServiceCenterResponseDTO> getMainServiceCenters() {
-        return serviceCenterRepository.findByParentServiceCenterIsNull().stream()
-                .map(this::toDTO)
+        return centers.values().stream()
+                .filter(sc -> sc.getParentServiceCenterId() == null)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ServiceCenterResponseDTO> getBranchesByServiceCenterId(Integer parentId) {
-        return serviceCenterRepository.findByParentServiceCenterId(parentId).stream()
-                .map(this::toDTO)
+        return centers.values().stream()
+                .filter(sc -> parentId.equals(sc.getParentServiceCenterId()))
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ServiceCenterResponseDTO> getActiveServiceCenters() {
-        return serviceCenterRepository.findByActiveTrue().stream()
-                .map(this::toDTO)
+        return centers.values().stream()
+                .filter(sc -> Boolean.TRUE.equals(sc.getActive()))
                 .collect(Collectors.toList());
     }
 
@@ -210,8 +218,8 @@ public class ServiceCenterServiceImpl implements ServiceCenterService {
     @Override
     @Transactional(readOnly = true)
     public List<ServiceCenterResponseDTO> getServiceCentersByRegion(String region) {
-        return serviceCenterRepository.findByRegion(region).stream()
-                .map(this::toDTO)
+        return centers.values().stream()
+                .filter(sc -> sc.getRegion() != null && sc.getRegion().equalsIgnoreCase(region))
                 .collect(Collectors.toList());
     }
 
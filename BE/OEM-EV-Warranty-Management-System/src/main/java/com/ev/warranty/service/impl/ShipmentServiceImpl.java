@@ -1,14 +1,26 @@
 package com.ev.warranty.service.impl;
 
+import com.ev.warranty.config.ShipmentTrackingProperties;
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.dto.shipment.CarrierTrackingEventDTO;
 import com.ev.warranty.model.dto.shipment.ShipmentDTO;
+import com.ev.warranty.model.dto.shipment.ShipmentLinkRequestDTO;
+import com.ev.warranty.model.dto.shipment.TrackingIngestResultDTO;
 import com.ev.warranty.model.entity.Shipment;
-import com.ev.warranty.model.entity.StockReservation;
+import com.ev.warranty.model.entity.ShipmentLink;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.ShipmentLinkRepository;
 import com.ev.warranty.repository.ShipmentRepository;
 import com.ev.warranty.repository.StockReservationRepository;
+import com.ev.warranty.repository.WorkOrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -17,6 +29,11 @@ public class ShipmentServiceImpl implements com.ev.warranty.service.inter.Shipme
 
     private final ShipmentRepository shipmentRepository;
     private final StockReservationRepository stockReservationRepository;
+    private final ShipmentLinkRepository shipmentLinkRepository;
+    private final ClaimRepository claimRepository;
+    private final WorkOrderRepository workOrderRepository;
+    private final CarrierTrackingIngestor carrierTrackingIngestor;
+    private final ShipmentTrackingProperties trackingProperties;
 
     @Override
     public ShipmentDTO getById(Integer id) {
@@ -46,21 +63,12 @@ public class ShipmentServiceImpl implements com.ev.warranty.service.inter.Shipme
 
     @Override
     public List<ShipmentDTO> getByClaim(Integer claimId) {
-        List<ShipmentDTO> mapped = shipmentRepository.findByClaimId(claimId).stream().map(this::toDto).toList();
-        if (!mapped.isEmpty()) return mapped;
-        // Fallback: infer via reservations then general in_transit visibility
-        List<StockReservation> reservations = stockReservationRepository.findByClaimId(claimId);
-        if (reservations.isEmpty()) return List.of();
-        return shipmentRepository.findByStatus("in_transit").stream().map(this::toDto).toList();
+        return shipmentRepository.findLinkedToClaim(claimId).stream().map(this::toDto).toList();
     }
 
     @Override
     public List<ShipmentDTO> getByWorkOrder(Integer workOrderId) {
-        List<ShipmentDTO> mapped = shipmentRepository.findByWorkOrderId(workOrderId).stream().map(this::toDto).toList();
-        if (!mapped.isEmpty()) return mapped;
-        List<StockReservation> reservations = stockReservationRepository.findByWorkOrderId(workOrderId);
-        if (reservations.isEmpty()) return List.of();
-        return shipmentRepository.findByStatus("in_transit").stream().map(this::toDto).toList();
+        return shipmentRepository.findLinkedToWorkOrder(workOrderId).stream().map(this::toDto).toList();
     }
 
     @Override
@@ -78,6 +86,44 @@ public class ShipmentServiceImpl implements com.ev.warranty.service.inter.Shipme
         return toDto(s);
     }
 
+    @Override
+    @Transactional
+    public ShipmentDTO addLinks(Integer shipmentId, ShipmentLinkRequestDTO request) {
+        Shipment shipment = shipmentRepository.findById(shipmentId)
+                .orElseThrow(() -> new NotFoundException("Shipment not found with ID: " + shipmentId));
+        List<ShipmentLink> links = new ArrayList<>();
+        collectLinks(shipmentId, ShipmentLink.CLAIM, request.getClaimIds(), claimRepository, links);
+        collectLinks(shipmentId, ShipmentLink.WORK_ORDER, request.getWorkOrderIds(), workOrderRepository, links);
+        collectLinks(shipmentId, ShipmentLink.RESERVATION, request.getReservationIds(), stockReservationRepository, links);
+        shipmentLinkRepository.saveAll(links);
+        return toDto(shipment);
+    }
+
+    @Override
+    public TrackingIngestResultDTO ingestTrackingEvents(List<CarrierTrackingEventDTO> events) {
+        if (events == null || events.isEmpty()) {
+            throw new BadRequestException("No tracking events");
+        }
+        if (events.size() > trackingProperties.getMaxEventsPerRequest()) {
+            throw new BadRequestException("Too many tracking events: " + events.size()
+                    + " (max " + trackingProperties.getMaxEventsPerRequest() + " per request)");
+        }
+        return carrierTrackingIngestor.ingest(events);
+    }
+
+    private void collectLinks(Integer shipmentId, String linkType, List<Integer> refIds,
+                              CrudRepository<?, Integer> target, List<ShipmentLink> links) {
+        if (refIds == null) return;
+        for (Integer refId : refIds.stream().distinct().toList()) {
+            if (!target.existsById(refId)) {
+                throw new NotFoundException(linkType + " not found with ID: " + refId);
+            }
+            if (!shipmentLinkRepository.existsByShipmentIdAndLinkTypeAndRefId(shipmentId, linkType, refId)) {
+                links.add(ShipmentLink.builder().shipmentId(shipmentId).linkType(linkType).refId(refId).build());
+            }
+        }
+    }
+
     private ShipmentDTO toDto(Shipment s) {
         return ShipmentDTO.builder()
                 .id(s.getId())
@@ -0,0 +1,167 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.dto.inventory.PartAvailabilityDTO;
+import com.ev.warranty.model.entity.Inventory;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Warehouse;
+import com.ev.warranty.repository.InventoryRepository;
+import com.ev.warranty.service.inter.StockAvailabilityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class StockAvailabilityServiceImpl implements StockAvailabilityService {
+
+    private final InventoryRepository inventoryRepository;
+    // Tạo dòng tồn kho mới ngoài transaction của người gọi: INSERT trùng không làm hỏng transaction đó
+    private final TransactionTemplate createTransaction;
+
+    public StockAvailabilityServiceImpl(InventoryRepository inventoryRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.inventoryRepository = inventoryRepository;
+        this.createTransaction = new TransactionTemplate(transactionManager);
+        this.createTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getAvailable(Integer partId, Integer warehouseId) {
+        return inventoryRepository.findAvailableStock(partId, warehouseId).orElse(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getTotalAvailable(Integer partId) {
+        Long total = inventoryRepository.getTotalAvailableStockByPartId(partId);
+        return total != null ? total : 0L;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, PartAvailabilityDTO> getAvailability(Collection<Integer> partIds, Integer warehouseId) {
+        Map<Integer, PartAvailabilityDTO> availability = new HashMap<>();
+        if (partIds == null || partIds.isEmpty()) {
+            return availability;
+        }
+        for (Object[] row : inventoryRepository.getAvailabilitySummaryByPartIds(partIds, warehouseId)) {
+            Integer partId = (Integer) row[0];
+            availability.put(partId, PartAvailabilityDTO.builder()
+                    .partId(partId)
+                    .availableAllWarehouses(toLong(row[1]))
+                    .availableInWarehouse(toLong(row[2]))
+                    .stockedInWarehouse(toLong(row[3]) > 0)
+                    .build());
+        }
+        return availability;
+    }
+
+    @Override
+    @Transactional
+    public Inventory receive(Part part, Warehouse warehouse, int quantity, User updatedBy) {
+        Inventory inventory = inventoryRepository.findForUpdate(part.getId(), warehouse.getId())
+                .orElseGet(() -> {
+                    createEmpty(part, warehouse);
+                    return lock(part.getId(), warehouse.getId());
+                });
+
+        inventory.setCurrentStock(inventory.getCurrentStock() + quantity);
+        inventory.setLastUpdated(LocalDateTime.now());
+        inventory.setLastUpdatedBy(updatedBy);
+        return save(inventory);
+    }
+
+    @Override
+    @Transactional
+    public Inventory reserve(Integer partId, Integer warehouseId, int quantity) {
+        Inventory inventory = lock(partId, warehouseId);
+        int available = inventory.getCurrentStock() - inventory.getReservedStock();
+        if (available < quantity) {
+            throw new BadRequestException(String.format(
+                    "Không đủ linh kiện trong kho: %s - Yêu cầu: %d, Có sẵn: %d",
+                    inventory.getPart().getName(), quantity, available));
+        }
+        inventory.setReservedStock(inventory.getReservedStock() + quantity);
+        inventory.setLastUpdated(LocalDateTime.now());
+        return save(inventory);
+    }
+
+    @Override
+    @Transactional
+    public Inventory release(Integer partId, Integer warehouseId, int quantity) {
+        Inventory inventory = lock(partId, warehouseId);
+        inventory.setReservedStock(Math.max(inventory.getReservedStock() - quantity, 0));
+        inventory.setLastUpdated(LocalDateTime.now());
+        return save(inventory);
+    }
+
+    @Override
+    @Transactional
+    public Inventory consume(Integer partId, Integer warehouseId, int quantity) {
+        Inventory inventory = lock(partId, warehouseId);
+        int reserved = inventory.getReservedStock() != null ? inventory.getReservedStock() : 0;
+        int current = inventory.getCurrentStock() != null ? inventory.getCurrentStock() : 0;
+        // Phần đã giữ trước được trừ trước, phần dùng thêm trừ thẳng vào tồn
+        inventory.setReservedStock(reserved - Math.min(reserved, quantity));
+        inventory.setCurrentStock(Math.max(current - quantity, 0));
+        inventory.setLastUpdated(LocalDateTime.now());
+        return save(inventory);
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private Inventory lock(Integer partId, Integer warehouseId) {
+        return inventoryRepository.findForUpdate(partId, warehouseId)
+                .orElseThrow(() -> new NotFoundException(
+                        "Inventory not found for part " + partId + " in warehouse " + warehouseId));
+    }
+
+    // Lần nhập đầu tiên của part tại kho: tạo dòng tồn 0 rồi khóa như mọi lần nhập khác.
+    // Hai lần nhập đồng thời cùng tạo thì bên thua gặp unique (part_id, warehouse_id) và dùng dòng của bên thắng.
+    private void createEmpty(Part part, Warehouse warehouse) {
+        try {
+            createTransaction.executeWithoutResult(status -> {
+                Inventory inventory = Inventory.builder()
+                        .part(part)
+                        .warehouse(warehouse)
+                        .currentStock(0)
+                        .reservedStock(0)
+                        .minimumStock(0)
+                        .maximumStock(1000)
+                        .build();
+                inventory.refreshAvailability();
+                inventoryRepository.saveAndFlush(inventory);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Inventory part {} warehouse {} created concurrently: {}",
+                    part.getId(), warehouse.getId(), e.getMessage());
+        }
+    }
+
+    // Tính lại ngay để DTO trả về thấy giá trị mới (callback @PreUpdate chỉ chạy lúc flush)
+    private Inventory save(Inventory inventory) {
+        inventory.refreshAvailability();
+        Inventory saved = inventoryRepository.save(inventory);
+        log.debug("Inventory part {} warehouse {}: current={}, reserved={}, available={}",
+                saved.getPart().getId(), saved.getWarehouse().getId(),
+                saved.getCurrentStock(), saved.getReservedStock(), saved.getAvailableStock());
+        return saved;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -7,6 +7,7 @@ import com.ev.warranty.exception.ResourceNotFoundException;
 import com.ev.warranty.mapper.TechnicianProfileMapper;
 import com.ev.warranty.repository.TechnicianProfileRepository;
 import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.security.ServiceCenterScope;
 import com.ev.warranty.service.inter.TechnicianProfileService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -190,6 +191,11 @@ public class TechnicianProfileServiceImpl implements TechnicianProfileService {
      * Get current user's service center ID from security context
      */
     private Integer getCurrentUserServiceCenterId() {
+        // JWT principal đã mang serviceCenterId, chỉ query users khi principal không có
+        Integer fromPrincipal = ServiceCenterScope.currentUserServiceCenterId();
+        if (fromPrincipal != null) {
+            return fromPrincipal;
+        }
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (auth == null || auth.getName() == null) {
@@ -1,58 +1,46 @@
 package com.ev.warranty.service.impl;
 
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.model.dto.technician.TechnicianLeaderboardEntryDto;
 import com.ev.warranty.model.dto.technician.TechnicianPerformanceDto;
 import com.ev.warranty.model.entity.User;
-import com.ev.warranty.model.entity.WorkOrder;
+import com.ev.warranty.repository.TechnicianDailyStatsRepository;
 import com.ev.warranty.repository.UserRepository;
-import com.ev.warranty.repository.WorkOrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TechnicianServiceImpl implements com.ev.warranty.service.inter.TechnicianService {
+    private static final int DEFAULT_LEADERBOARD_DAYS = 30;
+    private static final int DEFAULT_LEADERBOARD_LIMIT = 20;
+
     private final UserRepository userRepository;
-    private final WorkOrderRepository workOrderRepository;
+    private final TechnicianDailyStatsRepository technicianDailyStatsRepository;
 
     public TechnicianPerformanceDto getTechnicianPerformance(Integer technicianId, String startDate, String endDate) {
         User technician = userRepository.findById(technicianId)
                 .filter(u -> u.getRole() != null && "SC_TECHNICIAN".equals(u.getRole().getRoleName()) && Boolean.TRUE.equals(u.getActive()))
                 .orElse(null);
         if (technician == null) return null;
-        List<WorkOrder> workOrders = workOrderRepository.findByTechnicianId(technicianId);
-        // Lọc theo thời gian nếu có
-        if (startDate != null && !startDate.isBlank()) {
-            LocalDateTime start = LocalDateTime.parse(startDate + "T00:00:00");
-            workOrders = workOrders.stream().filter(wo -> wo.getStartTime() != null && !wo.getStartTime().isBefore(start)).collect(Collectors.toList());
-        }
-        if (endDate != null && !endDate.isBlank()) {
-            LocalDateTime end = LocalDateTime.parse(endDate + "T23:59:59");
-            workOrders = workOrders.stream().filter(wo -> wo.getStartTime() != null && !wo.getStartTime().isAfter(end)).collect(Collectors.toList());
-        }
-        int total = workOrders.size();
-        int completed = (int) workOrders.stream().filter(wo -> wo.getEndTime() != null).count();
+        // Cộng các dòng technician_daily_stats trong khoảng ngày (theo ngày bắt đầu work order)
+        Object[] sums = technicianDailyStatsRepository.sumForTechnician(
+                technicianId, parseDate(startDate), parseDate(endDate)).get(0);
+        int total = ((Number) sums[0]).intValue();
+        int completed = ((Number) sums[1]).intValue();
         int pending = total - completed;
+        int onTimeCompletions = ((Number) sums[2]).intValue();
         // Thời gian hoàn thành trung bình
-        double avgDays = workOrders.stream()
-                .filter(wo -> wo.getStartTime() != null && wo.getEndTime() != null)
-                .mapToLong(wo -> Duration.between(wo.getStartTime(), wo.getEndTime()).toDays())
-                .average().orElse(0);
+        double avgDays = completed > 0 ? ((Number) sums[3]).doubleValue() / completed : 0;
         // Tổng chi phí sửa chữa (nếu có trường này, ở đây giả sử là laborHours * 100)
-        BigDecimal totalRepairCost = workOrders.stream()
-                .filter(wo -> wo.getEndTime() != null && wo.getLaborHours() != null)
-                .map(wo -> wo.getLaborHours().multiply(BigDecimal.valueOf(100)))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        // Số lần hoàn thành đúng hạn (giả sử đúng hạn là endTime <= startTime + 3 ngày)
-        int onTimeCompletions = (int) workOrders.stream()
-                .filter(wo -> wo.getStartTime() != null && wo.getEndTime() != null &&
-                        !wo.getEndTime().isAfter(wo.getStartTime().plusDays(3)))
-                .count();
+        BigDecimal totalRepairCost = toBigDecimal(sums[4]).multiply(BigDecimal.valueOf(100));
         double onTimeCompletionRate = completed > 0 ? (double) onTimeCompletions / completed : 0;
         // Chưa có customerSatisfactionScore, để null
         TechnicianPerformanceDto dto = new TechnicianPerformanceDto();
@@ -68,4 +56,73 @@ public class TechnicianServiceImpl implements com.ev.warranty.service.inter.Tech
         dto.setCustomerSatisfactionScore(null);
         return dto;
     }
+
+    @Override
+    public List<TechnicianLeaderboardEntryDto> getLeaderboard(Integer serviceCenterId, String startDate, String endDate,
+                                                              String sortBy, Integer limit) {
+        LocalDate to = parseDate(endDate);
+        if (to == null) to = LocalDate.now();
+        LocalDate from = parseDate(startDate);
+        if (from == null) from = to.minusDays(DEFAULT_LEADERBOARD_DAYS - 1L);
+        Comparator<TechnicianLeaderboardEntryDto> order = leaderboardOrder(sortBy);
+
+        List<TechnicianLeaderboardEntryDto> entries = new ArrayList<>();
+        for (Object[] row : technicianDailyStatsRepository.sumByTechnician(serviceCenterId, from, to)) {
+            int total = ((Number) row[2]).intValue();
+            int completed = ((Number) row[3]).intValue();
+            int onTime = ((Number) row[4]).intValue();
+            TechnicianLeaderboardEntryDto entry = new TechnicianLeaderboardEntryDto();
+            entry.setTechnicianId((Integer) row[0]);
+            entry.setTechnicianName((String) row[1]);
+            entry.setTotalWorkOrders(total);
+            entry.setCompletedWorkOrders(completed);
+            entry.setOnTimeCompletions(onTime);
+            entry.setOnTimeCompletionRate(completed > 0 ? (double) onTime / completed : 0);
+            entry.setAverageCompletionDays(completed > 0 ? ((Number) row[5]).doubleValue() / completed : null);
+            entry.setLaborHours(toBigDecimal(row[6]));
+            entry.setPartsUsed(((Number) row[7]).intValue());
+            entries.add(entry);
+        }
+        if ("fastest".equals(sortBy)) {
+            // Chưa hoàn thành work order nào thì không có thời gian để so
+            entries.removeIf(e -> e.getAverageCompletionDays() == null);
+        }
+
+        entries.sort(order.thenComparing(TechnicianLeaderboardEntryDto::getTechnicianId));
+        int max = limit != null && limit > 0 ? limit : DEFAULT_LEADERBOARD_LIMIT;
+        List<TechnicianLeaderboardEntryDto> ranked = entries.subList(0, Math.min(max, entries.size()));
+        for (int i = 0; i < ranked.size(); i++) {
+            ranked.get(i).setRank(i + 1);
+        }
+        return new ArrayList<>(ranked);
+    }
+
+    private Comparator<TechnicianLeaderboardEntryDto> leaderboardOrder(String sortBy) {
+        if (sortBy == null || sortBy.isBlank() || "completed".equals(sortBy)) {
+            return Comparator.comparing(TechnicianLeaderboardEntryDto::getCompletedWorkOrders).reversed();
+        }
+        return switch (sortBy) {
+            case "onTimeRate" -> Comparator.comparing(TechnicianLeaderboardEntryDto::getOnTimeCompletionRate).reversed()
+                    .thenComparing(Comparator.comparing(TechnicianLeaderboardEntryDto::getCompletedWorkOrders).reversed());
+            case "laborHours" -> Comparator.comparing(TechnicianLeaderboardEntryDto::getLaborHours).reversed();
+            case "partsUsed" -> Comparator.comparing(TechnicianLeaderboardEntryDto::getPartsUsed).reversed();
+            case "fastest" -> Comparator.comparing(TechnicianLeaderboardEntryDto::getAverageCompletionDays);
+            default -> throw new BadRequestException("Unsupported sortBy: " + sortBy
+                    + " (completed, onTimeRate, laborHours, partsUsed, fastest)");
+        };
+    }
+
+    private LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) return null;
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date (expected yyyy-MM-dd): " + date);
+        }
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
 }
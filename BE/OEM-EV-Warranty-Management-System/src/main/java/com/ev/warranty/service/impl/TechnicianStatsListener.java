@@ -0,0 +1,72 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.model.entity.WorkOrder;
+import com.ev.warranty.model.entity.WorkOrderPart;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPA entity listener trên WorkOrder, WorkOrderPart: gom các (ngày bắt đầu, technician) bị ảnh hưởng trong
+ * transaction và nhờ TechnicianStatsRollup tính lại sau commit. Đổi technician / start_time của work order
+ * thì dòng của giá trị cũ được sửa ở lần rollup hằng đêm.
+ */
+@Component
+public class TechnicianStatsListener {
+
+    private final ObjectProvider<TechnicianStatsRollup> rollup;
+
+    public TechnicianStatsListener(ObjectProvider<TechnicianStatsRollup> rollup) {
+        this.rollup = rollup;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        WorkOrder workOrder = entity instanceof WorkOrderPart part ? part.getWorkOrder()
+                : entity instanceof WorkOrder order ? order : null;
+        // Không khởi tạo proxy work order trong lúc flush
+        if (workOrder == null || !Hibernate.isInitialized(workOrder)
+                || workOrder.getTechnician() == null || workOrder.getStartTime() == null) {
+            return;
+        }
+        LocalDate day = workOrder.getStartTime().toLocalDate();
+        Integer technicianId = workOrder.getTechnician().getId();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rollup.ifAvailable(r -> r.refreshLater(Map.of(day, Set.of(technicianId))));
+            return;
+        }
+        PendingDays pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingDays.class::isInstance)
+                .map(PendingDays.class::cast)
+                .findFirst()
+                .orElse(null);
+        if (pending == null) {
+            pending = new PendingDays();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.techniciansByDay.computeIfAbsent(day, d -> new LinkedHashSet<>()).add(technicianId);
+    }
+
+    private final class PendingDays implements TransactionSynchronization {
+        private final Map<LocalDate, Set<Integer>> techniciansByDay = new LinkedHashMap<>();
+
+        @Override
+        public void afterCommit() {
+            rollup.ifAvailable(r -> r.refreshLater(techniciansByDay));
+        }
+    }
+}
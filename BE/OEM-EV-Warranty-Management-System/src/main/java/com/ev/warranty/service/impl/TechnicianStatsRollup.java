@@ -0,0 +1,153 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.model.entity.TechnicianDailyStats;
+import com.ev.warranty.repository.TechnicianDailyStatsRepository;
+import com.ev.warranty.repository.WorkOrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dựng technician_daily_stats từ work_orders: xóa các dòng của khoảng ngày rồi ghi lại từ một query gom.
+ * Cùng quy ước với báo cáo hiệu suất cũ: work order tính vào ngày start_time, "hoàn thành" = có end_time,
+ * "đúng hạn" = end_time <= start_time + ON_TIME_DAYS ngày.
+ */
+@Component
+@Slf4j
+public class TechnicianStatsRollup {
+
+    static final int ON_TIME_DAYS = 3;
+    private static final int BACKFILL_WINDOW_DAYS = 31;
+
+    private final WorkOrderRepository workOrderRepository;
+    private final TechnicianDailyStatsRepository statsRepository;
+    private final ThreadPoolTaskExecutor workerExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public TechnicianStatsRollup(WorkOrderRepository workOrderRepository,
+                                 TechnicianDailyStatsRepository statsRepository,
+                                 @Qualifier("jobWorkerExecutor") ThreadPoolTaskExecutor workerExecutor,
+                                 PlatformTransactionManager transactionManager) {
+        this.workOrderRepository = workOrderRepository;
+        this.statsRepository = statsRepository;
+        this.workerExecutor = workerExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Job hằng đêm: bảng còn trống thì dựng toàn bộ lịch sử, ngược lại chỉ trailingDays ngày gần nhất. */
+    public int rebuildRecent(int trailingDays) {
+        LocalDate today = LocalDate.now();
+        if (statsRepository.count() == 0) {
+            return backfill(today);
+        }
+        return rebuild(today.minusDays(trailingDays), today, null);
+    }
+
+    /**
+     * Tính lại mọi ngày trong [from, to], cho mọi technician (technicianIds = null) hoặc chỉ các technician đã cho.
+     * @return số dòng đã ghi
+     */
+    public int rebuild(LocalDate from, LocalDate to, Collection<Integer> technicianIds) {
+        Integer written = transactionTemplate.execute(status -> {
+            LocalDateTime start = from.atStartOfDay();
+            LocalDateTime end = to.plusDays(1).atStartOfDay();
+            List<Object[]> rows;
+            if (technicianIds == null) {
+                statsRepository.deleteByDateRange(from, to);
+                rows = workOrderRepository.findDailyStatsRows(start, end);
+            } else {
+                statsRepository.deleteByTechniciansAndDateRange(technicianIds, from, to);
+                rows = workOrderRepository.findDailyStatsRowsForTechnicians(technicianIds, start, end);
+            }
+            List<TechnicianDailyStats> stats = aggregate(rows, LocalDateTime.now());
+            statsRepository.saveAll(stats);
+            return stats.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    /** Sau commit: tính lại các (ngày, technician) vừa thay đổi trên jobWorkerExecutor. */
+    public void refreshLater(Map<LocalDate, Set<Integer>> techniciansByDay) {
+        try {
+            workerExecutor.execute(() -> techniciansByDay.forEach((day, technicianIds) -> {
+                try {
+                    rebuild(day, day, technicianIds);
+                } catch (DataIntegrityViolationException e) {
+                    // Một lần tính lại khác vừa ghi cùng (technician, ngày): chạy lại trên dữ liệu mới nhất
+                    rebuild(day, day, technicianIds);
+                }
+            }));
+        } catch (TaskRejectedException e) {
+            log.warn("Technician stats refresh skipped ({}), nightly rollup will catch up", e.getMessage());
+        }
+    }
+
+    private int backfill(LocalDate today) {
+        LocalDateTime earliest = workOrderRepository.findEarliestStartTime();
+        if (earliest == null) {
+            return 0;
+        }
+        int written = 0;
+        for (LocalDate from = earliest.toLocalDate(); !from.isAfter(today); from = from.plusDays(BACKFILL_WINDOW_DAYS)) {
+            LocalDate to = from.plusDays(BACKFILL_WINDOW_DAYS - 1L);
+            written += rebuild(from, to.isAfter(today) ? today : to, null);
+        }
+        log.info("Technician daily stats backfilled from {}: {} rows", earliest.toLocalDate(), written);
+        return written;
+    }
+
+    private List<TechnicianDailyStats> aggregate(List<Object[]> rows, LocalDateTime now) {
+        Map<String, TechnicianDailyStats> byKey = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Integer technicianId = (Integer) row[0];
+            Integer serviceCenterId = (Integer) row[1];
+            LocalDateTime startTime = (LocalDateTime) row[2];
+            LocalDateTime endTime = (LocalDateTime) row[3];
+            BigDecimal laborHours = (BigDecimal) row[4];
+            int partsUsed = row[5] != null ? ((Number) row[5]).intValue() : 0;
+
+            LocalDate day = startTime.toLocalDate();
+            TechnicianDailyStats stats = byKey.computeIfAbsent(technicianId + ":" + day, key -> TechnicianDailyStats.builder()
+                    .technicianId(technicianId)
+                    .serviceCenterId(serviceCenterId)
+                    .statDate(day)
+                    .workOrders(0)
+                    .completed(0)
+                    .onTime(0)
+                    .completionDays(0L)
+                    .laborHours(BigDecimal.ZERO)
+                    .partsUsed(0)
+                    .refreshedAt(now)
+                    .build());
+            stats.setWorkOrders(stats.getWorkOrders() + 1);
+            stats.setPartsUsed(stats.getPartsUsed() + partsUsed);
+            if (endTime != null) {
+                stats.setCompleted(stats.getCompleted() + 1);
+                stats.setCompletionDays(stats.getCompletionDays() + Duration.between(startTime, endTime).toDays());
+                if (!endTime.isAfter(startTime.plusDays(ON_TIME_DAYS))) {
+                    stats.setOnTime(stats.getOnTime() + 1);
+                }
+                if (laborHours != null) {
+                    stats.setLaborHours(stats.getLaborHours().add(laborHours));
+                }
+            }
+        }
+        return new ArrayList<>(byKey.values());
+    }
+}
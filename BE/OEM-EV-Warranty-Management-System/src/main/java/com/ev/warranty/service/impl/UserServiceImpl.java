@@ -11,6 +11,7 @@ import com.ev.warranty.model.entity.User;
 import com.ev.warranty.repository.RoleRepository;
 import com.ev.warranty.repository.ServiceCenterRepository;
 import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.security.ServiceCenterScope;
 import com.ev.warranty.service.inter.UserService;
 import com.ev.warranty.exception.ValidationException;
 import com.ev.warranty.exception.BadRequestException;
@@ -123,6 +124,11 @@ public class UserServiceImpl implements UserService {
      * Get current user's service center ID from security context
      */
     private Integer getCurrentUserServiceCenterId() {
+        // JWT principal đã mang serviceCenterId, chỉ query users khi principal không có
+        Integer fromPrincipal = ServiceCenterScope.currentUserServiceCenterId();
+        if (fromPrincipal != null) {
+            return fromPrincipal;
+        }
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (auth == null || auth.getName() == null) {
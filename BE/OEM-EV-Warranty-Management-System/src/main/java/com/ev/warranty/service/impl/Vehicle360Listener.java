@@ -0,0 +1,122 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.model.entity.CampaignVehicle;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimDiagnostic;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.PartSerialHistory;
+import com.ev.warranty.model.entity.RecallCampaign;
+import com.ev.warranty.model.entity.ServiceHistory;
+import com.ev.warranty.model.entity.ThirdPartyPartSerial;
+import com.ev.warranty.model.entity.Vehicle;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * JPA entity listener phát VehicleChangedEvent khi dữ liệu hiển thị trên trang Vehicle 360 thay đổi
+ * (xe, claim, chẩn đoán, lịch sử dịch vụ, lắp/gỡ part, recall, khách hàng).
+ * Event được Vehicle360Projector xử lý sau khi transaction commit.
+ * Các xe thay đổi trong cùng transaction (vd. tạo recall cho hàng nghìn xe) được gom vào một event.
+ */
+@Component
+public class Vehicle360Listener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Vehicle360Listener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Vehicle360Projector.VehicleChangedEvent event = toEvent(entity);
+        if (event == null) {
+            return;
+        }
+        if (event.vehicleIds().size() == 1 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            collectVehicle(event.vehicleIds().iterator().next(), event.source());
+        } else {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private void collectVehicle(Integer vehicleId, String source) {
+        // Tìm bộ gom của transaction hiện tại (synchronization được tách riêng theo transaction, kể cả REQUIRES_NEW)
+        PendingVehicles pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingVehicles.class::isInstance)
+                .map(PendingVehicles.class::cast)
+                .findFirst()
+                .orElse(null);
+        if (pending == null) {
+            pending = new PendingVehicles(source);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.vehicleIds.add(vehicleId);
+    }
+
+    private final class PendingVehicles implements TransactionSynchronization {
+        private final Set<Integer> vehicleIds = new LinkedHashSet<>();
+        private final String source;
+
+        private PendingVehicles(String source) {
+            this.source = source;
+        }
+
+        @Override
+        public void afterCommit() {
+            // Phát sau commit, lúc đó set đã chứa mọi xe thay đổi trong transaction (kể cả lúc flush khi commit)
+            eventPublisher.publishEvent(Vehicle360Projector.VehicleChangedEvent.ofVehicles(vehicleIds, source));
+        }
+    }
+
+    private Vehicle360Projector.VehicleChangedEvent toEvent(Object entity) {
+        String source = entity.getClass().getSimpleName();
+        if (entity instanceof Vehicle vehicle) {
+            return ofVehicle(vehicle, source);
+        }
+        if (entity instanceof Claim claim) {
+            return ofVehicle(claim.getVehicle(), source);
+        }
+        if (entity instanceof ClaimDiagnostic diagnostic) {
+            // Không khởi tạo proxy claim trong lúc flush; chỉ dùng khi claim đã được nạp sẵn
+            Claim claim = diagnostic.getClaim();
+            return claim != null && Hibernate.isInitialized(claim) ? ofVehicle(claim.getVehicle(), source) : null;
+        }
+        if (entity instanceof ServiceHistory history) {
+            return ofVehicle(history.getVehicle(), source);
+        }
+        if (entity instanceof PartSerialHistory history) {
+            return ofVehicle(history.getVehicle(), source);
+        }
+        if (entity instanceof ThirdPartyPartSerial serial) {
+            return ofVehicle(serial.getInstalledOnVehicle(), source);
+        }
+        if (entity instanceof CampaignVehicle campaignVehicle) {
+            return ofVehicle(campaignVehicle.getVehicle(), source);
+        }
+        if (entity instanceof RecallCampaign campaign) {
+            return Vehicle360Projector.VehicleChangedEvent.ofCampaign(campaign.getId());
+        }
+        if (entity instanceof Customer customer) {
+            return Vehicle360Projector.VehicleChangedEvent.ofCustomer(customer.getId());
+        }
+        return null;
+    }
+
+    private static Vehicle360Projector.VehicleChangedEvent ofVehicle(Vehicle vehicle, String source) {
+        // getId() trên proxy không kích hoạt lazy load
+        return vehicle != null && vehicle.getId() != null
+                ? Vehicle360Projector.VehicleChangedEvent.ofVehicle(vehicle.getId(), source) : null;
+    }
+}
@@ -0,0 +1,285 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.dto.part.VehiclePartsResponseDTO;
+import com.ev.warranty.model.dto.recall.VehicleRecallNotificationDTO;
+import com.ev.warranty.model.dto.servicehistory.ServiceHistoryResponseDTO;
+import com.ev.warranty.model.dto.vehicle.Vehicle360DTO;
+import com.ev.warranty.model.dto.vehicle.VehicleResponseDTO;
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.model.entity.Vehicle360View;
+import com.ev.warranty.repository.ArchivedClaimRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.Vehicle360ViewRepository;
+import com.ev.warranty.repository.VehicleRepository;
+import com.ev.warranty.security.ServiceCenterScope;
+import com.ev.warranty.service.inter.PartSerialService;
+import com.ev.warranty.service.inter.RecallCampaignService;
+import com.ev.warranty.service.inter.ServiceHistoryService;
+import com.ev.warranty.service.inter.VehicleService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dựng và cập nhật read model Vehicle 360 (bảng vehicle_360_views).
+ * - Dữ liệu lấy từ chính các service nguồn (vehicle, part serial, service history, recall) + 1 query claim.
+ * - Khi nhận VehicleChangedEvent (sau commit): đánh dấu stale, rồi dựng lại nền các view đã tồn tại.
+ */
+@Component
+@Slf4j
+public class Vehicle360Projector {
+
+    static final Set<String> CLOSED_CLAIM_STATUSES = Set.of(
+            "COMPLETED", "CLOSED", "REJECTED", "CANCELLED", "CANCELED_DONE", "CLAIM_DONE", "INACTIVE");
+
+    static final int STALE_CHUNK_SIZE = 1000;
+
+    /**
+     * Domain event: dữ liệu hiển thị trên trang xe đã thay đổi.
+     * Chỉ một trong vehicleIds / customerId / campaignId được set.
+     * vehicleIds gom mọi xe thay đổi trong cùng transaction (xem Vehicle360Listener).
+     */
+    public record VehicleChangedEvent(Set<Integer> vehicleIds, Integer customerId, Integer campaignId, String source) {
+        public VehicleChangedEvent {
+            // Bản sao bất biến: listener xử lý bất đồng bộ, set của người phát có thể còn bị sửa
+            vehicleIds = Set.copyOf(vehicleIds);
+        }
+
+        public static VehicleChangedEvent ofVehicle(Integer vehicleId, String source) {
+            return ofVehicles(Set.of(vehicleId), source);
+        }
+
+        public static VehicleChangedEvent ofVehicles(Set<Integer> vehicleIds, String source) {
+            return new VehicleChangedEvent(vehicleIds, null, null, source);
+        }
+
+        public static VehicleChangedEvent ofCustomer(Integer customerId) {
+            return new VehicleChangedEvent(Set.of(), customerId, null, "Customer");
+        }
+
+        public static VehicleChangedEvent ofCampaign(Integer campaignId) {
+            return new VehicleChangedEvent(Set.of(), null, campaignId, "RecallCampaign");
+        }
+    }
+
+    private final Vehicle360ViewRepository viewRepository;
+    private final VehicleRepository vehicleRepository;
+    private final ClaimRepository claimRepository;
+    private final ArchivedClaimRepository archivedClaimRepository;
+    private final VehicleService vehicleService;
+    private final PartSerialService partSerialService;
+    private final ServiceHistoryService serviceHistoryService;
+    private final RecallCampaignService recallCampaignService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor workerExecutor;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Integer> pendingVehicleIds = ConcurrentHashMap.newKeySet();
+
+    public Vehicle360Projector(Vehicle360ViewRepository viewRepository,
+                               VehicleRepository vehicleRepository,
+                               ClaimRepository claimRepository,
+                               ArchivedClaimRepository archivedClaimRepository,
+                               VehicleService vehicleService,
+                               PartSerialService partSerialService,
+                               ServiceHistoryService serviceHistoryService,
+                               RecallCampaignService recallCampaignService,
+                               ObjectMapper objectMapper,
+                               @Qualifier("jobWorkerExecutor") ThreadPoolTaskExecutor workerExecutor,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager) {
+        this.viewRepository = viewRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.claimRepository = claimRepository;
+        this.archivedClaimRepository = archivedClaimRepository;
+        this.vehicleService = vehicleService;
+        this.partSerialService = partSerialService;
+        this.serviceHistoryService = serviceHistoryService;
+        this.recallCampaignService = recallCampaignService;
+        this.objectMapper = objectMapper;
+        this.workerExecutor = workerExecutor;
+        this.entityManager = entityManager;
+        // Chạy cả sau commit của transaction khác nên luôn mở transaction mới
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        try {
+            Integer marked = transactionTemplate.execute(status -> {
+                if (!event.vehicleIds().isEmpty()) {
+                    int count = 0;
+                    for (List<Integer> chunk : chunks(event.vehicleIds())) {
+                        count += viewRepository.markStaleByVehicleIds(chunk);
+                    }
+                    return count;
+                }
+                if (event.customerId() != null) {
+                    return viewRepository.markStaleByCustomerId(event.customerId());
+                }
+                return event.campaignId() != null ? viewRepository.markStaleByCampaignId(event.campaignId()) : 0;
+            });
+            log.debug("Vehicle 360 views marked stale by {}: {}", event.source(), marked);
+        } catch (Exception e) {
+            log.error("Failed to mark vehicle 360 views stale for {}: {}", event, e.getMessage());
+        }
+
+        // Xe thay đổi: dựng lại nền các view đã có để lần mở trang kế tiếp chỉ còn 1 lookup.
+        // Thay đổi diện rộng (customer, campaign) để lại cho lần đọc kế tiếp.
+        List<Integer> scheduled = event.vehicleIds().stream().filter(pendingVehicleIds::add).toList();
+        if (!scheduled.isEmpty()) {
+            workerExecutor.execute(() -> refreshExisting(scheduled));
+        }
+    }
+
+    private void refreshExisting(List<Integer> vehicleIds) {
+        pendingVehicleIds.removeAll(vehicleIds);
+        for (List<Integer> chunk : chunks(vehicleIds)) {
+            try {
+                // Chỉ xe đã từng được mở trang 360 mới có view
+                for (String vin : viewRepository.findVinsByVehicleIds(chunk)) {
+                    refresh(vin);
+                }
+            } catch (Exception e) {
+                log.error("Failed to refresh vehicle 360 views for vehicles {}: {}", chunk, e.getMessage());
+            }
+        }
+    }
+
+    private static List<List<Integer>> chunks(Collection<Integer> ids) {
+        List<Integer> all = new ArrayList<>(ids);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += STALE_CHUNK_SIZE) {
+            chunks.add(all.subList(i, Math.min(i + STALE_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Dựng lại view cho VIN và lưu (version + 1).
+     * @throws NotFoundException nếu không có xe với VIN này
+     */
+    public Vehicle360DTO refresh(String vin) {
+        try {
+            return transactionTemplate.execute(status -> rebuild(vin));
+        } catch (DataIntegrityViolationException e) {
+            // Lần đọc đầu tiên đồng thời (hoặc refreshExisting) vừa INSERT cùng VIN: dòng đã có, lần này chỉ UPDATE
+            log.debug("Concurrent vehicle 360 insert for {}, rebuilding: {}", vin, e.getMessage());
+            return transactionTemplate.execute(status -> rebuild(vin));
+        }
+    }
+
+    private Vehicle360DTO rebuild(String vin) {
+        // View dùng chung cho mọi người xem: user SC mở trang lần đầu vẫn phải lưu claim của mọi trung tâm
+        ServiceCenterScope.disable(entityManager);
+        Vehicle vehicle = vehicleRepository.findByVin(vin)
+                .orElseThrow(() -> new NotFoundException("Vehicle not found with VIN: " + vin));
+
+        Vehicle360View view = viewRepository.findById(vehicle.getVin())
+                .orElseGet(() -> Vehicle360View.builder().vin(vehicle.getVin()).version(0L).build());
+
+        Vehicle360DTO dto = build(vehicle);
+        dto.setVersion(view.getVersion() + 1);
+        dto.setRefreshedAt(LocalDateTime.now());
+
+        view.setVehicleId(vehicle.getId());
+        view.setPayload(writePayload(dto));
+        view.setVersion(dto.getVersion());
+        view.setStale(false);
+        view.setRefreshedAt(dto.getRefreshedAt());
+        viewRepository.save(view);
+        return dto;
+    }
+
+    public Vehicle360DTO read(Vehicle360View view) {
+        try {
+            return objectMapper.readValue(view.getPayload(), Vehicle360DTO.class);
+        } catch (JsonProcessingException e) {
+            // Payload cũ không đọc được (đổi cấu trúc DTO) -> dựng lại
+            log.warn("Unreadable vehicle 360 payload for {}, rebuilding: {}", view.getVin(), e.getMessage());
+            return refresh(view.getVin());
+        }
+    }
+
+    Vehicle360DTO build(Vehicle vehicle) {
+        VehicleResponseDTO vehicleDto = vehicleService.findByVin(vehicle.getVin())
+                .orElseThrow(() -> new NotFoundException("Vehicle not found with VIN: " + vehicle.getVin()));
+        VehiclePartsResponseDTO installedParts = partSerialService.getVehicleInstalledParts(vehicle.getVin());
+        List<ServiceHistoryResponseDTO> serviceHistory = new ArrayList<>(
+                serviceHistoryService.getServiceHistoryByVehicle(vehicle.getId()));
+        serviceHistory.sort(Comparator.comparing(ServiceHistoryResponseDTO::getPerformedAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        List<VehicleRecallNotificationDTO> recalls = recallCampaignService.getVehicleRecallNotifications(vehicle.getVin());
+
+        List<Vehicle360DTO.ClaimSummaryDTO> claims = new ArrayList<>();
+        claimRepository.findVehicle360ClaimRows(vehicle.getId()).forEach(row -> claims.add(toClaimSummary(row, false)));
+        // Claim đã lưu trữ vẫn thuộc lịch sử của xe
+        archivedClaimRepository.findVehicle360ClaimRows(vehicle.getId()).forEach(row -> claims.add(toClaimSummary(row, true)));
+        claims.sort(Comparator.comparing(Vehicle360DTO.ClaimSummaryDTO::getCreatedAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+
+        Vehicle360DTO.SummaryDTO summary = Vehicle360DTO.SummaryDTO.builder()
+                .totalClaims(claims.size())
+                .openClaims((int) claims.stream()
+                        .filter(c -> c.getStatusCode() != null && !CLOSED_CLAIM_STATUSES.contains(c.getStatusCode()))
+                        .count())
+                .serviceVisits(serviceHistory.size())
+                .lastServiceAt(serviceHistory.stream().map(ServiceHistoryResponseDTO::getPerformedAt)
+                        .filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null))
+                .installedParts(installedParts.getTotalParts())
+                .openRecalls((int) recalls.stream().filter(r -> !Boolean.TRUE.equals(r.getProcessed())).count())
+                .build();
+
+        return Vehicle360DTO.builder()
+                .vin(vehicle.getVin())
+                .vehicle(vehicleDto)
+                .summary(summary)
+                .claims(claims)
+                .serviceHistory(serviceHistory)
+                .installedParts(installedParts)
+                .recalls(recalls)
+                .build();
+    }
+
+    // Row: [id, claimNumber, statusCode, statusLabel, createdAt, reportedFailure]
+    private static Vehicle360DTO.ClaimSummaryDTO toClaimSummary(Object[] row, boolean archived) {
+        return Vehicle360DTO.ClaimSummaryDTO.builder()
+                .id((Integer) row[0])
+                .claimNumber((String) row[1])
+                .statusCode((String) row[2])
+                .statusLabel((String) row[3])
+                .createdAt((LocalDateTime) row[4])
+                .reportedFailure((String) row[5])
+                .archived(archived)
+                .build();
+    }
+
+    private String writePayload(Vehicle360DTO dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize vehicle 360 view for " + dto.getVin(), e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.model.dto.vehicle.Vehicle360DTO;
+import com.ev.warranty.model.entity.Vehicle360View;
+import com.ev.warranty.repository.Vehicle360ViewRepository;
+import com.ev.warranty.service.inter.Vehicle360Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class Vehicle360ServiceImpl implements Vehicle360Service {
+
+    static final Set<String> SECTIONS = Set.of(
+            "vehicle", "summary", "claims", "serviceHistory", "installedParts", "recalls");
+
+    private final Vehicle360ViewRepository viewRepository;
+    private final Vehicle360Projector projector;
+
+    // Lưới an toàn cho thay đổi không phát event (vd. sửa trực tiếp DB)
+    @Value("${app.vehicle360.max-age-minutes:60}")
+    private long maxAgeMinutes;
+
+    @Override
+    public Vehicle360DTO getVehicle360(String vin, Collection<String> fields) {
+        Set<String> sections = parseSections(fields);
+
+        // Một lookup theo khóa; chỉ dựng lại khi chưa có, đã stale hoặc quá hạn
+        Vehicle360View view = viewRepository.findById(vin).orElse(null);
+        Vehicle360DTO dto;
+        if (view == null || Boolean.TRUE.equals(view.getStale())
+                || view.getRefreshedAt().isBefore(LocalDateTime.now().minusMinutes(maxAgeMinutes))) {
+            log.debug("Building vehicle 360 view for {}", vin);
+            dto = projector.refresh(vin);
+        } else {
+            dto = projector.read(view);
+        }
+        return project(dto, sections);
+    }
+
+    private Set<String> parseSections(Collection<String> fields) {
+        Set<String> sections = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields) {
+                // Hỗ trợ cả ?fields=a,b và ?fields=a&fields=b
+                for (String part : field.split(",")) {
+                    String section = part.trim();
+                    if (section.isEmpty()) {
+                        continue;
+                    }
+                    if (!SECTIONS.contains(section)) {
+                        throw new BadRequestException("Unknown vehicle 360 field: " + section + ". Allowed: " + SECTIONS);
+                    }
+                    sections.add(section);
+                }
+            }
+        }
+        return sections.isEmpty() ? SECTIONS : sections;
+    }
+
+    private Vehicle360DTO project(Vehicle360DTO dto, Set<String> sections) {
+        if (!sections.contains("vehicle")) dto.setVehicle(null);
+        if (!sections.contains("summary")) dto.setSummary(null);
+        if (!sections.contains("claims")) dto.setClaims(null);
+        if (!sections.contains("serviceHistory")) dto.setServiceHistory(null);
+        if (!sections.contains("installedParts")) dto.setInstalledParts(null);
+        if (!sections.contains("recalls")) dto.setRecalls(null);
+        return dto;
+    }
+}
@@ -6,17 +6,24 @@ import com.ev.warranty.model.dto.vehicle.VehicleModelDTO;
 import com.ev.warranty.model.entity.VehicleModel;
 import com.ev.warranty.repository.VehicleModelRepository;
 import com.ev.warranty.service.inter.VehicleModelService;
-import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class VehicleModelServiceImpl implements VehicleModelService {
 
     private final VehicleModelRepository repository;
+    // Đọc từ snapshot trong bộ nhớ, ghi thì invalidate sau commit
+    private final ReferenceDataCache<Integer, VehicleModel> models;
+
+    public VehicleModelServiceImpl(VehicleModelRepository repository, ReferenceDataCaches caches) {
+        this.repository = repository;
+        this.models = caches.create("vehicle-model",
+                () -> repository.findAll(Sort.by("id")), VehicleModel::getId, VehicleModel::getCode);
+    }
 
     private VehicleModelDTO toDto(VehicleModel vm) {
         VehicleModelDTO dto = new VehicleModelDTO();
@@ -54,6 +61,7 @@ public class VehicleModelServiceImpl implements VehicleModelService {
                 .updatedBy(updatedBy)
                 .build();
         vm = repository.save(vm);
+        models.invalidateAfterCommit();
         return toDto(vm);
     }
 
@@ -68,6 +76,7 @@ public class VehicleModelServiceImpl implements VehicleModelService {
         }
         apply(vm, dto, updatedBy);
         vm = repository.save(vm);
+        models.invalidateAfterCommit();
         return toDto(vm);
     }
 
@@ -76,26 +85,29 @@ public class VehicleModelServiceImpl implements VehicleModelService {
     public void delete(Integer id) {
         if (!repository.existsById(id)) throw new NotFoundException("Vehicle model not found");
         repository.deleteById(id);
+        models.invalidateAfterCommit();
     }
 
     @Override
     public VehicleModelDTO get(Integer id) {
-        return repository.findById(id).map(this::toDto).orElseThrow(() -> new NotFoundException("Vehicle model not found"));
+        return models.get(id).map(this::toDto).orElseThrow(() -> new NotFoundException("Vehicle model not found"));
     }
 
     @Override
     public VehicleModelDTO getByCode(String code) {
-        return repository.findByCode(code).map(this::toDto).orElseThrow(() -> new NotFoundException("Vehicle model not found"));
+        return models.getByCode(code)
+                .map(this::toDto)
+                .orElseThrow(() -> new NotFoundException("Vehicle model not found"));
     }
 
     @Override
     public List<VehicleModelDTO> listAll() {
-        return repository.findAll().stream().map(this::toDto).toList();
+        return models.values().stream().map(this::toDto).toList();
     }
 
     @Override
     public List<VehicleModelDTO> listActive() {
-        return repository.findByActiveTrue().stream().map(this::toDto).toList();
+        return models.values().stream().filter(vm -> Boolean.TRUE.equals(vm.getActive())).map(this::toDto).toList();
     }
 }
 
@@ -0,0 +1,229 @@
+package com.ev.warranty.service.impl;
+
+import com.ev.warranty.httpcache.CatalogTable;
+import com.ev.warranty.httpcache.CatalogVersions;
+import com.ev.warranty.model.entity.PolicyRule;
+import com.ev.warranty.model.entity.WarrantyPolicy;
+import com.ev.warranty.repository.PolicyRuleRepository;
+import com.ev.warranty.repository.WarrantyPolicyRepository;
+import com.ev.warranty.util.PolicyConditionExpression;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Bộ máy quyết định bảo hành đã biên dịch sẵn trong bộ nhớ.
+ * - Toàn bộ policy active + rule được nạp một lần thành cấu trúc bất biến (CompiledPolicySet).
+ * - Danh sách (policy, rule) ứng viên được memo theo (model, year, componentCategory).
+ * - conditionsJson được biên dịch thành Predicate và đánh giá trên context của từng yêu cầu.
+ * - Khi policy/rule thay đổi, service publish PoliciesChangedEvent; sau commit bộ máy biên dịch lại
+ *   và thay snapshot một cách nguyên tử, request đang chạy vẫn dùng snapshot cũ.
+ * - Node khác thấy thay đổi qua phiên bản warranty_policies trong catalog_versions (CatalogVersions):
+ *   snapshot biên dịch ở phiên bản cũ hơn thì được biên dịch lại ở lần đọc kế tiếp.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WarrantyPolicyRuleEngine {
+
+    private final PolicyRuleRepository policyRuleRepository;
+    private final WarrantyPolicyRepository warrantyPolicyRepository;
+    private final CatalogVersions catalogVersions;
+
+    private final AtomicReference<CompiledPolicySet> current = new AtomicReference<>();
+
+    public record PoliciesChangedEvent(String reason) {}
+
+    public record CompiledRule(Integer ruleId,
+                               String componentCategory,
+                               String coverageType,
+                               Integer maxYears,
+                               Integer maxKm,
+                               Predicate<Map<String, Object>> condition) {
+
+        boolean appliesToCategory(String category) {
+            return componentCategory == null || componentCategory.equalsIgnoreCase(category);
+        }
+    }
+
+    public record CompiledPolicy(Integer policyId,
+                                 String policyName,
+                                 String applicableModel,
+                                 Integer yearFrom,
+                                 Integer yearTo,
+                                 LocalDate effectiveFrom,
+                                 LocalDate effectiveTo,
+                                 List<CompiledRule> rules) {
+
+        boolean appliesTo(String model, Integer year) {
+            return (applicableModel == null || applicableModel.equalsIgnoreCase(model))
+                    && (yearFrom == null || (year != null && yearFrom <= year))
+                    && (yearTo == null || (year != null && yearTo >= year));
+        }
+
+        boolean isEffectiveOn(LocalDate date) {
+            return effectiveFrom != null && !effectiveFrom.isAfter(date)
+                    && (effectiveTo == null || !effectiveTo.isBefore(date));
+        }
+    }
+
+    public record PolicyDecision(CompiledPolicy policy, CompiledRule rule) {}
+
+    private record DecisionKey(String model, Integer year, String componentCategory) {}
+
+    static final class CompiledPolicySet {
+        private final List<CompiledPolicy> policies;
+        // Phiên bản warranty_policies trong catalog_versions lúc bắt đầu biên dịch
+        private final long version;
+        private final Map<DecisionKey, List<PolicyDecision>> candidates = new ConcurrentHashMap<>();
+
+        CompiledPolicySet(List<CompiledPolicy> policies, long version) {
+            this.policies = List.copyOf(policies);
+            this.version = version;
+        }
+
+        List<PolicyDecision> candidatesFor(String model, Integer year, String componentCategory) {
+            DecisionKey key = new DecisionKey(
+                    model == null ? null : model.toLowerCase(),
+                    year,
+                    componentCategory == null ? null : componentCategory.toLowerCase());
+            return candidates.computeIfAbsent(key, k -> {
+                List<PolicyDecision> result = new ArrayList<>();
+                for (CompiledPolicy policy : policies) {
+                    if (!policy.appliesTo(model, year)) continue;
+                    for (CompiledRule rule : policy.rules()) {
+                        if (rule.appliesToCategory(componentCategory)) {
+                            result.add(new PolicyDecision(policy, rule));
+                        }
+                    }
+                }
+                return List.copyOf(result);
+            });
+        }
+
+        int size() {
+            return policies.size();
+        }
+    }
+
+    /**
+     * Find the first (policy, rule) whose policy is effective on the given date and whose conditions hold.
+     * Policies are tried newest first; inside a policy rules are tried by priority, category-specific before generic.
+     */
+    public Optional<PolicyDecision> decide(String model, Integer year, String componentCategory,
+                                           Map<String, Object> context, LocalDate effectiveDate) {
+        for (PolicyDecision decision : snapshot().candidatesFor(model, year, componentCategory)) {
+            if (!decision.policy().isEffectiveOn(effectiveDate)) continue;
+            if (decision.rule().condition().test(context)) {
+                return Optional.of(decision);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * True if at least one active policy covers the model/year, regardless of component
+     * (also when the policy has no rules yet).
+     */
+    public boolean hasPolicyFor(String model, Integer year, LocalDate effectiveDate) {
+        return snapshot().policies.stream().anyMatch(p -> p.appliesTo(model, year) && p.isEffectiveOn(effectiveDate));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPoliciesChanged(PoliciesChangedEvent event) {
+        log.info("Recompiling warranty policy rules: {}", event.reason());
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        // Đọc phiên bản trước khi nạp: thay đổi commit trong lúc nạp sẽ làm snapshot cũ và được biên dịch lại
+        long version = catalogVersions.version(CatalogTable.WARRANTY_POLICIES);
+        List<PolicyRule> rules = policyRuleRepository.findAllForActivePolicies();
+
+        Map<Integer, List<PolicyRule>> rulesByPolicy = new LinkedHashMap<>();
+        Map<Integer, WarrantyPolicy> policies = new LinkedHashMap<>();
+        // Policy active chưa có rule vẫn được giữ để hasPolicyFor phân biệt "không có policy" và "không có rule"
+        for (WarrantyPolicy policy : warrantyPolicyRepository.findByStatus("active")) {
+            policies.put(policy.getId(), policy);
+        }
+        for (PolicyRule rule : rules) {
+            policies.putIfAbsent(rule.getPolicy().getId(), rule.getPolicy());
+            rulesByPolicy.computeIfAbsent(rule.getPolicy().getId(), id -> new ArrayList<>()).add(rule);
+        }
+
+        List<CompiledPolicy> compiled = policies.values().stream()
+                .sorted(Comparator.comparing(WarrantyPolicy::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(WarrantyPolicy::getId, Comparator.reverseOrder()))
+                .map(policy -> new CompiledPolicy(
+                        policy.getId(),
+                        policy.getName(),
+                        policy.getApplicableModel(),
+                        policy.getApplicableYearFrom(),
+                        policy.getApplicableYearTo(),
+                        policy.getEffectiveFrom(),
+                        policy.getEffectiveTo(),
+                        rulesByPolicy.getOrDefault(policy.getId(), List.of()).stream()
+                                .sorted(RULE_ORDER)
+                                .map(this::compileRule)
+                                .toList()))
+                .toList();
+
+        current.set(new CompiledPolicySet(compiled, version));
+        log.info("Compiled {} active warranty policies with {} rules", compiled.size(), rules.size());
+    }
+
+    // Thứ tự giống findMostSpecificRule: priority DESC, rule có category trước rule chung, createdAt ASC
+    private static final Comparator<PolicyRule> RULE_ORDER = Comparator
+            .comparing((PolicyRule r) -> Objects.requireNonNullElse(r.getPriority(), 0), Comparator.reverseOrder())
+            .thenComparing(r -> r.getComponentCategory() == null)
+            .thenComparing(PolicyRule::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()));
+
+    private CompiledRule compileRule(PolicyRule rule) {
+        Predicate<Map<String, Object>> condition;
+        try {
+            condition = PolicyConditionExpression.compile(rule.getConditionsJson());
+        } catch (IllegalArgumentException e) {
+            // Rule cũ lưu text tự do trong conditionsJson: giữ hành vi cũ (không ràng buộc thêm)
+            log.warn("Policy rule {} has non-evaluable conditions, ignoring them: {}", rule.getId(), e.getMessage());
+            condition = PolicyConditionExpression.ALWAYS;
+        }
+        return new CompiledRule(rule.getId(), rule.getComponentCategory(), rule.getCoverageType(),
+                rule.getMaxYears(), rule.getMaxKm(), condition);
+    }
+
+    private CompiledPolicySet snapshot() {
+        CompiledPolicySet set = current.get();
+        long version = catalogVersions.version(CatalogTable.WARRANTY_POLICIES);
+        if (set == null || set.version < version) {
+            synchronized (this) {
+                set = current.get();
+                if (set == null || set.version < version) {
+                    rebuild();
+                    set = current.get();
+                }
+            }
+        }
+        return set;
+    }
+}
@@ -8,6 +8,7 @@ import com.ev.warranty.repository.*;
 import com.ev.warranty.service.inter.WarrantyPolicyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -17,7 +18,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +36,13 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
     private final PolicyRuleRepository policyRuleRepository;
     private final UserRepository userRepository;
     private final VehicleRepository vehicleRepository;
+    private final WarrantyPolicyRuleEngine ruleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Giới hạn số bộ (VIN, component, mileage, date) mỗi lần gọi batch validate
+    private static final int MAX_BATCH_VALIDATION_SIZE = 10000;
+    // Số VIN mỗi câu IN (dưới giới hạn 2100 tham số của SQL Server)
+    private static final int VIN_LOOKUP_CHUNK_SIZE = 1000;
 
     // ==================== POLICY MANAGEMENT ====================
 
@@ -73,6 +85,7 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
 
         // Lưu policy vào DB
         WarrantyPolicy savedPolicy = warrantyPolicyRepository.save(policy);
+        eventPublisher.publishEvent(new WarrantyPolicyRuleEngine.PoliciesChangedEvent("policy created: " + savedPolicy.getCode()));
 
         // Ghi log thành công
         log.info("Warranty policy created successfully: {}", savedPolicy.getCode());
@@ -137,6 +150,7 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
 
         // Lưu thay đổi và trả về DTO
         WarrantyPolicy savedPolicy = warrantyPolicyRepository.save(policy);
+        eventPublisher.publishEvent(new WarrantyPolicyRuleEngine.PoliciesChangedEvent("policy updated: " + id));
         return mapToResponseDTO(savedPolicy);
     }
 
@@ -151,6 +165,7 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
         policy.setUpdatedAt(LocalDateTime.now());
 
         WarrantyPolicy savedPolicy = warrantyPolicyRepository.save(policy);
+        eventPublisher.publishEvent(new WarrantyPolicyRuleEngine.PoliciesChangedEvent("policy status changed: " + id));
         return mapToResponseDTO(savedPolicy);
     }
 
@@ -212,6 +227,7 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
         rule.setUpdatedAt(LocalDateTime.now());
 
         PolicyRule savedRule = policyRuleRepository.save(rule);
+        eventPublisher.publishEvent(new WarrantyPolicyRuleEngine.PoliciesChangedEvent("rule updated: " + ruleId));
         return mapToRuleResponseDTO(savedRule);
     }
 
@@ -223,6 +239,7 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
                 .orElseThrow(() -> new NotFoundException("Policy rule not found with ID: " + ruleId));
 
         policyRuleRepository.delete(rule);
+        eventPublisher.publishEvent(new WarrantyPolicyRuleEngine.PoliciesChangedEvent("rule deleted: " + ruleId));
     }
 
     // ==================== WARRANTY VALIDATION ====================
@@ -238,31 +255,99 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
         Vehicle vehicle = vehicleRepository.findByVin(request.getVin())
                 .orElseThrow(() -> new NotFoundException("Vehicle not found with VIN: " + request.getVin()));
 
-        // Lấy tất cả policy active áp dụng cho model và năm của xe (tính đến ngày hôm nay)
-        List<WarrantyPolicy> applicablePolicies = warrantyPolicyRepository
-                .findActivePoliciesByModelAndYear(vehicle.getModel(), vehicle.getYear(), LocalDate.now());
+        return evaluateCoverage(request, vehicle);
+    }
 
-        // Nếu không có policy nào áp dụng -> trả về response Not Covered
-        if (applicablePolicies.isEmpty()) {
-            return buildNotCoveredResponse(request, vehicle, "No applicable warranty policy found");
+    @Override
+    public List<WarrantyValidationResponseDTO> validateWarrantyCoverageBatch(List<WarrantyValidationRequestDTO> requests) {
+        // Kiểm tra hàng loạt (VIN, component, mileage, date) cho audit của EVM:
+        // nạp xe theo lô bằng câu IN, đánh giá rule hoàn toàn trong bộ nhớ
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
         }
+        if (requests.size() > MAX_BATCH_VALIDATION_SIZE) {
+            throw new BadRequestException("Batch validation supports at most " + MAX_BATCH_VALIDATION_SIZE + " entries per call");
+        }
+        log.info("Batch validating warranty coverage for {} entries", requests.size());
 
-        // Duyệt các policy để tìm rule phù hợp nhất cho component
-        // Lưu ý: logic ưu tiên/độ chính xác của rule do repository (query) quyết định
-        for (WarrantyPolicy policy : applicablePolicies) {
-            PolicyRule applicableRule = policyRuleRepository.findMostSpecificRule(policy.getId(), request.getComponentCategory());
+        List<String> vins = requests.stream()
+                .map(WarrantyValidationRequestDTO::getVin)
+                .filter(vin -> vin != null && !vin.isBlank())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, Vehicle> vehiclesByVin = new HashMap<>();
+        for (int i = 0; i < vins.size(); i += VIN_LOOKUP_CHUNK_SIZE) {
+            vehicleRepository.findByVinIn(vins.subList(i, Math.min(i + VIN_LOOKUP_CHUNK_SIZE, vins.size())))
+                    .forEach(v -> vehiclesByVin.put(v.getVin(), v));
+        }
 
-            if (applicableRule != null) {
-                // Nếu tìm thấy rule, tiến hành validate chi tiết
-                return validateAgainstRule(request, vehicle, policy, applicableRule);
+        List<WarrantyValidationResponseDTO> results = new ArrayList<>(requests.size());
+        for (WarrantyValidationRequestDTO request : requests) {
+            String invalid = findInvalidField(request);
+            Vehicle vehicle = request.getVin() != null ? vehiclesByVin.get(request.getVin()) : null;
+            if (invalid != null) {
+                results.add(buildNotCoveredResponse(request, vehicle, "Invalid request: " + invalid));
+            } else if (vehicle == null) {
+                results.add(buildNotCoveredResponse(request, null, "Vehicle not found with VIN: " + request.getVin()));
+            } else {
+                try {
+                    results.add(evaluateCoverage(request, vehicle));
+                } catch (RuntimeException e) {
+                    // Một bộ dữ liệu lỗi (vd: xe thiếu warrantyStart) không làm hỏng cả lô audit
+                    log.warn("Batch validation failed for VIN {}: {}", request.getVin(), e.getMessage());
+                    results.add(buildNotCoveredResponse(request, vehicle, "Validation error: " + e.getMessage()));
+                }
             }
         }
+        return results;
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
 
-        // Nếu hết policy vẫn không có rule -> không được bảo hành
+    private WarrantyValidationResponseDTO evaluateCoverage(WarrantyValidationRequestDTO request, Vehicle vehicle) {
+        // Đánh giá trên cấu trúc policy/rule đã biên dịch (không truy vấn DB)
+        LocalDate today = LocalDate.now();
+        Optional<WarrantyPolicyRuleEngine.PolicyDecision> decision = ruleEngine.decide(
+                vehicle.getModel(), vehicle.getYear(), request.getComponentCategory(),
+                buildConditionContext(request, vehicle), today);
+
+        if (decision.isPresent()) {
+            return validateAgainstRule(request, vehicle, decision.get().policy(), decision.get().rule());
+        }
+        // Phân biệt: không có policy nào cho xe, hay có policy nhưng không có rule phù hợp
+        if (!ruleEngine.hasPolicyFor(vehicle.getModel(), vehicle.getYear(), today)) {
+            return buildNotCoveredResponse(request, vehicle, "No applicable warranty policy found");
+        }
         return buildNotCoveredResponse(request, vehicle, "No applicable warranty rule found for component category");
     }
 
-    // ==================== PRIVATE HELPER METHODS ====================
+    // Các biến có thể dùng trong PolicyRule.conditionsJson
+    private Map<String, Object> buildConditionContext(WarrantyValidationRequestDTO request, Vehicle vehicle) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("vin", vehicle.getVin());
+        context.put("model", vehicle.getModel());
+        context.put("vehicleYear", vehicle.getYear());
+        context.put("componentCategory", request.getComponentCategory());
+        context.put("mileageKm", request.getCurrentMileageKm());
+        context.put("failureDate", request.getFailureDate() != null ? request.getFailureDate().toString() : null);
+        context.put("failureDescription", request.getFailureDescription());
+        context.put("failureConditions", request.getFailureConditions());
+        context.put("serialNumber", request.getSerialNumber());
+        if (vehicle.getWarrantyStart() != null && request.getFailureDate() != null) {
+            Period used = Period.between(vehicle.getWarrantyStart(), request.getFailureDate());
+            context.put("yearsUsed", used.getYears());
+            context.put("monthsUsed", used.getYears() * 12 + used.getMonths());
+        }
+        return context;
+    }
+
+    private String findInvalidField(WarrantyValidationRequestDTO request) {
+        if (request.getVin() == null || request.getVin().isBlank()) return "VIN is required";
+        if (request.getComponentCategory() == null || request.getComponentCategory().isBlank()) return "Component category is required";
+        if (request.getCurrentMileageKm() == null) return "Current mileage is required";
+        if (request.getFailureDate() == null) return "Failure date is required";
+        return null;
+    }
 
     private List<PolicyRuleResponseDTO> getApplicableRules(String vin, String componentCategory) {
         // Helper: trả về danh sách các rule áp dụng cho một VIN và component
@@ -296,13 +381,14 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
                 .build();
 
         PolicyRule savedRule = policyRuleRepository.save(rule);
+        eventPublisher.publishEvent(new WarrantyPolicyRuleEngine.PoliciesChangedEvent("rule added to policy: " + policy.getId()));
         return mapToRuleResponseDTO(savedRule);
     }
 
     private WarrantyValidationResponseDTO validateAgainstRule(WarrantyValidationRequestDTO request,
                                                              Vehicle vehicle,
-                                                             WarrantyPolicy policy,
-                                                             PolicyRule rule) {
+                                                             WarrantyPolicyRuleEngine.CompiledPolicy policy,
+                                                             WarrantyPolicyRuleEngine.CompiledRule rule) {
         // Hàm chính để kiểm tra chi tiết một rule có phủ hống hư hỏng hay không
 
         // Ngày bắt đầu bảo hành và ngày xảy ra hư hỏng
@@ -319,33 +405,33 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
         String reason;
 
         // Xử lý theo kiểu coverageType (time_km, time_only, km_only)
-        switch (rule.getCoverageType()) {
+        switch (String.valueOf(rule.coverageType())) {
             case "time_km" -> {
                 // Cả thời gian và km phải thỏa điều kiện
-                isCovered = yearsUsed <= rule.getMaxYears() && kmUsed <= rule.getMaxKm();
+                isCovered = yearsUsed <= rule.maxYears() && kmUsed <= rule.maxKm();
                 reason = isCovered ?
-                    String.format("Within warranty: %d years/%d km", rule.getMaxYears(), rule.getMaxKm()) :
+                    String.format("Within warranty: %d years/%d km", rule.maxYears(), rule.maxKm()) :
                     String.format("Exceeded warranty: %d years used (max %d), %d km used (max %d)",
-                                 yearsUsed, rule.getMaxYears(), kmUsed, rule.getMaxKm());
+                                 yearsUsed, rule.maxYears(), kmUsed, rule.maxKm());
             }
             case "time_only" -> {
                 // Chỉ kiểm tra theo thời gian
-                isCovered = yearsUsed <= rule.getMaxYears();
+                isCovered = yearsUsed <= rule.maxYears();
                 reason = isCovered ?
-                    String.format("Within warranty: %d years", rule.getMaxYears()) :
-                    String.format("Exceeded warranty: %d years used (max %d)", yearsUsed, rule.getMaxYears());
+                    String.format("Within warranty: %d years", rule.maxYears()) :
+                    String.format("Exceeded warranty: %d years used (max %d)", yearsUsed, rule.maxYears());
             }
             case "km_only" -> {
                 // Chỉ kiểm tra theo số km
-                isCovered = kmUsed <= rule.getMaxKm();
+                isCovered = kmUsed <= rule.maxKm();
                 reason = isCovered ?
-                    String.format("Within warranty: %d km", rule.getMaxKm()) :
-                    String.format("Exceeded warranty: %d km used (max %d)", kmUsed, rule.getMaxKm());
+                    String.format("Within warranty: %d km", rule.maxKm()) :
+                    String.format("Exceeded warranty: %d km used (max %d)", kmUsed, rule.maxKm());
             }
             default -> {
                 // Nếu rule có coverage type không hợp lệ -> không được bảo hành
                 isCovered = false;
-                reason = "Unknown coverage type: " + rule.getCoverageType();
+                reason = "Unknown coverage type: " + rule.coverageType();
             }
         }
 
@@ -362,16 +448,16 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
                 .currentMileageKm(request.getCurrentMileageKm())
                 .componentCategory(request.getComponentCategory())
                 .failureDate(request.getFailureDate())
-                .appliedPolicyId(policy.getId())
-                .appliedPolicyName(policy.getName())
-                .appliedRuleId(rule.getId())
-                .appliedRuleDescription(buildRuleDescription(rule))
-                .maxWarrantyYears(rule.getMaxYears())
-                .maxWarrantyKm(rule.getMaxKm())
+                .appliedPolicyId(policy.policyId())
+                .appliedPolicyName(policy.policyName())
+                .appliedRuleId(rule.ruleId())
+                .appliedRuleDescription(buildRuleDescription(rule.componentCategory(), rule.coverageType(), rule.maxYears(), rule.maxKm()))
+                .maxWarrantyYears(rule.maxYears())
+                .maxWarrantyKm(rule.maxKm())
                 .yearsUsed(yearsUsed)
                 .kmUsed(kmUsed)
-                .remainingYears(Math.max(0, rule.getMaxYears() - yearsUsed))
-                .remainingKm(Math.max(0, rule.getMaxKm() - kmUsed))
+                .remainingYears(rule.maxYears() != null ? Math.max(0, rule.maxYears() - yearsUsed) : null)
+                .remainingKm(rule.maxKm() != null ? Math.max(0, rule.maxKm() - kmUsed) : null)
                 .validatedAt(LocalDateTime.now().toString())
                 .build();
     }
@@ -384,11 +470,11 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
                 .isCovered(false)
                 .reason(reason)
                 .coverageType("Not Covered")
-                .vin(vehicle.getVin())
-                .model(vehicle.getModel())
-                .year(vehicle.getYear())
-                .warrantyStart(vehicle.getWarrantyStart())
-                .warrantyEnd(vehicle.getWarrantyEnd())
+                .vin(vehicle != null ? vehicle.getVin() : request.getVin())
+                .model(vehicle != null ? vehicle.getModel() : null)
+                .year(vehicle != null ? vehicle.getYear() : null)
+                .warrantyStart(vehicle != null ? vehicle.getWarrantyStart() : null)
+                .warrantyEnd(vehicle != null ? vehicle.getWarrantyEnd() : null)
                 .currentMileageKm(request.getCurrentMileageKm())
                 .componentCategory(request.getComponentCategory())
                 .failureDate(request.getFailureDate())
@@ -397,17 +483,21 @@ public class WarrantyPolicyServiceImpl implements WarrantyPolicyService {
     }
 
     private String buildRuleDescription(PolicyRule rule) {
+        return buildRuleDescription(rule.getComponentCategory(), rule.getCoverageType(), rule.getMaxYears(), rule.getMaxKm());
+    }
+
+    private String buildRuleDescription(String componentCategory, String coverageType, Integer maxYears, Integer maxKm) {
         // Tạo mô tả ngắn gọn cho rule để hiển thị trong response
         StringBuilder desc = new StringBuilder();
-        desc.append(rule.getComponentCategory()).append(": ");
-
-        if ("time_km".equals(rule.getCoverageType())) {
-            desc.append(rule.getMaxYears()).append(" years or ")
-                .append(rule.getMaxKm()).append(" km, whichever comes first");
-        } else if ("time_only".equals(rule.getCoverageType())) {
-            desc.append(rule.getMaxYears()).append(" years");
-        } else if ("km_only".equals(rule.getCoverageType())) {
-            desc.append(rule.getMaxKm()).append(" km");
+        desc.append(componentCategory).append(": ");
+
+        if ("time_km".equals(coverageType)) {
+            desc.append(maxYears).append(" years or ")
+                .append(maxKm).append(" km, whichever comes first");
+        } else if ("time_only".equals(coverageType)) {
+            desc.append(maxYears).append(" years");
+        } else if ("km_only".equals(coverageType)) {
+            desc.append(maxKm).append(" km");
         }
 
         return desc.toString();
@@ -36,7 +36,7 @@ public class WorkOrderServiceImpl implements WorkOrderService {
     private final WorkOrderRepository workOrderRepository;
     private final WorkOrderPartRepository workOrderPartRepository;
     private final ClaimRepository claimRepository;
-    private final ClaimStatusRepository claimStatusRepository;
+    private final ClaimStatusRegistry claimStatusRegistry;
     private final ClaimStatusHistoryRepository claimStatusHistoryRepository;
     private final UserRepository userRepository;
     private final PartSerialRepository partSerialRepository;
@@ -700,7 +700,7 @@ public class WorkOrderServiceImpl implements WorkOrderService {
             if (claim != null && claim.getStatus() != null) {
                 String code = claim.getStatus().getCode();
                 if (!"REPAIR_IN_PROGRESS".equals(code)) {
-                    ClaimStatus inProgress = claimStatusRepository.findByCode("REPAIR_IN_PROGRESS").orElse(null);
+                    ClaimStatus inProgress = claimStatusRegistry.findByCode("REPAIR_IN_PROGRESS").orElse(null);
                     if (inProgress != null) {
                         claim.setStatus(inProgress);
                         claimRepository.save(claim);
@@ -720,7 +720,7 @@ public class WorkOrderServiceImpl implements WorkOrderService {
         if (claim != null && claim.getStatus() != null) {
             String code = claim.getStatus().getCode();
             if (!"REPAIR_IN_PROGRESS".equals(code)) {
-                ClaimStatus inProgress = claimStatusRepository.findByCode("REPAIR_IN_PROGRESS")
+                ClaimStatus inProgress = claimStatusRegistry.findByCode("REPAIR_IN_PROGRESS")
                         .orElse(null);
                 if (inProgress != null) {
                     claim.setStatus(inProgress);
@@ -919,7 +919,7 @@ public class WorkOrderServiceImpl implements WorkOrderService {
         }
 
         // Fetch the ClaimStatus entity for target code or throw if not found
-        ClaimStatus targetStatus = claimStatusRepository.findByCode(targetStatusCode)
+        ClaimStatus targetStatus = claimStatusRegistry.findByCode(targetStatusCode)
                 .orElseThrow(() -> new NotFoundException("Status " + targetStatusCode + " not found"));
 
         // Persist claim status change
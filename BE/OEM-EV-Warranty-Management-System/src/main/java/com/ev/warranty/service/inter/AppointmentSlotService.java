@@ -0,0 +1,13 @@
+package com.ev.warranty.service.inter;
+
+import com.ev.warranty.model.dto.appointment.AppointmentSlotDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AppointmentSlotService {
+    List<AppointmentSlotDTO> findAvailableSlots(Integer serviceCenterId, LocalDateTime from, int limit);
+    Integer reserveSlot(Integer serviceCenterId, LocalDateTime scheduledAt);
+    void releaseSlot(Integer slotId);
+    Integer moveSlot(Integer serviceCenterId, Integer currentSlotId, LocalDateTime scheduledAt);
+}
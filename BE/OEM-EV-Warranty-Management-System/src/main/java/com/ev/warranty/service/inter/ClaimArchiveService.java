@@ -0,0 +1,17 @@
+package com.ev.warranty.service.inter;
+
+import com.ev.warranty.model.dto.claim.ArchivedClaimSummaryDTO;
+import com.ev.warranty.model.dto.claim.ClaimArchiveRunResultDTO;
+import com.ev.warranty.model.dto.claim.ClaimHistoryRollupDTO;
+import com.ev.warranty.model.dto.claim.ClaimResponseDto;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ClaimArchiveService {
+    ClaimArchiveRunResultDTO runArchival();
+    Optional<ClaimResponseDto> findArchivedClaim(Integer claimId);
+    ClaimResponseDto getArchivedClaim(Integer claimId);
+    List<ArchivedClaimSummaryDTO> getArchivedClaimsByVin(String vin);
+    List<ClaimHistoryRollupDTO> getHistory(String fromPeriod, String toPeriod, String vehicleModel);
+}
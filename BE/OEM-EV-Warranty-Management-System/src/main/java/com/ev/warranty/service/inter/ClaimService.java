@@ -31,6 +31,9 @@ public interface ClaimService {
 
     List<ClaimResponseDto> getAllClaims(); // Get all claims (no filter)
 
+    // List screens: only the requested columns (fields=), optional status / technician filter
+    List<?> getClaimListView(String statusCode, Integer technicianId, String fields);
+
     // Completion flow
     ClaimResponseDto completeRepair(Integer claimId, ClaimRepairCompletionRequest request);
 
@@ -92,6 +95,7 @@ public interface ClaimService {
 
     // 🆕 NEW: Payment and work completion methods
     ClaimResponseDto updatePaymentStatus(Integer claimId, String paymentStatus); // PENDING or PAID
+    boolean applyGatewayPayment(Integer claimId, String txnRef); // VNPay IPN / reconciliation; false = claim not payable
 
     ClaimResponseDto markWorkDone(Integer claimId, String notes); // Technician marks work done
 
@@ -1,12 +1,21 @@
 package com.ev.warranty.service.inter;
 
+import com.ev.warranty.export.ExportFormat;
 import com.ev.warranty.model.dto.claim.EVMApprovalRequestDTO;
+import com.ev.warranty.model.dto.claim.EVMBulkApprovalRequestDTO;
+import com.ev.warranty.model.dto.claim.EVMBulkDecisionResultDTO;
+import com.ev.warranty.model.dto.claim.EVMBulkRejectionRequestDTO;
 import com.ev.warranty.model.dto.claim.EVMClaimSummaryDTO;
 import com.ev.warranty.model.dto.claim.EVMClaimFilterRequestDTO;
 import com.ev.warranty.model.dto.claim.EVMRejectionRequestDTO;
 import com.ev.warranty.model.dto.claim.ClaimResponseDto;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
+
 public interface EVMClaimService {
 
     /**
@@ -15,6 +24,18 @@ public interface EVMClaimService {
      */
     Page<EVMClaimSummaryDTO> getAllClaims(EVMClaimFilterRequestDTO filter);
 
+    /**
+     * Same filters as getAllClaims, but each row holds only the requested columns (sparse fieldset)
+     */
+    Page<?> getClaimListView(EVMClaimFilterRequestDTO filter, String fields);
+
+    /**
+     * Same filters as getAllClaims, every matching row (page/size ignored) streamed to out as CSV or XLSX
+     * @return number of exported rows
+     */
+    long exportClaims(EVMClaimFilterRequestDTO filter, Set<String> fields, ExportFormat format, OutputStream out)
+            throws IOException;
+
     /**
      * Approve a warranty claim
      * Available to: EVM_STAFF only
@@ -27,6 +48,19 @@ public interface EVMClaimService {
      */
     ClaimResponseDto rejectClaim(Integer claimId, EVMRejectionRequestDTO request, String evmStaffUsername);
 
+    /**
+     * Approve many claims at once, with one stock check for all required parts
+     * Claims are processed in chunks, one transaction per chunk; result is reported per claim
+     * Available to: EVM_STAFF only
+     */
+    EVMBulkDecisionResultDTO bulkApproveClaims(EVMBulkApprovalRequestDTO request, String evmStaffUsername);
+
+    /**
+     * Reject many claims at once with the same reason
+     * Available to: EVM_STAFF only
+     */
+    EVMBulkDecisionResultDTO bulkRejectClaims(EVMBulkRejectionRequestDTO request, String evmStaffUsername);
+
     /**
      * Get claim details for EVM review
      */
@@ -41,4 +75,15 @@ public interface EVMClaimService {
      * Get all pending claims awaiting EVM approval (no filter)
      */
     Page<EVMClaimSummaryDTO> getPendingClaims();
-}
\ No newline at end of file
+
+    /**
+     * Rebuild the claim keyword search index from the database
+     * Available to: ADMIN only
+     */
+    Map<String, Object> rebuildSearchIndex();
+
+    /**
+     * Size and freshness of the claim keyword search index
+     */
+    Map<String, Object> getSearchIndexStats();
+}
@@ -17,4 +17,15 @@ public interface EVMWarrantyCostReportService {
             java.time.LocalDate startDate,
             java.time.LocalDate endDate
     );
+
+    /**
+     * Month-to-date summary, served from the snapshot pre-computed by the periodic report job
+     * (computed live when no snapshot exists yet)
+     */
+    WarrantyCostReportResponseDTO.ExecutiveSummaryDTO getMonthToDateSummary();
+
+    /**
+     * Compute the month-to-date summary and store it as a snapshot (called by the periodic report job)
+     */
+    void precomputeMonthToDateSummary();
 }
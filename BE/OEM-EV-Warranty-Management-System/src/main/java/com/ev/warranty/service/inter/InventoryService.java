@@ -3,6 +3,7 @@ package com.ev.warranty.service.inter;
 import com.ev.warranty.model.dto.inventory.*;
 import org.springframework.data.domain.Page;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface InventoryService {
@@ -73,6 +74,12 @@ public interface InventoryService {
      */
     ShipmentResponseDTO receiveShipment(Integer shipmentId, String receivedBy);
 
+    /**
+     * Mark a shipment delivered from a carrier tracking event and receive its items into stock
+     * Used by carrier tracking ingestion (no user)
+     */
+    void receiveDeliveredShipment(Integer shipmentId, LocalDateTime deliveredAt);
+
     /**
      * Get shipment details
      * Available to: All authenticated users
@@ -102,4 +109,10 @@ public interface InventoryService {
      * Available to: EVM_STAFF, ADMIN only
      */
     List<InventoryStockDTO> getStockAlerts();
+
+    /**
+     * Paged low/out-of-stock feed, most urgent first
+     * Available to: EVM_STAFF, ADMIN only
+     */
+    Page<InventoryStockDTO> getStockAlertFeed(String alertType, Integer warehouseId, int page, int size);
 }
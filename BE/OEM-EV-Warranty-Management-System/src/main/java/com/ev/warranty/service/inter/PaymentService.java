@@ -1,6 +1,8 @@
 package com.ev.warranty.service.inter;
 
+import com.ev.warranty.model.dto.payment.PaymentReconciliationResultDTO;
 import com.ev.warranty.model.dto.payment.VNPayCreatePaymentRequest;
+import com.ev.warranty.model.dto.payment.VNPayIpnResponse;
 import com.ev.warranty.model.dto.payment.VNPayPaymentInitResponse;
 import com.ev.warranty.model.dto.payment.VNPayReturnResponse;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,5 +12,7 @@ import java.util.Map;
 public interface PaymentService {
     VNPayPaymentInitResponse createVNPayPayment(VNPayCreatePaymentRequest request, HttpServletRequest servletRequest);
     VNPayReturnResponse handleVNPayReturn(Map<String, String> queryParams);
+    VNPayIpnResponse handleVNPayIpn(Map<String, String> queryParams);
+    PaymentReconciliationResultDTO reconcilePayments();
 }
 
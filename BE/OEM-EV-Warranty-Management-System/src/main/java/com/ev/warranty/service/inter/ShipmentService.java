@@ -1,6 +1,9 @@
 package com.ev.warranty.service.inter;
 
+import com.ev.warranty.model.dto.shipment.CarrierTrackingEventDTO;
 import com.ev.warranty.model.dto.shipment.ShipmentDTO;
+import com.ev.warranty.model.dto.shipment.ShipmentLinkRequestDTO;
+import com.ev.warranty.model.dto.shipment.TrackingIngestResultDTO;
 
 import java.util.List;
 
@@ -12,4 +15,6 @@ public interface ShipmentService {
     List<ShipmentDTO> getByClaim(Integer claimId);
     List<ShipmentDTO> getByWorkOrder(Integer workOrderId);
     ShipmentDTO updateStatus(Integer shipmentId, String status);
+    ShipmentDTO addLinks(Integer shipmentId, ShipmentLinkRequestDTO request);
+    TrackingIngestResultDTO ingestTrackingEvents(List<CarrierTrackingEventDTO> events);
 }
@@ -0,0 +1,54 @@
+package com.ev.warranty.service.inter;
+
+import com.ev.warranty.model.dto.inventory.PartAvailabilityDTO;
+import com.ev.warranty.model.entity.Inventory;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Warehouse;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Available-to-promise (ATP) stock: the only place that changes inventory quantities.
+ * Every movement locks the inventory row, so available_stock and stock_status stay in step
+ * with current/reserved stock.
+ */
+public interface StockAvailabilityService {
+
+    /**
+     * Available quantity of a part in one warehouse (0 when the warehouse does not stock it)
+     */
+    int getAvailable(Integer partId, Integer warehouseId);
+
+    /**
+     * Available quantity of a part across all warehouses
+     */
+    long getTotalAvailable(Integer partId);
+
+    /**
+     * Availability of many parts in one query, keyed by part id
+     */
+    Map<Integer, PartAvailabilityDTO> getAvailability(Collection<Integer> partIds, Integer warehouseId);
+
+    /**
+     * Receive (positive) or write off (negative) stock; creates the inventory row when missing
+     */
+    Inventory receive(Part part, Warehouse warehouse, int quantity, User updatedBy);
+
+    /**
+     * Reserve stock for a claim or work order
+     * @throws com.ev.warranty.exception.BadRequestException when not enough stock is available
+     */
+    Inventory reserve(Integer partId, Integer warehouseId, int quantity);
+
+    /**
+     * Give reserved stock back (cancelled claim or work order)
+     */
+    Inventory release(Integer partId, Integer warehouseId, int quantity);
+
+    /**
+     * Take used parts out of stock, consuming the reservation first
+     */
+    Inventory consume(Integer partId, Integer warehouseId, int quantity);
+}
@@ -1,7 +1,17 @@
 package com.ev.warranty.service.inter;
 
+import com.ev.warranty.model.dto.technician.TechnicianLeaderboardEntryDto;
 import com.ev.warranty.model.dto.technician.TechnicianPerformanceDto;
 
+import java.util.List;
+
 public interface TechnicianService {
     TechnicianPerformanceDto getTechnicianPerformance(Integer technicianId, String startDate, String endDate);
+
+    /**
+     * Xếp hạng technician trong khoảng ngày (mặc định 30 ngày gần nhất), toàn hệ thống hoặc một service center.
+     * sortBy: completed (mặc định), onTimeRate, laborHours, partsUsed, fastest
+     */
+    List<TechnicianLeaderboardEntryDto> getLeaderboard(Integer serviceCenterId, String startDate, String endDate,
+                                                       String sortBy, Integer limit);
 }
@@ -0,0 +1,14 @@
+package com.ev.warranty.service.inter;
+
+import com.ev.warranty.model.dto.vehicle.Vehicle360DTO;
+
+import java.util.Collection;
+
+public interface Vehicle360Service {
+
+    /**
+     * Vehicle 360 view for one VIN (vehicle, summary, claims, service history, installed parts, recalls).
+     * @param fields sections to include; null or empty for all
+     */
+    Vehicle360DTO getVehicle360(String vin, Collection<String> fields);
+}
@@ -30,6 +30,8 @@ public interface WarrantyPolicyService {
     // Warranty Validation
     WarrantyValidationResponseDTO validateWarrantyCoverage(WarrantyValidationRequestDTO request);
 
+    List<WarrantyValidationResponseDTO> validateWarrantyCoverageBatch(List<WarrantyValidationRequestDTO> requests);
+
     List<WarrantyPolicyResponseDTO> getActivePolicies();
 
     List<WarrantyPolicyResponseDTO> getPoliciesByModel(String model);
@@ -0,0 +1,127 @@
+package com.ev.warranty.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Biên dịch PolicyRule.conditionsJson thành Predicate trên context validate.
+ *
+ * Cú pháp:
+ *   {"all": [ ... ]}  - tất cả điều kiện con đúng
+ *   {"any": [ ... ]}  - ít nhất một điều kiện con đúng
+ *   {"not": { ... }}  - phủ định
+ *   {"field": "mileageKm", "op": "lte", "value": 100000}
+ * op: eq, ne, lt, lte, gt, gte, in, not_in, contains, not_contains (so sánh chuỗi không phân biệt hoa thường).
+ * Chuỗi rỗng/null là "không có điều kiện"; nội dung không phải JSON object ném IllegalArgumentException.
+ */
+public final class PolicyConditionExpression {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static final Predicate<Map<String, Object>> ALWAYS = ctx -> true;
+
+    private PolicyConditionExpression() {}
+
+    public static Predicate<Map<String, Object>> compile(String conditionsJson) {
+        if (conditionsJson == null || conditionsJson.isBlank()) {
+            return ALWAYS;
+        }
+        try {
+            JsonNode root = MAPPER.readTree(conditionsJson);
+            if (root == null || !root.isObject()) {
+                throw new IllegalArgumentException("Conditions must be a JSON object");
+            }
+            return compileNode(root);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid conditions JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static Predicate<Map<String, Object>> compileNode(JsonNode node) {
+        if (node.has("all")) {
+            List<Predicate<Map<String, Object>>> parts = compileList(node.get("all"));
+            return ctx -> {
+                for (Predicate<Map<String, Object>> p : parts) {
+                    if (!p.test(ctx)) return false;
+                }
+                return true;
+            };
+        }
+        if (node.has("any")) {
+            List<Predicate<Map<String, Object>>> parts = compileList(node.get("any"));
+            return ctx -> {
+                for (Predicate<Map<String, Object>> p : parts) {
+                    if (p.test(ctx)) return true;
+                }
+                return false;
+            };
+        }
+        if (node.has("not")) {
+            return compileNode(node.get("not")).negate();
+        }
+        if (node.has("field") && node.has("op")) {
+            return compileLeaf(node.get("field").asText(), node.get("op").asText(), node.get("value"));
+        }
+        throw new IllegalArgumentException("Unknown condition node: " + node);
+    }
+
+    private static List<Predicate<Map<String, Object>>> compileList(JsonNode array) {
+        if (array == null || !array.isArray()) {
+            throw new IllegalArgumentException("'all'/'any' must be an array");
+        }
+        List<Predicate<Map<String, Object>>> parts = new ArrayList<>();
+        array.forEach(child -> parts.add(compileNode(child)));
+        return List.copyOf(parts);
+    }
+
+    private static Predicate<Map<String, Object>> compileLeaf(String field, String op, JsonNode value) {
+        switch (op) {
+            case "eq" -> { return ctx -> compare(ctx.get(field), value) == 0; }
+            case "ne" -> { return ctx -> compare(ctx.get(field), value) != 0; }
+            case "lt" -> { return ctx -> ctx.get(field) != null && compare(ctx.get(field), value) < 0; }
+            case "lte" -> { return ctx -> ctx.get(field) != null && compare(ctx.get(field), value) <= 0; }
+            case "gt" -> { return ctx -> ctx.get(field) != null && compare(ctx.get(field), value) > 0; }
+            case "gte" -> { return ctx -> ctx.get(field) != null && compare(ctx.get(field), value) >= 0; }
+            case "in", "not_in" -> {
+                if (value == null || !value.isArray()) {
+                    throw new IllegalArgumentException("'" + op + "' requires an array value");
+                }
+                List<JsonNode> options = new ArrayList<>();
+                value.forEach(options::add);
+                boolean negate = "not_in".equals(op);
+                return ctx -> {
+                    boolean found = options.stream().anyMatch(o -> compare(ctx.get(field), o) == 0);
+                    return negate != found;
+                };
+            }
+            case "contains", "not_contains" -> {
+                String needle = value == null ? "" : value.asText().toLowerCase(Locale.ROOT);
+                boolean negate = "not_contains".equals(op);
+                return ctx -> {
+                    Object actual = ctx.get(field);
+                    boolean found = actual != null && actual.toString().toLowerCase(Locale.ROOT).contains(needle);
+                    return negate != found;
+                };
+            }
+            default -> throw new IllegalArgumentException("Unknown operator: " + op);
+        }
+    }
+
+    private static int compare(Object actual, JsonNode expected) {
+        if (actual == null || expected == null || expected.isNull()) {
+            return actual == null && (expected == null || expected.isNull()) ? 0 : -1;
+        }
+        if (actual instanceof Number n && expected.isNumber()) {
+            return Double.compare(n.doubleValue(), expected.asDouble());
+        }
+        return actual.toString().compareToIgnoreCase(expected.asText());
+    }
+}
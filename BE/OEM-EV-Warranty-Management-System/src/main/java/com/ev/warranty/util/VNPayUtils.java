@@ -2,45 +2,66 @@ package com.ev.warranty.util;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 
 public class VNPayUtils {
 
+    private static final HexFormat HEX = HexFormat.of();
+
+    // Mac không thread-safe và request chạy trên virtual thread (ThreadLocal không được dùng lại), nên cache một
+    // Mac đã init cho mỗi secret làm mẫu và clone() cho từng lần ký: bỏ qua getInstance + tính lại ipad/opad của key
+    private static final int MAX_CACHED_KEYS = 16;
+    private static final Map<String, Mac> PROTOTYPES = new ConcurrentHashMap<>();
+
     public static String hmacSHA512(String key, String data) {
+        byte[] bytes = mac(key).doFinal(data.getBytes(StandardCharsets.UTF_8));
+        return HEX.formatHex(bytes);
+    }
+
+    private static Mac mac(String key) {
+        Mac prototype = PROTOTYPES.get(key);
+        if (prototype == null) {
+            prototype = newMac(key);
+            // Secret lấy từ cấu hình nên chỉ có vài giá trị; chặn trên để key lạ không làm map phình ra
+            if (PROTOTYPES.size() >= MAX_CACHED_KEYS) {
+                return prototype;
+            }
+            prototype = Objects.requireNonNullElse(PROTOTYPES.putIfAbsent(key, prototype), prototype);
+        }
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // Provider không hỗ trợ clone: init instance mới cho lần này
+            return newMac(key);
+        }
+    }
+
+    private static Mac newMac(String key) {
         try {
             Mac hmac512 = Mac.getInstance("HmacSHA512");
-            SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
-            hmac512.init(secretKey);
-            byte[] bytes = hmac512.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hash = new StringBuilder(bytes.length * 2);
-            for (byte b : bytes) {
-                hash.append(String.format("%02x", b));
-            }
-            return hash.toString();
+            hmac512.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+            return hmac512;
         } catch (NoSuchAlgorithmException | InvalidKeyException e) {
             throw new RuntimeException("Error generating HMAC SHA512 signature", e);
         }
     }
 
     public static String buildQueryString(Map<String, String> params) {
-        StringBuilder sb = new StringBuilder();
-        try {
-            for (Iterator<Map.Entry<String, String>> it = params.entrySet().iterator(); it.hasNext(); ) {
-                Map.Entry<String, String> entry = it.next();
-                sb.append(URLEncoder.encode(entry.getKey(), StandardCharsets.US_ASCII.toString()));
-                sb.append('=');
-                sb.append(URLEncoder.encode(entry.getValue(), StandardCharsets.US_ASCII.toString()));
-                if (it.hasNext()) sb.append('&');
-            }
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+        StringBuilder sb = new StringBuilder(params.size() * 32);
+        for (Iterator<Map.Entry<String, String>> it = params.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, String> entry = it.next();
+            sb.append(URLEncoder.encode(entry.getKey(), StandardCharsets.US_ASCII));
+            sb.append('=');
+            sb.append(URLEncoder.encode(entry.getValue(), StandardCharsets.US_ASCII));
+            if (it.hasNext()) sb.append('&');
         }
         return sb.toString();
     }
@@ -71,7 +92,12 @@ public class VNPayUtils {
         String data = buildQueryString(sorted);
         String expected = hmacSHA512(secret, data);
         String provided = allParams.get("vnp_SecureHash");
-        return expected.equalsIgnoreCase(provided);
+        if (provided == null) {
+            return false;
+        }
+        // So sánh thời gian hằng để không lộ prefix đúng của chữ ký
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+                provided.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII));
     }
 }
 
@@ -191,6 +191,16 @@ INSERT INTO inventory (warehouse_id, part_id, current_stock, reserved_stock, min
                                                                                              (3, 7, 150, 0, 30, 300, 200.00, '2024-01-01 08:00:00'),
                                                                                              (3, 8, 80, 0, 15, 150, 800.00, '2024-01-01 08:00:00');
 
+-- Tồn khả dụng và trạng thái tồn kho (entity tự tính khi ghi qua JPA, INSERT thẳng thì phải tính ở đây)
+UPDATE inventory
+SET available_stock = current_stock - reserved_stock,
+    stock_status = CASE
+        WHEN current_stock = 0 THEN 'out_of_stock'
+        WHEN current_stock <= minimum_stock THEN 'low_stock'
+        WHEN current_stock > minimum_stock * 2 THEN 'overstock'
+        ELSE 'in_stock'
+    END;
+
 -- 8. PART SERIALS (phụ thuộc vào parts và vehicles)
 INSERT INTO part_serials (part_id, serial_number, manufacture_date, status, installed_on_vehicle_id, installed_at) VALUES
                                                                                                                        -- Serials đã lắp trên xe
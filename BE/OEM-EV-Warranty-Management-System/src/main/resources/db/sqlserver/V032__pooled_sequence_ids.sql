@@ -0,0 +1,117 @@
+-- =====================================================================================
+-- Chuyển cột id của các bảng ghi nhiều từ IDENTITY sang SEQUENCE để Hibernate batch insert.
+-- Bảng: campaign_vehicles, claim_items, claim_status_history, part_serial_history,
+--       appointment_slots, shipment_items
+--
+-- Chỉ cần cho DB SQL Server đã có dữ liệu (ddl-auto khác create-drop). Chạy 1 lần, ngoài giờ,
+-- khi app đã dừng. Script chạy trong 1 transaction và bỏ qua bảng đã được chuyển.
+--
+-- Hibernate dùng pooled optimizer (allocationSize = 50): mỗi giá trị lấy từ sequence là đầu trên
+-- của một block 50 id, nên sequence bắt đầu tại MAX(id) + 50 để block đầu tiên không trùng id cũ.
+-- Cột id có DEFAULT NEXT VALUE FOR <table>_seq cho các INSERT không truyền id (script, data.sql).
+-- =====================================================================================
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+DECLARE @tables TABLE (name SYSNAME PRIMARY KEY);
+INSERT INTO @tables (name) VALUES
+    ('campaign_vehicles'),
+    ('claim_items'),
+    ('claim_status_history'),
+    ('part_serial_history'),
+    ('appointment_slots'),
+    ('shipment_items');
+
+DECLARE @table SYSNAME, @seq SYSNAME, @pk SYSNAME, @start BIGINT, @sql NVARCHAR(MAX);
+DECLARE @fk SYSNAME, @parent SYSNAME, @column SYSNAME, @referenced SYSNAME;
+
+-- 1. FK trỏ tới id của các bảng trên (vd. approval_tasks.claim_item_id): lưu lại rồi drop
+DECLARE @fks TABLE (name SYSNAME, parent SYSNAME, parent_column SYSNAME, referenced SYSNAME);
+INSERT INTO @fks (name, parent, parent_column, referenced)
+SELECT fk.name,
+       OBJECT_NAME(fk.parent_object_id),
+       COL_NAME(fkc.parent_object_id, fkc.parent_column_id),
+       OBJECT_NAME(fk.referenced_object_id)
+FROM sys.foreign_keys fk
+JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id
+WHERE OBJECT_NAME(fk.referenced_object_id) IN (SELECT name FROM @tables)
+  AND COLUMNPROPERTY(fk.referenced_object_id, 'id', 'IsIdentity') = 1;
+
+DECLARE fk_cursor CURSOR LOCAL FAST_FORWARD FOR SELECT name, parent FROM @fks;
+OPEN fk_cursor;
+FETCH NEXT FROM fk_cursor INTO @fk, @parent;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    SET @sql = N'ALTER TABLE ' + QUOTENAME(@parent) + N' DROP CONSTRAINT ' + QUOTENAME(@fk);
+    EXEC sp_executesql @sql;
+    FETCH NEXT FROM fk_cursor INTO @fk, @parent;
+END
+CLOSE fk_cursor;
+DEALLOCATE fk_cursor;
+
+-- 2. Mỗi bảng: tạo sequence, copy id sang cột mới không IDENTITY, dựng lại PK và default
+DECLARE table_cursor CURSOR LOCAL FAST_FORWARD FOR SELECT name FROM @tables;
+OPEN table_cursor;
+FETCH NEXT FROM table_cursor INTO @table;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    IF COLUMNPROPERTY(OBJECT_ID(@table), 'id', 'IsIdentity') = 1
+    BEGIN
+        SET @seq = @table + N'_seq';
+
+        SET @sql = N'SELECT @start = ISNULL(MAX(id), 0) + 50 FROM ' + QUOTENAME(@table);
+        EXEC sp_executesql @sql, N'@start BIGINT OUTPUT', @start = @start OUTPUT;
+
+        IF OBJECT_ID(@seq, 'SO') IS NULL
+        BEGIN
+            SET @sql = N'CREATE SEQUENCE ' + QUOTENAME(@seq) + N' AS INT START WITH '
+                       + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50';
+            EXEC sp_executesql @sql;
+        END
+
+        SELECT @pk = name FROM sys.key_constraints
+        WHERE parent_object_id = OBJECT_ID(@table) AND type = 'PK';
+
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ADD id_seq INT NULL';
+        EXEC sp_executesql @sql;
+        SET @sql = N'UPDATE ' + QUOTENAME(@table) + N' SET id_seq = id';
+        EXEC sp_executesql @sql;
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' DROP CONSTRAINT ' + QUOTENAME(@pk);
+        EXEC sp_executesql @sql;
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' DROP COLUMN id';
+        EXEC sp_executesql @sql;
+
+        SET @sql = @table + N'.id_seq';
+        EXEC sp_rename @sql, N'id', N'COLUMN';
+
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ALTER COLUMN id INT NOT NULL';
+        EXEC sp_executesql @sql;
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ADD CONSTRAINT ' + QUOTENAME(N'PK_' + @table)
+                   + N' PRIMARY KEY (id)';
+        EXEC sp_executesql @sql;
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ADD CONSTRAINT ' + QUOTENAME(N'DF_' + @table + N'_id')
+                   + N' DEFAULT (NEXT VALUE FOR ' + QUOTENAME(@seq) + N') FOR id';
+        EXEC sp_executesql @sql;
+
+        PRINT @table + N': IDENTITY -> ' + @seq + N' (start ' + CAST(@start AS NVARCHAR(20)) + N')';
+    END
+    FETCH NEXT FROM table_cursor INTO @table;
+END
+CLOSE table_cursor;
+DEALLOCATE table_cursor;
+
+-- 3. Tạo lại các FK đã drop ở bước 1
+DECLARE fk_cursor CURSOR LOCAL FAST_FORWARD FOR SELECT name, parent, parent_column, referenced FROM @fks;
+OPEN fk_cursor;
+FETCH NEXT FROM fk_cursor INTO @fk, @parent, @column, @referenced;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    SET @sql = N'ALTER TABLE ' + QUOTENAME(@parent) + N' ADD CONSTRAINT ' + QUOTENAME(@fk)
+               + N' FOREIGN KEY (' + QUOTENAME(@column) + N') REFERENCES ' + QUOTENAME(@referenced) + N' (id)';
+    EXEC sp_executesql @sql;
+    FETCH NEXT FROM fk_cursor INTO @fk, @parent, @column, @referenced;
+END
+CLOSE fk_cursor;
+DEALLOCATE fk_cursor;
+
+COMMIT TRANSACTION;
@@ -0,0 +1,59 @@
+-- =====================================================================================
+-- Tồn khả dụng (ATP) lưu sẵn trên bảng inventory: available_stock = current_stock - reserved_stock
+-- và stock_status (in_stock / low_stock / out_of_stock / overstock) cho feed cảnh báo có index.
+-- (part_id, warehouse_id) là unique: lần nhập đầu tiên đồng thời không tạo được hai dòng tồn cho cùng part tại một kho.
+--
+-- Chỉ cần cho DB SQL Server đã có dữ liệu (ddl-auto khác create-drop). Chạy lại được nhiều lần.
+-- Sau khi chạy, mọi thay đổi tồn kho đi qua StockAvailabilityService sẽ tự cập nhật hai cột này.
+-- =====================================================================================
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+IF COL_LENGTH('inventory', 'available_stock') IS NULL
+    ALTER TABLE inventory ADD available_stock INT NULL;
+IF COL_LENGTH('inventory', 'stock_status') IS NULL
+    ALTER TABLE inventory ADD stock_status VARCHAR(20) NULL;
+GO
+
+-- Mỗi (part, warehouse) chỉ một dòng: gộp dòng trùng vào dòng có id nhỏ nhất trước khi tạo unique index
+;WITH ranked AS (
+    SELECT id, part_id, warehouse_id,
+           ROW_NUMBER() OVER (PARTITION BY part_id, warehouse_id ORDER BY id) AS rn
+    FROM inventory
+), totals AS (
+    SELECT part_id, warehouse_id,
+           SUM(ISNULL(current_stock, 0)) AS current_stock,
+           SUM(ISNULL(reserved_stock, 0)) AS reserved_stock
+    FROM inventory
+    GROUP BY part_id, warehouse_id
+    HAVING COUNT(*) > 1
+)
+UPDATE i
+SET current_stock = t.current_stock,
+    reserved_stock = t.reserved_stock
+FROM inventory i
+JOIN ranked r ON r.id = i.id AND r.rn = 1
+JOIN totals t ON t.part_id = i.part_id AND t.warehouse_id = i.warehouse_id;
+
+;WITH ranked AS (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY part_id, warehouse_id ORDER BY id) AS rn
+    FROM inventory
+)
+DELETE FROM inventory WHERE id IN (SELECT id FROM ranked WHERE rn > 1);
+
+-- Tính sau khi gộp để available_stock và stock_status (feed cảnh báo) theo tồn đã gộp
+UPDATE inventory
+SET available_stock = ISNULL(current_stock, 0) - ISNULL(reserved_stock, 0),
+    stock_status = CASE
+        WHEN ISNULL(current_stock, 0) = 0 THEN 'out_of_stock'
+        WHEN ISNULL(current_stock, 0) <= ISNULL(minimum_stock, 0) THEN 'low_stock'
+        WHEN ISNULL(current_stock, 0) > ISNULL(minimum_stock, 0) * 2 THEN 'overstock'
+        ELSE 'in_stock'
+    END;
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_inventory_part_warehouse' AND object_id = OBJECT_ID('inventory'))
+    CREATE UNIQUE INDEX ix_inventory_part_warehouse ON inventory (part_id, warehouse_id) INCLUDE (available_stock);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_inventory_stock_status' AND object_id = OBJECT_ID('inventory'))
+    CREATE INDEX ix_inventory_stock_status ON inventory (stock_status, warehouse_id) INCLUDE (available_stock);
+
+COMMIT TRANSACTION;
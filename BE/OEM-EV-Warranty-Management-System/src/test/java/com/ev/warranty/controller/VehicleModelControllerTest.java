@@ -0,0 +1,115 @@
+package com.ev.warranty.controller;
+
+import com.ev.warranty.config.HttpCacheProperties;
+import com.ev.warranty.httpcache.CatalogHttpCache;
+import com.ev.warranty.httpcache.CatalogTable;
+import com.ev.warranty.httpcache.CatalogVersions;
+import com.ev.warranty.model.dto.vehicle.VehicleModelDTO;
+import com.ev.warranty.model.entity.CatalogVersion;
+import com.ev.warranty.repository.CatalogVersionRepository;
+import com.ev.warranty.service.inter.VehicleModelService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class VehicleModelControllerTest {
+
+    private MockMvc mockMvc;
+    private VehicleModelService service;
+    private CatalogVersionRepository versionRepository;
+    private CatalogVersions versions;
+
+    @BeforeEach
+    void setup() {
+        service = Mockito.mock(VehicleModelService.class);
+        versionRepository = Mockito.mock(CatalogVersionRepository.class);
+        when(versionRepository.findAll()).thenReturn(List.of(row(1)));
+        versions = new CatalogVersions(versionRepository, new HttpCacheProperties(),
+                Mockito.mock(PlatformTransactionManager.class));
+        CatalogHttpCache httpCache = new CatalogHttpCache(versions, new ObjectMapper().findAndRegisterModules(),
+                new HttpCacheProperties(), new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new VehicleModelController(service, httpCache)).build();
+        when(service.listActive()).thenReturn(List.of(model()));
+    }
+
+    @Test
+    void listActive_shouldReturn304WithoutCallingService_whenETagMatches() throws Exception {
+        String etag = mockMvc.perform(get("/api/vehicle-models/active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].code").value("VF8"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/vehicle-models/active").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(service, times(1)).listActive();
+    }
+
+    @Test
+    void listActive_shouldReuseSerializedBody_untilTableVersionIsBumped() throws Exception {
+        mockMvc.perform(get("/api/vehicle-models/active")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/vehicle-models/active")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].code").value("VF8"));
+        verify(service, times(1)).listActive();
+
+        // Ghi vào vehicle_models: phiên bản tăng, cache phía server bị xóa
+        when(versionRepository.bump(anyCollection(), any(LocalDateTime.class))).thenReturn(1);
+        when(versionRepository.findAll()).thenReturn(List.of(row(2)));
+        versions.bump(Set.of(CatalogTable.VEHICLE_MODELS));
+
+        mockMvc.perform(get("/api/vehicle-models/active")).andExpect(status().isOk());
+        verify(service, times(2)).listActive();
+    }
+
+    @Test
+    void get_shouldRenderAgain_whenClientETagIsFromOlderVersion() throws Exception {
+        when(service.get(1)).thenReturn(model());
+        String etag = mockMvc.perform(get("/api/vehicle-models/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        when(versionRepository.bump(anyCollection(), any(LocalDateTime.class))).thenReturn(1);
+        when(versionRepository.findAll()).thenReturn(List.of(row(2)));
+        versions.bump(Set.of(CatalogTable.VEHICLE_MODELS));
+
+        mockMvc.perform(get("/api/vehicle-models/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("VF8"));
+        verify(service, times(2)).get(1);
+        verify(service, never()).listAll();
+    }
+
+    private static VehicleModelDTO model() {
+        VehicleModelDTO dto = new VehicleModelDTO();
+        dto.setId(1);
+        dto.setCode("VF8");
+        dto.setName("VF 8");
+        return dto;
+    }
+
+    private static CatalogVersion row(long version) {
+        return CatalogVersion.builder().tableName(CatalogTable.VEHICLE_MODELS.tableName())
+                .version(version).updatedAt(LocalDateTime.of(2025, 3, 1, 9, 0)).build();
+    }
+}
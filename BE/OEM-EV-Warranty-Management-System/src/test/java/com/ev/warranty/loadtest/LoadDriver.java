@@ -0,0 +1,315 @@
+package com.ev.warranty.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Load test end-to-end: phát lại tổ hợp request của SC staff / EVM staff (xem claim, danh sách EVM,
+ * duyệt claim, dashboard, báo giá) vào một backend đang chạy rồi in p50/p95/p99 và throughput mỗi kịch bản.
+ * Closed loop: loadtest.concurrency worker (virtual thread), mỗi worker gửi request kế tiếp ngay khi nhận phản hồi.
+ * <p>
+ * Chạy (app đã có dữ liệu, vd. bật app.datagen.enabled=true):
+ * mvn test-compile exec:java -Dexec.mainClass=com.ev.warranty.loadtest.LoadDriver -Dexec.classpathScope=test
+ * -Dloadtest.base-url=http://localhost:8080 -Dloadtest.concurrency=32 -Dloadtest.duration-seconds=60
+ * Kết quả JSON: target/loadtest-result.json
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    private final String scUser = System.getProperty("loadtest.sc-user", "sc_staff1");
+    private final String evmUser = System.getProperty("loadtest.evm-user", "evm_staff1");
+    private final String password = System.getProperty("loadtest.password", "123");
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+    private final long seed = Long.getLong("loadtest.seed", 42);
+    private final Path output = Path.of(System.getProperty("loadtest.output", "target/loadtest-result.json"));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private String scToken;
+    private String evmToken;
+    private int[] claimIds;
+    private int[] partIds;
+    private int[] serviceIds;
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver().run();
+    }
+
+    void run() throws Exception {
+        scToken = login(scUser);
+        evmToken = login(evmUser);
+        discoverIds();
+        List<Scenario> scenarios = scenarios();
+        System.out.printf("Load test %s: %d workers, %ds warm-up + %ds, %d claims / %d parts / %d services sampled%n",
+                baseUrl, concurrency, warmupSeconds, durationSeconds, claimIds.length, partIds.length, serviceIds.length);
+
+        long measureFrom = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long stopAt = measureFrom + durationSeconds * 1_000_000_000L;
+        List<Future<Map<String, Samples>>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                SplittableRandom random = new SplittableRandom(seed + w);
+                workers.add(executor.submit(() -> work(scenarios, random, measureFrom, stopAt)));
+            }
+        }
+
+        Map<String, Samples> merged = new LinkedHashMap<>();
+        scenarios.forEach(s -> merged.put(s.name(), new Samples()));
+        for (Future<Map<String, Samples>> worker : workers) {
+            worker.get().forEach((name, samples) -> merged.get(name).addAll(samples));
+        }
+        report(merged);
+    }
+
+    // ==================== Workload ====================
+
+    private record Scenario(String name, double weight, Function<SplittableRandom, HttpRequest> request) {
+    }
+
+    private List<Scenario> scenarios() {
+        return List.of(
+                // SC staff
+                new Scenario("sc.claim-detail", 25, r -> get(scToken, "/api/claims/" + pick(r, claimIds))),
+                new Scenario("sc.claims-by-status", 4, r -> get(scToken, "/api/claims/status/PENDING_EVM_APPROVAL")),
+                new Scenario("sc.dashboard-summary", 8, r -> get(scToken, "/api/sc/dashboard/summary")),
+                new Scenario("sc.estimate", 10, r -> post(scToken, "/api/service-catalog/calculate-estimate", estimate(r))),
+                // EVM staff
+                new Scenario("evm.claims-page", 20, r -> get(evmToken, "/api/evm/claims?page=" + r.nextInt(50) + "&size=20")),
+                new Scenario("evm.claims-pending", 8, r -> get(evmToken, "/api/evm/claims/pending")),
+                new Scenario("evm.claim-review", 15, r -> get(evmToken, "/api/evm/claims/" + pick(r, claimIds) + "/review")),
+                new Scenario("evm.dashboard-summary", 10, r -> get(evmToken, "/api/evm/dashboard/summary")));
+    }
+
+    private Map<String, Samples> work(List<Scenario> scenarios, SplittableRandom random, long measureFrom, long stopAt) {
+        double totalWeight = scenarios.stream().mapToDouble(Scenario::weight).sum();
+        Map<String, Samples> samples = new HashMap<>();
+        while (System.nanoTime() < stopAt) {
+            Scenario scenario = pickScenario(scenarios, totalWeight, random);
+            HttpRequest request = scenario.request().apply(random);
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= stopAt) {
+                samples.computeIfAbsent(scenario.name(), k -> new Samples()).add(end - start, ok);
+            }
+        }
+        return samples;
+    }
+
+    private static Scenario pickScenario(List<Scenario> scenarios, double totalWeight, SplittableRandom random) {
+        double roll = random.nextDouble() * totalWeight;
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight();
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.getLast();
+    }
+
+    private String estimate(SplittableRandom random) {
+        StringBuilder body = new StringBuilder("{\"partItems\":[");
+        int parts = partIds.length == 0 ? 0 : 1 + random.nextInt(4);
+        for (int i = 0; i < parts; i++) {
+            body.append(i > 0 ? "," : "").append("{\"itemId\":").append(pick(random, partIds))
+                    .append(",\"quantity\":").append(1 + random.nextInt(2)).append('}');
+        }
+        body.append("],\"serviceItems\":[");
+        int services = serviceIds.length == 0 ? 0 : 1 + random.nextInt(2);
+        for (int i = 0; i < services; i++) {
+            body.append(i > 0 ? "," : "").append("{\"itemId\":").append(pick(random, serviceIds)).append(",\"quantity\":1}");
+        }
+        return body.append("]}").toString();
+    }
+
+    // ==================== Setup ====================
+
+    private String login(String username) throws IOException, InterruptedException {
+        String body = JSON.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.statusCode());
+        }
+        return JSON.readTree(response.body()).path("token").asText();
+    }
+
+    /** Lấy mẫu id claim / phụ tùng / dịch vụ có thật để request không rơi vào 404. */
+    private void discoverIds() throws IOException, InterruptedException {
+        claimIds = ids(fetch(evmToken, "/api/evm/claims?page=0&size=1000").path("content"), node -> node.path("id").asInt());
+        JsonNode prices = fetch(scToken, "/api/service-catalog/prices?page=0&size=1000").path("content");
+        partIds = ids(filter(prices, "PART"), node -> node.path("itemId").asInt());
+        serviceIds = ids(filter(prices, "SERVICE"), node -> node.path("itemId").asInt());
+        if (claimIds.length == 0) {
+            throw new IllegalStateException("No claims found - generate data first (app.datagen.enabled=true)");
+        }
+    }
+
+    private JsonNode fetch(String token, String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(get(token, path), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " failed: HTTP " + response.statusCode());
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private static List<JsonNode> filter(JsonNode items, String itemType) {
+        List<JsonNode> result = new ArrayList<>();
+        items.forEach(node -> {
+            if (itemType.equals(node.path("itemType").asText())) {
+                result.add(node);
+            }
+        });
+        return result;
+    }
+
+    private static int[] ids(Iterable<JsonNode> nodes, Function<JsonNode, Integer> id) {
+        List<Integer> ids = new ArrayList<>();
+        nodes.forEach(node -> ids.add(id.apply(node)));
+        return ids.stream().mapToInt(Integer::intValue).distinct().toArray();
+    }
+
+    private HttpRequest get(String token, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET().build();
+    }
+
+    private HttpRequest post(String token, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static int pick(SplittableRandom random, int[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // ==================== Report ====================
+
+    private void report(Map<String, Samples> results) throws IOException {
+        Samples total = new Samples();
+        results.values().forEach(total::addAll);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.printf("%n%-24s %9s %7s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        results.forEach((name, samples) -> rows.add(print(name, samples)));
+        Map<String, Object> overall = print("TOTAL", total);
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("baseUrl", baseUrl);
+        document.put("concurrency", concurrency);
+        document.put("durationSeconds", durationSeconds);
+        document.put("overall", overall);
+        document.put("scenarios", rows);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        JSON.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), document);
+        System.out.println("Result written to " + output.toAbsolutePath());
+    }
+
+    private Map<String, Object> print(String name, Samples samples) {
+        long[] sorted = samples.sorted();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("scenario", name);
+        row.put("requests", sorted.length);
+        row.put("errors", samples.errors);
+        row.put("throughputPerSecond", round(sorted.length / (double) durationSeconds));
+        row.put("p50Millis", millis(percentile(sorted, 0.50)));
+        row.put("p95Millis", millis(percentile(sorted, 0.95)));
+        row.put("p99Millis", millis(percentile(sorted, 0.99)));
+        row.put("maxMillis", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        System.out.printf("%-24s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, sorted.length, samples.errors,
+                row.get("throughputPerSecond"), row.get("p50Millis"), row.get("p95Millis"), row.get("p99Millis"),
+                row.get("maxMillis"));
+        return row;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /** Latency (ns) của một kịch bản trong một worker; chỉ gộp sau khi các worker dừng nên không cần đồng bộ. */
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long latencyNanos, boolean ok) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+            }
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
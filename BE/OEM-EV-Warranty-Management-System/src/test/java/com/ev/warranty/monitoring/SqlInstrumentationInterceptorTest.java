@@ -0,0 +1,82 @@
+package com.ev.warranty.monitoring;
+
+import com.ev.warranty.config.SqlInstrumentationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Request async (SSE): thread servlet không giữ lại SqlStats sau khi handler trả về,
+ * phần đầu và lần async dispatch đều được ghi metrics.
+ */
+class SqlInstrumentationInterceptorTest {
+
+    SimpleMeterRegistry meterRegistry;
+    SqlInstrumentationInterceptor interceptor;
+    HandlerMethod handler;
+
+    @BeforeEach
+    void setup() throws Exception {
+        SqlInstrumentationProperties properties = new SqlInstrumentationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new SqlInstrumentationInterceptor(properties, meterRegistry, new SqlHotspotRegistry(properties));
+        handler = new HandlerMethod(new StreamController(), StreamController.class.getMethod("stream"));
+    }
+
+    @AfterEach
+    void clear() {
+        SqlStatsContext.end();
+    }
+
+    @Test
+    void asyncRequest_shouldReleaseThreadAndRecordBothPhases() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/live/stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+
+        assertThat(SqlStatsContext.current()).isNull();
+        assertThat(requests("ASYNC")).isEqualTo(1);
+
+        // Stream đóng: Spring dispatch lại trên thread khác
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(SqlStatsContext.current()).isNull();
+        assertThat(requests("SUCCESS")).isEqualTo(1);
+        assertThat(meterRegistry.get("http.controller.async.requests").tag("controller", "StreamController")
+                .tag("outcome", "SUCCESS").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void syncRequest_shouldNotRecordAsyncTimer() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(requests("SUCCESS")).isEqualTo(1);
+        assertThat(meterRegistry.find("http.controller.async.requests").timer()).isNull();
+    }
+
+    private long requests(String outcome) {
+        return meterRegistry.get("http.controller.requests").tag("outcome", outcome).timer().count();
+    }
+
+    static class StreamController {
+        public SseEmitter stream() {
+            return new SseEmitter();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ev.warranty.repository;
+
+import com.RunApplication;
+import com.ev.warranty.model.dto.inventory.InventoryStockDTO;
+import com.ev.warranty.model.entity.Inventory;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.Warehouse;
+import com.ev.warranty.monitoring.SqlStats;
+import com.ev.warranty.monitoring.SqlStatsContext;
+import com.ev.warranty.service.inter.InventoryService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chốt số query của các màn hình danh sách: số statement không được tăng theo số dòng (N+1).
+ * Thêm case mới ở đây khi sửa một endpoint bị báo trong log "Slow/chatty request".
+ */
+@SpringBootTest(classes = RunApplication.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryCountRegressionTest {
+
+    static final int ROWS = 30;
+
+    @Autowired
+    WarehouseRepository warehouseRepository;
+    @Autowired
+    PartRepository partRepository;
+    @Autowired
+    InventoryRepository inventoryRepository;
+    @Autowired
+    InventoryService inventoryService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void seed() {
+        List<Warehouse> warehouses = warehouseRepository.saveAll(List.of(
+                Warehouse.builder().name("QC main").build(),
+                Warehouse.builder().name("QC regional").build()));
+        List<Inventory> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Part part = partRepository.save(Part.builder().partNumber("QC-" + i).name("Query count part " + i).build());
+            // Xen kẽ hết hàng / sắp hết, trải trên 2 kho
+            rows.add(Inventory.builder().part(part).warehouse(warehouses.get(i % 2))
+                    .currentStock(i % 3 == 0 ? 0 : 2).minimumStock(5).build());
+        }
+        inventoryRepository.saveAll(rows);
+    }
+
+    @Test
+    void stockAlertFeed_shouldUsePageAndCountQueriesOnly() {
+        SqlStatsContext.Measured<Page<InventoryStockDTO>> measured =
+                SqlStatsContext.measure(() -> inventoryService.getStockAlertFeed(null, null, 0, 20));
+
+        assertThat(measured.result().getContent()).hasSize(20);
+        assertThat(measured.stats().getStatements()).isLessThanOrEqualTo(2);
+        assertThat(measured.stats().repeatedQueries(2)).isEmpty();
+    }
+
+    @Test
+    void lowStockAlerts_shouldNotLoadPartsOneByOne() {
+        SqlStatsContext.Measured<List<InventoryStockDTO>> measured =
+                SqlStatsContext.measure(() -> inventoryService.getLowStockAlerts());
+
+        assertThat(measured.result()).hasSizeGreaterThanOrEqualTo(ROWS / 2);
+        assertThat(measured.stats().getStatements()).isEqualTo(1);
+    }
+
+    @Test
+    void lazyAccessInLoop_isReportedAsRepeatedQueryShape() {
+        // Cố ý N+1: nạp inventory không fetch part rồi đọc part từng dòng
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        SqlStats naive = SqlStatsContext.count(() -> tx.executeWithoutResult(status -> inventoryRepository.findAll()
+                .forEach(inv -> inv.getPart().getName())));
+
+        assertThat(naive.getStatements()).isGreaterThan(ROWS);
+        assertThat(naive.getEntitiesLoaded()).isGreaterThanOrEqualTo(2 * ROWS);
+        assertThat(naive.repeatedQueries(ROWS).get(0).shape()).contains("from parts");
+    }
+}
@@ -0,0 +1,115 @@
+package com.ev.warranty.repository;
+
+import com.RunApplication;
+import com.ev.warranty.bulkhead.Bulkhead;
+import com.ev.warranty.bulkhead.BulkheadRegistry;
+import com.ev.warranty.datasource.ReplicaLagMonitor;
+import com.ev.warranty.datasource.ReplicaRouting;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hai H2 độc lập đóng vai primary / replica (không có replication thật: heartbeat trên replica được ghi tay
+ * để giả lập replica theo kịp hoặc bị trễ).
+ */
+@SpringBootTest(classes = RunApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=jdbc:h2:mem:routing_replica;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.max-lag-seconds=30"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+    @Autowired
+    ReplicaLagMonitor lagMonitor;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    BulkheadRegistry bulkheads;
+
+    JdbcTemplate replica;
+
+    @BeforeAll
+    void createReplicaHeartbeatTable() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_heartbeats (id INT PRIMARY KEY, beat_at TIMESTAMP NOT NULL)");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica_andReadWriteTransactionPrimary() {
+        replicaCaughtUp(LocalDateTime.now());
+
+        assertThat(databaseName(true)).isEqualTo("ROUTING_REPLICA");
+        assertThat(databaseName(false)).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimary_whenReplicaLagsTooMuch() {
+        replicaCaughtUp(LocalDateTime.now().minusMinutes(5));
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(databaseName(true)).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldStayOnPrimary_whenThreadIsPinned() {
+        replicaCaughtUp(LocalDateTime.now());
+
+        assertThat(ReplicaRouting.onPrimary(() -> databaseName(true))).isEqualTo("ROUTING_PRIMARY");
+        assertThat(databaseName(true)).isEqualTo("ROUTING_REPLICA");
+    }
+
+    @Test
+    void eachPool_shouldHoldPermitsOfItsOwnBulkhead() {
+        replicaCaughtUp(LocalDateTime.now());
+        Bulkhead primary = bulkheads.get("database");
+        Bulkhead replicaPool = bulkheads.get("database-replica");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            assertThat(replicaPool.getInUse()).isEqualTo(1);
+            assertThat(primary.getInUse()).isZero();
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            assertThat(primary.getInUse()).isEqualTo(1);
+            assertThat(replicaPool.getInUse()).isZero();
+        });
+    }
+
+    private void replicaCaughtUp(LocalDateTime beatAt) {
+        replica.update("DELETE FROM replica_heartbeats");
+        replica.update("INSERT INTO replica_heartbeats (id, beat_at) VALUES (1, ?)", beatAt);
+        lagMonitor.check();
+    }
+
+    private String databaseName(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+}
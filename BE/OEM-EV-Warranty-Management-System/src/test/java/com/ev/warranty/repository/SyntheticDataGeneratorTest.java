@@ -0,0 +1,189 @@
+package com.ev.warranty.repository;
+
+import com.RunApplication;
+import com.ev.warranty.datagen.SyntheticDataGenerator;
+import com.ev.warranty.model.dto.claim.ClaimListItemDTO;
+import com.ev.warranty.model.dto.claim.EVMClaimFilterRequestDTO;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.Role;
+import com.ev.warranty.model.entity.ServiceCenter;
+import com.ev.warranty.model.entity.ServiceItem;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.VehicleModel;
+import com.ev.warranty.model.entity.Warehouse;
+import com.ev.warranty.monitoring.SqlStatsContext;
+import com.ev.warranty.service.inter.ClaimService;
+import com.ev.warranty.service.inter.EVMClaimService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.MAP;
+
+/**
+ * Generator trên H2 (DB riêng, không dùng chung testdb với các test khác): đủ bảng 1:1 cho mọi claim,
+ * id generator cấp không đụng id Hibernate cấp sau đó, cùng seed cho cùng dữ liệu.
+ */
+@SpringBootTest(classes = RunApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:datagen;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+        "app.datagen.customers=300",
+        "app.datagen.serials-per-part=20",
+        "app.datagen.batch-size=100",
+        "app.datagen.anchor-date=2026-01-15"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SyntheticDataGeneratorTest {
+
+    static final List<String> SATELLITES = List.of("claim_diagnostics", "claim_approvals", "claim_cancellations",
+            "claim_warranty_eligibility", "claim_costs", "claim_repair_configurations", "claim_assignments");
+
+    @Autowired
+    SyntheticDataGenerator generator;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ClaimStatusRepository claimStatusRepository;
+    @Autowired
+    VehicleModelRepository vehicleModelRepository;
+    @Autowired
+    PartRepository partRepository;
+    @Autowired
+    WarehouseRepository warehouseRepository;
+    @Autowired
+    ServiceItemRepository serviceItemRepository;
+    @Autowired
+    ServiceCenterRepository serviceCenterRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    ClaimService claimService;
+    @Autowired
+    EVMClaimService evmClaimService;
+
+    SyntheticDataGenerator.GenerationReport first;
+
+    @BeforeAll
+    void seedReferenceDataAndGenerate() {
+        ServiceCenter center = serviceCenterRepository.save(ServiceCenter.builder().code("SC-GEN").name("Generator SC")
+                .region("NORTH").build());
+        user("gen_staff", "SC_STAFF", center.getId());
+        user("gen_tech", "SC_TECHNICIAN", center.getId());
+        user("gen_evm", "EVM_STAFF", null);
+        Stream.of("OPEN", "PENDING_EVM_APPROVAL", "EVM_APPROVED", "REPAIR_IN_PROGRESS", "COMPLETED", "CLOSED",
+                        "EVM_REJECTED")
+                .forEach(code -> claimStatusRepository.save(ClaimStatus.builder().code(code).label(code).build()));
+        vehicleModelRepository.save(VehicleModel.builder().code("GEN-1").name("Gen One").active(true)
+                .warrantyPeriodMonths(36).warrantyMilageLimit(100_000).build());
+        vehicleModelRepository.save(VehicleModel.builder().code("GEN-2").name("Gen Two").active(true)
+                .warrantyPeriodMonths(60).warrantyMilageLimit(150_000).build());
+        for (int i = 0; i < 3; i++) {
+            partRepository.save(Part.builder().partNumber("GEN-P" + i).name("Generator part " + i)
+                    .unitCost(BigDecimal.valueOf(1_000_000)).build());
+        }
+        warehouseRepository.saveAll(List.of(Warehouse.builder().name("Gen main").build(),
+                Warehouse.builder().name("Gen south").build()));
+        serviceItemRepository.save(ServiceItem.builder().serviceCode("GEN-S1").name("Generator service").build());
+
+        first = generator.generate();
+    }
+
+    @Test
+    void generate_shouldWriteEveryClaimWithAllOneToOneSatellites() {
+        // Test tất định chạy generator lần 2 nên so theo report của lần đầu
+        long claims = count("claims");
+        assertThat(first.rowsByTable().get("customers")).isEqualTo(300);
+        assertThat(first.rowsByTable().get("vehicles")).isGreaterThanOrEqualTo(300);
+        assertThat(first.rowsByTable().get("claims")).isPositive();
+        for (String satellite : SATELLITES) {
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT claim_id) FROM " + satellite, Long.class))
+                    .as(satellite).isEqualTo(claims);
+        }
+        assertThat(first.rowsByTable().get("part_serials")).isEqualTo(3 * 20);
+        assertThat(count("inventory")).isEqualTo(2 * 3);
+        assertThat(first.rowsByTable().get("work_orders")).isPositive();
+        // Không có claim "mồ côi": customer của claim là chủ xe
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM claims c JOIN vehicles v ON v.id = c.vehicle_id"
+                + " WHERE v.customer_id <> c.customer_id", Long.class)).isZero();
+    }
+
+    @Test
+    void generate_shouldLeaveIdentityAfterGeneratedIds() {
+        Integer maxGenerated = jdbcTemplate.queryForObject("SELECT MAX(id) FROM customers", Integer.class);
+
+        Customer saved = customerRepository.save(Customer.builder().name("Created after generation").build());
+
+        assertThat(saved.getId()).isGreaterThan(maxGenerated);
+    }
+
+    @Test
+    void generate_withSameSeed_shouldProduceSameClaims() {
+        Integer lastClaimOfFirstRun = jdbcTemplate.queryForObject("SELECT MAX(id) FROM claims", Integer.class);
+
+        SyntheticDataGenerator.GenerationReport second = generator.generate();
+
+        assertThat(second.rowsByTable().get("claims")).isEqualTo(first.rowsByTable().get("claims"));
+        String shape = "SELECT s.code, d.reported_failure, cc.warranty_cost, c.created_at FROM claims c"
+                + " JOIN claim_statuses s ON s.id = c.status_id JOIN claim_diagnostics d ON d.claim_id = c.id"
+                + " JOIN claim_costs cc ON cc.claim_id = c.id WHERE c.id %s ? ORDER BY c.id";
+        assertThat(jdbcTemplate.queryForList(String.format(shape, ">"), lastClaimOfFirstRun))
+                .isEqualTo(jdbcTemplate.queryForList(String.format(shape, "<="), lastClaimOfFirstRun));
+    }
+
+    @Test
+    void claimListView_shouldSelectOnlyRequestedColumnsWithoutLoadingEntities() {
+        SqlStatsContext.Measured<List<?>> measured = SqlStatsContext.measure(
+                () -> claimService.getClaimListView("OPEN", null, "vin,claimNumber,status"));
+
+        assertThat(measured.result()).isNotEmpty();
+        assertThat(measured.result().get(0)).asInstanceOf(MAP).containsOnlyKeys("claimNumber", "status", "vin")
+                .containsEntry("status", "OPEN");
+        assertThat(measured.stats().getStatements()).isEqualTo(1);
+        assertThat(measured.stats().getEntitiesLoaded()).isZero();
+    }
+
+    @Test
+    void evmClaimListView_summary_shouldReturnOnePageOfProjectionRows() {
+        EVMClaimFilterRequestDTO filter = new EVMClaimFilterRequestDTO();
+        filter.setSize(10);
+        filter.setSortBy("warrantyCost");
+
+        SqlStatsContext.Measured<Page<?>> measured = SqlStatsContext.measure(
+                () -> evmClaimService.getClaimListView(filter, "summary"));
+
+        assertThat(measured.result().getContent()).hasSize(10).allMatch(ClaimListItemDTO.class::isInstance);
+        assertThat(measured.result().getTotalElements()).isEqualTo(count("claims"));
+        ClaimListItemDTO first = (ClaimListItemDTO) measured.result().getContent().get(0);
+        assertThat(first.vin()).isNotBlank();
+        assertThat(first.customerName()).isNotBlank();
+        // Trang + COUNT, không nạp entity nào
+        assertThat(measured.stats().getStatements()).isEqualTo(2);
+        assertThat(measured.stats().getEntitiesLoaded()).isZero();
+    }
+
+    private void user(String username, String roleName, Integer serviceCenterId) {
+        Role role = roleRepository.save(Role.builder().roleName(roleName).build());
+        userRepository.save(User.builder().username(username).email(username + "@example.com").passwordHash("x")
+                .role(role).serviceCenterId(serviceCenterId).build());
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
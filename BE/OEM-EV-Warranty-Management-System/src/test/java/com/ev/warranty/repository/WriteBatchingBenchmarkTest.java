@@ -0,0 +1,217 @@
+package com.ev.warranty.repository;
+
+import com.RunApplication;
+import com.ev.warranty.model.entity.CampaignVehicle;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.PartSerial;
+import com.ev.warranty.model.entity.PartSerialHistory;
+import com.ev.warranty.model.entity.RecallCampaign;
+import com.ev.warranty.model.entity.Vehicle;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Đo throughput ghi hàng loạt (tạo recall campaign, nhận part serial) trên H2.
+ * H2 in-memory không có độ trễ mạng nên mỗi lệnh JDBC được cộng thêm một round trip giả lập
+ * (-Dbenchmark.round-trip-micros, mặc định 500µs ~ SQL Server trong cùng LAN).
+ * Chỉ đo phần insert + flush trong transaction; listener sau commit (Vehicle 360, search index) không tính.
+ * Không chạy trong build thường: mvn test -Dtest=WriteBatchingBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(classes = {RunApplication.class, WriteBatchingBenchmarkTest.RoundTripLatencyConfig.class}, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WriteBatchingBenchmarkTest {
+
+    static final int ROWS = 5000;
+    static final int ROUNDS = 3;
+    static final long ROUND_TRIP_NANOS = Long.getLong("benchmark.round-trip-micros", 500) * 1000;
+
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    VehicleRepository vehicleRepository;
+    @Autowired
+    RecallCampaignRepository recallCampaignRepository;
+    @Autowired
+    CampaignVehicleRepository campaignVehicleRepository;
+    @Autowired
+    PartRepository partRepository;
+    @Autowired
+    PartSerialRepository partSerialRepository;
+    @Autowired
+    PartSerialHistoryRepository partSerialHistoryRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+    List<Vehicle> vehicles;
+    List<PartSerial> serials;
+
+    @BeforeAll
+    void seed() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Customer customer = customerRepository.save(Customer.builder().name("Benchmark fleet").build());
+            List<Vehicle> batch = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                batch.add(Vehicle.builder().vin(String.format("BENCH%012d", i)).licensePlate("BENCH-" + i)
+                        .customer(customer).mileageKm(0).build());
+            }
+            vehicles = vehicleRepository.saveAll(batch);
+
+            Part part = partRepository.save(Part.builder().partNumber("BENCH-PART").name("Benchmark part").build());
+            List<PartSerial> serialBatch = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                serialBatch.add(PartSerial.builder().part(part).serialNumber(String.format("BENCH-SN-%08d", i)).build());
+            }
+            serials = partSerialRepository.saveAll(serialBatch);
+        });
+    }
+
+    @Test
+    void recallCreation_campaignVehicleInserts() {
+        int[] round = {0};
+        Result result = measure("recall creation (campaign_vehicles)", () -> {
+            RecallCampaign campaign = recallCampaignRepository.save(RecallCampaign.builder()
+                    .code("BENCH-RC-" + round[0]++).title("Benchmark recall").build());
+            List<CampaignVehicle> rows = new ArrayList<>(ROWS);
+            for (Vehicle vehicle : vehicles) {
+                rows.add(CampaignVehicle.builder().campaign(campaign).vehicle(vehicle).build());
+            }
+            campaignVehicleRepository.saveAll(rows);
+            campaignVehicleRepository.flush();
+        });
+        assertThat(result.rowsPerSecond()).isPositive();
+    }
+
+    @Test
+    void partSerialReceive_historyInserts() {
+        Result result = measure("part serial receive (part_serial_history)", () -> {
+            for (PartSerial serial : serials) {
+                partSerialHistoryRepository.save(PartSerialHistory.builder()
+                        .partSerial(serial).action("ALLOCATED_FOR_WORKORDER")
+                        .oldStatus("in_stock").newStatus("allocated").build());
+            }
+            partSerialHistoryRepository.flush();
+        });
+        assertThat(result.rowsPerSecond()).isPositive();
+    }
+
+    private Result measure(String name, Runnable work) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Round đầu để JIT/statement cache ổn định
+        tx.executeWithoutResult(status -> work.run());
+
+        long bestNanos = Long.MAX_VALUE;
+        long statements = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long elapsed = tx.execute(status -> {
+                statistics.clear();
+                long start = System.nanoTime();
+                work.run();
+                return System.nanoTime() - start;
+            });
+            bestNanos = Math.min(bestNanos, elapsed);
+            statements = statistics.getPrepareStatementCount();
+        }
+
+        Result result = new Result(name, ROWS * 1_000_000_000d / bestNanos, statements);
+        System.out.printf("[benchmark] %-45s %,10.0f rows/s  %,6d JDBC statements for %,d rows%n",
+                result.name(), result.rowsPerSecond(), result.statements(), ROWS);
+        return result;
+    }
+
+    record Result(String name, double rowsPerSecond, long statements) {
+    }
+
+    // Không đánh dấu @TestConfiguration: component scan của RunApplication (package com) sẽ nhặt nó
+    // vào context của mọi test khác. Chỉ được nạp qua classes của @SpringBootTest ở trên.
+    static class RoundTripLatencyConfig {
+        @Bean
+        static BeanPostProcessor roundTripLatency() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new RoundTripLatencyDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /** Mỗi lần execute/executeBatch/commit chờ thêm ROUND_TRIP_NANOS trước khi gọi driver thật. */
+    static class RoundTripLatencyDataSource extends DelegatingDataSource {
+        private static final Set<String> ROUND_TRIPS = Set.of(
+                "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch",
+                "commit", "rollback");
+
+        RoundTripLatencyDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(Connection.class, super.getConnection(username, password));
+        }
+
+        private static <T> T wrap(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (ROUND_TRIPS.contains(method.getName())) {
+                    LockSupport.parkNanos(ROUND_TRIP_NANOS);
+                }
+                try {
+                    Object result = method.invoke(target, args);
+                    if (result instanceof PreparedStatement statement && method.getReturnType() == PreparedStatement.class) {
+                        return wrap(PreparedStatement.class, statement);
+                    }
+                    if (result instanceof Statement statement && method.getReturnType() == Statement.class) {
+                        return wrap(Statement.class, statement);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+    }
+}
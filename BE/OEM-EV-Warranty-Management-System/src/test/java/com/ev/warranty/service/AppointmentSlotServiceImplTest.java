@@ -0,0 +1,172 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.config.AppointmentCapacityProperties;
+import com.ev.warranty.exception.ValidationException;
+import com.ev.warranty.model.dto.appointment.AppointmentSlotDTO;
+import com.ev.warranty.model.entity.AppointmentSlot;
+import com.ev.warranty.repository.AppointmentSlotRepository;
+import com.ev.warranty.repository.ServiceCenterRepository;
+import com.ev.warranty.service.impl.AppointmentSlotGenerator;
+import com.ev.warranty.service.impl.AppointmentSlotServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentSlotServiceImplTest {
+
+    @Mock
+    AppointmentSlotRepository slotRepository;
+
+    @Mock
+    AppointmentSlotGenerator slotGenerator;
+
+    AppointmentSlotServiceImpl slotService;
+
+    LocalDateTime slotStart;
+    AppointmentSlot slot;
+
+    @BeforeEach
+    void setup() {
+        slotService = new AppointmentSlotServiceImpl(slotRepository, slotGenerator, new AppointmentCapacityProperties());
+        slotStart = LocalDateTime.now().plusDays(7).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        slot = AppointmentSlot.builder()
+                .id(11)
+                .serviceCenterId(1)
+                .slotStart(slotStart)
+                .slotEnd(slotStart.plusHours(1))
+                .capacity(2)
+                .bookedCount(1)
+                .build();
+        lenient().when(slotGenerator.isGenerated(eq(1), any())).thenReturn(true);
+    }
+
+    @Test
+    void reserveSlot_shouldTakeBay_whenSlotHasCapacity() {
+        given(slotGenerator.slotStartFor(slotStart.plusMinutes(20))).willReturn(slotStart);
+        given(slotRepository.findByServiceCenterIdAndSlotStart(1, slotStart)).willReturn(Optional.of(slot));
+        given(slotRepository.incrementBooked(11)).willReturn(1);
+
+        Integer slotId = slotService.reserveSlot(1, slotStart.plusMinutes(20));
+
+        assertThat(slotId).isEqualTo(11);
+        verify(slotRepository).incrementBooked(11);
+    }
+
+    @Test
+    void reserveSlot_shouldReject_whenSlotIsFull() {
+        given(slotGenerator.slotStartFor(slotStart)).willReturn(slotStart);
+        given(slotRepository.findByServiceCenterIdAndSlotStart(1, slotStart)).willReturn(Optional.of(slot));
+        given(slotRepository.incrementBooked(11)).willReturn(0);
+
+        assertThatThrownBy(() -> slotService.reserveSlot(1, slotStart))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("fully booked");
+    }
+
+    @Test
+    void moveSlot_shouldKeepBay_whenNewTimeIsInSameFullSlot() {
+        given(slotGenerator.slotStartFor(slotStart.plusMinutes(30))).willReturn(slotStart);
+        given(slotRepository.findByServiceCenterIdAndSlotStart(1, slotStart)).willReturn(Optional.of(slot));
+
+        Integer slotId = slotService.moveSlot(1, 11, slotStart.plusMinutes(30));
+
+        assertThat(slotId).isEqualTo(11);
+        verify(slotRepository, never()).incrementBooked(any());
+        verify(slotRepository, never()).decrementBooked(any());
+    }
+
+    @Test
+    void moveSlot_shouldReleaseOldBayBeforeTakingNewOne() {
+        given(slotGenerator.slotStartFor(slotStart)).willReturn(slotStart);
+        given(slotRepository.findByServiceCenterIdAndSlotStart(1, slotStart)).willReturn(Optional.of(slot));
+        given(slotRepository.incrementBooked(11)).willReturn(1);
+
+        Integer slotId = slotService.moveSlot(1, 7, slotStart);
+
+        assertThat(slotId).isEqualTo(11);
+        InOrder order = inOrder(slotRepository);
+        order.verify(slotRepository).decrementBooked(7);
+        order.verify(slotRepository).incrementBooked(11);
+    }
+
+    @Test
+    void findAvailableSlots_shouldReturnRemainingBays() {
+        given(slotRepository.findAvailableSlots(eq(1), any(), any(Pageable.class))).willReturn(List.of(slot));
+
+        List<AppointmentSlotDTO> result = slotService.findAvailableSlots(1, null, 5);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getRemaining()).isEqualTo(1);
+        assertThat(result.get(0).getSlotStart()).isEqualTo(slotStart);
+    }
+
+    @Test
+    void slotCalendar_shouldBeGeneratedOncePerDayOnWorkingDaysOnly() {
+        AppointmentSlotRepository repository = mock(AppointmentSlotRepository.class);
+        ServiceCenterRepository centers = mock(ServiceCenterRepository.class);
+        given(centers.existsById(2)).willReturn(true);
+        given(repository.findLastSlotStart(2)).willReturn(Optional.empty());
+        AppointmentCapacityProperties properties = new AppointmentCapacityProperties();
+        properties.setHorizonDays(14);
+        AppointmentSlotGenerator generator = new AppointmentSlotGenerator(repository, centers, properties);
+        AppointmentSlotServiceImpl service = new AppointmentSlotServiceImpl(repository, generator, properties);
+
+        service.findAvailableSlots(2, null, 5);
+        service.findAvailableSlots(2, null, 5);
+        service.findAvailableSlots(2, LocalDateTime.now().plusDays(3), 5);
+
+        // Horizon theo ngày: chỉ lần đầu chạm DB để sinh slot
+        verify(centers, times(1)).existsById(2);
+        verify(repository, times(1)).findLastSlotStart(2);
+        verify(repository, times(1)).saveAll(anyList());
+        assertThat(generator.isGenerated(2, LocalDate.now().plusDays(14))).isTrue();
+        assertThat(generator.isGenerated(2, LocalDate.now().plusDays(15))).isFalse();
+    }
+
+    @Test
+    void slotCalendar_shouldSkipNonWorkingDays() {
+        AppointmentSlotRepository repository = mock(AppointmentSlotRepository.class);
+        ServiceCenterRepository centers = mock(ServiceCenterRepository.class);
+        given(centers.existsById(3)).willReturn(true);
+        LocalDate monday = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+        // Slot cuối cùng là 17:00 chủ nhật trước đó: bắt đầu sinh từ thứ hai
+        given(repository.findLastSlotStart(3)).willReturn(Optional.of(monday.minusDays(1).atTime(17, 0)));
+        AppointmentCapacityProperties properties = new AppointmentCapacityProperties();
+        properties.setWorkingDays(EnumSet.of(DayOfWeek.MONDAY));
+        AppointmentSlotGenerator generator = new AppointmentSlotGenerator(repository, centers, properties);
+
+        generator.generateUntil(3, monday.plusDays(6));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AppointmentSlot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(10)
+                .allMatch(s -> s.getSlotStart().toLocalDate().equals(monday));
+    }
+}
@@ -0,0 +1,118 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.bulkhead.Bulkhead;
+import com.ev.warranty.bulkhead.BulkheadDataSource;
+import com.ev.warranty.bulkhead.BulkheadInterceptor;
+import com.ev.warranty.bulkhead.BulkheadRegistry;
+import com.ev.warranty.config.BulkheadProperties;
+import com.ev.warranty.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadTest {
+
+    @Mock
+    DataSource pool;
+
+    @Mock
+    Connection connection;
+
+    SimpleMeterRegistry meterRegistry;
+    BulkheadProperties properties;
+    BulkheadRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BulkheadProperties();
+        BulkheadProperties.Limit limit = new BulkheadProperties.Limit();
+        limit.setMaxConcurrent(1);
+        limit.setQueueTimeoutMillis(20);
+        properties.getLimits().put("database", limit);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new BulkheadRegistry(properties, meterRegistry);
+    }
+
+    @Test
+    void acquire_shouldRejectAfterQueueTimeout_whenAllPermitsAreInUse() {
+        Bulkhead bulkhead = registry.get("database");
+        Bulkhead.Permit permit = bulkhead.acquire();
+
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOf(BulkheadFullException.class)
+                .extracting(e -> ((BulkheadFullException) e).getBulkhead()).isEqualTo("database");
+        assertThat(bulkhead.getRejected()).isEqualTo(1);
+        assertThat(meterRegistry.get("bulkhead.in_use").tag("name", "database").gauge().value()).isEqualTo(1.0);
+
+        permit.close();
+        permit.close();
+        assertThat(bulkhead.getInUse()).isZero();
+        bulkhead.acquire().close();
+        assertThat(bulkhead.getAcquired()).isEqualTo(2);
+    }
+
+    @Test
+    void dataSource_shouldHoldPermitUntilConnectionIsClosed() throws SQLException {
+        given(pool.getConnection()).willReturn(connection);
+        Bulkhead bulkhead = registry.get("database");
+        BulkheadDataSource dataSource = new BulkheadDataSource(pool, bulkhead);
+
+        Connection first = dataSource.getConnection();
+        assertThat(bulkhead.getInUse()).isEqualTo(1);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(BulkheadFullException.class);
+
+        first.close();
+        verify(connection).close();
+        assertThat(bulkhead.getInUse()).isZero();
+    }
+
+    @Test
+    void dataSource_shouldReleasePermit_whenPoolFails() throws SQLException {
+        given(pool.getConnection()).willThrow(new SQLException("pool exhausted"));
+        Bulkhead bulkhead = registry.get("database");
+        BulkheadDataSource dataSource = new BulkheadDataSource(pool, bulkhead);
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThat(bulkhead.getInUse()).isZero();
+    }
+
+    @Test
+    void snapshot_shouldListConfiguredBulkheads_mostSaturatedFirst() {
+        Bulkhead.Permit permit = registry.get("database").acquire();
+
+        assertThat(registry.snapshot())
+                .extracting(BulkheadRegistry.BulkheadView::name)
+                .startsWith("database")
+                .contains("gemini", "filesystem", "reports", "exports");
+        permit.close();
+    }
+
+    @Test
+    void interceptor_shouldHoldExportsPermit_notReports_forClaimExport() {
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(properties, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/evm/claims/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        assertThat(registry.get("exports").getInUse()).isEqualTo(1);
+        assertThat(registry.get("reports").getInUse()).isZero();
+
+        interceptor.afterCompletion(request, response, null, null);
+        assertThat(registry.get("exports").getInUse()).isZero();
+    }
+}
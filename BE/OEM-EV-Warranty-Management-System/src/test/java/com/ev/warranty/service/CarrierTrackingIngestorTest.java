@@ -0,0 +1,158 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.config.ShipmentTrackingProperties;
+import com.ev.warranty.model.dto.shipment.CarrierTrackingEventDTO;
+import com.ev.warranty.model.dto.shipment.TrackingIngestResultDTO;
+import com.ev.warranty.model.entity.Shipment;
+import com.ev.warranty.model.entity.ShipmentTrackingEvent;
+import com.ev.warranty.repository.ShipmentRepository;
+import com.ev.warranty.repository.ShipmentTrackingEventRepository;
+import com.ev.warranty.service.impl.CarrierTrackingIngestor;
+import com.ev.warranty.service.impl.FileCarrierTrackingFeed;
+import com.ev.warranty.service.inter.InventoryService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CarrierTrackingIngestorTest {
+
+    static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+    @Mock
+    ShipmentRepository shipmentRepository;
+
+    @Mock
+    ShipmentTrackingEventRepository eventRepository;
+
+    @Mock
+    InventoryService inventoryService;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ShipmentTrackingProperties properties = new ShipmentTrackingProperties();
+    CarrierTrackingIngestor ingestor;
+
+    @BeforeEach
+    void setup() {
+        ingestor = new CarrierTrackingIngestor(shipmentRepository, eventRepository, inventoryService,
+                properties, entityManager, transactionManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingest_shouldSkipDuplicates_applyNewestPerShipment_andReceiveStockOnDelivery() {
+        Shipment inTransit = Shipment.builder().id(1).trackingNumber("TRK-1").status("pending").build();
+        Shipment delivering = Shipment.builder().id(2).trackingNumber("TRK-2").status("in_transit")
+                .shippedAt(T0.minusDays(1)).lastTrackingEventAt(T0.minusDays(1)).build();
+        given(shipmentRepository.findByTrackingNumberIn(anyCollection())).willReturn(List.of(inTransit, delivering));
+        given(eventRepository.findExistingKeys(anyCollection())).willReturn(List.of("ghn|TRK-2|picked_up|" + T0.minusDays(1)));
+
+        TrackingIngestResultDTO result = ingestor.ingest(List.of(
+                event("TRK-1", "picked_up", T0),
+                event("TRK-1", "In Transit", T0.plusHours(2)),
+                event("TRK-1", "in_transit", T0.plusHours(2)),   // trùng trong lô
+                event("TRK-2", "picked_up", T0.minusDays(1)),   // đã nhận từ lần trước
+                event("TRK-2", "delivered", T0.plusHours(5)),
+                event("TRK-9", "in_transit", T0),               // chưa có shipment
+                event("TRK-1", "lost_in_space", T0)));          // trạng thái không nhận diện
+
+        assertThat(result.getReceived()).isEqualTo(7);
+        assertThat(result.getDuplicates()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getUnknownTracking()).isEqualTo(1);
+        assertThat(result.getStale()).isEqualTo(1);
+        assertThat(result.getApplied()).isEqualTo(2);
+        assertThat(result.getDelivered()).isEqualTo(1);
+
+        assertThat(inTransit.getStatus()).isEqualTo("in_transit");
+        assertThat(inTransit.getShippedAt()).isEqualTo(T0.plusHours(2));
+        assertThat(inTransit.getLastTrackingEventAt()).isEqualTo(T0.plusHours(2));
+        verify(inventoryService).receiveDeliveredShipment(2, T0.plusHours(5));
+
+        ArgumentCaptor<List<ShipmentTrackingEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(eventRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(4);
+        assertThat(saved.getValue()).filteredOn(e -> e.getShipmentId() == null).hasSize(1);
+    }
+
+    @Test
+    void ingest_shouldNotMoveShipmentBack_whenEventIsOlderThanLastApplied() {
+        Shipment delivered = Shipment.builder().id(3).trackingNumber("TRK-3").status("delivered")
+                .lastTrackingEventAt(T0).build();
+        given(shipmentRepository.findByTrackingNumberIn(anyCollection())).willReturn(List.of(delivered));
+        given(eventRepository.findExistingKeys(anyCollection())).willReturn(List.of());
+
+        TrackingIngestResultDTO result = ingestor.ingest(List.of(event("TRK-3", "in_transit", T0.minusHours(3))));
+
+        assertThat(result.getStale()).isEqualTo(1);
+        assertThat(result.getApplied()).isZero();
+        assertThat(delivered.getStatus()).isEqualTo("delivered");
+        verify(inventoryService, never()).receiveDeliveredShipment(3, T0.minusHours(3));
+    }
+
+    @Test
+    void ingest_shouldUseOneTransactionPerChunk() {
+        properties.setChunkSize(2);
+        given(shipmentRepository.findByTrackingNumberIn(anyCollection())).willReturn(List.of());
+        given(eventRepository.findExistingKeys(anyCollection())).willReturn(List.of());
+
+        TrackingIngestResultDTO result = ingestor.ingest(List.of(
+                event("A", "in_transit", T0), event("B", "in_transit", T0), event("C", "in_transit", T0)));
+
+        assertThat(result.getUnknownTracking()).isEqualTo(3);
+        verify(eventRepository, times(2)).findExistingKeys(anyCollection());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void fileFeed_shouldParseCsvDrop_andSkipHeaderAndBadLines(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("ghn-20250310.csv");
+        Files.writeString(file, """
+                carrier,trackingNumber,status,eventTime,location
+                GHN,TRK-1,picked_up,2025-03-10T08:00:00,Hanoi hub
+                GHN,TRK-1,delivered,not-a-time,
+                GHN,TRK-2,in_transit,2025-03-10T09:30:00
+                """);
+        properties.setFeedDirectory(dir.toString());
+        FileCarrierTrackingFeed feed = new FileCarrierTrackingFeed(ingestor, properties);
+
+        List<CarrierTrackingEventDTO> events = feed.read(file);
+
+        assertThat(events).extracting(CarrierTrackingEventDTO::getTrackingNumber).containsExactly("TRK-1", "TRK-2");
+        assertThat(events.get(0).getLocation()).isEqualTo("Hanoi hub");
+        assertThat(events.get(1).getEventTime()).isEqualTo(LocalDateTime.of(2025, 3, 10, 9, 30));
+
+        given(shipmentRepository.findByTrackingNumberIn(anyCollection())).willReturn(List.of());
+        given(eventRepository.findExistingKeys(anyCollection())).willReturn(List.of());
+        assertThat(feed.pollDirectory()).isEqualTo(1);
+        assertThat(dir.resolve("ghn-20250310.csv.done")).exists();
+        assertThat(file).doesNotExist();
+    }
+
+    private CarrierTrackingEventDTO event(String tracking, String status, LocalDateTime at) {
+        return CarrierTrackingEventDTO.builder().carrier("GHN").trackingNumber(tracking).status(status).eventTime(at).build();
+    }
+}
@@ -0,0 +1,201 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.datagen.SyntheticDataGenerator;
+import com.ev.warranty.model.dto.claim.ClaimArchiveRunResultDTO;
+import com.ev.warranty.model.dto.claim.ClaimHistoryRollupDTO;
+import com.ev.warranty.model.dto.claim.ClaimResponseDto;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.Role;
+import com.ev.warranty.model.entity.ServiceCenter;
+import com.ev.warranty.model.entity.ServiceItem;
+import com.ev.warranty.model.entity.ThirdPartyPart;
+import com.ev.warranty.model.entity.ThirdPartyPartSerial;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.VehicleModel;
+import com.ev.warranty.model.entity.Warehouse;
+import com.ev.warranty.repository.ArchivedClaimRepository;
+import com.ev.warranty.repository.ClaimStatusRepository;
+import com.ev.warranty.repository.PartRepository;
+import com.ev.warranty.repository.RoleRepository;
+import com.ev.warranty.repository.ServiceCenterRepository;
+import com.ev.warranty.repository.ServiceItemRepository;
+import com.ev.warranty.repository.ThirdPartyPartRepository;
+import com.ev.warranty.repository.ThirdPartyPartSerialRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.VehicleModelRepository;
+import com.ev.warranty.repository.WarehouseRepository;
+import com.ev.warranty.service.impl.ClaimArchiver;
+import com.ev.warranty.service.inter.ClaimArchiveService;
+import com.ev.warranty.service.inter.ClaimService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lưu trữ claim trên dữ liệu sinh bởi SyntheticDataGenerator (DB H2 riêng): claim đã đóng rời khỏi các bảng nghiệp vụ
+ * cùng bảng con, đọc lại được qua getClaimById, và được cộng vào claim_history_rollups đúng một lần.
+ */
+@SpringBootTest(classes = RunApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+        "app.datagen.customers=120",
+        "app.datagen.serials-per-part=5",
+        "app.datagen.batch-size=100",
+        "app.datagen.anchor-date=2020-01-15",
+        "app.claims.archive.retention-months=12",
+        "app.claims.archive.chunk-size=8"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClaimArchiverTest {
+
+    static final String FINAL_STATUSES = "('CLOSED', 'CANCELLED', 'CANCELED_DONE')";
+
+    @Autowired
+    SyntheticDataGenerator generator;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ClaimStatusRepository claimStatusRepository;
+    @Autowired
+    VehicleModelRepository vehicleModelRepository;
+    @Autowired
+    PartRepository partRepository;
+    @Autowired
+    WarehouseRepository warehouseRepository;
+    @Autowired
+    ServiceItemRepository serviceItemRepository;
+    @Autowired
+    ServiceCenterRepository serviceCenterRepository;
+    @Autowired
+    ThirdPartyPartRepository thirdPartyPartRepository;
+    @Autowired
+    ThirdPartyPartSerialRepository thirdPartyPartSerialRepository;
+    @Autowired
+    ArchivedClaimRepository archivedClaimRepository;
+    @Autowired
+    ClaimArchiver claimArchiver;
+    @Autowired
+    ClaimArchiveService claimArchiveService;
+    @Autowired
+    ClaimService claimService;
+
+    long claimsBefore;
+    long finalBefore;
+    Integer archivedClaimId;
+    String archivedClaimNumber;
+    Integer reservedSerialId;
+    ClaimArchiveRunResultDTO firstRun;
+
+    @BeforeAll
+    void generateAndArchive() {
+        ServiceCenter center = serviceCenterRepository.save(ServiceCenter.builder().code("SC-ARC").name("Archive SC")
+                .region("NORTH").build());
+        user("arc_staff", "SC_STAFF", center.getId());
+        user("arc_tech", "SC_TECHNICIAN", center.getId());
+        user("arc_evm", "EVM_STAFF", null);
+        Stream.of("OPEN", "EVM_APPROVED", "REPAIR_IN_PROGRESS", "COMPLETED", "CLOSED", "CANCELED_DONE")
+                .forEach(code -> claimStatusRepository.save(ClaimStatus.builder().code(code).label(code).build()));
+        vehicleModelRepository.save(VehicleModel.builder().code("ARC-1").name("Archive One").active(true)
+                .warrantyPeriodMonths(36).warrantyMilageLimit(100_000).build());
+        partRepository.save(Part.builder().partNumber("ARC-P1").name("Archive part")
+                .unitCost(BigDecimal.valueOf(1_000_000)).build());
+        warehouseRepository.save(Warehouse.builder().name("Archive main").build());
+        serviceItemRepository.save(ServiceItem.builder().serviceCode("ARC-S1").name("Archive service").build());
+        generator.generate();
+
+        claimsBefore = count("claims");
+        finalBefore = countFinal();
+        archivedClaimId = jdbcTemplate.queryForObject("SELECT MIN(c.id) FROM claims c JOIN claim_statuses s " +
+                "ON s.id = c.status_id WHERE s.code IN " + FINAL_STATUSES, Integer.class);
+        archivedClaimNumber = jdbcTemplate.queryForObject("SELECT claim_number FROM claims WHERE id = ?",
+                String.class, archivedClaimId);
+        // Serial bên thứ ba vẫn đang giữ cho claim đã đóng: sống lâu hơn claim, chỉ được gỡ liên kết
+        ThirdPartyPart thirdPartyPart = thirdPartyPartRepository.save(ThirdPartyPart.builder().partNumber("ARC-TP1")
+                .name("Archive third-party part").build());
+        reservedSerialId = thirdPartyPartSerialRepository.save(ThirdPartyPartSerial.builder()
+                .thirdPartyPart(thirdPartyPart).serialNumber("ARC-TP1-0001").status("RESERVED").build()).getId();
+        jdbcTemplate.update("UPDATE third_party_part_serials SET reserved_for_claim_id = ? WHERE id = ?",
+                archivedClaimId, reservedSerialId);
+
+        firstRun = claimArchiveService.runArchival();
+    }
+
+    @Test
+    void run_shouldMoveClosedClaimsWithTheirChildRowsInChunks() {
+        assertThat(finalBefore).isGreaterThan(8);
+        assertThat(firstRun.getArchived()).isEqualTo((int) finalBefore);
+        assertThat(firstRun.getChunks()).isGreaterThan(1);
+        assertThat(firstRun.getFailedChunks()).isZero();
+
+        assertThat(countFinal()).isZero();
+        assertThat(count("claims")).isEqualTo(claimsBefore - finalBefore);
+        assertThat(count("archived_claims")).isEqualTo(finalBefore);
+        for (String table : List.of("claim_diagnostics", "claim_costs", "claim_assignments", "work_orders")) {
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE claim_id = ?",
+                    Long.class, archivedClaimId)).as(table).isZero();
+        }
+    }
+
+    @Test
+    void run_shouldUnlinkThirdPartySerialsReservedForArchivedClaims() {
+        assertThat(jdbcTemplate.queryForObject("SELECT reserved_for_claim_id FROM third_party_part_serials WHERE id = ?",
+                Integer.class, reservedSerialId)).isNull();
+
+        ClaimArchiver.ArchivedClaimPayload payload = claimArchiver.readPayload(
+                archivedClaimRepository.findById(archivedClaimId).orElseThrow().getPayload());
+        assertThat(payload.unlinked().get(ClaimArchiver.RESERVED_SERIALS)).containsExactly(reservedSerialId);
+    }
+
+    @Test
+    void getClaimById_shouldFallBackToArchivedSnapshot() {
+        ClaimResponseDto claim = claimService.getClaimById(archivedClaimId);
+
+        assertThat(claim.getArchived()).isTrue();
+        assertThat(claim.getId()).isEqualTo(archivedClaimId);
+        assertThat(claim.getClaimNumber()).isEqualTo(archivedClaimNumber);
+        assertThat(claim.getVehicle()).isNotNull();
+        assertThat(claim.getCanSubmitToEvm()).isFalse();
+    }
+
+    @Test
+    void history_shouldCountEveryArchivedClaimOnce_andSecondRunArchivesNothing() {
+        ClaimArchiveRunResultDTO secondRun = claimArchiveService.runArchival();
+        assertThat(secondRun.getArchived()).isZero();
+
+        List<ClaimHistoryRollupDTO> history = claimArchiveService.getHistory("2010-01", "2030-12", null);
+        assertThat(history).isNotEmpty();
+        assertThat(history.stream().mapToInt(ClaimHistoryRollupDTO::getClaimCount).sum()).isEqualTo((int) finalBefore);
+        assertThat(history).allSatisfy(row -> assertThat(row.getFinalStatus()).isIn("CLOSED", "CANCELED_DONE"));
+    }
+
+    private long countFinal() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM claims c JOIN claim_statuses s ON s.id = c.status_id " +
+                "WHERE s.code IN " + FINAL_STATUSES, Long.class);
+    }
+
+    private void user(String username, String roleName, Integer serviceCenterId) {
+        Role role = roleRepository.save(Role.builder().roleName(roleName).build());
+        userRepository.save(User.builder().username(username).email(username + "@example.com").passwordHash("x")
+                .role(role).serviceCenterId(serviceCenterId).build());
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
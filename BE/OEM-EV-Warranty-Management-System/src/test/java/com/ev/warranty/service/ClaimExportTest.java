@@ -0,0 +1,213 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.export.ExportFormat;
+import com.ev.warranty.export.XlsxRowWriter;
+import com.ev.warranty.model.dto.claim.EVMClaimFilterRequestDTO;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.Role;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.repository.ClaimStatusRepository;
+import com.ev.warranty.repository.CustomerRepository;
+import com.ev.warranty.repository.RoleRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.VehicleRepository;
+import com.ev.warranty.service.impl.ClaimListProjection;
+import com.ev.warranty.service.inter.EVMClaimService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Export claim trên H2 riêng: cùng filter với danh sách EVM, đọc qua cursor và ghi thẳng ra stream,
+ * client ngắt giữa chừng thì dừng đọc.
+ */
+@SpringBootTest(classes = RunApplication.class, properties =
+        "spring.datasource.url=jdbc:h2:mem:claimexport;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClaimExportTest {
+
+    private static final int OPEN_CLAIMS = 20_000;
+
+    @Autowired
+    EVMClaimService evmClaimService;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    VehicleRepository vehicleRepository;
+    @Autowired
+    ClaimStatusRepository claimStatusRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        Role role = roleRepository.save(Role.builder().roleName("SC_STAFF").build());
+        User staff = userRepository.save(User.builder().username("export_staff").email("export_staff@example.com")
+                .passwordHash("x").role(role).build());
+        Customer customer = customerRepository.save(Customer.builder().name("Nguyễn Văn A, \"VIP\"").build());
+        Customer formula = customerRepository.save(Customer.builder().name("=HYPERLINK(\"x\")").build());
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder().vin("EXPVIN1").licensePlate("EXP-1")
+                .customer(customer).mileageKm(0).build());
+        Vehicle other = vehicleRepository.save(Vehicle.builder().vin("EXPVIN2").licensePlate("EXP-2")
+                .customer(formula).mileageKm(0).build());
+        Integer open = claimStatusRepository.save(ClaimStatus.builder().code("OPEN").label("Open").build()).getId();
+        Integer closed = claimStatusRepository.save(ClaimStatus.builder().code("CLOSED").label("Closed").build()).getId();
+
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 8, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < OPEN_CLAIMS; i++) {
+            rows.add(claimRow("CLM-EXP-" + i, vehicle, customer, staff, open, createdAt.plusMinutes(i)));
+        }
+        rows.add(claimRow("CLM-EXP-FORMULA", other, formula, staff, open, createdAt.minusDays(1)));
+        rows.add(claimRow("CLM-EXP-CLOSED", vehicle, customer, staff, closed, createdAt));
+        jdbcTemplate.batchUpdate("INSERT INTO claims (claim_number, vehicle_id, customer_id, created_by, status_id, "
+                + "is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void csv_shouldStreamEveryMatchingRowWithEscaping() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = evmClaimService.exportClaims(openClaims(), ClaimListProjection.parseFields(
+                "claimNumber,status,customerName,createdAt"), ExportFormat.CSV, out);
+
+        assertThat(exported).isEqualTo(OPEN_CLAIMS + 1);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        String[] lines = csv.split("\r\n");
+        assertThat(lines).hasSize(OPEN_CLAIMS + 2);
+        assertThat(lines[0]).isEqualTo("\uFEFFclaimNumber,status,customerName,createdAt");
+        // Mới nhất trước (sort mặc định createdAt DESC)
+        assertThat(lines[1]).isEqualTo("CLM-EXP-19999,OPEN,\"Nguyễn Văn A, \"\"VIP\"\"\",2025-01-15T05:19");
+        assertThat(lines[lines.length - 1]).isEqualTo("CLM-EXP-FORMULA,OPEN,\"'=HYPERLINK(\"\"x\"\")\",2024-12-31T08:00");
+        assertThat(csv).doesNotContain("CLM-EXP-CLOSED");
+    }
+
+    @Test
+    void xlsx_shouldWriteAValidWorkbook() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = evmClaimService.exportClaims(openClaims(), ClaimListProjection.parseFields(null),
+                ExportFormat.XLSX, out);
+
+        assertThat(exported).isEqualTo(OPEN_CLAIMS + 1);
+        Map<String, String> entries = unzip(out.toByteArray());
+        assertThat(entries).containsKeys("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "xl/worksheets/sheet1.xml");
+        String sheet = entries.get("xl/worksheets/sheet1.xml");
+        assertThat(count(sheet, "<row>")).isEqualTo(OPEN_CLAIMS + 2);
+        assertThat(sheet).contains("<t xml:space=\"preserve\">Nguyễn Văn A, &quot;VIP&quot;</t>");
+    }
+
+    @Test
+    void xlsx_shouldSpillIntoNewSheetAtRowLimit() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxRowWriter writer = new XlsxRowWriter(out, List.of("id", "note"), 3)) {
+            for (int i = 1; i <= 5; i++) {
+                writer.write(new Object[]{i, "a<b"});
+            }
+        }
+
+        Map<String, String> entries = unzip(out.toByteArray());
+        // 3 dòng mỗi sheet kể cả header: 2 + 2 + 1
+        assertThat(count(entries.get("xl/worksheets/sheet1.xml"), "<row>")).isEqualTo(3);
+        assertThat(count(entries.get("xl/worksheets/sheet3.xml"), "<row>")).isEqualTo(2);
+        assertThat(entries.get("xl/workbook.xml")).contains("Claims 3");
+        assertThat(entries.get("[Content_Types].xml")).contains("/xl/worksheets/sheet3.xml");
+        assertThat(entries.get("xl/worksheets/sheet2.xml")).contains("a&lt;b");
+    }
+
+    @Test
+    void cancelledDownload_shouldStopReadingAndReleaseTheConnection() throws Exception {
+        DisconnectingOutputStream out = new DisconnectingOutputStream(256 * 1024);
+
+        assertThatThrownBy(() -> evmClaimService.exportClaims(openClaims(), ClaimListProjection.parseFields(null),
+                ExportFormat.CSV, out)).isInstanceOf(IOException.class);
+        assertThat(out.written).isLessThan(512 * 1024);
+
+        // Cursor và connection đã được trả lại: export kế tiếp chạy bình thường
+        ByteArrayOutputStream next = new ByteArrayOutputStream();
+        assertThat(evmClaimService.exportClaims(openClaims(), Set.of("claimNumber"), ExportFormat.CSV, next))
+                .isEqualTo(OPEN_CLAIMS + 1);
+    }
+
+    private static EVMClaimFilterRequestDTO openClaims() {
+        EVMClaimFilterRequestDTO filter = new EVMClaimFilterRequestDTO();
+        filter.setStatusCodes(List.of("OPEN"));
+        return filter;
+    }
+
+    private static Object[] claimRow(String number, Vehicle vehicle, Customer customer, User createdBy, Integer statusId,
+                                     LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        return new Object[]{number, vehicle.getId(), customer.getId(), createdBy.getId(), statusId, true, timestamp, timestamp};
+    }
+
+    private static Map<String, String> unzip(byte[] bytes) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    // Giống ClientAbortException của Tomcat khi trình duyệt hủy tải
+    private static final class DisconnectingOutputStream extends OutputStream {
+        private final long limit;
+        private long written;
+
+        DisconnectingOutputStream(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (written + len > limit) {
+                throw new IOException("Connection reset by peer");
+            }
+            written += len;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.config.ClaimOutboxProperties;
+import com.ev.warranty.model.entity.ClaimOutboxEvent;
+import com.ev.warranty.repository.ClaimOutboxEventRepository;
+import com.ev.warranty.service.impl.ClaimOutboxDispatcher;
+import com.ev.warranty.service.impl.ClaimSideEffectHandlers;
+import com.ev.warranty.service.impl.ClusterJobRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ClaimOutboxDispatcherTest {
+
+    @Mock
+    ClaimOutboxEventRepository outboxRepository;
+    @Mock
+    ClaimSideEffectHandlers handlers;
+    @Mock
+    ThreadPoolTaskExecutor executor;
+    @Mock
+    ClusterJobRunner jobRunner;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ClaimOutboxProperties properties = new ClaimOutboxProperties();
+    ClaimOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setup() {
+        properties.setMaxAttempts(3);
+        properties.setRetryBackoffSeconds(10);
+        dispatcher = new ClaimOutboxDispatcher(outboxRepository, handlers, properties, executor, jobRunner,
+                transactionManager);
+    }
+
+    @Test
+    void process_shouldRunHandlerAndMarkDone_whenRowIsClaimed() {
+        ClaimOutboxEvent event = event(1);
+        given(outboxRepository.claim(eq(5L), any(), any())).willReturn(1);
+        given(outboxRepository.findById(5L)).willReturn(Optional.of(event));
+
+        assertThat(dispatcher.process(5L)).isTrue();
+
+        verify(handlers).handle(event);
+        verify(outboxRepository).markDone(eq(5L), any());
+    }
+
+    @Test
+    void process_shouldSkipHandler_whenRowAlreadyTakenOrDone() {
+        // Cùng id được giao lại (dispatch sau commit + relay): chỉ lần nhận được dòng mới chạy side effect
+        given(outboxRepository.claim(eq(5L), any(), any())).willReturn(0);
+
+        assertThat(dispatcher.process(5L)).isFalse();
+
+        verify(handlers, never()).handle(any());
+        verify(outboxRepository, never()).markDone(any(), any());
+    }
+
+    @Test
+    void process_shouldRescheduleWithDoublingBackoff_thenFailAfterMaxAttempts() {
+        ClaimOutboxEvent secondAttempt = event(2);
+        given(outboxRepository.claim(eq(5L), any(), any())).willReturn(1);
+        given(outboxRepository.findById(5L)).willReturn(Optional.of(secondAttempt));
+        willThrow(new IllegalStateException("inventory locked")).given(handlers).handle(secondAttempt);
+
+        assertThat(dispatcher.process(5L)).isFalse();
+
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).markFailedAttempt(eq(5L), eq("PENDING"), next.capture(), anyString());
+        assertThat(next.getValue()).isCloseTo(LocalDateTime.now().plusSeconds(20), within(5, java.time.temporal.ChronoUnit.SECONDS));
+        verify(outboxRepository, never()).markDone(any(), any());
+
+        ClaimOutboxEvent lastAttempt = event(3);
+        given(outboxRepository.findById(5L)).willReturn(Optional.of(lastAttempt));
+        willThrow(new IllegalStateException("inventory locked")).given(handlers).handle(lastAttempt);
+
+        dispatcher.process(5L);
+
+        verify(outboxRepository).markFailedAttempt(eq(5L), eq("FAILED"), any(), anyString());
+    }
+
+    private static ClaimOutboxEvent event(int attempts) {
+        return ClaimOutboxEvent.builder().id(5L).eventType("USED_PARTS_SETTLED").handler("INVENTORY").claimId(42)
+                .status("PROCESSING").attempts(attempts).nextAttemptAt(LocalDateTime.now()).build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.config.SearchIndexProperties;
+import com.ev.warranty.repository.ClaimOutboxEventRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.service.impl.ClaimSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimSearchIndexTest {
+
+    @Mock
+    ClaimRepository claimRepository;
+
+    @Mock
+    ClaimOutboxEventRepository outboxRepository;
+
+    ThreadPoolTaskExecutor executor;
+    ClaimSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        index = new ClaimSearchIndex(claimRepository, outboxRepository, new SearchIndexProperties(), executor);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(1, "CLM-2025-000101", "VF8A1B2C3D4E56789", "VF8", "Nguyễn Văn An", "0901234567",
+                "Battery overheating during fast charging"));
+        rows.add(row(2, "CLM-2025-000102", "VF9ZZZ00000011111", "VF9", "Trần Thị Bình", "0912345678",
+                "Infotainment screen flickers"));
+        rows.add(row(3, "CLM-2025-000103", "VF8QQQ99999922222", "VF8", "Lê Văn Cường", "0987654321",
+                "Battery cell imbalance warning"));
+        given(claimRepository.findSearchRowsAfter(anyInt(), any(Pageable.class))).willReturn(rows, List.of());
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void search_shouldMatchPrefixAndAccentInsensitiveNames() {
+        assertThat(ids(index.search("nguyen", 10))).containsExactly(1);
+        assertThat(ids(index.search("Bìn", 10))).containsExactly(2);
+        assertThat(ids(index.search("batt", 10))).containsExactlyInAnyOrder(1, 3);
+    }
+
+    @Test
+    void search_shouldTolerateSingleTypo_andRequireAllTokens() {
+        assertThat(ids(index.search("batery", 10))).containsExactlyInAnyOrder(1, 3);
+        assertThat(ids(index.search("overhaeting", 10))).containsExactly(1);
+        assertThat(ids(index.search("battery screen", 10))).isEmpty();
+    }
+
+    @Test
+    void search_shouldFindIdentifiersBySuffix_andRankThemFirst() {
+        assertThat(ids(index.search("000102", 10))).containsExactly(2);
+        assertThat(ids(index.search("22222", 10))).containsExactly(3);
+        assertThat(ids(index.search("0901234567", 10))).containsExactly(1);
+    }
+
+    @Test
+    void highlight_shouldMarkMatchedWordsAndEscapeHtml() {
+        Map<String, String> highlights = index.highlight(1, "overheat nguyen");
+
+        assertThat(highlights.get("reportedFailure")).isEqualTo("Battery <mark>overheating</mark> during fast charging");
+        assertThat(highlights.get("customerName")).isEqualTo("<mark>Nguyễn</mark> Văn An");
+        assertThat(highlights).doesNotContainKey("vin");
+    }
+
+    @Test
+    void refreshClaims_shouldReindexChangedClaim_andDropDeletedOne() throws Exception {
+        List<Object[]> changed = new ArrayList<>();
+        changed.add(row(2, "CLM-2025-000102", "VF9ZZZ00000011111", "VF9", "Trần Thị Bình", "0912345678",
+                "Motor noise at <high> speed"));
+        given(claimRepository.findSearchRowsByIds(any())).willReturn(changed);
+
+        index.refreshClaims(List.of(2, 3));
+        executor.submit(() -> { }).get();
+
+        assertThat(ids(index.search("infotainment", 10))).isEmpty();
+        assertThat(ids(index.search("motor", 10))).containsExactly(2);
+        assertThat(ids(index.search("imbalance", 10))).isEmpty();
+        assertThat(index.highlight(2, "noise").get("reportedFailure"))
+                .isEqualTo("Motor <mark>noise</mark> at &lt;high&gt; speed");
+        assertThat(index.getStats().documents()).isEqualTo(2);
+    }
+
+    @Test
+    void pollOutbox_shouldReindexClaimsChangedOnOtherNodes() throws Exception {
+        List<Object[]> changed = new ArrayList<>();
+        changed.add(row(1, "CLM-2025-000101", "VF8A1B2C3D4E56789", "VF8", "Nguyễn Văn An", "0901234567",
+                "Brake pedal vibration"));
+        List<Object[]> events = new ArrayList<>();
+        events.add(new Object[]{41L, 1});
+        events.add(new Object[]{42L, 1});
+        given(outboxRepository.findMaxId()).willReturn(40L);
+        given(outboxRepository.findClaimIdsAfter(eq(40L), any(Pageable.class))).willReturn(events);
+        given(claimRepository.findSearchRowsByIds(List.of(1))).willReturn(changed);
+
+        // Lần poll đầu chỉ lấy mốc; lần sau nạp lại claim của event 41, 42 (ghi trên node khác)
+        index.pollOutbox();
+        index.pollOutbox();
+        executor.submit(() -> { }).get();
+
+        assertThat(ids(index.search("brake", 10))).containsExactly(1);
+        assertThat(ids(index.search("overheating", 10))).isEmpty();
+    }
+
+    private static List<Integer> ids(ClaimSearchIndex.SearchResult result) {
+        return result.hits().stream().map(ClaimSearchIndex.Hit::claimId).toList();
+    }
+
+    private static Object[] row(Integer id, String claimNumber, String vin, String model,
+                                String customerName, String phone, String reportedFailure) {
+        return new Object[]{id, claimNumber, vin, model, customerName, phone, reportedFailure};
+    }
+}
@@ -6,9 +6,9 @@ import com.ev.warranty.model.entity.ClaimStatus;
 import com.ev.warranty.model.entity.Role;
 import com.ev.warranty.model.dto.claim.ClaimResponseDto;
 import com.ev.warranty.repository.ClaimRepository;
-import com.ev.warranty.repository.ClaimStatusRepository;
 import com.ev.warranty.repository.UserRepository;
 import com.ev.warranty.service.impl.ClaimServiceImpl;
+import com.ev.warranty.service.impl.ClaimStatusRegistry;
 import com.ev.warranty.mapper.ClaimMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,7 +29,7 @@ public class ClaimServiceImplCancelFlowTest {
     @Mock
     private ClaimRepository claimRepository;
     @Mock
-    private ClaimStatusRepository claimStatusRepository;
+    private ClaimStatusRegistry claimStatusRegistry;
     @Mock
     private UserRepository userRepository;
     @Mock
@@ -0,0 +1,102 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.config.ReferenceDataProperties;
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.repository.ClaimStatusRepository;
+import com.ev.warranty.repository.RoleRepository;
+import com.ev.warranty.repository.WarrantyConditionRepository;
+import com.ev.warranty.service.impl.ClaimStatusRegistry;
+import com.ev.warranty.service.impl.ReferenceDataCache;
+import com.ev.warranty.service.impl.ReferenceDataCaches;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimStatusRegistryTest {
+
+    @Mock
+    ClaimStatusRepository claimStatusRepository;
+
+    @Mock
+    RoleRepository roleRepository;
+
+    @Mock
+    WarrantyConditionRepository warrantyConditionRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meterRegistry;
+    ReferenceDataCaches caches;
+    ClaimStatusRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        caches = new ReferenceDataCaches(meterRegistry, new ReferenceDataProperties(),
+                roleRepository, warrantyConditionRepository, transactionManager);
+        registry = new ClaimStatusRegistry(claimStatusRepository, caches);
+        given(claimStatusRepository.findAll()).willReturn(List.of(
+                ClaimStatus.builder().id(1).code("OPEN").label("Open").build(),
+                ClaimStatus.builder().id(2).code("EVM_APPROVED").label("Approved").build()));
+    }
+
+    @Test
+    void findByCode_shouldLoadOnce_andServeLaterLookupsFromMemory() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(registry.findByCode("EVM_APPROVED")).get().extracting(ClaimStatus::getId).isEqualTo(2);
+        }
+        assertThat(registry.findByCode("UNKNOWN")).isEmpty();
+
+        verify(claimStatusRepository, times(1)).findAll();
+        assertThat(lookups("hit")).isEqualTo(5);
+        assertThat(lookups("miss")).isEqualTo(1);
+        assertThat(meterRegistry.get("refdata.cache.size").tag("cache", "claim-status").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void byCode_shouldThrowNotFound_forUnknownCode() {
+        assertThatThrownBy(() -> registry.byCode("NOPE")).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void invalidate_shouldReloadOnNextLookup() {
+        registry.byCode("OPEN");
+        caches.invalidateAll();
+        registry.byCode("OPEN");
+
+        verify(claimStatusRepository, times(2)).findAll();
+        assertThat(meterRegistry.get("refdata.cache.loads").tag("cache", "claim-status").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void getByCode_shouldMatchExactCodeFromTheSameSnapshot() {
+        ReferenceDataCache<Integer, ClaimStatus> byId = caches.create("claim-status-by-id",
+                claimStatusRepository::findAll, ClaimStatus::getId, ClaimStatus::getCode);
+
+        assertThat(byId.getByCode("EVM_APPROVED")).get().extracting(ClaimStatus::getId).isEqualTo(2);
+        assertThat(byId.getByCode("evm_approved")).isEmpty();
+        assertThat(byId.get(1)).get().extracting(ClaimStatus::getCode).isEqualTo("OPEN");
+
+        verify(claimStatusRepository, times(1)).findAll();
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("refdata.cache.lookups").tag("cache", "claim-status").tag("result", result)
+                .counter().count();
+    }
+}
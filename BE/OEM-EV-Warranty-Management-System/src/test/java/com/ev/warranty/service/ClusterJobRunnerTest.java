@@ -0,0 +1,264 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.config.JobSchedulerProperties;
+import com.ev.warranty.model.entity.Appointment;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.Role;
+import com.ev.warranty.model.entity.TechnicianProfile;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.model.entity.WorkOrder;
+import com.ev.warranty.repository.AppointmentReminderRepository;
+import com.ev.warranty.repository.AppointmentRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.ClaimStatusRepository;
+import com.ev.warranty.repository.CustomerRepository;
+import com.ev.warranty.repository.JobLeaseRepository;
+import com.ev.warranty.repository.RoleRepository;
+import com.ev.warranty.repository.TechnicianProfileRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.VehicleRepository;
+import com.ev.warranty.repository.WorkOrderRepository;
+import com.ev.warranty.service.impl.AppointmentReminderScheduler;
+import com.ev.warranty.service.impl.ClusterJobRunner;
+import com.ev.warranty.service.impl.PeriodicMaintenanceJobs;
+import com.ev.warranty.service.inter.NotificationService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Lease job trên bảng job_leases thật (H2) với hai "node" trong cùng JVM: lấy lease, lease hết hạn bị node khác
+ * chiếm và node cũ không gia hạn được nữa; reminder chỉ gửi một lần dù hai node cùng quét; đối soát workload.
+ */
+@SpringBootTest(classes = RunApplication.class, properties =
+        "spring.datasource.url=jdbc:h2:mem:clusterjobs;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClusterJobRunnerTest {
+
+    // Mỗi test dùng một khung giờ riêng để không quét appointment của test khác
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    JobLeaseRepository leaseRepository;
+    @Autowired
+    AppointmentRepository appointmentRepository;
+    @Autowired
+    AppointmentReminderRepository reminderRepository;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    VehicleRepository vehicleRepository;
+    @Autowired
+    ClaimStatusRepository claimStatusRepository;
+    @Autowired
+    ClaimRepository claimRepository;
+    @Autowired
+    WorkOrderRepository workOrderRepository;
+    @Autowired
+    TechnicianProfileRepository technicianProfileRepository;
+    @Autowired
+    PeriodicMaintenanceJobs maintenanceJobs;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("jobWorkerExecutor")
+    ThreadPoolTaskExecutor workerExecutor;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    ClusterJobRunner nodeA;
+    ClusterJobRunner nodeB;
+    Vehicle vehicle;
+
+    @BeforeAll
+    void setup() {
+        nodeA = new ClusterJobRunner(leaseRepository, properties("node-a"), transactionManager);
+        nodeB = new ClusterJobRunner(leaseRepository, properties("node-b"), transactionManager);
+        Customer customer = customerRepository.save(Customer.builder().name("Job customer").build());
+        vehicle = vehicleRepository.save(Vehicle.builder().vin("JOBVIN1").licensePlate("JOB-1")
+                .customer(customer).mileageKm(0).build());
+    }
+
+    @AfterAll
+    void shutdown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+    }
+
+    @Test
+    void lease_shouldBeHeldByOneNodeUntilItExpires() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(nodeA.runIfLeader("lease-acquire", runs::incrementAndGet)).isTrue();
+        assertThat(nodeB.runIfLeader("lease-acquire", runs::incrementAndGet)).isFalse();
+        // Node đang giữ lease chạy lại được ở tick sau
+        assertThat(nodeA.runIfLeader("lease-acquire", runs::incrementAndGet)).isTrue();
+        assertThat(runs.get()).isEqualTo(2);
+
+        expire("lease-acquire");
+        assertThat(nodeB.runIfLeader("lease-acquire", runs::incrementAndGet)).isTrue();
+        assertThat(leaseRepository.findById("lease-acquire").orElseThrow().getOwnerId()).isEqualTo("node-b");
+    }
+
+    @Test
+    void stolenLease_shouldNotBeRenewedByTheOldOwner() {
+        List<Boolean> heldByA = new ArrayList<>();
+
+        nodeA.runIfLeader("lease-steal", () -> {
+            nodeA.renewHeldLeases();
+            heldByA.add(nodeA.holdsLease("lease-steal"));
+
+            // Node A treo quá hạn lease, node B chiếm lease trong lúc job của A vẫn chạy
+            expire("lease-steal");
+            assertThat(nodeB.runIfLeader("lease-steal", () -> { })).isTrue();
+
+            nodeA.renewHeldLeases();
+            heldByA.add(nodeA.holdsLease("lease-steal"));
+        });
+
+        assertThat(heldByA).containsExactly(true, false);
+        assertThat(nodeA.holdsLease("lease-steal")).isFalse();
+        assertThat(leaseRepository.findById("lease-steal").orElseThrow().getOwnerId()).isEqualTo("node-b");
+        assertThat(leaseRepository.findFencingToken("lease-steal")).isEqualTo(2L);
+    }
+
+    @Test
+    void reminders_shouldBeSentOnceWhenTwoNodesScanTheSameWindow() {
+        LocalDateTime from = DAY.withHour(9);
+        LocalDateTime to = DAY.withHour(10);
+        List<Integer> ids = appointments(from.plusMinutes(30), 30);
+        NotificationService notifications = Mockito.mock(NotificationService.class);
+        AppointmentReminderScheduler schedulerA = scheduler(nodeA, notifications);
+        AppointmentReminderScheduler schedulerB = scheduler(nodeB, notifications);
+        AtomicInteger sent = new AtomicInteger();
+
+        // Hai lease khác nhau để cả hai node cùng quét: chỉ marker (appointment, window) chặn gửi trùng
+        CompletableFuture<Void> a = CompletableFuture.runAsync(() -> nodeA.runIfLeader("reminder-dedup-a",
+                () -> sent.addAndGet(schedulerA.dispatchWindow("reminder-dedup-a", "24h", from, to))));
+        CompletableFuture<Void> b = CompletableFuture.runAsync(() -> nodeB.runIfLeader("reminder-dedup-b",
+                () -> sent.addAndGet(schedulerB.dispatchWindow("reminder-dedup-b", "24h", from, to))));
+        CompletableFuture.allOf(a, b).join();
+
+        assertThat(sent.get()).isEqualTo(ids.size());
+        verify(notifications, times(ids.size())).sendAppointmentReminder(any(), eq("24h"));
+        assertThat(ids).allMatch(id -> reminderRepository.existsByAppointmentIdAndReminderWindow(id, "24h"));
+    }
+
+    @Test
+    void failedReminder_shouldBeRetriedOnTheNextRun() {
+        LocalDateTime from = DAY.withHour(11);
+        LocalDateTime to = DAY.withHour(12);
+        Integer failing = appointments(from.plusMinutes(30), 1).get(0);
+        NotificationService notifications = Mockito.mock(NotificationService.class);
+        doThrow(new IllegalStateException("SMTP down")).when(notifications)
+                .sendAppointmentReminder(argThat(appointment -> appointment.getId().equals(failing)), eq("2h"));
+        AppointmentReminderScheduler scheduler = scheduler(nodeA, notifications);
+        AtomicInteger firstRun = new AtomicInteger();
+
+        nodeA.runIfLeader("reminder-retry", () ->
+                firstRun.set(scheduler.dispatchWindow("reminder-retry", "2h", from, to)));
+        assertThat(firstRun.get()).isZero();
+        assertThat(reminderRepository.existsByAppointmentIdAndReminderWindow(failing, "2h")).isFalse();
+
+        Mockito.reset(notifications);
+        AtomicInteger secondRun = new AtomicInteger();
+        nodeA.runIfLeader("reminder-retry", () ->
+                secondRun.set(scheduler.dispatchWindow("reminder-retry", "2h", from, to)));
+
+        assertThat(secondRun.get()).isEqualTo(1);
+        assertThat(reminderRepository.existsByAppointmentIdAndReminderWindow(failing, "2h")).isTrue();
+    }
+
+    @Test
+    void dispatch_shouldStopWithoutTheLease() {
+        LocalDateTime from = DAY.withHour(13);
+        appointments(from.plusMinutes(30), 2);
+        NotificationService notifications = Mockito.mock(NotificationService.class);
+
+        assertThat(scheduler(nodeA, notifications).dispatchWindow("reminder-no-lease", "24h", from, from.plusHours(1)))
+                .isZero();
+        Mockito.verifyNoInteractions(notifications);
+    }
+
+    @Test
+    void workloadReconciliation_shouldFixDriftWithoutOverwritingConcurrentChanges() {
+        Role role = roleRepository.save(Role.builder().roleName("SC_TECHNICIAN").build());
+        User technician = userRepository.save(User.builder().username("job_tech").email("job_tech@example.com")
+                .passwordHash("x").role(role).build());
+        ClaimStatus open = claimStatusRepository.save(ClaimStatus.builder().code("JOB_OPEN").label("Open").build());
+        Claim claim = claimRepository.save(Claim.builder().claimNumber("CLM-JOB-1").vehicle(vehicle)
+                .customer(vehicle.getCustomer()).createdBy(technician).status(open).build());
+        workOrderRepository.save(WorkOrder.builder().claim(claim).technician(technician).startTime(LocalDateTime.now()).build());
+        TechnicianProfile profile = technicianProfileRepository.save(TechnicianProfile.builder().user(technician)
+                .currentWorkload(4).maxWorkload(5).assignmentStatus("AVAILABLE").build());
+
+        // Giá trị đã đổi kể từ lúc đọc: UPDATE có điều kiện không ghi đè
+        Integer stale = new TransactionTemplate(transactionManager).execute(status -> technicianProfileRepository
+                .reconcileWorkload(profile.getId(), 3, 1, "AVAILABLE", LocalDateTime.now()));
+        assertThat(stale).isZero();
+
+        assertThat(maintenanceJobs.reconcileWorkloadNow()).isEqualTo(1);
+        assertThat(technicianProfileRepository.findById(profile.getId()).orElseThrow().getCurrentWorkload()).isEqualTo(1);
+        assertThat(maintenanceJobs.reconcileWorkloadNow()).isZero();
+    }
+
+    private AppointmentReminderScheduler scheduler(ClusterJobRunner runner, NotificationService notifications) {
+        return new AppointmentReminderScheduler(appointmentRepository, reminderRepository, notifications, runner,
+                workerExecutor, properties(runner.getNodeId()), transactionManager);
+    }
+
+    private List<Integer> appointments(LocalDateTime scheduledAt, int count) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(appointmentRepository.save(Appointment.builder().vehicle(vehicle).scheduledAt(scheduledAt).build()).getId());
+        }
+        return ids;
+    }
+
+    private void expire(String jobName) {
+        jdbcTemplate.update("UPDATE job_leases SET lease_until = ? WHERE job_name = ?",
+                LocalDateTime.now().minusMinutes(1), jobName);
+    }
+
+    private static JobSchedulerProperties properties(String nodeId) {
+        JobSchedulerProperties properties = new JobSchedulerProperties();
+        properties.setNodeId(nodeId);
+        properties.setChunkSize(8);
+        // Gia hạn được gọi tay trong test
+        properties.setLeaseRenewSeconds(3600);
+        return properties;
+    }
+}
@@ -0,0 +1,186 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.model.dto.claim.EVMBulkApprovalRequestDTO;
+import com.ev.warranty.model.dto.claim.EVMBulkDecisionResultDTO;
+import com.ev.warranty.model.dto.claim.EVMBulkRejectionRequestDTO;
+import com.ev.warranty.model.dto.inventory.PartAvailabilityDTO;
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimItem;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.PartSerial;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Warehouse;
+import com.ev.warranty.repository.ClaimItemRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.ClaimStatusHistoryRepository;
+import com.ev.warranty.repository.PartSerialRepository;
+import com.ev.warranty.repository.StockReservationRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.WarehouseRepository;
+import com.ev.warranty.service.impl.ClaimEventOutbox;
+import com.ev.warranty.service.impl.ClaimStatusRegistry;
+import com.ev.warranty.service.impl.EVMClaimServiceImpl;
+import com.ev.warranty.service.inter.StockAvailabilityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EVMClaimBulkDecisionTest {
+
+    @Mock
+    ClaimRepository claimRepository;
+    @Mock
+    ClaimItemRepository claimItemRepository;
+    @Mock
+    StockAvailabilityService stockAvailabilityService;
+    @Mock
+    PartSerialRepository partSerialRepository;
+    @Mock
+    StockReservationRepository stockReservationRepository;
+    @Mock
+    WarehouseRepository warehouseRepository;
+    @Mock
+    ClaimStatusHistoryRepository claimStatusHistoryRepository;
+    @Mock
+    UserRepository userRepository;
+    @Mock
+    ClaimStatusRegistry claimStatusRegistry;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Mock
+    ClaimEventOutbox claimEventOutbox;
+
+    @InjectMocks
+    EVMClaimServiceImpl service;
+
+    final Part battery = Part.builder().id(7).name("Battery").partNumber("BAT-7").build();
+    final ClaimStatus pending = status("PENDING_EVM_APPROVAL");
+    final ClaimStatus repairing = status("REPAIR_IN_PROGRESS");
+
+    @BeforeEach
+    void setup() {
+        given(userRepository.findByUsername("evm1")).willReturn(Optional.of(User.builder().id(9).username("evm1").build()));
+        for (String code : List.of("EVM_APPROVED", "READY_FOR_REPAIR", "EVM_REJECTED")) {
+            given(claimStatusRegistry.byCode(code)).willReturn(status(code));
+        }
+        given(warehouseRepository.findById(1)).willReturn(Optional.of(Warehouse.builder().id(1).build()));
+    }
+
+    @Test
+    void bulkApprove_shouldCheckStockOnce_andApproveInRequestOrderUntilStockRunsOut() {
+        Claim first = claim(1, pending);
+        Claim second = claim(2, pending);
+        Claim done = claim(3, repairing);
+        given(claimRepository.findForDecisionByIdIn(List.of(1, 2, 3, 4))).willReturn(List.of(done, second, first));
+        given(claimItemRepository.findWarrantyPartsByClaimIds(List.of(1, 2))).willReturn(List.of(
+                ClaimItem.builder().claim(first).part(battery).quantity(2).build(),
+                ClaimItem.builder().claim(second).part(battery).quantity(2).build()));
+        // 3 pin còn trống: đủ cho claim 1, không đủ cho claim 2
+        given(stockAvailabilityService.getAvailability(anyCollection(), eq(1))).willReturn(Map.of(7, available(3)));
+        given(partSerialRepository.findAvailablePartsByPartIds(anyCollection())).willReturn(List.of(
+                PartSerial.builder().id(70).part(battery).serialNumber("SN-70").status("in_stock").build()));
+
+        EVMBulkDecisionResultDTO result = service.bulkApproveClaims(approvalRequest(1, 2, 3, 4, 1), "evm1");
+
+        assertThat(result.getRequested()).isEqualTo(4);
+        assertThat(result.getResults()).extracting(EVMBulkDecisionResultDTO.ClaimResult::getOutcome)
+                .containsExactly("APPROVED", "FAILED", "SKIPPED", "FAILED");
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(first.getStatus().getCode()).isEqualTo("READY_FOR_REPAIR");
+        assertThat(second.getStatus().getCode()).isEqualTo("PENDING_EVM_APPROVAL");
+        assertThat(result.getResults().get(1).getMessage()).contains("BAT-7").contains("Có sẵn: 1");
+
+        verify(stockAvailabilityService, times(1)).getAvailability(anyCollection(), eq(1));
+        verify(stockAvailabilityService, times(1)).reserve(anyInt(), anyInt(), anyInt());
+        verify(stockAvailabilityService).reserve(7, 1, 2);
+    }
+
+    @Test
+    void bulkApprove_shouldFailWholeChunk_whenConditionalReserveLosesRace() {
+        Claim first = claim(1, pending);
+        given(claimRepository.findForDecisionByIdIn(List.of(1))).willReturn(List.of(first));
+        given(claimItemRepository.findWarrantyPartsByClaimIds(List.of(1))).willReturn(List.of(
+                ClaimItem.builder().claim(first).part(battery).quantity(1).build()));
+        given(stockAvailabilityService.getAvailability(anyCollection(), eq(1))).willReturn(Map.of(7, available(5)));
+        given(stockAvailabilityService.reserve(7, 1, 1)).willThrow(new BadRequestException("Không đủ linh kiện trong kho"));
+
+        EVMBulkDecisionResultDTO result = service.bulkApproveClaims(approvalRequest(1), "evm1");
+
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getMessage()).startsWith("Rolled back");
+        verify(transactionManager).rollback(any());
+        verify(stockReservationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void bulkReject_shouldRejectPendingClaims_andSkipOthers() {
+        Claim first = claim(1, pending);
+        Claim done = claim(2, repairing);
+        given(claimRepository.findForDecisionByIdIn(List.of(1, 2))).willReturn(List.of(first, done));
+
+        EVMBulkDecisionResultDTO result = service.bulkRejectClaims(EVMBulkRejectionRequestDTO.builder()
+                .claimIds(List.of(1, 2, 1)).rejectionReason("NOT_COVERED").rejectionNotes("Wear and tear")
+                .isFinalRejection(true).build(), "evm1");
+
+        assertThat(result.getRequested()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(EVMBulkDecisionResultDTO.ClaimResult::getOutcome)
+                .containsExactly("REJECTED", "SKIPPED");
+        assertThat(first.getApproval().getRejectionCount()).isEqualTo(1);
+        assertThat(first.getApproval().getCanResubmit()).isFalse();
+        verify(claimStatusHistoryRepository).saveAll(any());
+    }
+
+    private EVMBulkApprovalRequestDTO approvalRequest(Integer... claimIds) {
+        List<EVMBulkApprovalRequestDTO.ClaimApprovalItem> items = new ArrayList<>();
+        for (Integer id : claimIds) {
+            items.add(EVMBulkApprovalRequestDTO.ClaimApprovalItem.builder()
+                    .claimId(id).warrantyCost(BigDecimal.TEN).companyPaidCost(BigDecimal.TEN).build());
+        }
+        return EVMBulkApprovalRequestDTO.builder().approvalNotes("Bulk approved").claims(items).build();
+    }
+
+    private static PartAvailabilityDTO available(long quantity) {
+        return PartAvailabilityDTO.builder().partId(7).availableAllWarehouses(quantity)
+                .availableInWarehouse(quantity).stockedInWarehouse(true).build();
+    }
+
+    private static Claim claim(int id, ClaimStatus status) {
+        Claim claim = new Claim();
+        claim.setId(id);
+        claim.setClaimNumber("CLM-" + id);
+        claim.setStatus(status);
+        return claim;
+    }
+
+    private static ClaimStatus status(String code) {
+        return ClaimStatus.builder().code(code).label(code).build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.config.SearchIndexProperties;
+import com.ev.warranty.model.dto.claim.EVMClaimFilterRequestDTO;
+import com.ev.warranty.service.impl.ClaimListProjection;
+import com.ev.warranty.service.impl.ClaimSearchIndex;
+import com.ev.warranty.service.impl.EVMClaimServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Danh sách claim của EVM có từ khóa: chỉ dùng search index khi xếp theo độ liên quan và kết quả không bị cắt
+ * ở app.search.max-hits, còn lại đi đường DB để tổng số và thứ tự đúng.
+ */
+@ExtendWith(MockitoExtension.class)
+class EVMClaimSearchTest {
+
+    @Mock
+    ClaimSearchIndex claimSearchIndex;
+    @Mock
+    ClaimListProjection claimListProjection;
+    @Spy
+    SearchIndexProperties searchIndexProperties = new SearchIndexProperties();
+
+    @InjectMocks
+    EVMClaimServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        searchIndexProperties.setMaxHits(2);
+        lenient().when(claimSearchIndex.isReady()).thenReturn(true);
+    }
+
+    @Test
+    void keywordSearch_shouldUseIndexRanking_whenAllHitsFit() {
+        given(claimSearchIndex.search("battery", 2)).willReturn(result(2, 2));
+        given(claimListProjection.findByIds(eq(List.of(11, 10)), any()))
+                .willAnswer(invocation -> List.of(Map.of("id", 11), Map.of("id", 10)));
+
+        Page<?> page = service.getClaimListView(filter("battery", null), "id");
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        verify(claimListProjection, never()).find(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void keywordSearch_shouldFallBackToDatabase_whenIndexHitsAreTruncated() {
+        given(claimSearchIndex.search("battery", 2)).willReturn(result(2, 5));
+        given(claimListProjection.find(any(), any(), any(), anyLong(), anyInt()))
+                .willAnswer(invocation -> List.of(Map.of("id", 1)));
+
+        Page<?> page = service.getClaimListView(filter("battery", null), "id");
+
+        // Trang đầu chưa đầy: tổng là số dòng thật từ DB, không phải 2 id còn lại sau khi cắt
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        verify(claimListProjection, never()).findByIds(any(), any());
+    }
+
+    @Test
+    void keywordSearch_shouldUseDatabaseSort_whenSortIsRequested() {
+        given(claimListProjection.find(any(), any(), eq(Sort.by(Sort.Direction.ASC, "cost.warrantyCost")), anyLong(), anyInt()))
+                .willReturn(List.of());
+
+        service.getClaimListView(filter("battery", "warrantyCost"), "id");
+
+        verify(claimSearchIndex, never()).search(any(), anyInt());
+    }
+
+    private static EVMClaimFilterRequestDTO filter(String keyword, String sortBy) {
+        EVMClaimFilterRequestDTO filter = new EVMClaimFilterRequestDTO();
+        filter.setSearchKeyword(keyword);
+        filter.setSortBy(sortBy);
+        filter.setSortDirection("ASC");
+        return filter;
+    }
+
+    private static ClaimSearchIndex.SearchResult result(int hits, int totalHits) {
+        List<ClaimSearchIndex.Hit> ranked = List.of(new ClaimSearchIndex.Hit(11, 2.0), new ClaimSearchIndex.Hit(10, 1.0));
+        return new ClaimSearchIndex.SearchResult(ranked.subList(0, hits), totalHits, 10);
+    }
+}
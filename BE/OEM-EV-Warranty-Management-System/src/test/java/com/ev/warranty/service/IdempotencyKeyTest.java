@@ -0,0 +1,150 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.config.BulkheadProperties;
+import com.ev.warranty.config.IdempotencyProperties;
+import com.ev.warranty.controller.VNPayController;
+import com.ev.warranty.exception.GlobalExceptionHandler;
+import com.ev.warranty.idempotency.IdempotencyFilter;
+import com.ev.warranty.idempotency.IdempotencyInterceptor;
+import com.ev.warranty.idempotency.IdempotencyStore;
+import com.ev.warranty.model.dto.payment.VNPayPaymentInitResponse;
+import com.ev.warranty.service.inter.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Idempotency-Key trên bảng idempotency_records thật (H2): gửi lại thì trả response đã lưu, gửi trùng đồng thời
+ * thì chờ lần đầu, lỗi 5xx không được lưu.
+ */
+@SpringBootTest(classes = RunApplication.class)
+@ActiveProfiles("test")
+class IdempotencyKeyTest {
+
+    private static final String BODY = "{\"amount\":150000,\"orderInfo\":\"Claim CLM-1 repair\"}";
+
+    @Autowired
+    IdempotencyStore store;
+    @Autowired
+    IdempotencyProperties properties;
+
+    PaymentService paymentService;
+    MockMvc mockMvc;
+    AtomicInteger created = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        paymentService = Mockito.mock(PaymentService.class);
+        when(paymentService.createVNPayPayment(any(), any())).thenAnswer(invocation -> payment());
+        mockMvc = MockMvcBuilders.standaloneSetup(new VNPayController(paymentService))
+                .setControllerAdvice(new GlobalExceptionHandler(new BulkheadProperties()))
+                .addFilters(new IdempotencyFilter(store, properties))
+                .addInterceptors(new IdempotencyInterceptor(store, properties))
+                .build();
+    }
+
+    @Test
+    void retryWithSameKey_shouldReplayStoredResponseWithoutCreatingAnotherPayment() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String first = mockMvc.perform(create(key, BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        String replayed = mockMvc.perform(create(key, BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.txnRef").value("TXN-1"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(replayed).isEqualTo(first);
+        verify(paymentService, times(1)).createVNPayPayment(any(), any());
+
+        // Không có header: xử lý như cũ
+        mockMvc.perform(post("/api/payment/vnpay/create").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isOk());
+        verify(paymentService, times(2)).createVNPayPayment(any(), any());
+    }
+
+    @Test
+    void sameKeyWithDifferentBody_shouldBeRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(create(key, BODY)).andExpect(status().isOk());
+
+        mockMvc.perform(create(key, BODY.replace("150000", "990000")))
+                .andExpect(status().isUnprocessableEntity());
+        verify(paymentService, times(1)).createVNPayPayment(any(), any());
+    }
+
+    @Test
+    void concurrentDuplicates_shouldWaitForFirstExecution() throws Exception {
+        when(paymentService.createVNPayPayment(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return payment();
+        });
+        String key = UUID.randomUUID().toString();
+
+        CompletableFuture<MvcResult> first = CompletableFuture.supplyAsync(() -> perform(key));
+        CompletableFuture<MvcResult> second = CompletableFuture.supplyAsync(() -> perform(key));
+
+        assertThat(first.get().getResponse().getStatus()).isEqualTo(200);
+        assertThat(second.get().getResponse().getStatus()).isEqualTo(200);
+        assertThat(second.get().getResponse().getContentAsString()).isEqualTo(first.get().getResponse().getContentAsString());
+        verify(paymentService, times(1)).createVNPayPayment(any(), any());
+    }
+
+    @Test
+    void serverError_shouldReleaseKeySoRetryRunsAgain() throws Exception {
+        when(paymentService.createVNPayPayment(any(), any()))
+                .thenThrow(new IllegalStateException("VNPay unreachable"))
+                .thenAnswer(invocation -> payment());
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(create(key, BODY)).andExpect(status().isInternalServerError());
+        mockMvc.perform(create(key, BODY))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        verify(paymentService, times(2)).createVNPayPayment(any(), any());
+    }
+
+    private MvcResult perform(String key) {
+        try {
+            return mockMvc.perform(create(key, BODY)).andReturn();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequestBuilder create(String key, String body) {
+        return post("/api/payment/vnpay/create").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    private VNPayPaymentInitResponse payment() {
+        return VNPayPaymentInitResponse.builder().paymentUrl("https://sandbox.vnpayment.vn/pay?txn=" + created.incrementAndGet())
+                .txnRef("TXN-1").amount(150000).build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.exception.NotFoundException;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.Shipment;
+import com.ev.warranty.model.entity.ShipmentItem;
+import com.ev.warranty.model.entity.Warehouse;
+import com.ev.warranty.repository.ShipmentItemRepository;
+import com.ev.warranty.repository.ShipmentRepository;
+import com.ev.warranty.repository.WarehouseRepository;
+import com.ev.warranty.service.impl.InventoryServiceImpl;
+import com.ev.warranty.service.inter.StockAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceImplTest {
+
+    private static final LocalDateTime DELIVERED_AT = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @Mock
+    ShipmentRepository shipmentRepository;
+
+    @Mock
+    ShipmentItemRepository shipmentItemRepository;
+
+    @Mock
+    WarehouseRepository warehouseRepository;
+
+    @Mock
+    StockAvailabilityService stockAvailabilityService;
+
+    @InjectMocks
+    InventoryServiceImpl inventoryService;
+
+    @Test
+    void receiveDeliveredShipment_shouldReceiveStockAndMarkDelivered() {
+        Shipment shipment = Shipment.builder().id(1).status("in_transit").destinationCenterId(5).build();
+        Warehouse warehouse = Warehouse.builder().id(5).build();
+        Part part = Part.builder().id(9).build();
+        given(shipmentRepository.findById(1)).willReturn(Optional.of(shipment));
+        given(warehouseRepository.findById(5)).willReturn(Optional.of(warehouse));
+        given(shipmentItemRepository.findByShipmentId(1))
+                .willReturn(List.of(ShipmentItem.builder().part(part).quantity(3).build()));
+
+        inventoryService.receiveDeliveredShipment(1, DELIVERED_AT);
+
+        assertThat(shipment.getStatus()).isEqualTo("delivered");
+        assertThat(shipment.getDeliveredAt()).isEqualTo(DELIVERED_AT);
+        verify(stockAvailabilityService).receive(part, warehouse, 3, null);
+    }
+
+    @Test
+    void receiveDeliveredShipment_shouldFailWithoutMarkingDelivered_whenWarehouseIsMissing() {
+        Shipment shipment = Shipment.builder().id(2).status("in_transit").destinationCenterId(6).build();
+        given(shipmentRepository.findById(2)).willReturn(Optional.of(shipment));
+        given(warehouseRepository.findById(6)).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> inventoryService.receiveDeliveredShipment(2, DELIVERED_AT))
+                .isInstanceOf(NotFoundException.class);
+
+        // Shipment vẫn in_transit: sự kiện delivered gửi lại sau khi có kho sẽ nhập kho
+        assertThat(shipment.getStatus()).isEqualTo("in_transit");
+        assertThat(shipment.getDeliveredAt()).isNull();
+        verify(stockAvailabilityService, never()).receive(any(), any(), anyInt(), any());
+    }
+}
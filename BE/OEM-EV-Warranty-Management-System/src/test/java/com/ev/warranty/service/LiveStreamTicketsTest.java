@@ -0,0 +1,95 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.security.JwtAuthenticationFilter;
+import com.ev.warranty.security.LiveStreamTickets;
+import com.ev.warranty.service.inter.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vé mở live stream trên H2 riêng: dùng được đúng một lần trước khi hết hạn, và JWT trên query string
+ * (?access_token=) không còn được chấp nhận.
+ */
+@SpringBootTest(classes = RunApplication.class, properties =
+        "spring.datasource.url=jdbc:h2:mem:livetickets;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE")
+@ActiveProfiles("test")
+class LiveStreamTicketsTest {
+
+    @Autowired
+    LiveStreamTickets liveStreamTickets;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void ticket_shouldBeRedeemableOnlyOnce() {
+        LiveStreamTickets.Ticket ticket = liveStreamTickets.issue("live_user");
+
+        assertThat(ticket.expiresInSeconds()).isPositive();
+        assertThat(liveStreamTickets.redeem(ticket.ticket())).contains("live_user");
+        assertThat(liveStreamTickets.redeem(ticket.ticket())).isEmpty();
+        assertThat(liveStreamTickets.redeem("not-a-ticket")).isEmpty();
+        assertThat(liveStreamTickets.redeem(null)).isEmpty();
+    }
+
+    @Test
+    void expiredTicket_shouldBeRejected() {
+        LiveStreamTickets.Ticket ticket = liveStreamTickets.issue("late_user");
+        jdbcTemplate.update("UPDATE live_stream_tickets SET expires_at = ? WHERE username = ?",
+                LocalDateTime.now().minusSeconds(1), "late_user");
+
+        assertThat(liveStreamTickets.redeem(ticket.ticket())).isEmpty();
+    }
+
+    @Test
+    void streamRequest_shouldAuthenticateWithTicket_butNotWithQueryStringJwt() throws Exception {
+        JwtService jwtService = Mockito.mock(JwtService.class);
+        when(jwtService.validateToken(anyString())).thenReturn(true);
+        when(jwtService.getUsernameFromToken(anyString())).thenReturn("live_user");
+        UserDetailsService userDetailsService = username ->
+                User.withUsername(username).password("x").authorities("ROLE_EVM_STAFF").build();
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, userDetailsService, liveStreamTickets);
+
+        assertThat(authenticate(filter, "access_token", "valid.jwt.token")).isNull();
+
+        String ticket = liveStreamTickets.issue("live_user").ticket();
+        Authentication authentication = authenticate(filter, "ticket", ticket);
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("live_user");
+        // Vé đã dùng: mở lại stream phải xin vé mới
+        assertThat(authenticate(filter, "ticket", ticket)).isNull();
+    }
+
+    private static Authentication authenticate(JwtAuthenticationFilter filter, String parameter, String value)
+            throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/live/stream");
+        request.setServletPath("/api/live/stream");
+        request.setParameter(parameter, value);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
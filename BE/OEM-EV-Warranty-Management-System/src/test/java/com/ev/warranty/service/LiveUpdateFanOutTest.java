@@ -0,0 +1,96 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.config.LiveUpdateProperties;
+import com.ev.warranty.model.entity.Role;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.LiveUpdateEventRepository;
+import com.ev.warranty.repository.RoleRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.service.impl.ClusterJobRunner;
+import com.ev.warranty.service.impl.LiveUpdateHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Live update nhiều node trên H2 riêng: thay đổi commit trên node A (hub của context) tới được stream đang mở
+ * trên node B (hub thứ hai dựng tay, dùng chung DB), và poll chồng cửa sổ không gửi lại cùng một delta.
+ */
+@SpringBootTest(classes = RunApplication.class, properties =
+        "spring.datasource.url=jdbc:h2:mem:livefanout;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LiveUpdateFanOutTest {
+
+    @Autowired
+    LiveUpdateHub nodeA;
+    @Autowired
+    LiveUpdateProperties properties;
+    @Autowired
+    ClaimRepository claimRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    LiveUpdateEventRepository eventRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    ClusterJobRunner jobRunner;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    LiveUpdateHub nodeB;
+
+    @BeforeAll
+    void seed() {
+        Role role = roleRepository.save(Role.builder().roleName("LIVE_FANOUT_EVM").build());
+        userRepository.save(User.builder().username("live_fanout_evm").email("live_fanout_evm@example.com")
+                .passwordHash("x").role(role).build());
+        nodeB = new LiveUpdateHub(properties, claimRepository, userRepository, eventRepository, objectMapper,
+                jobRunner, new SimpleMeterRegistry(), transactionManager);
+    }
+
+    @Test
+    void changeCommittedOnOneNode_shouldReachStreamOpenOnAnotherNode_once() throws Exception {
+        LiveUpdateHub.Subscriber stream = nodeB.subscribe("live_fanout_evm", "EVM_STAFF");
+
+        nodeA.publish(List.of(new LiveUpdateHub.Change(LiveUpdateHub.TOPIC_STOCK_ALERT, 42, null,
+                Map.of("partId", 42, "availableStock", 3))));
+
+        List<LiveUpdateHub.Delta> received = new ArrayList<>();
+        // Node A ghi bảng ở lượt poll của nó (scheduler cũng có thể đã chạy trước): lặp tới khi dòng xuất hiện
+        for (int attempt = 0; attempt < 50 && received.isEmpty(); attempt++) {
+            nodeA.poll();
+            nodeB.poll();
+            received.addAll(stream.takePending().deltas());
+            if (received.isEmpty()) {
+                Thread.sleep(100);
+            }
+        }
+        assertThat(received).singleElement().satisfies(delta -> {
+            assertThat(delta.topic()).isEqualTo(LiveUpdateHub.TOPIC_STOCK_ALERT);
+            assertThat(delta.id()).isEqualTo(42);
+            assertThat(delta.data()).containsEntry("availableStock", 3);
+        });
+
+        // Lần poll sau vẫn đọc lại dòng đó (lookback) nhưng không gửi lần hai
+        nodeB.poll();
+        assertThat(stream.takePending().deltas()).isEmpty();
+    }
+}
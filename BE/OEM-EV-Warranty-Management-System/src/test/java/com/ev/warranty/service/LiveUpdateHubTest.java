@@ -0,0 +1,116 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.config.LiveUpdateProperties;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.LiveUpdateEventRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.service.impl.ClusterJobRunner;
+import com.ev.warranty.service.impl.LiveUpdateHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class LiveUpdateHubTest {
+
+    @Mock
+    ClaimRepository claimRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    LiveUpdateEventRepository eventRepository;
+
+    @Mock
+    ClusterJobRunner jobRunner;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    LiveUpdateProperties properties;
+    LiveUpdateHub hub;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LiveUpdateProperties();
+        hub = new LiveUpdateHub(properties, claimRepository, userRepository, eventRepository, new ObjectMapper(),
+                jobRunner, new SimpleMeterRegistry(), transactionManager);
+    }
+
+    @Test
+    void dispatch_shouldScopeByServiceCenter_andCoalescePerClaim() {
+        LiveUpdateHub.Subscriber center1 = subscribe("sc1", "SC_STAFF", 1);
+        LiveUpdateHub.Subscriber center2 = subscribe("sc2", "SC_STAFF", 2);
+        LiveUpdateHub.Subscriber evm = subscribe("evm", "EVM_STAFF", null);
+        given(claimRepository.findServiceCenterIdsByClaimIds(anyCollection()))
+                .willReturn(List.<Object[]>of(new Object[]{10, 1}));
+
+        hub.dispatch(List.of(claimStatus(10, "IN_PROGRESS"), claimStatus(10, "DONE"), stockAlert(7)));
+
+        LiveUpdateHub.Batch forCenter1 = center1.takePending();
+        assertThat(forCenter1.resync()).isFalse();
+        assertThat(forCenter1.deltas()).extracting(LiveUpdateHub.Delta::topic)
+                .containsExactly(LiveUpdateHub.TOPIC_CLAIM_STATUS, LiveUpdateHub.TOPIC_STOCK_ALERT);
+        assertThat(forCenter1.deltas().get(0).data()).containsEntry("status", "DONE");
+
+        assertThat(center2.takePending().deltas()).extracting(LiveUpdateHub.Delta::topic)
+                .containsExactly(LiveUpdateHub.TOPIC_STOCK_ALERT);
+        assertThat(evm.takePending().deltas()).hasSize(2);
+        assertThat(center1.takePending().deltas()).isEmpty();
+    }
+
+    @Test
+    void dispatch_shouldAskForResync_whenConnectionFallsTooFarBehind() {
+        properties.setMaxPendingPerConnection(2);
+        LiveUpdateHub.Subscriber evm = subscribe("evm", "ADMIN", null);
+
+        hub.dispatch(List.of(stockAlert(1), stockAlert(2), stockAlert(3)));
+
+        LiveUpdateHub.Batch batch = evm.takePending();
+        assertThat(batch.resync()).isTrue();
+        assertThat(batch.deltas()).isEmpty();
+        hub.dispatch(List.of(stockAlert(4)));
+        assertThat(evm.takePending().deltas()).hasSize(1);
+    }
+
+    @Test
+    void technician_shouldNotReceiveStockAlerts_orClaimsOfUnknownServiceCenter() {
+        LiveUpdateHub.Subscriber technician = subscribe("tech", "SC_TECHNICIAN", 1);
+        given(claimRepository.findServiceCenterIdsByClaimIds(anyCollection())).willReturn(List.of());
+
+        hub.dispatch(List.of(claimStatus(99, "OPEN"), stockAlert(1)));
+
+        assertThat(technician.takePending().deltas()).isEmpty();
+    }
+
+    private LiveUpdateHub.Subscriber subscribe(String username, String role, Integer serviceCenterId) {
+        given(userRepository.findByUsername(username))
+                .willReturn(Optional.of(User.builder().username(username).serviceCenterId(serviceCenterId).build()));
+        return hub.subscribe(username, role);
+    }
+
+    private static LiveUpdateHub.Change claimStatus(int claimId, String status) {
+        return new LiveUpdateHub.Change(LiveUpdateHub.TOPIC_CLAIM_STATUS, claimId, claimId,
+                Map.of("claimId", claimId, "status", status));
+    }
+
+    private static LiveUpdateHub.Change stockAlert(int inventoryId) {
+        return new LiveUpdateHub.Change(LiveUpdateHub.TOPIC_STOCK_ALERT, inventoryId, null,
+                Map.of("inventoryId", inventoryId, "stockStatus", "low_stock"));
+    }
+}
@@ -0,0 +1,246 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.config.VNPayProperties;
+import com.ev.warranty.model.dto.payment.PaymentReconciliationResultDTO;
+import com.ev.warranty.model.dto.payment.VNPayCreatePaymentRequest;
+import com.ev.warranty.model.dto.payment.VNPayIpnResponse;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.PaymentTransaction;
+import com.ev.warranty.model.entity.Role;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.ClaimStatusRepository;
+import com.ev.warranty.repository.CustomerRepository;
+import com.ev.warranty.repository.PaymentTransactionRepository;
+import com.ev.warranty.repository.RoleRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.VehicleRepository;
+import com.ev.warranty.service.impl.ReferenceDataCaches;
+import com.ev.warranty.service.inter.PaymentService;
+import com.ev.warranty.util.VNPayUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sổ cái VNPay trên H2 riêng: IPN ký bằng secret thật được áp dụng đúng một lần cho mỗi txnRef kể cả khi VNPay
+ * gửi trùng đồng thời, claim chờ thanh toán chuyển sang CUSTOMER_PAID, job đối soát xử lý phần còn lại.
+ */
+@SpringBootTest(classes = RunApplication.class, properties =
+        "spring.datasource.url=jdbc:h2:mem:payments;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaymentLedgerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentLedgerTest.class);
+
+    @Autowired
+    PaymentService paymentService;
+    @Autowired
+    PaymentTransactionRepository paymentTransactionRepository;
+    @Autowired
+    VNPayProperties vnPayProperties;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    VehicleRepository vehicleRepository;
+    @Autowired
+    ClaimStatusRepository claimStatusRepository;
+    @Autowired
+    ClaimRepository claimRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ReferenceDataCaches referenceDataCaches;
+
+    User staff;
+    Customer customer;
+    ClaimStatus paymentPending;
+    final AtomicInteger sequence = new AtomicInteger();
+
+    @BeforeAll
+    void seed() {
+        Role role = roleRepository.save(Role.builder().roleName("SC_STAFF").build());
+        staff = userRepository.save(User.builder().username("pay_staff").email("pay_staff@example.com")
+                .passwordHash("x").role(role).build());
+        customer = customerRepository.save(Customer.builder().name("Payment customer").build());
+        paymentPending = claimStatusRepository.save(ClaimStatus.builder().code("CUSTOMER_PAYMENT_PENDING")
+                .label("Awaiting customer payment").build());
+        claimStatusRepository.save(ClaimStatus.builder().code("CUSTOMER_PAID").label("Customer paid").build());
+        referenceDataCaches.invalidateAll(); // cache trạng thái đã nạp lúc khởi động, trước khi seed
+    }
+
+    @Test
+    void ipn_shouldConfirmOnceAndMarkClaimPaid() {
+        Claim claim = pendingClaim();
+        String txnRef = createPayment(claim.getId(), 250_000);
+        assertThat(ledger(txnRef).getStatus()).isEqualTo(PaymentTransaction.STATUS_PENDING);
+
+        Map<String, String> ipn = signedIpn(txnRef, 250_000, "00");
+        assertThat(paymentService.handleVNPayIpn(ipn).getRspCode()).isEqualTo("00");
+        assertThat(paymentService.handleVNPayIpn(ipn).getRspCode()).isEqualTo("02");
+
+        PaymentTransaction tx = ledger(txnRef);
+        assertThat(tx.getStatus()).isEqualTo(PaymentTransaction.STATUS_SUCCESS);
+        assertThat(tx.getGatewayTransactionNo()).isEqualTo("VNP-" + txnRef);
+        assertThat(tx.getReconcileStatus()).isEqualTo(PaymentTransaction.RECONCILE_MATCHED);
+        assertThat(claimState(claim.getId())).containsExactly("CUSTOMER_PAID", "PAID");
+    }
+
+    @Test
+    void ipn_shouldRejectBadSignatureWrongAmountAndUnknownTxnRef() {
+        String txnRef = createPayment(null, 90_000);
+
+        Map<String, String> tampered = signedIpn(txnRef, 90_000, "00");
+        tampered.put("vnp_ResponseCode", "24");
+        assertThat(paymentService.handleVNPayIpn(tampered)).isEqualTo(VNPayIpnResponse.INVALID_SIGNATURE);
+        assertThat(paymentService.handleVNPayIpn(signedIpn(txnRef, 1_000, "00")))
+                .isEqualTo(VNPayIpnResponse.INVALID_AMOUNT);
+        assertThat(paymentService.handleVNPayIpn(signedIpn("NO-SUCH-REF", 90_000, "00")))
+                .isEqualTo(VNPayIpnResponse.ORDER_NOT_FOUND);
+        assertThat(ledger(txnRef).getStatus()).isEqualTo(PaymentTransaction.STATUS_PENDING);
+
+        // Khách hủy trên cổng: ghi FAILED, không đụng claim
+        assertThat(paymentService.handleVNPayIpn(signedIpn(txnRef, 90_000, "24")).getRspCode()).isEqualTo("00");
+        assertThat(ledger(txnRef).getStatus()).isEqualTo(PaymentTransaction.STATUS_FAILED);
+    }
+
+    @Test
+    void concurrentDuplicateCallbacks_shouldEachBeAppliedExactlyOnce() throws Exception {
+        int payments = 1000;
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentTransaction> rows = new ArrayList<>();
+        for (int i = 0; i < payments; i++) {
+            rows.add(PaymentTransaction.builder().txnRef("LOAD" + i).provider("VNPAY").amount(10_000L + i)
+                    .status(PaymentTransaction.STATUS_PENDING).createdAt(now).expireAt(now.plusMinutes(15)).build());
+        }
+        paymentTransactionRepository.saveAll(rows);
+
+        // Mỗi giao dịch được VNPay gửi 2 lần, xen kẽ để callback trùng chạy song song
+        List<Map<String, String>> callbacks = new ArrayList<>();
+        for (int i = 0; i < payments; i++) {
+            Map<String, String> ipn = signedIpn("LOAD" + i, 10_000L + i, "00");
+            callbacks.add(ipn);
+            callbacks.add(ipn);
+        }
+        Map<String, AtomicInteger> byCode = new ConcurrentHashMap<>();
+        long started = System.nanoTime();
+        // Virtual thread như request thật (spring.threads.virtual.enabled): HMAC không dựa vào cache theo thread
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Map<String, String> ipn : callbacks) {
+                futures.add(executor.submit(() -> byCode.computeIfAbsent(paymentService.handleVNPayIpn(ipn).getRspCode(),
+                        code -> new AtomicInteger()).incrementAndGet()));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("VNPay IPN: {} callbacks in {} ms ({}/s)", callbacks.size(), elapsedMs,
+                callbacks.size() * 1000L / elapsedMs);
+
+        assertThat(byCode.get("00")).hasValue(payments);
+        assertThat(byCode.get("02")).hasValue(payments);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payment_transactions " +
+                "WHERE txn_ref LIKE 'LOAD%' AND status = 'SUCCESS'", Integer.class)).isEqualTo(payments);
+    }
+
+    @Test
+    void reconcile_shouldUpdatePendingClaimsFlagOrphansAndExpireStaleEntries() {
+        Claim claim = pendingClaim();
+        LocalDateTime now = LocalDateTime.now();
+        // Thanh toán đã xác nhận nhưng claim chưa được cập nhật (vd. IPN ghi nhận trước khi claim chuyển trạng thái)
+        paymentTransactionRepository.saveAll(List.of(
+                PaymentTransaction.builder().txnRef("REC-CLAIM").provider("VNPAY").claimId(claim.getId())
+                        .amount(50_000L).status(PaymentTransaction.STATUS_SUCCESS).createdAt(now)
+                        .expireAt(now.plusMinutes(15)).build(),
+                PaymentTransaction.builder().txnRef("REC-ORPHAN").provider("VNPAY").amount(50_000L)
+                        .status(PaymentTransaction.STATUS_SUCCESS).createdAt(now).expireAt(now.plusMinutes(15)).build(),
+                PaymentTransaction.builder().txnRef("REC-STALE").provider("VNPAY").amount(50_000L)
+                        .status(PaymentTransaction.STATUS_PENDING).createdAt(now.minusHours(3))
+                        .expireAt(now.minusHours(2)).build()));
+
+        PaymentReconciliationResultDTO result = paymentService.reconcilePayments();
+
+        assertThat(result.getClaimsUpdated()).isGreaterThanOrEqualTo(1);
+        assertThat(result.getExpired()).isGreaterThanOrEqualTo(1);
+        assertThat(claimState(claim.getId())).containsExactly("CUSTOMER_PAID", "PAID");
+        assertThat(ledger("REC-CLAIM").getReconcileStatus()).isEqualTo(PaymentTransaction.RECONCILE_MATCHED);
+        assertThat(ledger("REC-ORPHAN").getReconcileStatus()).isEqualTo(PaymentTransaction.RECONCILE_NO_CLAIM);
+        assertThat(ledger("REC-STALE").getStatus()).isEqualTo(PaymentTransaction.STATUS_EXPIRED);
+
+        // Lần hai không còn gì để đối soát
+        assertThat(paymentService.reconcilePayments().getExamined()).isZero();
+    }
+
+    private Claim pendingClaim() {
+        int n = sequence.incrementAndGet();
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder().vin("PAYVIN" + n).licensePlate("PAY-" + n)
+                .customer(customer).mileageKm(0).build());
+        return claimRepository.save(Claim.builder().claimNumber("CLM-PAY-" + n).vehicle(vehicle).customer(customer)
+                .createdBy(staff).status(paymentPending).build());
+    }
+
+    private String createPayment(Integer claimId, long amount) {
+        VNPayCreatePaymentRequest request = new VNPayCreatePaymentRequest();
+        request.setAmount(amount);
+        request.setClaimId(claimId);
+        return paymentService.createVNPayPayment(request, new MockHttpServletRequest()).getTxnRef();
+    }
+
+    private Map<String, String> signedIpn(String txnRef, long amount, String responseCode) {
+        Map<String, String> params = new HashMap<>();
+        params.put("vnp_TmnCode", vnPayProperties.getTmnCode());
+        params.put("vnp_TxnRef", txnRef);
+        params.put("vnp_Amount", String.valueOf(amount * 100));
+        params.put("vnp_ResponseCode", responseCode);
+        params.put("vnp_TransactionStatus", responseCode);
+        params.put("vnp_TransactionNo", "VNP-" + txnRef);
+        params.put("vnp_BankCode", "NCB");
+        params.put("vnp_PayDate", "20240115103000");
+        params.put("vnp_SecureHash", VNPayUtils.hmacSHA512(vnPayProperties.getHashSecret(),
+                VNPayUtils.buildQueryString(VNPayUtils.sortAndFilter(params))));
+        return params;
+    }
+
+    private PaymentTransaction ledger(String txnRef) {
+        return paymentTransactionRepository.findByTxnRef(txnRef).orElseThrow();
+    }
+
+    private List<String> claimState(Integer claimId) {
+        return jdbcTemplate.queryForObject("SELECT s.code, rc.customer_payment_status FROM claims c " +
+                        "JOIN claim_statuses s ON s.id = c.status_id " +
+                        "LEFT JOIN claim_repair_configurations rc ON rc.claim_id = c.id WHERE c.id = ?",
+                (rs, i) -> List.of(rs.getString(1), rs.getString(2)), claimId);
+    }
+}
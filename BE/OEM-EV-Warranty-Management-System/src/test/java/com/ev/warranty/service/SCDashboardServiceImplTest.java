@@ -12,12 +12,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class SCDashboardServiceImplTest {
@@ -30,11 +32,10 @@ class SCDashboardServiceImplTest {
 
     @Test
     void summary_shouldAggregateMetrics() {
-        given(claimRepository.findByStatusCode("OPEN")).willReturn(List.of(new com.ev.warranty.model.entity.Claim()));
-        given(claimRepository.findByStatusCode("IN_PROGRESS")).willReturn(List.of(new com.ev.warranty.model.entity.Claim()));
-        given(claimRepository.findClaimsPendingApproval()).willReturn(Collections.emptyList());
-        given(appointmentRepository.findTodayScheduledAppointments(any(LocalDateTime.class), any(LocalDateTime.class))).willReturn(List.of(new com.ev.warranty.model.entity.Appointment()));
-        given(workOrderRepository.findAll()).willReturn(List.of(new com.ev.warranty.model.entity.WorkOrder()));
+        given(claimRepository.countByStatusCodes(List.of("OPEN", "IN_PROGRESS"))).willReturn(2L);
+        given(claimRepository.countByStatusCodes(List.of("PENDING_APPROVAL"))).willReturn(0L);
+        given(appointmentRepository.countScheduled(any(LocalDateTime.class), any(LocalDateTime.class))).willReturn(1L);
+        given(workOrderRepository.countByEndTimeIsNull()).willReturn(1L);
 
         SCDashboardSummaryDTO summary = service.getSummaryForServiceCenter(null);
         assertThat(summary.getTotalActiveClaims()).isEqualTo(2);
@@ -42,5 +43,19 @@ class SCDashboardServiceImplTest {
         assertThat(summary.getTodayAppointments()).isEqualTo(1);
         assertThat(summary.getActiveWorkOrders()).isEqualTo(1);
     }
-}
 
+    @Test
+    void summary_withServiceCenter_shouldOnlyCountThatCenter() {
+        given(claimRepository.countByServiceCenterIdAndStatusCodes(7, List.of("OPEN", "IN_PROGRESS"))).willReturn(3L);
+        given(claimRepository.countByServiceCenterIdAndStatusCodes(7, List.of("PENDING_APPROVAL"))).willReturn(1L);
+        given(appointmentRepository.countScheduledForServiceCenter(eq(7), any(LocalDateTime.class), any(LocalDateTime.class))).willReturn(4L);
+        given(workOrderRepository.countByServiceCenterIdAndEndTimeIsNull(7)).willReturn(5L);
+
+        SCDashboardSummaryDTO summary = service.getSummaryForServiceCenter(7);
+        assertThat(summary.getTotalActiveClaims()).isEqualTo(3);
+        assertThat(summary.getPendingClaims()).isEqualTo(1);
+        assertThat(summary.getTodayAppointments()).isEqualTo(4);
+        assertThat(summary.getActiveWorkOrders()).isEqualTo(5);
+        verify(claimRepository, never()).countByStatusCodes(any());
+    }
+}
@@ -0,0 +1,202 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.model.dto.vehicle.Vehicle360DTO;
+import com.ev.warranty.model.entity.Claim;
+import com.ev.warranty.model.entity.ClaimStatus;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.Role;
+import com.ev.warranty.model.entity.ServiceCenter;
+import com.ev.warranty.model.entity.User;
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.model.entity.WorkOrder;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.ClaimStatusRepository;
+import com.ev.warranty.repository.CustomerRepository;
+import com.ev.warranty.repository.RoleRepository;
+import com.ev.warranty.repository.ServiceCenterRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.Vehicle360ViewRepository;
+import com.ev.warranty.repository.VehicleRepository;
+import com.ev.warranty.repository.WorkOrderRepository;
+import com.ev.warranty.security.CustomUserDetails;
+import com.ev.warranty.service.impl.ServiceCenterBackfill;
+import com.ev.warranty.service.inter.Vehicle360Service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filter service center trên H2 riêng: user SC chỉ thấy claim / work order của trung tâm mình qua các query
+ * repository có sẵn, EVM thấy tất cả, dòng cũ thiếu service_center_id được điền lúc khởi động.
+ */
+@SpringBootTest(classes = RunApplication.class, properties =
+        "spring.datasource.url=jdbc:h2:mem:scscope;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ServiceCenterScopeTest {
+
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    ServiceCenterRepository serviceCenterRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    VehicleRepository vehicleRepository;
+    @Autowired
+    ClaimStatusRepository claimStatusRepository;
+    @Autowired
+    ClaimRepository claimRepository;
+    @Autowired
+    WorkOrderRepository workOrderRepository;
+    @Autowired
+    ServiceCenterBackfill backfill;
+    @Autowired
+    Vehicle360Service vehicle360Service;
+    @Autowired
+    Vehicle360ViewRepository vehicle360ViewRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    int center1;
+    int center2;
+    User staffCenter1;
+    User staffCenter2;
+    User evm;
+    Customer customer;
+    ClaimStatus open;
+    Claim legacyClaim;
+
+    @BeforeAll
+    void seed() {
+        Role scStaff = roleRepository.save(Role.builder().roleName("SC_STAFF").build());
+        Role scTechnician = roleRepository.save(Role.builder().roleName("SC_TECHNICIAN").build());
+        Role evmStaff = roleRepository.save(Role.builder().roleName("EVM_STAFF").build());
+        center1 = serviceCenterRepository.save(ServiceCenter.builder().code("SC-SCOPE-1").name("Center 1").build()).getId();
+        center2 = serviceCenterRepository.save(ServiceCenter.builder().code("SC-SCOPE-2").name("Center 2").build()).getId();
+        staffCenter1 = user("scope_staff1", scStaff, center1);
+        staffCenter2 = user("scope_staff2", scStaff, center2);
+        evm = user("scope_evm", evmStaff, null);
+        User technician = user("scope_tech1", scTechnician, center1);
+
+        customer = customerRepository.save(Customer.builder().name("Scope customer").build());
+        open = claimStatusRepository.save(ClaimStatus.builder().code("OPEN").label("Open").build());
+        Claim a1 = claim("CLM-SC-1", customer, staffCenter1, open);
+        claim("CLM-SC-2", customer, staffCenter1, open);
+        Claim b1 = claim("CLM-SC-3", customer, staffCenter2, open);
+        workOrderRepository.save(WorkOrder.builder().claim(a1).technician(technician).startTime(LocalDateTime.now()).build());
+        workOrderRepository.save(WorkOrder.builder().claim(b1).technician(technician).startTime(LocalDateTime.now()).build());
+
+        // Dòng tạo trước khi có cột: service_center_id NULL, chỉ được thấy lại sau backfill
+        legacyClaim = claim("CLM-SC-4", customer, staffCenter2, open);
+        jdbcTemplate.update("UPDATE claims SET service_center_id = NULL WHERE id = ?", legacyClaim.getId());
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void newRows_shouldTakeServiceCenterFromCreatorOrClaim() {
+        assertThat(claimRepository.findByClaimNumber("CLM-SC-1").orElseThrow().getServiceCenterId()).isEqualTo(center1);
+        assertThat(claimRepository.findByClaimNumber("CLM-SC-3").orElseThrow().getServiceCenterId()).isEqualTo(center2);
+        // Work order theo claim, không theo technician
+        assertThat(workOrderRepository.findAll()).extracting(WorkOrder::getServiceCenterId).containsExactlyInAnyOrder(center1, center2);
+    }
+
+    @Test
+    void scUsers_shouldOnlySeeTheirOwnServiceCenter() {
+        backfill.backfill();
+
+        loginAs(staffCenter1);
+        assertThat(claimNumbers(claimRepository.findAll())).containsExactlyInAnyOrder("CLM-SC-1", "CLM-SC-2");
+        assertThat(claimRepository.findByStatusCode("OPEN")).hasSize(2);
+        assertThat(workOrderRepository.findAll()).hasSize(1);
+        assertThat(claimRepository.countByServiceCenterIdAndStatusCodes(center1, List.of("OPEN"))).isEqualTo(2);
+
+        loginAs(staffCenter2);
+        assertThat(claimNumbers(claimRepository.findAll())).containsExactlyInAnyOrder("CLM-SC-3", "CLM-SC-4");
+        // Filter đè lên điều kiện của query: hỏi trung tâm khác vẫn ra 0
+        assertThat(claimRepository.countByServiceCenterIdAndStatusCodes(center1, List.of("OPEN"))).isZero();
+
+        loginAs(evm);
+        assertThat(claimRepository.findAll()).hasSize(4);
+        assertThat(workOrderRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    void backfill_shouldFillMissingServiceCenterFromCreator() {
+        backfill.backfill();
+
+        assertThat(claimRepository.findById(legacyClaim.getId()).orElseThrow().getServiceCenterId()).isEqualTo(center2);
+    }
+
+    @Test
+    void vehicle360BuiltByScUser_shouldKeepClaimsOfEveryServiceCenter() throws Exception {
+        Vehicle shared = vehicleRepository.save(Vehicle.builder().vin("SCVIN360").licensePlate("SC-360")
+                .customer(customer).mileageKm(0).build());
+        List<Claim> claims = List.of(
+                claimRepository.save(Claim.builder().claimNumber("CLM-SC-360-1").vehicle(shared).customer(customer)
+                        .createdBy(staffCenter1).status(open).build()),
+                claimRepository.save(Claim.builder().claimNumber("CLM-SC-360-2").vehicle(shared).customer(customer)
+                        .createdBy(staffCenter2).status(open).build()));
+        try {
+            // Lần mở đầu tiên là của user trung tâm 1: view được dựng và lưu trong request của họ
+            loginAs(staffCenter1);
+            Vehicle360DTO built = vehicle360Service.getVehicle360(shared.getVin(), null);
+            SecurityContextHolder.clearContext();
+
+            assertThat(built.getClaims()).extracting(Vehicle360DTO.ClaimSummaryDTO::getClaimNumber)
+                    .containsExactlyInAnyOrder("CLM-SC-360-1", "CLM-SC-360-2");
+            Vehicle360DTO stored = objectMapper.readValue(
+                    vehicle360ViewRepository.findById(shared.getVin()).orElseThrow().getPayload(), Vehicle360DTO.class);
+            assertThat(stored.getSummary().getTotalClaims()).isEqualTo(2);
+        } finally {
+            // Không để claim của test này lọt vào các đếm claim ở test khác
+            SecurityContextHolder.clearContext();
+            vehicle360ViewRepository.deleteById(shared.getVin());
+            claimRepository.deleteAll(claims);
+        }
+    }
+
+    private void loginAs(User user) {
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private User user(String username, Role role, Integer serviceCenterId) {
+        return userRepository.save(User.builder().username(username).email(username + "@example.com")
+                .passwordHash("x").role(role).serviceCenterId(serviceCenterId).build());
+    }
+
+    private Claim claim(String number, Customer customer, User createdBy, ClaimStatus status) {
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder().vin("SCVIN" + number).licensePlate("SC-" + number)
+                .customer(customer).mileageKm(0).build());
+        return claimRepository.save(Claim.builder().claimNumber(number).vehicle(vehicle).customer(customer)
+                .createdBy(createdBy).status(status).build());
+    }
+
+    private static List<String> claimNumbers(List<Claim> claims) {
+        return claims.stream().map(Claim::getClaimNumber).toList();
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -47,7 +48,7 @@ class ShipmentServiceImplTest {
 
     @Test
     void getByClaim_shouldReturnMappedShipments_whenMappingExists() {
-        given(shipmentRepository.findByClaimId(1)).willReturn(List.of(mappedShipment));
+        given(shipmentRepository.findLinkedToClaim(1)).willReturn(List.of(mappedShipment));
 
         List<ShipmentDTO> result = shipmentService.getByClaim(1);
 
@@ -57,16 +58,13 @@ class ShipmentServiceImplTest {
     }
 
     @Test
-    void getByClaim_shouldFallbackToInTransit_whenNoMappingButReservationsExist() {
-        given(shipmentRepository.findByClaimId(2)).willReturn(List.of());
-        // non-empty reservations -> fallback will return in_transit list
-        given(stockReservationRepository.findByClaimId(2)).willReturn(List.of(new com.ev.warranty.model.entity.StockReservation()));
-        given(shipmentRepository.findByStatus("in_transit")).willReturn(List.of(mappedShipment));
+    void getByClaim_shouldNotListUnrelatedInTransitShipments_whenNothingIsLinked() {
+        given(shipmentRepository.findLinkedToClaim(2)).willReturn(List.of());
 
         List<ShipmentDTO> result = shipmentService.getByClaim(2);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getStatus()).isEqualTo("in_transit");
+        assertThat(result).isEmpty();
+        verify(shipmentRepository, never()).findByStatus("in_transit");
     }
 
     @Test
@@ -0,0 +1,85 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.model.entity.Inventory;
+import com.ev.warranty.model.entity.Part;
+import com.ev.warranty.model.entity.Warehouse;
+import com.ev.warranty.repository.InventoryRepository;
+import com.ev.warranty.repository.PartRepository;
+import com.ev.warranty.repository.WarehouseRepository;
+import com.ev.warranty.service.inter.StockAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Nhập kho lần đầu trên H2 riêng: nhiều lần nhập đồng thời cho cùng part tại một kho chỉ tạo một dòng tồn,
+ * và không lần nhập nào bị mất.
+ */
+@SpringBootTest(classes = RunApplication.class, properties =
+        "spring.datasource.url=jdbc:h2:mem:stockavailability;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE")
+@ActiveProfiles("test")
+class StockAvailabilityServiceTest {
+
+    private static final int RECEIPTS = 4;
+
+    @Autowired
+    StockAvailabilityService stockAvailabilityService;
+    @Autowired
+    InventoryRepository inventoryRepository;
+    @Autowired
+    PartRepository partRepository;
+    @Autowired
+    WarehouseRepository warehouseRepository;
+
+    @Test
+    void concurrentFirstReceipts_shouldShareOneInventoryRow() throws Exception {
+        Part part = partRepository.save(Part.builder().partNumber("STOCK-RACE-1").name("Race part").build());
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder().name("Race warehouse").build());
+        CyclicBarrier start = new CyclicBarrier(RECEIPTS);
+
+        List<Future<Inventory>> receipts = new ArrayList<>();
+        // Thread thường: H2 chờ khóa trong synchronized, virtual thread sẽ giữ carrier duy nhất khi chạy 1 CPU
+        try (ExecutorService executor = Executors.newFixedThreadPool(RECEIPTS)) {
+            for (int i = 0; i < RECEIPTS; i++) {
+                receipts.add(executor.submit(() -> {
+                    start.await(10, TimeUnit.SECONDS);
+                    return stockAvailabilityService.receive(part, warehouse, 5, null);
+                }));
+            }
+            for (Future<Inventory> receipt : receipts) {
+                receipt.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        List<Inventory> rows = inventoryRepository.findAll().stream()
+                .filter(inventory -> inventory.getPart().getId().equals(part.getId()))
+                .toList();
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getCurrentStock()).isEqualTo(RECEIPTS * 5);
+        assertThat(rows.get(0).getAvailableStock()).isEqualTo(RECEIPTS * 5);
+    }
+
+    @Test
+    void secondRowForSamePartAndWarehouse_shouldBeRejected() {
+        Part part = partRepository.save(Part.builder().partNumber("STOCK-DUP-1").name("Duplicate part").build());
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder().name("Duplicate warehouse").build());
+        stockAvailabilityService.receive(part, warehouse, 1, null);
+
+        assertThatThrownBy(() -> inventoryRepository.saveAndFlush(Inventory.builder().part(part).warehouse(warehouse).build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
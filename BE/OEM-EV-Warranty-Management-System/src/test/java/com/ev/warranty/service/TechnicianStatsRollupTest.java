@@ -0,0 +1,101 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.model.dto.technician.TechnicianLeaderboardEntryDto;
+import com.ev.warranty.model.entity.TechnicianDailyStats;
+import com.ev.warranty.repository.TechnicianDailyStatsRepository;
+import com.ev.warranty.repository.UserRepository;
+import com.ev.warranty.repository.WorkOrderRepository;
+import com.ev.warranty.service.impl.TechnicianServiceImpl;
+import com.ev.warranty.service.impl.TechnicianStatsRollup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TechnicianStatsRollupTest {
+
+    static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    WorkOrderRepository workOrderRepository;
+
+    @Mock
+    TechnicianDailyStatsRepository statsRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    ThreadPoolTaskExecutor workerExecutor;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_shouldReplaceDaysWithOneRowPerTechnicianAndDay() {
+        LocalDateTime start = DAY.atTime(9, 0);
+        given(workOrderRepository.findDailyStatsRows(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .willReturn(List.of(
+                        // đúng hạn: xong sau 1 ngày
+                        new Object[]{7, 1, start, start.plusDays(1), new BigDecimal("2.50"), 3L},
+                        // trễ hạn: xong sau 5 ngày
+                        new Object[]{7, 1, start, start.plusDays(5), new BigDecimal("4.00"), 0L},
+                        // chưa xong: không tính giờ công
+                        new Object[]{7, 1, start, null, new BigDecimal("1.00"), 1L},
+                        new Object[]{8, 2, start, start.plusHours(4), new BigDecimal("1.25"), 2L}));
+        TechnicianStatsRollup rollup = new TechnicianStatsRollup(workOrderRepository, statsRepository,
+                workerExecutor, transactionManager);
+
+        int written = rollup.rebuild(DAY, DAY, null);
+
+        verify(statsRepository).deleteByDateRange(DAY, DAY);
+        ArgumentCaptor<List<TechnicianDailyStats>> saved = ArgumentCaptor.forClass(List.class);
+        verify(statsRepository).saveAll(saved.capture());
+        assertThat(written).isEqualTo(2);
+        TechnicianDailyStats technician7 = saved.getValue().get(0);
+        assertThat(technician7.getTechnicianId()).isEqualTo(7);
+        assertThat(technician7.getServiceCenterId()).isEqualTo(1);
+        assertThat(technician7.getStatDate()).isEqualTo(DAY);
+        assertThat(technician7.getWorkOrders()).isEqualTo(3);
+        assertThat(technician7.getCompleted()).isEqualTo(2);
+        assertThat(technician7.getOnTime()).isEqualTo(1);
+        assertThat(technician7.getCompletionDays()).isEqualTo(6);
+        assertThat(technician7.getLaborHours()).isEqualByComparingTo("6.50");
+        assertThat(technician7.getPartsUsed()).isEqualTo(4);
+        assertThat(saved.getValue().get(1).getOnTime()).isEqualTo(1);
+    }
+
+    @Test
+    void leaderboard_shouldRankSummedRows_andDropTechniciansWithoutCompletionsForFastest() {
+        given(statsRepository.sumByTechnician(eq(1), any(), any())).willReturn(List.of(
+                new Object[]{7, "Tech A", 10L, 8L, 6L, 16L, new BigDecimal("20.00"), 5L},
+                new Object[]{8, "Tech B", 12L, 9L, 9L, 9L, new BigDecimal("15.00"), 2L},
+                new Object[]{9, "Tech C", 2L, 0L, 0L, 0L, BigDecimal.ZERO, 0L}));
+        TechnicianServiceImpl service = new TechnicianServiceImpl(userRepository, statsRepository);
+
+        List<TechnicianLeaderboardEntryDto> byCompleted = service.getLeaderboard(1, "2025-03-01", "2025-03-31", "completed", 2);
+        assertThat(byCompleted).extracting(TechnicianLeaderboardEntryDto::getTechnicianId).containsExactly(8, 7);
+        assertThat(byCompleted).extracting(TechnicianLeaderboardEntryDto::getRank).containsExactly(1, 2);
+
+        List<TechnicianLeaderboardEntryDto> fastest = service.getLeaderboard(1, null, null, "fastest", null);
+        assertThat(fastest).extracting(TechnicianLeaderboardEntryDto::getTechnicianId).containsExactly(8, 7);
+        assertThat(fastest.get(0).getAverageCompletionDays()).isEqualTo(1.0);
+        assertThat(fastest.get(1).getOnTimeCompletionRate()).isEqualTo(0.75);
+    }
+}
@@ -0,0 +1,181 @@
+package com.ev.warranty.service;
+
+import com.RunApplication;
+import com.ev.warranty.model.dto.part.VehiclePartsResponseDTO;
+import com.ev.warranty.model.dto.vehicle.Vehicle360DTO;
+import com.ev.warranty.model.dto.vehicle.VehicleResponseDTO;
+import com.ev.warranty.model.entity.Customer;
+import com.ev.warranty.model.entity.Vehicle;
+import com.ev.warranty.model.entity.Vehicle360View;
+import com.ev.warranty.repository.ArchivedClaimRepository;
+import com.ev.warranty.repository.ClaimRepository;
+import com.ev.warranty.repository.CustomerRepository;
+import com.ev.warranty.repository.Vehicle360ViewRepository;
+import com.ev.warranty.repository.VehicleRepository;
+import com.ev.warranty.service.impl.Vehicle360Projector;
+import com.ev.warranty.service.inter.PartSerialService;
+import com.ev.warranty.service.inter.RecallCampaignService;
+import com.ev.warranty.service.inter.ServiceHistoryService;
+import com.ev.warranty.service.inter.VehicleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vehicle 360 trên H2 riêng: hai lần đọc đầu tiên cùng lúc không làm request nào lỗi vì INSERT trùng VIN,
+ * và các xe thay đổi trong một transaction được phát thành một event bất biến sau commit.
+ */
+@SpringBootTest(classes = RunApplication.class, properties =
+        "spring.datasource.url=jdbc:h2:mem:vehicle360;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class Vehicle360ProjectorTest {
+
+    @Autowired
+    Vehicle360ViewRepository viewRepository;
+    @Autowired
+    VehicleRepository vehicleRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    ClaimRepository claimRepository;
+    @Autowired
+    ArchivedClaimRepository archivedClaimRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    @Qualifier("jobWorkerExecutor")
+    ThreadPoolTaskExecutor workerExecutor;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ConfigurableApplicationContext context;
+
+    Customer customer;
+
+    @BeforeAll
+    void seed() {
+        customer = customerRepository.save(Customer.builder().name("Vehicle 360 customer").build());
+    }
+
+    @Test
+    void concurrentFirstReads_shouldBothSucceedAndKeepOneView() throws Exception {
+        Vehicle vehicle = vehicle("V360RACE1");
+        // Cả hai lần dựng đều đã thấy "chưa có view" và chỉ INSERT khi commit, sau khi bên kia cũng đã đọc xong
+        CyclicBarrier bothCommitting = new CyclicBarrier(2);
+        AtomicInteger builds = new AtomicInteger();
+        RecallCampaignService recallCampaignService = Mockito.mock(RecallCampaignService.class);
+        when(recallCampaignService.getVehicleRecallNotifications(anyString())).thenAnswer(invocation -> {
+            if (builds.incrementAndGet() <= 2) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        try {
+                            bothCommitting.await(10, TimeUnit.SECONDS);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+            }
+            return List.of();
+        });
+        Vehicle360Projector projector = projector(recallCampaignService);
+
+        List<Vehicle360DTO> results;
+        // Thread thường: H2 chờ khóa trong synchronized, virtual thread sẽ giữ carrier duy nhất khi chạy 1 CPU
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            CompletableFuture<Vehicle360DTO> first = CompletableFuture.supplyAsync(() -> projector.refresh(vehicle.getVin()), executor);
+            CompletableFuture<Vehicle360DTO> second = CompletableFuture.supplyAsync(() -> projector.refresh(vehicle.getVin()), executor);
+            results = List.of(first.get(20, TimeUnit.SECONDS), second.get(20, TimeUnit.SECONDS));
+        }
+
+        // Bên thua dựng lại trên dòng vừa được INSERT
+        assertThat(results).extracting(Vehicle360DTO::getVersion).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(builds.get()).isEqualTo(3);
+        assertThat(viewRepository.findById(vehicle.getVin())).get()
+                .satisfies(view -> assertThat(view.getVersion()).isEqualTo(2L));
+    }
+
+    @Test
+    void vehiclesChangedInOneTransaction_shouldBePublishedAsOneImmutableEventAfterCommit() {
+        List<Vehicle> vehicles = List.of(vehicle("V360BATCH1"), vehicle("V360BATCH2"), vehicle("V360BATCH3"));
+        List<Vehicle360Projector.VehicleChangedEvent> events = new CopyOnWriteArrayList<>();
+        context.addApplicationListener(ApplicationListener.forPayload(payload -> {
+            if (payload instanceof Vehicle360Projector.VehicleChangedEvent event) {
+                events.add(event);
+            }
+        }));
+        Vehicle opened = vehicles.get(0);
+        viewRepository.save(Vehicle360View.builder().vin(opened.getVin()).vehicleId(opened.getId()).payload("{}")
+                .version(1L).refreshedAt(LocalDateTime.now()).build());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Vehicle vehicle : vehicles) {
+                vehicle.setMileageKm(1000);
+                vehicleRepository.saveAndFlush(vehicle);
+            }
+            assertThat(events).isEmpty();
+        });
+
+        assertThat(events).hasSize(1);
+        Vehicle360Projector.VehicleChangedEvent event = events.get(0);
+        assertThat(event.vehicleIds()).containsExactlyInAnyOrderElementsOf(vehicles.stream().map(Vehicle::getId).toList());
+        assertThatThrownBy(() -> event.vehicleIds().add(-1)).isInstanceOf(UnsupportedOperationException.class);
+        // Projector đã nhận event: view đang mở bị đánh dấu stale (hoặc đã được dựng lại nền)
+        assertThat(viewRepository.findById(opened.getVin())).get()
+                .satisfies(view -> assertThat(view.getStale() || view.getVersion() > 1).isTrue());
+    }
+
+    private Vehicle vehicle(String vin) {
+        return vehicleRepository.save(Vehicle.builder().vin(vin).licensePlate("P-" + vin)
+                .customer(customer).mileageKm(0).build());
+    }
+
+    private Vehicle360Projector projector(RecallCampaignService recallCampaignService) {
+        VehicleService vehicleService = Mockito.mock(VehicleService.class);
+        when(vehicleService.findByVin(anyString())).thenAnswer(invocation ->
+                Optional.of(VehicleResponseDTO.builder().vin(invocation.getArgument(0)).build()));
+        PartSerialService partSerialService = Mockito.mock(PartSerialService.class);
+        when(partSerialService.getVehicleInstalledParts(anyString()))
+                .thenReturn(VehiclePartsResponseDTO.builder().totalParts(0).build());
+        ServiceHistoryService serviceHistoryService = Mockito.mock(ServiceHistoryService.class);
+        when(serviceHistoryService.getServiceHistoryByVehicle(any())).thenReturn(List.of());
+        return new Vehicle360Projector(viewRepository, vehicleRepository, claimRepository, archivedClaimRepository,
+                vehicleService, partSerialService, serviceHistoryService, recallCampaignService, objectMapper,
+                workerExecutor, entityManager, transactionManager);
+    }
+}
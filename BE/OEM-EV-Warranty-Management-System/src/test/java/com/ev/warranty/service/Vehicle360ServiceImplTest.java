@@ -0,0 +1,98 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.exception.BadRequestException;
+import com.ev.warranty.model.dto.vehicle.Vehicle360DTO;
+import com.ev.warranty.model.dto.vehicle.VehicleResponseDTO;
+import com.ev.warranty.model.entity.Vehicle360View;
+import com.ev.warranty.repository.Vehicle360ViewRepository;
+import com.ev.warranty.service.impl.Vehicle360Projector;
+import com.ev.warranty.service.impl.Vehicle360ServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class Vehicle360ServiceImplTest {
+
+    static final String VIN = "VF8A1B2C3D4E56789";
+
+    @Mock
+    Vehicle360ViewRepository viewRepository;
+
+    @Mock
+    Vehicle360Projector projector;
+
+    @InjectMocks
+    Vehicle360ServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(service, "maxAgeMinutes", 60L);
+    }
+
+    @Test
+    void getVehicle360_shouldServeFreshView_andProjectRequestedSections() {
+        Vehicle360View view = view(false, LocalDateTime.now().minusMinutes(5));
+        given(viewRepository.findById(VIN)).willReturn(Optional.of(view));
+        given(projector.read(view)).willReturn(fullDto());
+
+        Vehicle360DTO dto = service.getVehicle360(VIN, List.of("claims,summary"));
+
+        assertThat(dto.getClaims()).hasSize(1);
+        assertThat(dto.getSummary()).isNotNull();
+        assertThat(dto.getVehicle()).isNull();
+        assertThat(dto.getRecalls()).isNull();
+        verify(projector, never()).refresh(any());
+    }
+
+    @Test
+    void getVehicle360_shouldRebuild_whenViewIsStaleOrMissing() {
+        given(viewRepository.findById(VIN)).willReturn(Optional.of(view(true, LocalDateTime.now())));
+        given(projector.refresh(VIN)).willReturn(fullDto());
+
+        Vehicle360DTO dto = service.getVehicle360(VIN, null);
+
+        assertThat(dto.getVehicle()).isNotNull();
+        assertThat(dto.getRecalls()).isEmpty();
+        verify(projector).refresh(VIN);
+    }
+
+    @Test
+    void getVehicle360_shouldRejectUnknownField() {
+        assertThatThrownBy(() -> service.getVehicle360(VIN, List.of("claims", "invoices")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static Vehicle360View view(boolean stale, LocalDateTime refreshedAt) {
+        return Vehicle360View.builder()
+                .vin(VIN).vehicleId(1).payload("{}").version(3L).stale(stale).refreshedAt(refreshedAt)
+                .build();
+    }
+
+    private static Vehicle360DTO fullDto() {
+        return Vehicle360DTO.builder()
+                .vin(VIN)
+                .version(3L)
+                .vehicle(VehicleResponseDTO.builder().id(1).vin(VIN).build())
+                .summary(Vehicle360DTO.SummaryDTO.builder().totalClaims(1).openClaims(1).build())
+                .claims(List.of(Vehicle360DTO.ClaimSummaryDTO.builder().id(10).statusCode("OPEN").build()))
+                .serviceHistory(List.of())
+                .recalls(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ev.warranty.service;
+
+import com.ev.warranty.httpcache.CatalogTable;
+import com.ev.warranty.httpcache.CatalogVersions;
+import com.ev.warranty.model.entity.PolicyRule;
+import com.ev.warranty.model.entity.WarrantyPolicy;
+import com.ev.warranty.repository.PolicyRuleRepository;
+import com.ev.warranty.repository.WarrantyPolicyRepository;
+import com.ev.warranty.service.impl.WarrantyPolicyRuleEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class WarrantyPolicyRuleEngineTest {
+
+    @Mock
+    PolicyRuleRepository policyRuleRepository;
+
+    @Mock
+    WarrantyPolicyRepository warrantyPolicyRepository;
+
+    @Mock
+    CatalogVersions catalogVersions;
+
+    WarrantyPolicyRuleEngine engine;
+
+    WarrantyPolicy policy;
+
+    @BeforeEach
+    void setup() {
+        engine = new WarrantyPolicyRuleEngine(policyRuleRepository, warrantyPolicyRepository, catalogVersions);
+        policy = WarrantyPolicy.builder()
+                .id(1)
+                .name("EV Standard")
+                .applicableModel("VF8")
+                .effectiveFrom(LocalDate.now().minusYears(1))
+                .status("active")
+                .createdAt(LocalDateTime.now().minusDays(10))
+                .build();
+    }
+
+    @Test
+    void decide_shouldSkipRule_whenConditionsDoNotHold() {
+        PolicyRule waterExcluded = rule(10, "Battery", 5,
+                "{\"all\":[{\"field\":\"failureConditions\",\"op\":\"not_contains\",\"value\":\"water\"}]}");
+        PolicyRule generic = rule(11, null, 0, null);
+        given(policyRuleRepository.findAllForActivePolicies()).willReturn(List.of(generic, waterExcluded));
+
+        Optional<WarrantyPolicyRuleEngine.PolicyDecision> dry = engine.decide("VF8", 2024, "Battery",
+                Map.of("failureConditions", "normal use"), LocalDate.now());
+        Optional<WarrantyPolicyRuleEngine.PolicyDecision> flooded = engine.decide("VF8", 2024, "Battery",
+                Map.of("failureConditions", "Water damage"), LocalDate.now());
+
+        assertThat(dry).isPresent();
+        assertThat(dry.get().rule().ruleId()).isEqualTo(10);
+        assertThat(flooded).isPresent();
+        assertThat(flooded.get().rule().ruleId()).isEqualTo(11);
+    }
+
+    @Test
+    void decide_shouldReturnEmpty_forOtherModel() {
+        given(policyRuleRepository.findAllForActivePolicies()).willReturn(List.of(rule(10, "Battery", 0, null)));
+
+        assertThat(engine.decide("VF5", 2024, "Battery", Map.of(), LocalDate.now())).isEmpty();
+    }
+
+    @Test
+    void onPoliciesChanged_shouldRecompileSnapshot() {
+        given(policyRuleRepository.findAllForActivePolicies())
+                .willReturn(List.of())
+                .willReturn(List.of(rule(10, "Motor", 0, null)));
+
+        assertThat(engine.decide("VF8", 2024, "Motor", Map.of(), LocalDate.now())).isEmpty();
+        engine.onPoliciesChanged(new WarrantyPolicyRuleEngine.PoliciesChangedEvent("rule added"));
+
+        assertThat(engine.decide("VF8", 2024, "Motor", Map.of(), LocalDate.now())).isPresent();
+        verify(policyRuleRepository, times(2)).findAllForActivePolicies();
+    }
+
+    @Test
+    void newerCatalogVersion_shouldRecompileSnapshotWrittenByAnotherNode() {
+        given(catalogVersions.version(CatalogTable.WARRANTY_POLICIES)).willReturn(3L, 3L, 3L, 4L, 4L);
+        given(policyRuleRepository.findAllForActivePolicies())
+                .willReturn(List.of())
+                .willReturn(List.of(rule(10, "Motor", 0, null)));
+
+        assertThat(engine.decide("VF8", 2024, "Motor", Map.of(), LocalDate.now())).isEmpty();
+        // Cùng phiên bản: dùng lại snapshot
+        assertThat(engine.decide("VF8", 2024, "Motor", Map.of(), LocalDate.now())).isEmpty();
+        // Node khác đã ghi rule (phiên bản tăng) dù node này không nhận PoliciesChangedEvent
+        assertThat(engine.decide("VF8", 2024, "Motor", Map.of(), LocalDate.now())).isPresent();
+
+        verify(policyRuleRepository, times(2)).findAllForActivePolicies();
+    }
+
+    @Test
+    void hasPolicyFor_shouldBeTrueForActivePolicyWithoutRules() {
+        given(warrantyPolicyRepository.findByStatus("active")).willReturn(List.of(policy));
+
+        assertThat(engine.hasPolicyFor("VF8", 2024, LocalDate.now())).isTrue();
+        assertThat(engine.decide("VF8", 2024, "Battery", Map.of(), LocalDate.now())).isEmpty();
+        assertThat(engine.hasPolicyFor("VF5", 2024, LocalDate.now())).isFalse();
+    }
+
+    private PolicyRule rule(int id, String category, int priority, String conditionsJson) {
+        return PolicyRule.builder()
+                .id(id)
+                .policy(policy)
+                .componentCategory(category)
+                .coverageType("time_km")
+                .maxYears(8)
+                .maxKm(160000)
+                .priority(priority)
+                .conditionsJson(conditionsJson)
+                .createdAt(LocalDateTime.now().minusDays(5))
+                .build();
+    }
+}